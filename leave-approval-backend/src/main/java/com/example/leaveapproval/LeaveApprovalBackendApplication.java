@@ -3,9 +3,11 @@ package com.example.leaveapproval;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.web.config.EnableSpringDataWebSupport; // <<--- 导入
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableSpringDataWebSupport(pageSerializationMode = EnableSpringDataWebSupport.PageSerializationMode.VIA_DTO) // <<--- 添加这行注解
+@EnableScheduling // 汇总表夜间对账等定时任务
 public class LeaveApprovalBackendApplication {
 
 	public static void main(String[] args) {
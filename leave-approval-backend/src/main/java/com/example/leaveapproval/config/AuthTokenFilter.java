@@ -33,7 +33,8 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = jwtUtils.parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
+            // 已由前面的过滤器认证（如 Prometheus 抓取令牌）时不再按 JWT 解析
+            if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null && jwtUtils.validateJwtToken(jwt)) {
                 String username = jwtUtils.getUsernameFromJwtToken(jwt);
 
                 UserDetails userDetails = userDetailsService.loadUserByUsername(username);
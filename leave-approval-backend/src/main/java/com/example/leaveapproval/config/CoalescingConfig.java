@@ -0,0 +1,35 @@
+package com.example.leaveapproval.config;
+
+import com.example.leaveapproval.service.coalescing.Coalesced;
+import com.example.leaveapproval.service.coalescing.RequestCoalescer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * 为 {@link Coalesced} 方法织入 {@link RequestCoalescer}。
+ * <p>
+ * 与 @Transactional 一样注册为基础设施 Advisor，由现有的自动代理创建器应用，不需要引入 AspectJ。
+ * 顺序在事务拦截器之前：等待合并结果的调用不开启事务，也就不占用数据库连接。
+ */
+@Configuration(proxyBeanMethods = false)
+public class CoalescingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescingAdvisor(ObjectProvider<RequestCoalescer> requestCoalescer) {
+        // 延迟获取：Advisor 在普通 Bean 之前创建，RequestCoalescer 依赖的 MeterRegistry 此时还不应初始化
+        MethodInterceptor interceptor = invocation -> requestCoalescer.getObject().invoke(invocation);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class), interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.leaveapproval.config;
+
+import com.example.leaveapproval.service.profiling.SqlStatementProfiler;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 用 datasource-proxy 包装连接池 DataSource：
+ * 每条语句的耗时交给 {@link SqlStatementProfiler} 统计，并以 DEBUG 级别输出到 SQL_LOGGER（替代 show-sql）。
+ * 代理实现了 {@link java.sql.Wrapper}，连接池指标和健康检查仍能拿到底层的 HikariDataSource。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    /** SQL 回显使用的日志名称，级别在 application.properties 中配置 */
+    public static final String SQL_LOGGER = "com.example.leaveapproval.sql";
+
+    // BeanPostProcessor 需要声明为 static，避免本配置类和监听器被过早初始化
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatementProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(profiler.getObject())
+                        .logQueryBySlf4j(SLF4JLogLevel.DEBUG, SQL_LOGGER)
+                        .build();
+            }
+        };
+    }
+}
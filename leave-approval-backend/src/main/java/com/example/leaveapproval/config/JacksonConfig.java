@@ -0,0 +1,44 @@
+package com.example.leaveapproval.config;
+
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * 全局 ObjectMapper 的补充配置。
+ * <p>
+ * {@link LeaveRequestViewDto} 声明了字段过滤器，列表接口按请求的 fields 参数为单次序列化指定过滤规则；
+ * 其他场景（详情缓存、导出、提交和审批接口的响应）没有指定时使用这里的默认过滤器，输出全部字段。
+ * <p>
+ * 除 JSON 外，所有接口还可以按 Accept 返回 CBOR 和 Smile（见 {@link ResponseFormat}），请求体同样支持这两种格式。
+ * 二进制格式的 ObjectMapper 由 Spring Boot 的 builder 创建，日期格式、模块和默认过滤器与 JSON 一致；
+ * Spring MVC 默认注册的同类转换器使用未定制的 ObjectMapper，这里的 Bean 会替换它们。
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer defaultPropertyFilters() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .setFailOnUnknownId(false));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+}
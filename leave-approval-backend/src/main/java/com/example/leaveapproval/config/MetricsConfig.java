@@ -0,0 +1,27 @@
+package com.example.leaveapproval.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标标签基数控制。
+ * <p>
+ * 业务计时器的标签都来自枚举，本身有界；这里为自动采集的指标设置上限：
+ * 未匹配路由的请求 uri 会退化为原始路径（如扫描器请求），Repository 方法数也随代码增长。
+ * 超过上限的新标签值直接丢弃该指标，而不是让 Prometheus 的时间序列无限增加。
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterFilter httpUriCardinalityLimit(@Value("${app.metrics.max-uri-tags:100}") int maxUriTags) {
+        return MeterFilter.maximumAllowableTags("http.server.requests", "uri", maxUriTags, MeterFilter.deny());
+    }
+
+    @Bean
+    public MeterFilter repositoryMethodCardinalityLimit(@Value("${app.metrics.max-repository-method-tags:300}") int maxMethodTags) {
+        return MeterFilter.maximumAllowableTags("spring.data.repository.invocations", "method", maxMethodTags, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.leaveapproval.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Prometheus 抓取认证：请求 /actuator/prometheus 时携带 "Authorization: Bearer &lt;app.metrics.scrape-token&gt;"
+ * 即以 {@link #SCRAPER_ROLE} 身份通过认证（Prometheus 的 authorization 配置可以直接发送固定令牌，无法使用会过期的 JWT）。
+ * 未配置令牌时不生效，该端点只有管理员可以访问。
+ * <p>
+ * 不注册为 Spring 组件（否则会同时作为普通 Servlet 过滤器注册），由 {@link SecurityConfig} 加入安全过滤器链。
+ */
+public class MetricsScrapeTokenFilter extends OncePerRequestFilter {
+
+    public static final String SCRAPER_ROLE = "METRICS_SCRAPER";
+
+    private static final String PROMETHEUS_PATH = "/actuator/prometheus";
+
+    private final byte[] expectedHeader;
+
+    public MetricsScrapeTokenFilter(String scrapeToken) {
+        this.expectedHeader = scrapeToken == null || scrapeToken.isBlank()
+                ? null
+                : ("Bearer " + scrapeToken).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return expectedHeader == null
+                || !PROMETHEUS_PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        // 按常量时间比较，避免通过响应时间逐字节猜测令牌
+        if (header != null && MessageDigest.isEqual(expectedHeader, header.getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                    "prometheus", null, List.of(new SimpleGrantedAuthority("ROLE_" + SCRAPER_ROLE))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
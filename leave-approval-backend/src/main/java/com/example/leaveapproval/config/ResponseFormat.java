@@ -0,0 +1,67 @@
+package com.example.leaveapproval.config;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+/**
+ * 接口支持的响应格式。内容协商由 Spring MVC 的消息转换器完成；
+ * 需要在协商之前区分格式的地方（ETag、缓存的 JSON 字节）用 {@link #negotiate} 按同样的规则判断。
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON, ""),
+    CBOR(MediaType.APPLICATION_CBOR, ".cbor"),
+    SMILE(new MediaType("application", "x-jackson-smile"), ".smile");
+
+    private final MediaType mediaType;
+    private final String etagSuffix;
+
+    ResponseFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return 追加在 ETag 后的后缀：同一资源的不同格式是不同的表示，ETag 不能相同。JSON 为空串，保持原有 ETag。
+     */
+    public String getEtagSuffix() {
+        return etagSuffix;
+    }
+
+    /**
+     * 按 Accept 选择格式：取质量值最高的媒体类型（相同时取先出现的），明确为 CBOR / Smile 时使用二进制格式，
+     * 其余情况（未指定、通配符、JSON、无法解析）一律为 JSON。
+     * @param accept Accept 请求头，可以为 null。
+     */
+    public static ResponseFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MediaType preferred = null;
+        for (MediaType mediaType : mediaTypes) {
+            if (preferred == null || mediaType.getQualityValue() > preferred.getQualityValue()) {
+                preferred = mediaType;
+            }
+        }
+        if (preferred != null) {
+            for (ResponseFormat format : values()) {
+                if (format != JSON && format.mediaType.equalsTypeAndSubtype(preferred)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.leaveapproval.config;
 
 import com.example.leaveapproval.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,6 +32,9 @@ public class SecurityConfig {
     @Autowired
     private AuthTokenFilter authTokenFilter; // 注入JWT过滤器
 
+    @Value("${app.metrics.scrape-token:}")
+    private String metricsScrapeToken;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -56,9 +61,15 @@ public class SecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // 异步响应（如流式导出）完成后的 ASYNC 分派及错误分派不再重复鉴权，原始请求已通过授权
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/test/all").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                // 健康检查不携带 JWT；Prometheus 抓取使用固定令牌（见 MetricsScrapeTokenFilter）；其余 Actuator 端点仅管理员可访问
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/prometheus").hasAnyRole(MetricsScrapeTokenFilter.SCRAPER_ROLE, "ADMIN")
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // 对于其他角色，你可以在 Controller 方法上使用 @PreAuthorize("hasRole('EMPLOYEE')") 等
                 .anyRequest().authenticated()
             );
@@ -66,6 +77,7 @@ public class SecurityConfig {
         http.authenticationProvider(authenticationProvider()); // 设置自定义的 AuthenticationProvider
 
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class); // 添加JWT过滤器
+        http.addFilterBefore(new MetricsScrapeTokenFilter(metricsScrapeToken), AuthTokenFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,50 @@
+package com.example.leaveapproval.config;
+
+import com.example.leaveapproval.service.profiling.SqlStatementProfiler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * 按 HTTP 请求统计执行的 SQL 语句数，检测 N+1 查询。
+ * 排在 Spring Security 之前，JWT 过滤器加载用户的查询也计入该请求。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private final SqlStatementProfiler sqlStatementProfiler;
+
+    @Autowired
+    public SqlStatementCountFilter(SqlStatementProfiler sqlStatementProfiler) {
+        this.sqlStatementProfiler = sqlStatementProfiler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementProfiler.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            sqlStatementProfiler.endRequest(request.getMethod() + " " + resolveEndpoint(request));
+        }
+    }
+
+    /**
+     * 优先使用路由模板（/api/leave-requests/{id}），同一接口的告警不会因路径参数不同而分散。
+     */
+    private static String resolveEndpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
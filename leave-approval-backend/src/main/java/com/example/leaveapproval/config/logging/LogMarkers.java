@@ -0,0 +1,19 @@
+package com.example.leaveapproval.config.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * 日志标记。
+ */
+public final class LogMarkers {
+
+    /**
+     * 每个请求都可能重复出现、单条价值不高的 DEBUG/INFO 日志（例如管理员列表查询）。
+     * 带此标记的日志按类别由 {@link SamplingTurboFilter} 采样输出；WARN 及以上级别不采样，不要对告警使用此标记。
+     */
+    public static final Marker HIGH_VOLUME = MarkerFactory.getMarker("HIGH_VOLUME");
+
+    private LogMarkers() {
+    }
+}
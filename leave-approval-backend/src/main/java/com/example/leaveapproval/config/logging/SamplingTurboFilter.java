@@ -0,0 +1,49 @@
+package com.example.leaveapproval.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按类别（Logger 名称）对带指定标记的日志采样：每个类别每 keepOneIn 条只输出第一条。
+ * <p>
+ * TurboFilter 在日志事件创建之前执行，被丢弃的日志不会格式化消息，也不会进入异步队列。
+ * WARN 及以上级别（配置错误等告警不能被采样掉）和不带标记的日志不受影响。keepOneIn 为 1 时不采样。
+ * 在 logback-spring.xml 中配置：
+ * <pre>
+ * &lt;turboFilter class="com.example.leaveapproval.config.logging.SamplingTurboFilter"&gt;
+ *     &lt;marker&gt;HIGH_VOLUME&lt;/marker&gt;
+ *     &lt;keepOneIn&gt;20&lt;/keepOneIn&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private String marker = LogMarkers.HIGH_VOLUME.getName();
+    private int keepOneIn = 1;
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || keepOneIn <= 1 || eventMarker == null || level == null
+                || level.isGreaterOrEqual(Level.WARN) || !eventMarker.contains(marker)) {
+            return FilterReply.NEUTRAL;
+        }
+        long seen = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong()).getAndIncrement();
+        return seen % keepOneIn == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        this.keepOneIn = keepOneIn;
+    }
+}
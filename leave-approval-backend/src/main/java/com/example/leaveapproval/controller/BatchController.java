@@ -0,0 +1,47 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.dto.BatchRequestDto;
+import com.example.leaveapproval.dto.BatchResponseDto;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.batch.BatchOperationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    private final BatchOperationService batchOperationService;
+
+    @Autowired
+    public BatchController(BatchOperationService batchOperationService) {
+        this.batchOperationService = batchOperationService;
+    }
+
+    /**
+     * 内部辅助方法：获取当前认证的用户实体。
+     */
+    private User getCurrentAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof User)) {
+            throw new IllegalStateException("用户未登录或认证信息无效。请重新登录。");
+        }
+        return (User) authentication.getPrincipal();
+    }
+
+    /**
+     * 批量执行写操作（创建/更新用户、提交请假、审批），用于外部系统同步等需要大量小请求的场景。
+     * 批次本身总是返回 200，每个子操作的状态码和响应体在 results 中，与单独调用对应接口时相同。
+     */
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BatchResponseDto> executeBatch(@Valid @RequestBody BatchRequestDto request) {
+        return ResponseEntity.ok(batchOperationService.execute(request, getCurrentAuthenticatedUser()));
+    }
+}
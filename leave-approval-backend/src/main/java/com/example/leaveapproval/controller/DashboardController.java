@@ -0,0 +1,45 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.dto.DashboardDto;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.dashboard.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @Autowired
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * 内部辅助方法：获取当前认证的用户实体。
+     */
+    private User getCurrentAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof User)) {
+            throw new IllegalStateException("用户未登录或认证信息无效。请重新登录。");
+        }
+        return (User) authentication.getPrincipal();
+    }
+
+    /**
+     * 首页初始化数据：当前用户、我的申请和待我审批的第一页、可选经理、本年度假期余额，一次请求返回。
+     * 各部分并行加载，个别部分超时或失败时仍返回 200，对应字段为 null 并在 errors 中说明。
+     */
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<DashboardDto> getDashboard() {
+        return ResponseEntity.ok(dashboardService.getDashboard(getCurrentAuthenticatedUser()));
+    }
+}
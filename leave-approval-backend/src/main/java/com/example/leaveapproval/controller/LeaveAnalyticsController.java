@@ -0,0 +1,80 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.dto.ApprovalLatencyDto;
+import com.example.leaveapproval.dto.ApprovalTurnaroundDto;
+import com.example.leaveapproval.dto.LeaveDaysRollupDto;
+import com.example.leaveapproval.dto.MessageResponse;
+import com.example.leaveapproval.service.analytics.LeaveAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/analytics")
+@PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+public class LeaveAnalyticsController {
+
+    private final LeaveAnalyticsService leaveAnalyticsService;
+
+    @Autowired
+    public LeaveAnalyticsController(LeaveAnalyticsService leaveAnalyticsService) {
+        this.leaveAnalyticsService = leaveAnalyticsService;
+    }
+
+    /**
+     * 按月份、部门、请假类型统计已批准的请假天数（默认今年）。
+     */
+    @GetMapping("/leave-days")
+    public ResponseEntity<List<LeaveDaysRollupDto>> getLeaveDays(
+            @RequestParam(name = "year", required = false) Integer year,
+            @RequestParam(name = "department", required = false) String department) {
+        return ResponseEntity.ok(leaveAnalyticsService.getLeaveDays(year != null ? year : LocalDate.now().getYear(), department));
+    }
+
+    /**
+     * 按月份、审批节点统计审批处理时长（默认今年）。
+     */
+    @GetMapping("/approval-turnaround")
+    public ResponseEntity<List<ApprovalTurnaroundDto>> getApprovalTurnaround(
+            @RequestParam(name = "year", required = false) Integer year) {
+        return ResponseEntity.ok(leaveAnalyticsService.getApprovalTurnaround(year != null ? year : LocalDate.now().getYear()));
+    }
+
+    /**
+     * 管理员手动重建指定月份范围的汇总表。
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildRollups(
+            @RequestParam("from") @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam("to") @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        int months = leaveAnalyticsService.rebuildRollups(from, to);
+        return ResponseEntity.ok(new MessageResponse("Rebuilt rollups for " + months + " month(s)."));
+    }
+
+    /**
+     * 各审批节点停留时长的分位数（p50/p75/p90/p95/p99），用于定位审批流程瓶颈。
+     */
+    @GetMapping("/approval-latency")
+    public ResponseEntity<ApprovalLatencyDto> getApprovalLatency() {
+        return ResponseEntity.ok(leaveAnalyticsService.getApprovalLatency());
+    }
+
+    /**
+     * 管理员手动从审批历史回填审批时长直方图。
+     */
+    @PostMapping("/approval-latency/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> backfillApprovalLatency(
+            @RequestParam(name = "months", required = false) Integer months) {
+        int steps = leaveAnalyticsService.backfillApprovalLatency(months);
+        return ResponseEntity.ok(new MessageResponse("Backfilled " + steps + " approval step(s)."));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.dto.LeaveBalanceDto;
+import com.example.leaveapproval.dto.LeaveLedgerEntryDto;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.balance.LeaveBalanceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/leave-balances")
+public class LeaveBalanceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceController.class);
+
+    private final LeaveBalanceService leaveBalanceService;
+
+    @Autowired
+    public LeaveBalanceController(LeaveBalanceService leaveBalanceService) {
+        this.leaveBalanceService = leaveBalanceService;
+    }
+
+    private User getCurrentAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof User)) {
+            throw new IllegalStateException("用户未登录或认证信息无效。请重新登录。");
+        }
+        return (User) authentication.getPrincipal();
+    }
+
+    private static int yearOrCurrent(Integer year) {
+        return year != null ? year : LocalDate.now().getYear();
+    }
+
+    /**
+     * 当前用户在指定年度（默认今年）各请假类型的余额。
+     */
+    @GetMapping("/me")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<LeaveBalanceDto>> getMyBalances(@RequestParam(name = "year", required = false) Integer year) {
+        User currentUser = getCurrentAuthenticatedUser();
+        logger.debug("用户 {} 查询 {} 年度假期余额", currentUser.getUsername(), yearOrCurrent(year));
+        return ResponseEntity.ok(leaveBalanceService.getBalances(currentUser.getId(), yearOrCurrent(year)));
+    }
+
+    /**
+     * 当前用户某一请假类型的余额。
+     */
+    @GetMapping("/me/{leaveType}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<LeaveBalanceDto> getMyBalance(@PathVariable LeaveType leaveType,
+                                                        @RequestParam(name = "year", required = false) Integer year) {
+        User currentUser = getCurrentAuthenticatedUser();
+        return ResponseEntity.ok(leaveBalanceService.getBalance(currentUser.getId(), leaveType, yearOrCurrent(year)));
+    }
+
+    /**
+     * 当前用户在指定年度的假期流水明细。
+     */
+    @GetMapping("/me/ledger")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<LeaveLedgerEntryDto>> getMyLedger(@RequestParam(name = "year", required = false) Integer year) {
+        User currentUser = getCurrentAuthenticatedUser();
+        return ResponseEntity.ok(leaveBalanceService.getLedgerEntries(currentUser.getId(), yearOrCurrent(year)));
+    }
+
+    /**
+     * HR 或管理员查询指定用户的余额。
+     */
+    @GetMapping("/users/{userId}")
+    @PreAuthorize("hasAnyRole('HR', 'ADMIN')")
+    public ResponseEntity<List<LeaveBalanceDto>> getUserBalances(@PathVariable Long userId,
+                                                                 @RequestParam(name = "year", required = false) Integer year) {
+        logger.info("用户 {} 查询用户ID {} 的 {} 年度假期余额", getCurrentAuthenticatedUser().getUsername(), userId, yearOrCurrent(year));
+        return ResponseEntity.ok(leaveBalanceService.getBalances(userId, yearOrCurrent(year)));
+    }
+}
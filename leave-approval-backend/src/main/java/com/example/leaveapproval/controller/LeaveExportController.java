@@ -0,0 +1,69 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.service.export.LeaveExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin/leave-requests")
+@PreAuthorize("hasRole('ADMIN')")
+public class LeaveExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveExportController.class);
+
+    private final LeaveExportService leaveExportService;
+
+    @Autowired
+    public LeaveExportController(LeaveExportService leaveExportService) {
+        this.leaveExportService = leaveExportService;
+    }
+
+    /**
+     * 流式导出请假申请（CSV 或 JSON），可选 gzip 压缩。
+     * 响应体在异步线程中边查询边写出，不会把结果整体加载到内存。
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLeaveRequests(
+            @RequestParam(name = "status", required = false) LeaveStatus status,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(name = "department", required = false) String department,
+            @RequestParam(name = "format", defaultValue = "CSV") LeaveExportService.Format format,
+            @RequestParam(name = "gzip", defaultValue = "false") boolean gzip) {
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("'to' date cannot be before 'from' date.");
+        }
+        String filename = "leave-requests." + format.getExtension() + (gzip ? ".gz" : "");
+        logger.info("管理员导出请假数据：{}", filename);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                leaveExportService.export(status, fromDate, toDate, department, format, gzipStream);
+                gzipStream.finish();
+            } else {
+                leaveExportService.export(status, fromDate, toDate, department, format, outputStream);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .body(body);
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.leaveapproval.controller;
 
+import com.example.leaveapproval.config.ResponseFormat;
 import com.example.leaveapproval.dto.ApprovalActionDto;
 import com.example.leaveapproval.dto.LeaveRequestCreateDto;
 import com.example.leaveapproval.dto.LeaveRequestViewDto;
 import com.example.leaveapproval.model.LeaveStatus;
 import com.example.leaveapproval.model.Role; // <<--- 导入 Role 枚举
 import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.idempotency.IdempotencyService;
 import com.example.leaveapproval.service.leave.LeaveRequestManagementService;
+import com.example.leaveapproval.service.leave.view.LeaveChangeTokens;
+import com.example.leaveapproval.service.leave.view.LeaveRequestFields;
+import com.example.leaveapproval.service.leave.view.LeaveRequestPageNormalizer;
+import com.example.leaveapproval.service.leave.view.LeaveRequestViewCache;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,13 +21,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Objects;
 import java.util.Optional;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -32,10 +43,22 @@ public class LeaveRequestController {
     private static final Logger logger = LoggerFactory.getLogger(LeaveRequestController.class);
 
     private final LeaveRequestManagementService leaveRequestManagementService;
+    private final LeaveRequestViewCache leaveRequestViewCache;
+    private final LeaveChangeTokens leaveChangeTokens;
+    private final LeaveRequestPageNormalizer leaveRequestPageNormalizer;
+    private final IdempotencyService idempotencyService;
 
     @Autowired
-    public LeaveRequestController(LeaveRequestManagementService leaveRequestManagementService) {
+    public LeaveRequestController(LeaveRequestManagementService leaveRequestManagementService,
+                                  LeaveRequestViewCache leaveRequestViewCache,
+                                  LeaveChangeTokens leaveChangeTokens,
+                                  LeaveRequestPageNormalizer leaveRequestPageNormalizer,
+                                  IdempotencyService idempotencyService) {
         this.leaveRequestManagementService = leaveRequestManagementService;
+        this.leaveRequestViewCache = leaveRequestViewCache;
+        this.leaveChangeTokens = leaveChangeTokens;
+        this.leaveRequestPageNormalizer = leaveRequestPageNormalizer;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -51,16 +74,43 @@ public class LeaveRequestController {
         return (User) authentication.getPrincipal();
     }
 
+    /**
+     * 内部辅助方法：If-None-Match 是否匹配当前 ETag（弱比较）。匹配时应直接返回 304，不再加载数据。
+     */
+    private static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream().anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+    }
+
+    /**
+     * 内部辅助方法：列表的 ETag 由变更令牌、查询参数（分页、排序、状态、字段选择）和响应格式组成。
+     */
+    private static String listETag(String changeToken, Pageable pageable, LeaveStatus status, LeaveRequestFields fields,
+                                   ResponseFormat format) {
+        int query = Objects.hash(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString(), status,
+                fields.cacheKey());
+        return changeToken + "-" + Integer.toHexString(query) + format.getEtagSuffix();
+    }
+
     /**
      * 员工提交新的请假申请。
+     * 带 Idempotency-Key 请求头时，使用同一个键重试会返回首次提交的响应，不会重复创建申请（审批、取消接口相同）。
      */
     @PostMapping
     @PreAuthorize("isAuthenticated()") // 任何已认证用户都可以提交
-    public ResponseEntity<LeaveRequestViewDto> submitLeaveRequest(@Valid @RequestBody LeaveRequestCreateDto createDto) {
-        logger.info("用户 {} 正在提交新的请假申请...", getCurrentAuthenticatedUser().getUsername());
-        LeaveRequestViewDto createdLeaveRequest = leaveRequestManagementService.submitLeaveRequest(createDto);
-        logger.info("请假申请 (ID: {}) 已成功提交。", createdLeaveRequest.getId());
-        return new ResponseEntity<>(createdLeaveRequest, HttpStatus.CREATED);
+    public ResponseEntity<LeaveRequestViewDto> submitLeaveRequest(
+            @Valid @RequestBody LeaveRequestCreateDto createDto,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        User currentUser = getCurrentAuthenticatedUser();
+        return idempotencyService.execute(currentUser.getId(), idempotencyKey, "SUBMIT_LEAVE", createDto, LeaveRequestViewDto.class, () -> {
+            logger.info("用户 {} 正在提交新的请假申请...", currentUser.getUsername());
+            LeaveRequestViewDto createdLeaveRequest = leaveRequestManagementService.submitLeaveRequest(createDto);
+            logger.info("请假申请 (ID: {}) 已成功提交。", createdLeaveRequest.getId());
+            return new ResponseEntity<>(createdLeaveRequest, HttpStatus.CREATED);
+        });
     }
 
     /**
@@ -70,13 +120,17 @@ public class LeaveRequestController {
     @PreAuthorize("isAuthenticated()") // 确保用户已登录，具体权限在Service层校验
     public ResponseEntity<LeaveRequestViewDto> processApprovalAction(
             @PathVariable Long leaveRequestId,
-            @Valid @RequestBody ApprovalActionDto actionDto) {
+            @Valid @RequestBody ApprovalActionDto actionDto,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         User currentUser = getCurrentAuthenticatedUser();
-        logger.info("审批人 {} (ID: {}) 正在对请假申请ID {} 执行审批操作：{}",
-                currentUser.getUsername(), currentUser.getId(), leaveRequestId, actionDto.getDecision());
-        LeaveRequestViewDto updatedLeaveRequest = leaveRequestManagementService.processApprovalAction(leaveRequestId, actionDto, currentUser.getId());
-        logger.info("请假申请 (ID: {}) 的审批操作已处理完成，新状态：{}", updatedLeaveRequest.getId(), updatedLeaveRequest.getStatus());
-        return ResponseEntity.ok(updatedLeaveRequest);
+        return idempotencyService.execute(currentUser.getId(), idempotencyKey, "APPROVAL_ACTION:" + leaveRequestId, actionDto,
+                LeaveRequestViewDto.class, () -> {
+                    logger.info("审批人 {} (ID: {}) 正在对请假申请ID {} 执行审批操作：{}",
+                            currentUser.getUsername(), currentUser.getId(), leaveRequestId, actionDto.getDecision());
+                    LeaveRequestViewDto updatedLeaveRequest = leaveRequestManagementService.processApprovalAction(leaveRequestId, actionDto, currentUser.getId());
+                    logger.info("请假申请 (ID: {}) 的审批操作已处理完成，新状态：{}", updatedLeaveRequest.getId(), updatedLeaveRequest.getStatus());
+                    return ResponseEntity.ok(updatedLeaveRequest);
+                });
     }
 
     /**
@@ -84,70 +138,150 @@ public class LeaveRequestController {
      */
     @PostMapping("/{leaveRequestId}/cancel")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<LeaveRequestViewDto> cancelLeaveRequest(@PathVariable Long leaveRequestId) {
+    public ResponseEntity<LeaveRequestViewDto> cancelLeaveRequest(
+            @PathVariable Long leaveRequestId,
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         User currentUser = getCurrentAuthenticatedUser();
-        logger.info("用户 {} (ID: {}) 正在尝试取消请假申请ID {}", currentUser.getUsername(), currentUser.getId(), leaveRequestId);
-        LeaveRequestViewDto cancelledLeaveRequest = leaveRequestManagementService.cancelLeaveRequest(leaveRequestId, currentUser.getId());
-        logger.info("请假申请 (ID: {}) 已成功取消。", cancelledLeaveRequest.getId());
-        return ResponseEntity.ok(cancelledLeaveRequest);
+        return idempotencyService.execute(currentUser.getId(), idempotencyKey, "CANCEL_LEAVE:" + leaveRequestId, null,
+                LeaveRequestViewDto.class, () -> {
+                    logger.info("用户 {} (ID: {}) 正在尝试取消请假申请ID {}", currentUser.getUsername(), currentUser.getId(), leaveRequestId);
+                    LeaveRequestViewDto cancelledLeaveRequest = leaveRequestManagementService.cancelLeaveRequest(leaveRequestId, currentUser.getId());
+                    logger.info("请假申请 (ID: {}) 已成功取消。", cancelledLeaveRequest.getId());
+                    return ResponseEntity.ok(cancelledLeaveRequest);
+                });
     }
 
     /**
      * 根据ID获取请假申请的详细信息。
+     * 已结束（批准/驳回/取消）的申请直接返回缓存的 JSON 字节，见 {@link LeaveRequestViewCache}。
+     * 响应带 ETag；If-None-Match 匹配时只做一次版本查询（缓存命中时不查库）即返回 304。
+     * Accept 为 CBOR / Smile 时不使用 JSON 字节缓存，由消息转换器序列化，ETag 带格式后缀。
      */
     @GetMapping("/{leaveRequestId}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<LeaveRequestViewDto> getLeaveRequestDetails(@PathVariable Long leaveRequestId) {
+    public ResponseEntity<?> getLeaveRequestDetails(
+            @PathVariable Long leaveRequestId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
         User currentUser = getCurrentAuthenticatedUser();
         logger.debug("用户 {} 查询请假申请详情，ID: {}", currentUser.getUsername(), leaveRequestId);
+        ResponseFormat format = ResponseFormat.negotiate(accept);
+        LeaveRequestViewCache.CachedView cached = leaveRequestViewCache.get(leaveRequestId);
+        if (cached != null) {
+            String etag = cached.etag() + format.getEtagSuffix();
+            if (isNotModified(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            if (format == ResponseFormat.JSON) {
+                return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT)
+                        .contentType(MediaType.APPLICATION_JSON).body(cached.json());
+            }
+        }
+        // 资料代数和缓存修改计数都要在加载之前读取
+        long profileGeneration = leaveChangeTokens.profileGeneration();
+        long stamp = leaveRequestViewCache.modificationStamp();
+        if (ifNoneMatch != null && cached == null) {
+            Optional<String> currentETag = leaveRequestManagementService.getLeaveRequestVersion(leaveRequestId)
+                    .map(version -> leaveChangeTokens.detailETag(version.getId(), version.getVersion(),
+                            version.getUpdatedAt(), profileGeneration) + format.getEtagSuffix());
+            if (currentETag.isPresent() && isNotModified(ifNoneMatch, currentETag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag.get()).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         // Service层可能需要根据currentUser和leaveRequestId做进一步权限判断
         Optional<LeaveRequestViewDto> leaveRequestOpt = leaveRequestManagementService.getLeaveRequestDetailsById(leaveRequestId);
+        if (format != ResponseFormat.JSON) {
+            return leaveRequestOpt
+                    .map(view -> ResponseEntity.ok()
+                            .eTag(leaveChangeTokens.detailETag(view.getId(), view.getVersion(), view.getUpdatedAt(),
+                                    profileGeneration) + format.getEtagSuffix())
+                            .varyBy(HttpHeaders.ACCEPT)
+                            .body(view))
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return leaveRequestOpt
-                .map(ResponseEntity::ok)
+                .map(view -> leaveRequestViewCache.serialize(view, stamp, profileGeneration))
+                .map(serialized -> ResponseEntity.ok().eTag(serialized.etag()).varyBy(HttpHeaders.ACCEPT)
+                        .contentType(MediaType.APPLICATION_JSON).body(serialized.json()))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * 内部辅助方法：按字段选择序列化列表，只输出请求的字段；规范化结构时附带去重后的用户表。
+     */
+    private MappingJacksonValue selectFields(Page<LeaveRequestViewDto> page, LeaveRequestFields fields) {
+        MappingJacksonValue body = new MappingJacksonValue(fields.isNormalized() ? leaveRequestPageNormalizer.normalize(page) : page);
+        body.setFilters(fields.toFilterProvider());
+        return body;
+    }
+
     /**
      * 获取当前登录用户提交的所有请假申请（分页）。
+     * 可用 fields（如 fields=id,status,startDate,endDate）只返回部分字段，include=history 附带审批历史；
+     * 两者都不传时返回含审批历史的完整视图。shape=normalized 时行内用户只保留ID，用户资料在 includes.users 中。
      */
     @GetMapping("/my-requests")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Page<LeaveRequestViewDto>> getMyLeaveRequests(
-            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+    public ResponseEntity<MappingJacksonValue> getMyLeaveRequests(
+            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(name = "fields", required = false) String fieldsParam,
+            @RequestParam(name = "include", required = false) String include,
+            @RequestParam(name = "shape", required = false) String shape,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
         User currentUser = getCurrentAuthenticatedUser();
+        LeaveRequestFields fields = LeaveRequestFields.parse(fieldsParam, include, shape);
+        // 令牌在查询之前读取：查询期间发生的流转会使下一次轮询不匹配，而不会被本次响应掩盖
+        String etag = listETag(leaveChangeTokens.userListToken(currentUser.getId()), pageable, null, fields,
+                ResponseFormat.negotiate(accept));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
         logger.debug("用户 {} (ID: {}) 查询我的请假申请列表，分页：{}", currentUser.getUsername(), currentUser.getId(), pageable);
-        Page<LeaveRequestViewDto> myRequests = leaveRequestManagementService.getMyLeaveRequests(currentUser.getId(), pageable);
-        return ResponseEntity.ok(myRequests);
+        Page<LeaveRequestViewDto> myRequests = leaveRequestManagementService.getMyLeaveRequests(currentUser.getId(), pageable, fields);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(selectFields(myRequests, fields));
     }
 
     /**
      * 获取待当前用户审批的请假申请列表（分页）。
      * 如果是 Admin 用户，则获取所有待审批的列表。
      * 其他审批角色，则获取指派给自己的待审批列表。
+     * fields / include / shape 参数与“我的申请”相同。
      */
     @GetMapping("/pending-approvals") // <<--- 修改了路径名，使其更通用
     @PreAuthorize("hasAnyRole('TEAM_LEAD', 'DEPT_MANAGER', 'HR', 'ADMIN')") // 确保只有这些角色能调用
-    public ResponseEntity<Page<LeaveRequestViewDto>> getVisiblePendingRequests(
+    public ResponseEntity<MappingJacksonValue> getVisiblePendingRequests(
             @RequestParam(name = "status", required = false) LeaveStatus status, // 可选的状态参数
-            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.ASC) Pageable pageable) {
+            @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(name = "fields", required = false) String fieldsParam,
+            @RequestParam(name = "include", required = false) String include,
+            @RequestParam(name = "shape", required = false) String shape,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
         User currentUser = getCurrentAuthenticatedUser();
+        LeaveRequestFields fields = LeaveRequestFields.parse(fieldsParam, include, shape);
         Page<LeaveRequestViewDto> pendingRequests;
 
         // 检查当前用户是否是 Admin
         boolean isAdmin = currentUser.getRoles().stream().anyMatch(role -> role.equals(Role.ROLE_ADMIN));
+        String etag = listETag(isAdmin ? leaveChangeTokens.allRequestsToken() : leaveChangeTokens.userListToken(currentUser.getId()),
+                pageable, status, fields, ResponseFormat.negotiate(accept));
+        if (isNotModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
 
         if (isAdmin) {
             // Admin 用户获取所有指定状态（或默认 PENDING_APPROVAL）的请假申请
             logger.info("Admin用户 {} (ID: {}) 查询所有状态为 '{}' 的待审批列表，分页：{}",
                     currentUser.getUsername(), currentUser.getId(), (status != null ? status : "默认(PENDING_APPROVAL)"), pageable);
-            pendingRequests = leaveRequestManagementService.adminGetAllPendingRequests(status, pageable);
+            pendingRequests = leaveRequestManagementService.adminGetAllPendingRequests(status, pageable, fields);
         } else {
             // 其他审批角色（TeamLead, DeptManager, HR）获取指派给自己的待审批列表
             logger.info("审批人 {} (ID: {}) 查询指派给自己的状态为 '{}' 的待审批列表，分页：{}",
                     currentUser.getUsername(), currentUser.getId(), (status != null ? status : "默认(PENDING_APPROVAL)"), pageable);
-            pendingRequests = leaveRequestManagementService.getPendingApprovalRequestsForUser(currentUser.getId(), status, pageable);
+            pendingRequests = leaveRequestManagementService.getPendingApprovalRequestsForUser(currentUser.getId(), status, pageable, fields);
         }
-        return ResponseEntity.ok(pendingRequests);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(selectFields(pendingRequests, fields));
     }
 
     // 如果之前有 /pending-my-approval 路径并且前端还在使用，可以保留它并重定向或让它也执行新逻辑，
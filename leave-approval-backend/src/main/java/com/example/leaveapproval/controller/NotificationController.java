@@ -0,0 +1,57 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.notification.LeaveNotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
+
+    private final LeaveNotificationService leaveNotificationService;
+
+    @Autowired
+    public NotificationController(LeaveNotificationService leaveNotificationService) {
+        this.leaveNotificationService = leaveNotificationService;
+    }
+
+    /**
+     * 内部辅助方法：获取当前认证的用户实体。
+     */
+    private User getCurrentAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof User)) {
+            throw new IllegalStateException("用户未登录或认证信息无效。请重新登录。");
+        }
+        return (User) authentication.getPrincipal();
+    }
+
+    /**
+     * 建立当前用户的 SSE 推送连接（事件类型见 {@link LeaveNotificationService}）。
+     * 浏览器的 EventSource 不能设置请求头，此接口也接受 access_token 查询参数传递 JWT。
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SseEmitter> stream() {
+        User currentUser = getCurrentAuthenticatedUser();
+        return leaveNotificationService.subscribe(currentUser.getId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> {
+                    logger.warn("用户 {} 的推送连接被拒绝：连接数已达上限。", currentUser.getUsername());
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.dto.MessageResponse;
+import com.example.leaveapproval.dto.SqlQueryProfileDto;
+import com.example.leaveapproval.service.profiling.ProfilingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/admin/profiling")
+@PreAuthorize("hasRole('ADMIN')")
+public class ProfilingController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingController.class);
+
+    private final ProfilingService profilingService;
+
+    @Autowired
+    public ProfilingController(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    /**
+     * 启动一次限时 JFR 录制，录制结束后返回 .jfr 文件（可用 JDK Mission Control 打开）。
+     * 请求在录制期间异步挂起，不占用 Servlet 线程。
+     */
+    @PostMapping("/recordings")
+    public CompletableFuture<ResponseEntity<Resource>> record(
+            @RequestParam(name = "durationSeconds", defaultValue = "60") long durationSeconds) {
+        logger.info("管理员请求 JFR 录制，时长 {} 秒。", durationSeconds);
+        return profilingService.startTimedRecording(Duration.ofSeconds(durationSeconds))
+                .thenApply(file -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .body(new FileSystemResource(file)));
+    }
+
+    /**
+     * 按总耗时列出执行最重的 SQL 语句（字面量已归一化为 ?），用于定位慢查询和高频查询。
+     */
+    @GetMapping("/sql/top-queries")
+    public ResponseEntity<SqlQueryProfileDto> getTopQueries(
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(profilingService.getTopQueries(limit));
+    }
+
+    /**
+     * 清空 SQL 语句执行统计（例如在压测前）。
+     */
+    @DeleteMapping("/sql/statistics")
+    public ResponseEntity<MessageResponse> resetQueryStatistics() {
+        profilingService.resetQueryStatistics();
+        return ResponseEntity.ok(new MessageResponse("SQL statement statistics reset."));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.dto.TeamCalendarMonthDto;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.teamcalendar.TeamCalendarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/team-calendar")
+public class TeamCalendarController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamCalendarController.class);
+
+    private final TeamCalendarService teamCalendarService;
+
+    @Autowired
+    public TeamCalendarController(TeamCalendarService teamCalendarService) {
+        this.teamCalendarService = teamCalendarService;
+    }
+
+    private User getCurrentAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof User)) {
+            throw new IllegalStateException("用户未登录或认证信息无效。请重新登录。");
+        }
+        return (User) authentication.getPrincipal();
+    }
+
+    /**
+     * 获取部门某月的请假热力图。
+     * HR 和管理员可查看任意部门；组长和部门经理只能查看本部门。
+     */
+    @GetMapping("/{department}/{month}")
+    @PreAuthorize("hasAnyRole('TEAM_LEAD', 'DEPT_MANAGER', 'HR', 'ADMIN')")
+    public ResponseEntity<TeamCalendarMonthDto> getDepartmentMonth(
+            @PathVariable String department,
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        User currentUser = getCurrentAuthenticatedUser();
+        boolean canViewAll = currentUser.getRoles().contains(Role.ROLE_HR) || currentUser.getRoles().contains(Role.ROLE_ADMIN);
+        if (!canViewAll && !department.equals(currentUser.getDepartment())) {
+            logger.warn("用户 {} 尝试查看非本部门 {} 的团队日历。", currentUser.getUsername(), department);
+            throw new AccessDeniedException("Only HR and administrators can view other departments.");
+        }
+        logger.debug("用户 {} 查看部门 {} {} 的团队日历", currentUser.getUsername(), department, month);
+        return ResponseEntity.ok(teamCalendarService.getMonth(department, month));
+    }
+}
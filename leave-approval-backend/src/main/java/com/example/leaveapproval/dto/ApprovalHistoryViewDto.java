@@ -1,6 +1,7 @@
 package com.example.leaveapproval.dto;
 
 import com.example.leaveapproval.model.ApprovalHistory; // 用于转换
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -11,19 +12,33 @@ import java.time.LocalDateTime;
 public class ApprovalHistoryViewDto {
 
     private Long id;
-    private UserDto approver; // 审批人信息
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserDto approver; // 审批人信息（规范化结构中为 null）
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long approverId; // 仅规范化结构中填充，用户资料见 includes.users
     private ApprovalHistory.Decision decision; // 审批决定 (APPROVED, REJECTED)
     private String comments;
     private LocalDateTime approvedAt;
 
     public static ApprovalHistoryViewDto fromEntity(ApprovalHistory approvalHistory) {
+        return fromEntity(approvalHistory, false);
+    }
+
+    /**
+     * @param approverIdOnly 为 true 时只填充审批人ID（规范化结构），不初始化审批人代理。
+     */
+    public static ApprovalHistoryViewDto fromEntity(ApprovalHistory approvalHistory, boolean approverIdOnly) {
         if (approvalHistory == null) {
             return null;
         }
         ApprovalHistoryViewDto dto = new ApprovalHistoryViewDto();
         dto.setId(approvalHistory.getId());
         if (approvalHistory.getApprover() != null) {
-            dto.setApprover(UserDto.fromEntity(approvalHistory.getApprover()));
+            if (approverIdOnly) {
+                dto.setApproverId(approvalHistory.getApprover().getId());
+            } else {
+                dto.setApprover(UserDto.fromEntity(approvalHistory.getApprover()));
+            }
         }
         dto.setDecision(approvalHistory.getDecision());
         dto.setComments(approvalHistory.getComments());
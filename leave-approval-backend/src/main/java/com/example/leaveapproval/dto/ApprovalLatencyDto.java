@@ -0,0 +1,50 @@
+package com.example.leaveapproval.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 各审批节点的停留时长分布（单位：秒）。
+ */
+@Data
+@NoArgsConstructor
+public class ApprovalLatencyDto {
+    private LocalDateTime coverageStart;  // 统计覆盖的最早审批时间
+    private List<Node> nodes;
+
+    @Data
+    @NoArgsConstructor
+    public static class Node {
+        private String approverNode;
+        private long count;
+        private long minSeconds;
+        private long meanSeconds;
+        private long p50Seconds;
+        private long p75Seconds;
+        private long p90Seconds;
+        private long p95Seconds;
+        private long p99Seconds;
+        private long maxSeconds;
+
+        public static Node fromHistogram(String approverNode, Histogram histogram) {
+            Node node = new Node();
+            node.setApproverNode(approverNode);
+            node.setCount(histogram.getTotalCount());
+            if (histogram.getTotalCount() > 0) {
+                node.setMinSeconds(histogram.getMinValue());
+                node.setMeanSeconds(Math.round(histogram.getMean()));
+                node.setP50Seconds(histogram.getValueAtPercentile(50));
+                node.setP75Seconds(histogram.getValueAtPercentile(75));
+                node.setP90Seconds(histogram.getValueAtPercentile(90));
+                node.setP95Seconds(histogram.getValueAtPercentile(95));
+                node.setP99Seconds(histogram.getValueAtPercentile(99));
+                node.setMaxSeconds(histogram.getMaxValue());
+            }
+            return node;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.leaveapproval.dto;
+
+import com.example.leaveapproval.model.ApprovalTurnaroundRollup;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ApprovalTurnaroundDto {
+    private String month;          // yyyy-MM
+    private String approverNode;
+    private long decisionCount;
+    private long averageSeconds;
+    private long maxSeconds;
+
+    public static ApprovalTurnaroundDto fromEntity(ApprovalTurnaroundRollup rollup) {
+        if (rollup == null) return null;
+        ApprovalTurnaroundDto dto = new ApprovalTurnaroundDto();
+        dto.setMonth(rollup.getPeriodMonth());
+        dto.setApproverNode(rollup.getApproverNode());
+        dto.setDecisionCount(rollup.getDecisionCount());
+        dto.setAverageSeconds(rollup.getDecisionCount() > 0 ? rollup.getTotalSeconds() / rollup.getDecisionCount() : 0);
+        dto.setMaxSeconds(rollup.getMaxSeconds());
+        return dto;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.leaveapproval.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量操作请求（/api/batch）：按顺序执行的一组子操作。
+ * <p>
+ * transactionGroupSize 控制事务分组：每连续 N 个子操作在同一个事务中执行，组内任一操作失败时整组回滚；
+ * 默认 1（每个操作独立提交），0 表示整个批次在一个事务中执行（全部成功或全部回滚）。
+ */
+@Data
+@NoArgsConstructor
+public class BatchRequestDto {
+
+    @NotEmpty(message = "Operations cannot be empty")
+    private List<@Valid @NotNull Operation> operations;
+
+    @Min(value = 0, message = "transactionGroupSize must not be negative")
+    private Integer transactionGroupSize = 1;
+
+    /**
+     * 子操作类型，对应的单个接口见各枚举值。
+     */
+    public enum OperationType {
+        CREATE_USER,     // POST /api/admin/users，body 为 AdminUserCreateRequest
+        UPDATE_USER,     // PUT /api/admin/users/{id}，body 为 UserUpdateRequest
+        SUBMIT_LEAVE,    // POST /api/leave-requests，body 为 LeaveRequestCreateDto
+        APPROVAL_ACTION  // POST /api/leave-requests/{id}/action，body 为 ApprovalActionDto
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Operation {
+
+        // 调用方自定义的标识，原样出现在对应的结果中
+        private String ref;
+
+        @NotNull(message = "Operation type cannot be null")
+        private OperationType op;
+
+        // 目标资源ID（UPDATE_USER 为用户ID，APPROVAL_ACTION 为请假申请ID）
+        private Long id;
+
+        // 与单个接口相同的请求体
+        private JsonNode body;
+    }
+}
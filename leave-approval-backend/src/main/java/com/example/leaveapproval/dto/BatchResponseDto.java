@@ -0,0 +1,31 @@
+package com.example.leaveapproval.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量操作结果：与请求中的子操作一一对应、顺序相同。
+ * <p>
+ * 每个结果的 status 和 body 与单独调用对应接口时的响应状态码和响应体相同；
+ * 因同组其他操作失败而回滚或未执行的操作，status 为 424（Failed Dependency）。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResponseDto {
+
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private int index;
+        private String ref;
+        private int status;
+        private Object body;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.leaveapproval.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.web.PagedModel;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 首页初始化数据（/api/dashboard）：前端首屏需要的各部分在一次请求中返回。
+ * <p>
+ * 各部分独立加载，超时或失败的部分为 null，并在 errors 中记录原因（键为部分名称，值为 timeout / error / rejected）；
+ * 不具备审批角色的用户 pendingApprovals 为 null，且不记入 errors。
+ */
+@Data
+@NoArgsConstructor
+public class DashboardDto {
+
+    public static final String CURRENT_USER = "currentUser";
+    public static final String MY_REQUESTS = "myRequests";
+    public static final String PENDING_APPROVALS = "pendingApprovals";
+    public static final String POTENTIAL_MANAGERS = "potentialManagers";
+    public static final String BALANCES = "balances";
+
+    private UserDto currentUser;
+    private PagedModel<LeaveRequestViewDto> myRequests;
+    private PagedModel<LeaveRequestViewDto> pendingApprovals;
+    private List<UserDto> potentialManagers;
+    private List<LeaveBalanceDto> balances;
+    private Map<String, String> errors = new LinkedHashMap<>();
+}
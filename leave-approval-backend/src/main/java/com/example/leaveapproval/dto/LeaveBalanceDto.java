@@ -0,0 +1,47 @@
+package com.example.leaveapproval.dto;
+
+import com.example.leaveapproval.model.LeaveBalance;
+import com.example.leaveapproval.model.LeaveType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class LeaveBalanceDto {
+    private Long userId;
+    private LeaveType leaveType;
+    private Integer year;
+    private Integer entitledDays;  // null 表示不限额度
+    private long usedDays;
+    private Long remainingDays;    // null 表示不限额度
+    private LocalDateTime updatedAt;
+
+    public static LeaveBalanceDto fromEntity(LeaveBalance balance) {
+        if (balance == null) return null;
+        LeaveBalanceDto dto = new LeaveBalanceDto();
+        dto.setUserId(balance.getUser().getId());
+        dto.setLeaveType(balance.getLeaveType());
+        dto.setYear(balance.getYear());
+        dto.setEntitledDays(balance.getEntitledDays());
+        dto.setUsedDays(balance.getUsedDays());
+        dto.setRemainingDays(balance.getRemainingDays());
+        dto.setUpdatedAt(balance.getUpdatedAt());
+        return dto;
+    }
+
+    /**
+     * 尚未产生任何流水时的余额：已用为 0，额度取当前配置。
+     */
+    public static LeaveBalanceDto unused(Long userId, LeaveType leaveType, int year, Integer entitledDays) {
+        LeaveBalanceDto dto = new LeaveBalanceDto();
+        dto.setUserId(userId);
+        dto.setLeaveType(leaveType);
+        dto.setYear(year);
+        dto.setEntitledDays(entitledDays);
+        dto.setUsedDays(0);
+        dto.setRemainingDays(entitledDays == null ? null : entitledDays.longValue());
+        return dto;
+    }
+}
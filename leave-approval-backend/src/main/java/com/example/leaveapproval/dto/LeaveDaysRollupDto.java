@@ -0,0 +1,27 @@
+package com.example.leaveapproval.dto;
+
+import com.example.leaveapproval.model.LeaveDaysRollup;
+import com.example.leaveapproval.model.LeaveType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class LeaveDaysRollupDto {
+    private String month;        // yyyy-MM
+    private String department;
+    private LeaveType leaveType;
+    private long approvedDays;
+    private long requestCount;
+
+    public static LeaveDaysRollupDto fromEntity(LeaveDaysRollup rollup) {
+        if (rollup == null) return null;
+        LeaveDaysRollupDto dto = new LeaveDaysRollupDto();
+        dto.setMonth(rollup.getPeriodMonth());
+        dto.setDepartment(rollup.getDepartment());
+        dto.setLeaveType(rollup.getLeaveType());
+        dto.setApprovedDays(rollup.getApprovedDays());
+        dto.setRequestCount(rollup.getRequestCount());
+        return dto;
+    }
+}
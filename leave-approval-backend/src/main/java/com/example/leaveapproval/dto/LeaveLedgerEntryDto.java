@@ -0,0 +1,33 @@
+package com.example.leaveapproval.dto;
+
+import com.example.leaveapproval.model.LeaveLedgerEntry;
+import com.example.leaveapproval.model.LeaveType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class LeaveLedgerEntryDto {
+    private Long id;
+    private Long leaveRequestId;
+    private LeaveType leaveType;
+    private Integer year;
+    private LeaveLedgerEntry.EntryType entryType;
+    private long days;
+    private LocalDateTime createdAt;
+
+    public static LeaveLedgerEntryDto fromEntity(LeaveLedgerEntry entry) {
+        if (entry == null) return null;
+        LeaveLedgerEntryDto dto = new LeaveLedgerEntryDto();
+        dto.setId(entry.getId());
+        dto.setLeaveRequestId(entry.getLeaveRequest().getId()); // 代理的 id 不会触发加载
+        dto.setLeaveType(entry.getLeaveType());
+        dto.setYear(entry.getYear());
+        dto.setEntryType(entry.getEntryType());
+        dto.setDays(entry.getDays());
+        dto.setCreatedAt(entry.getCreatedAt());
+        return dto;
+    }
+}
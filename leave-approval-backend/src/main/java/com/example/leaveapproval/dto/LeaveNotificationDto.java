@@ -0,0 +1,40 @@
+package com.example.leaveapproval.dto;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 推送给客户端的请假申请变化通知，只包含列表刷新所需的摘要字段，详情需要时再按 ID 查询。
+ */
+@Data
+@NoArgsConstructor
+public class LeaveNotificationDto {
+
+    private Long requestId;
+    private Long applicantId;
+    private LeaveType leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LeaveStatus status;
+    private Long currentApproverId; // 流转后的当前审批人 (可以为null)
+    private LocalDateTime occurredAt;
+
+    public static LeaveNotificationDto fromEvent(LeaveRequestTransitionEvent event) {
+        LeaveNotificationDto dto = new LeaveNotificationDto();
+        dto.setRequestId(event.getRequestId());
+        dto.setApplicantId(event.getApplicantId());
+        dto.setLeaveType(event.getLeaveType());
+        dto.setStartDate(event.getStartDate());
+        dto.setEndDate(event.getEndDate());
+        dto.setStatus(event.getToStatus());
+        dto.setCurrentApproverId(event.getCurrentApproverId());
+        dto.setOccurredAt(event.getOccurredAt());
+        return dto;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.leaveapproval.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.web.PagedModel;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 规范化结构的请假申请分页结果（shape=normalized）。
+ * <p>
+ * content 和 page 与普通分页结果相同；行内的用户只保留ID，
+ * 每个用户的资料在 includes.users 中只出现一次（键为用户ID）。
+ */
+@Data
+@NoArgsConstructor
+public class LeaveRequestPageDto {
+
+    private List<LeaveRequestViewDto> content;
+    private PagedModel.PageMetadata page;
+    private Includes includes;
+
+    @Data
+    @NoArgsConstructor
+    public static class Includes {
+        private Map<Long, UserDto> users;
+    }
+}
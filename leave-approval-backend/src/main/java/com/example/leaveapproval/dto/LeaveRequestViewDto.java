@@ -3,6 +3,10 @@ package com.example.leaveapproval.dto;
 import com.example.leaveapproval.model.LeaveRequest; // 用于转换
 import com.example.leaveapproval.model.LeaveStatus;
 import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.leave.view.LeaveRequestFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -12,54 +16,92 @@ import java.util.List; // 用于审批历史
 
 @Data
 @NoArgsConstructor
+@JsonFilter(LeaveRequestViewDto.FIELDS_FILTER)
 public class LeaveRequestViewDto {
 
+    /**
+     * 列表接口按 fields 参数过滤输出字段时使用的 Jackson 过滤器ID，未指定过滤器时输出全部字段。
+     */
+    public static final String FIELDS_FILTER = "leaveRequestFields";
+
     private Long id;
     private UserDto applicant; // 申请人信息 (复用之前创建的 UserDto)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long applicantId; // 仅规范化结构中填充，用户资料见 includes.users
     private LeaveType leaveType;
     private LocalDate startDate;
     private LocalDate endDate;
     private String reason;
     private LeaveStatus status;
     private UserDto currentApprover; // 当前审批人信息 (可以为null)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long currentApproverId; // 仅规范化结构中填充
     private String attachmentsPath;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-    private Long leaveDurationInDays; // 请假天数
+    private Long version; // 乐观锁版本号，每次状态流转递增
+    private Long leaveDurationInDays; // 请假天数（工作日，不含周末和法定节假日）
 
     private List<ApprovalHistoryViewDto> approvalHistory; // 审批历史记录
 
+    private List<String> warnings; // 本次操作的提示信息（例如在岗人数不足），没有时为 null
+
     /**
      * 从 LeaveRequest 实体转换为 LeaveRequestViewDto。
      * @param leaveRequest 实体对象。
+     * @param workingDayCalendar 用于计算请假天数（工作日）的日历服务。
+     * @return DTO 对象。
+     */
+    public static LeaveRequestViewDto fromEntity(com.example.leaveapproval.model.LeaveRequest leaveRequest,
+                                                 WorkingDayCalendarService workingDayCalendar) {
+        return fromEntity(leaveRequest, workingDayCalendar, LeaveRequestFields.ALL);
+    }
+
+    /**
+     * 从 LeaveRequest 实体转换为 LeaveRequestViewDto，只填充选中的用户信息。
+     * 未选中的申请人、当前审批人不会被访问，懒加载代理保持未初始化；
+     * 规范化结构只取外键ID，同样不会初始化代理。
+     * @param leaveRequest 实体对象。
+     * @param workingDayCalendar 用于计算请假天数（工作日）的日历服务。
+     * @param fields 字段选择。
      * @return DTO 对象。
      */
-    public static LeaveRequestViewDto fromEntity(com.example.leaveapproval.model.LeaveRequest leaveRequest) {
+    public static LeaveRequestViewDto fromEntity(LeaveRequest leaveRequest, WorkingDayCalendarService workingDayCalendar,
+                                                 LeaveRequestFields fields) {
         if (leaveRequest == null) {
             return null;
         }
         LeaveRequestViewDto dto = new LeaveRequestViewDto();
         dto.setId(leaveRequest.getId());
-        if (leaveRequest.getApplicant() != null) {
-            dto.setApplicant(UserDto.fromEntity(leaveRequest.getApplicant()));
+        if (fields.includes(LeaveRequestFields.APPLICANT) && leaveRequest.getApplicant() != null) {
+            if (fields.isNormalized()) {
+                dto.setApplicantId(leaveRequest.getApplicant().getId());
+            } else {
+                dto.setApplicant(UserDto.fromEntity(leaveRequest.getApplicant()));
+            }
         }
         dto.setLeaveType(leaveRequest.getLeaveType());
         dto.setStartDate(leaveRequest.getStartDate());
         dto.setEndDate(leaveRequest.getEndDate());
         dto.setReason(leaveRequest.getReason());
         dto.setStatus(leaveRequest.getStatusEnum()); // <<--- 修改这里
-        if (leaveRequest.getCurrentApprover() != null) {
-            dto.setCurrentApprover(UserDto.fromEntity(leaveRequest.getCurrentApprover()));
+        if (fields.includes(LeaveRequestFields.CURRENT_APPROVER) && leaveRequest.getCurrentApprover() != null) {
+            if (fields.isNormalized()) {
+                dto.setCurrentApproverId(leaveRequest.getCurrentApprover().getId());
+            } else {
+                dto.setCurrentApprover(UserDto.fromEntity(leaveRequest.getCurrentApprover()));
+            }
         }
         dto.setAttachmentsPath(leaveRequest.getAttachmentsPath());
         dto.setCreatedAt(leaveRequest.getCreatedAt());
         dto.setUpdatedAt(leaveRequest.getUpdatedAt());
-
-        if (leaveRequest.getStartDate() != null && leaveRequest.getEndDate() != null) {
-            dto.setLeaveDurationInDays(java.time.temporal.ChronoUnit.DAYS.between(leaveRequest.getStartDate(), leaveRequest.getEndDate()) + 1);
-        } else {
-            dto.setLeaveDurationInDays(0L);
+        dto.setVersion(leaveRequest.getVersion());
+        if (leaveRequest.getWarnings() != null && !leaveRequest.getWarnings().isEmpty()) {
+            dto.setWarnings(List.copyOf(leaveRequest.getWarnings()));
         }
+
+        // 日历按年预计算了前缀和，列表中逐行计算也是 O(1)
+        dto.setLeaveDurationInDays(workingDayCalendar.countWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate()));
         // approvalHistory 的填充在 Service 层
         return dto;
     }
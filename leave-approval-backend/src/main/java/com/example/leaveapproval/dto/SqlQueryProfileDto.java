@@ -0,0 +1,29 @@
+package com.example.leaveapproval.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 按归一化 SQL 汇总的语句执行统计（单位：毫秒，按纳秒计时，保留小数）。
+ */
+@Data
+@NoArgsConstructor
+public class SqlQueryProfileDto {
+    private LocalDateTime since;        // 统计开始时间（启动或上次清空）
+    private int trackedStatements;      // 当前统计的不同语句数
+    private List<Query> queries;
+
+    @Data
+    @NoArgsConstructor
+    public static class Query {
+        private String sql;
+        private long count;
+        private long failures;
+        private double totalMillis;
+        private double meanMillis;
+        private double maxMillis;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.leaveapproval.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 部门某月的请假热力图。
+ */
+@Data
+@NoArgsConstructor
+public class TeamCalendarMonthDto {
+    private String department;
+    private String month;                 // yyyy-MM
+    private long headcount;               // 部门启用用户数
+    private List<Day> days;
+    private Map<Long, String> members;    // 当月出现过请假的用户ID -> 姓名
+
+    @Data
+    @NoArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private boolean workingDay;
+        private int absentCount;
+        private List<Long> absentUserIds;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.leaveapproval.event;
+
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 请假申请状态流转事件。
+ * 在申请提交、审批（批准/驳回/流转至下一审批人）和取消后发布，
+ * 供缓存、索引等需要随状态变化增量更新的组件订阅。
+ * <p>
+ * 事件只携带快照字段而不持有实体本身，因此可以安全地在事务提交后
+ * （{@code @TransactionalEventListener(phase = AFTER_COMMIT)}）处理，不会触发懒加载。
+ */
+@Getter
+@ToString
+public class LeaveRequestTransitionEvent {
+
+    private final Long requestId;
+    private final Long applicantId;
+    private final String applicantDepartment;    // 流转时申请人所在部门，可为 null
+    private final String approvedDepartment;     // 最终批准时记录的申请人部门，从未批准过时为 null
+    private final LeaveType leaveType;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final LeaveStatus fromStatus;       // 提交时为 null
+    private final LeaveStatus toStatus;
+    private final Long previousApproverId;      // 流转前的当前审批人，可为 null
+    private final Long currentApproverId;       // 流转后的当前审批人，可为 null
+    private final Long actorId;                 // 触发本次流转的用户
+    private final String approverNode;          // 审批操作时处理的审批节点，提交/取消时为 null
+    private final LocalDateTime nodeEnteredAt;  // 申请进入该审批节点的时间，提交/取消时为 null
+    private final LocalDateTime occurredAt;
+
+    private LeaveRequestTransitionEvent(LeaveRequest leaveRequest, LeaveStatus fromStatus,
+                                        Long previousApproverId, Long actorId,
+                                        String approverNode, LocalDateTime nodeEnteredAt) {
+        this.requestId = leaveRequest.getId();
+        this.applicantId = leaveRequest.getApplicant() != null ? leaveRequest.getApplicant().getId() : null;
+        this.applicantDepartment = leaveRequest.getApplicant() != null ? leaveRequest.getApplicant().getDepartment() : null;
+        this.approvedDepartment = leaveRequest.getApprovedDepartment();
+        this.leaveType = leaveRequest.getLeaveType();
+        this.startDate = leaveRequest.getStartDate();
+        this.endDate = leaveRequest.getEndDate();
+        this.fromStatus = fromStatus;
+        this.toStatus = leaveRequest.getStatusEnum();
+        this.previousApproverId = previousApproverId;
+        this.currentApproverId = leaveRequest.getCurrentApprover() != null ? leaveRequest.getCurrentApprover().getId() : null;
+        this.actorId = actorId;
+        this.approverNode = approverNode;
+        this.nodeEnteredAt = nodeEnteredAt;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    /**
+     * 根据流转后的请假申请创建事件。
+     * @param leaveRequest       已完成状态变更的请假申请。
+     * @param fromStatus         变更前的状态（提交时为 null）。
+     * @param previousApproverId 变更前的当前审批人ID。
+     * @param actorId            执行操作的用户ID。
+     * @return 事件对象。
+     */
+    public static LeaveRequestTransitionEvent of(LeaveRequest leaveRequest, LeaveStatus fromStatus,
+                                                 Long previousApproverId, Long actorId) {
+        return new LeaveRequestTransitionEvent(leaveRequest, fromStatus, previousApproverId, actorId, null, null);
+    }
+
+    /**
+     * 根据审批节点处理后的请假申请创建事件，附带该节点的处理信息。
+     * @param leaveRequest       已完成状态变更的请假申请。
+     * @param fromStatus         变更前的状态。
+     * @param previousApproverId 变更前的当前审批人ID。
+     * @param actorId            执行操作的用户ID。
+     * @param approverNode       处理本次操作的审批节点名称。
+     * @param nodeEnteredAt      申请进入该节点的时间（用于计算节点停留时长）。
+     * @return 事件对象。
+     */
+    public static LeaveRequestTransitionEvent ofApprovalStep(LeaveRequest leaveRequest, LeaveStatus fromStatus,
+                                                             Long previousApproverId, Long actorId,
+                                                             String approverNode, LocalDateTime nodeEnteredAt) {
+        return new LeaveRequestTransitionEvent(leaveRequest, fromStatus, previousApproverId, actorId, approverNode, nodeEnteredAt);
+    }
+
+    /**
+     * @return 状态是否发生了变化（例如仅流转到下一审批人时，状态仍为 PENDING_APPROVAL）。
+     */
+    public boolean isStatusChanged() {
+        return fromStatus != toStatus;
+    }
+}
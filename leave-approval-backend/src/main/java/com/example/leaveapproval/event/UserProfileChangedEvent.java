@@ -0,0 +1,26 @@
+package com.example.leaveapproval.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 用户资料变更事件。
+ * 在管理员更新或删除用户后发布，供缓存了用户信息（例如请假申请视图中的申请人、审批人）的组件失效相关数据。
+ * 按部门缓存的组件（部门请假位图、部门在岗人数索引）根据变更前后的部门失效，二者相同表示部门未变。
+ */
+@Getter
+@ToString
+public class UserProfileChangedEvent {
+
+    private final Long userId;
+    private final boolean deleted;
+    private final String previousDepartment;
+    private final String department;
+
+    public UserProfileChangedEvent(Long userId, boolean deleted, String previousDepartment, String department) {
+        this.userId = userId;
+        this.deleted = deleted;
+        this.previousDepartment = previousDepartment;
+        this.department = department;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.leaveapproval.exception;
 
 import com.example.leaveapproval.dto.MessageResponse;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -35,6 +36,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(messageResponse, HttpStatus.CONFLICT); // 409 Conflict
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MessageResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+        // 并发修改同一请假申请（例如审批与取消同时提交），后提交的一方失败，重新获取后再操作即可
+        MessageResponse messageResponse = new MessageResponse("The resource was modified concurrently. Please reload and try again.");
+        return new ResponseEntity<>(messageResponse, HttpStatus.CONFLICT); // 409 Conflict
+    }
+
+    @ExceptionHandler(StaffingConstraintViolationException.class)
+    public ResponseEntity<MessageResponse> handleStaffingConstraintViolationException(StaffingConstraintViolationException ex, WebRequest request) {
+        MessageResponse messageResponse = new MessageResponse(ex.getMessage());
+        return new ResponseEntity<>(messageResponse, HttpStatus.CONFLICT); // 409 Conflict
+    }
+
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<MessageResponse> handleIdempotencyKeyConflictException(IdempotencyKeyConflictException ex, WebRequest request) {
+        MessageResponse messageResponse = new MessageResponse(ex.getMessage());
+        return new ResponseEntity<>(messageResponse, HttpStatus.CONFLICT); // 409 Conflict
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<MessageResponse> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
         MessageResponse messageResponse = new MessageResponse(ex.getMessage());
@@ -0,0 +1,11 @@
+package com.example.leaveapproval.exception;
+
+/**
+ * 使用同一个 Idempotency-Key 的另一个请求仍在处理中时抛出（映射为 409 Conflict），客户端稍后重试即可拿到原始响应。
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("A request with Idempotency-Key '" + idempotencyKey + "' is still being processed. Retry later.");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.leaveapproval.exception;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 批准请假会导致部门在岗人数低于配置的最低人数时抛出（映射为 409 Conflict）。
+ */
+public class StaffingConstraintViolationException extends RuntimeException {
+
+    private final String department;
+    private final List<LocalDate> understaffedDates;
+
+    public StaffingConstraintViolationException(String department, int minPresent, List<LocalDate> understaffedDates) {
+        super(String.format("Approving this request would leave department '%s' with fewer than %d people present on: %s",
+                department, minPresent, understaffedDates));
+        this.department = department;
+        this.understaffedDates = understaffedDates;
+    }
+
+    public String getDepartment() {
+        return department;
+    }
+
+    public List<LocalDate> getUnderstaffedDates() {
+        return understaffedDates;
+    }
+}
@@ -34,6 +34,10 @@ public class ApprovalHistory {
     @Column(columnDefinition = "TEXT")
     private String comments; // 审批意见
 
+    // 处理该步骤的审批节点（TeamLeadApprover / DeptManagerApprover / HRApprover / AdminOverride），用于统计各节点耗时
+    @Column(name = "approver_node", length = 50)
+    private String approverNode;
+
     @CreationTimestamp
     @Column(name = "approved_at", updatable = false)
     private LocalDateTime approvedAt; // 审批操作时间
@@ -0,0 +1,44 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审批节点处理时长汇总：每个 (审批节点, 月份) 一行，月份按审批操作发生的时间计。
+ * 节点处理时长 = 审批操作时间 - 申请进入该节点的时间（提交时间或上一节点的审批时间）。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "approval_turnaround_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_approval_turnaround_rollup", columnNames = {"period_month", "approver_node"})
+})
+public class ApprovalTurnaroundRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_month", nullable = false, length = 7)
+    private String periodMonth; // yyyy-MM
+
+    @Column(name = "approver_node", nullable = false, length = 50)
+    private String approverNode;
+
+    @Column(name = "decision_count", nullable = false)
+    private long decisionCount;
+
+    @Column(name = "total_seconds", nullable = false)
+    private long totalSeconds;
+
+    @Column(name = "max_seconds", nullable = false)
+    private long maxSeconds;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
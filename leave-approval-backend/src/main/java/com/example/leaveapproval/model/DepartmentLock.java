@@ -0,0 +1,26 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 部门锁行：每个部门一行，用 SELECT ... FOR UPDATE 串行化同一部门的最终批准（最低在岗人数校验）。
+ * 行在第一次需要加锁时插入。
+ * <p>
+ * revision 是该部门已批准请假的修订号：请假进入或离开 APPROVED、用户换部门或被删除时，在持有本行锁的事务内加一。
+ * 内存中的每日请假人数索引记录自己对应的修订号，与本行一致时即为最新。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "department_locks")
+public class DepartmentLock {
+
+    @Id
+    @Column(nullable = false, length = 100)
+    private String department;
+
+    @Column(nullable = false)
+    private long revision;
+}
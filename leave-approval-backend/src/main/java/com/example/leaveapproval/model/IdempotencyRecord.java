@@ -0,0 +1,52 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 幂等键记录（只插入，不修改）：某个用户使用某个 Idempotency-Key 完成的写操作及其原始响应。
+ * 与写操作在同一个事务中插入；(user_id, idempotency_key) 唯一约束保证同一个键只有一次操作生效。
+ * 超过保留期的记录由定时任务删除。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_user_key", columnNames = {"user_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    // 操作名和请求体的 SHA-256，用于识别同一个键被用于不同的请求
+    @Column(name = "request_hash", nullable = false, length = 32)
+    private byte[] requestHash;
+
+    @Column(name = "response_status", nullable = false)
+    private int responseStatus;
+
+    // 原始响应体（JSON）
+    @Lob
+    @Column(name = "response_body", nullable = false)
+    private byte[] responseBody;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
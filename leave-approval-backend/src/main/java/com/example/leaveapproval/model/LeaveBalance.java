@@ -0,0 +1,55 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 假期余额（物化汇总行），每个 (用户, 请假类型, 年度) 一行。
+ * 由 {@link LeaveLedgerEntry} 流水在同一事务内增量维护，查询余额时只需读取这一行。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "leave_balances", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_leave_balance_user_type_year", columnNames = {"user_id", "leave_type", "balance_year"})
+})
+public class LeaveBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false, length = 50)
+    private LeaveType leaveType;
+
+    @Column(name = "balance_year", nullable = false)
+    private Integer year;
+
+    // 年度额度（工作日）；为 null 表示创建时该类型未配置额度：此时以当前配置为准，下次记账时写入，仍未配置则不限额度
+    @Column(name = "entitled_days")
+    private Integer entitledDays;
+
+    // 已用天数（工作日），等于该行对应的所有流水 days 之和
+    @Column(name = "used_days", nullable = false)
+    private long usedDays;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * @return 剩余天数；不限额度时为 null。
+     */
+    public Long getRemainingDays() {
+        return entitledDays == null ? null : entitledDays - usedDays;
+    }
+}
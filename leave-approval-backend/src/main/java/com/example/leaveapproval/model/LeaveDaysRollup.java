@@ -0,0 +1,50 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已批准请假天数汇总：每个 (部门, 请假类型, 月份) 一行。
+ * 跨月的请假按各月内的工作日分别计入。由状态流转增量更新，并由每晚的对账任务按月重建。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "leave_days_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_leave_days_rollup", columnNames = {"period_month", "department", "leave_type"})
+})
+public class LeaveDaysRollup {
+
+    /**
+     * 申请人没有部门时使用的部门名称。
+     */
+    public static final String NO_DEPARTMENT = "";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_month", nullable = false, length = 7)
+    private String periodMonth; // yyyy-MM
+
+    @Column(nullable = false, length = 100)
+    private String department;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false, length = 50)
+    private LeaveType leaveType;
+
+    @Column(name = "approved_days", nullable = false)
+    private long approvedDays; // 当月工作日合计
+
+    @Column(name = "request_count", nullable = false)
+    private long requestCount; // 当月有请假日的已批准申请数
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,63 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 假期流水（只追加，不修改）。
+ * 请假申请被最终批准时记一笔扣减（DEBIT），已批准的申请被取消时记一笔返还（CREDIT）。
+ * 跨年度的申请按年度拆分为多条流水。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "leave_ledger_entries", indexes = {
+        @Index(name = "idx_ledger_request", columnList = "request_id")
+})
+public class LeaveLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "request_id", nullable = false)
+    private LeaveRequest leaveRequest;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "leave_type", nullable = false, length = 50)
+    private LeaveType leaveType;
+
+    @Column(name = "balance_year", nullable = false)
+    private Integer year;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    // 对已用天数的影响（工作日）：DEBIT 为正数，CREDIT 为负数
+    @Column(nullable = false)
+    private long days;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 流水类型。
+     */
+    public enum EntryType {
+        DEBIT,  // 批准扣减
+        CREDIT  // 取消返还
+    }
+}
@@ -12,12 +12,16 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "leave_requests")
+@Table(name = "leave_requests", indexes = {
+        @Index(name = "idx_leave_applicant_dates", columnList = "applicant_id, start_date, end_date")
+})
 public class LeaveRequest {
 
     private static final Logger logger = LoggerFactory.getLogger(LeaveRequest.class);
@@ -57,6 +61,10 @@ public class LeaveRequest {
     @JoinColumn(name = "current_approver_id")
     private User currentApprover;
 
+    // 最终批准时申请人所在的部门，请假天数汇总按此归属（之后申请人换部门也不变）；从未批准过时为 null
+    @Column(name = "approved_department", length = 100)
+    private String approvedDepartment;
+
     @Column(name = "attachments_path", length = 255)
     private String attachmentsPath;
 
@@ -68,6 +76,15 @@ public class LeaveRequest {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // 乐观锁版本号：每次更新递增，并发审批/取消时后提交的一方失败；同时用于生成详情接口的 ETag
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // 本次操作产生的提示信息（例如批准后部门在岗人数不足），只随响应返回，不持久化
+    @Transient
+    private List<String> warnings = new ArrayList<>();
+
     /**
      * JPA回调方法：在实体从数据库加载完成后，根据持久化的 statusEnum 初始化 currentState。
      */
@@ -96,6 +113,9 @@ public class LeaveRequest {
         }
         this.statusEnum = newStatusEnum;
         this.currentState = mapStatusEnumToStateObject(newStatusEnum);
+        if (newStatusEnum == LeaveStatus.APPROVED && this.applicant != null) {
+            this.approvedDepartment = this.applicant.getDepartment();
+        }
         logger.debug("LeaveRequest ID {} 状态已更新为: {}, 当前状态对象: {}",
                 this.id, this.statusEnum, this.currentState.getClass().getSimpleName());
     }
@@ -0,0 +1,29 @@
+package com.example.leaveapproval.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时任务租约：每个任务一行。多实例部署时各实例的定时器都会触发，
+ * 只有把 locked_until 从过去推进到将来的实例执行本次任务，其余实例跳过。
+ * 行在第一次需要时插入；租约到期前不释放，避免时钟略有偏差的实例稍后重复执行。
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "scheduled_job_locks")
+public class ScheduledJobLock {
+
+    @Id
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_by", length = 255)
+    private String lockedBy;
+}
@@ -23,6 +23,8 @@ import java.util.stream.Collectors;
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(columnNames = "username"),
         @UniqueConstraint(columnNames = "email")
+}, indexes = {
+        @Index(name = "idx_users_department", columnList = "department")
 })
 public class User implements UserDetails { // 实现 UserDetails 接口以集成 Spring Security
 
@@ -7,6 +7,8 @@ import com.example.leaveapproval.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+
 public class ApprovedState implements LeaveState {
     private static final Logger logger = LoggerFactory.getLogger(ApprovedState.class);
     private static final ApprovedState INSTANCE = new ApprovedState();
@@ -33,15 +35,18 @@ public class ApprovedState implements LeaveState {
 
     @Override
     public void cancel(LeaveRequest context, User actionTakingUser) {
-        // 业务规则：已批准的申请是否允许取消？如果允许，可能需要特殊流程或权限。
-        // 简化：假设已批准的不能直接取消，或需要管理员操作。
-        String errorMsg = "操作不允许：请假申请 ID: " + context.getId() + " 已处于 APPROVED 状态，取消操作可能需要特殊权限或流程。";
-        logger.warn(errorMsg);
-        throw new IllegalStateException(errorMsg);
-        // 如果允许取消，则：
-        // context.setStatusEnumAndUpdateState(LeaveStatus.CANCELLED);
-        // context.setCurrentApprover(null);
-        // logger.info("已批准的请假申请 ID: {} 已被取消。", context.getId());
+        // 业务规则：已批准的申请只能在开始日期之前由申请人取消，取消后已扣减的假期余额会被返还。
+        if (!context.getApplicant().getId().equals(actionTakingUser.getId())) {
+            throw new IllegalStateException("只有申请人才能取消请假申请。");
+        }
+        if (!context.getStartDate().isAfter(LocalDate.now())) {
+            String errorMsg = "操作不允许：请假申请 ID: " + context.getId() + " 已处于 APPROVED 状态且假期已开始，不能取消。";
+            logger.warn(errorMsg);
+            throw new IllegalStateException(errorMsg);
+        }
+        context.setStatusEnumAndUpdateState(LeaveStatus.CANCELLED);
+        context.setCurrentApprover(null);
+        logger.info("已批准的请假申请 ID: {} 已在开始前被取消。", context.getId());
     }
 
     @Override
@@ -2,9 +2,14 @@ package com.example.leaveapproval.repository;
 
 import com.example.leaveapproval.model.ApprovalHistory;
 import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.repository.projection.ApprovalStepView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +29,35 @@ public interface ApprovalHistoryRepository extends JpaRepository<ApprovalHistory
      * @return 该请假申请的审批历史列表。
      */
     List<ApprovalHistory> findByLeaveRequestIdOrderByApprovedAtAsc(Long requestId);
-}
\ No newline at end of file
+
+    /**
+     * 一次查出多条请假申请的审批历史（同时加载审批人），用于列表页批量填充，避免逐行查询。
+     * @param requestIds 请假申请ID集合，不能为空。
+     * @return 审批历史列表，按请假申请、审批时间排序。
+     */
+    @Query("select h from ApprovalHistory h join fetch h.approver " +
+            "where h.leaveRequest.id in :requestIds order by h.leaveRequest.id, h.approvedAt, h.id")
+    List<ApprovalHistory> findWithApproverByLeaveRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    /**
+     * 一次查出多条请假申请的审批历史，不加载审批人（只用到审批人ID时使用）。
+     * @param requestIds 请假申请ID集合，不能为空。
+     * @return 审批历史列表，按审批时间排序。
+     */
+    List<ApprovalHistory> findByLeaveRequestIdInOrderByApprovedAtAscIdAsc(Collection<Long> requestIds);
+
+    /**
+     * 查询在 [from, to) 内有审批操作的请假申请的全部审批步骤（含窗口之外的步骤，用于确定进入各节点的时间）。
+     * 按请假申请、审批时间排序。
+     * @param from 开始时间（包含）。
+     * @param to 结束时间（不包含）。
+     * @return 审批步骤投影列表。
+     */
+    @Query("select lr.id as requestId, lr.createdAt as requestCreatedAt, h.approverNode as approverNode, " +
+            "h.approver.id as approverId, h.decision as decision, h.approvedAt as decidedAt " +
+            "from ApprovalHistory h join h.leaveRequest lr " +
+            "where lr.id in (select h2.leaveRequest.id from ApprovalHistory h2 where h2.approvedAt >= :from and h2.approvedAt < :to) " +
+            "order by lr.id, h.approvedAt, h.id")
+    List<ApprovalStepView> findStepsOfRequestsDecidedBetween(@Param("from") LocalDateTime from,
+                                                             @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,39 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.ApprovalTurnaroundRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ApprovalTurnaroundRollupRepository extends JpaRepository<ApprovalTurnaroundRollup, Long> {
+
+    /**
+     * 原子地累加一次节点处理记录。
+     * @return 受影响的行数；为 0 表示该行尚不存在。
+     */
+    @Modifying
+    @Query("update ApprovalTurnaroundRollup r set r.decisionCount = r.decisionCount + 1, " +
+            "r.totalSeconds = r.totalSeconds + :seconds, " +
+            "r.maxSeconds = case when r.maxSeconds < :seconds then :seconds else r.maxSeconds end " +
+            "where r.periodMonth = :periodMonth and r.approverNode = :approverNode")
+    int increment(@Param("periodMonth") String periodMonth,
+                  @Param("approverNode") String approverNode,
+                  @Param("seconds") long seconds);
+
+    List<ApprovalTurnaroundRollup> findByPeriodMonthInOrderByPeriodMonthAsc(Collection<String> periodMonths);
+
+    /**
+     * 锁定某月份的全部汇总行直到当前事务结束（对账时原地更新，期间的增量累加等待对账提交）。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ApprovalTurnaroundRollup r where r.periodMonth = :periodMonth")
+    List<ApprovalTurnaroundRollup> findByPeriodMonthForUpdate(@Param("periodMonth") String periodMonth);
+}
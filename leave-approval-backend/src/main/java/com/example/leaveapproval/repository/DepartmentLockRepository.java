@@ -0,0 +1,38 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.DepartmentLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface DepartmentLockRepository extends JpaRepository<DepartmentLock, String> {
+
+    /**
+     * 插入部门锁行（修订号为 0）。行已存在时抛出 {@link org.springframework.dao.DataIntegrityViolationException}，
+     * 调用方应在独立事务中执行并忽略该异常。
+     * @return 插入的行数。
+     */
+    @Modifying
+    @Query(value = "INSERT INTO department_locks (department, revision) VALUES (:department, 0)", nativeQuery = true)
+    int insert(@Param("department") String department);
+
+    /**
+     * 锁定部门锁行直到当前事务结束，并读取其修订号（加锁读总是返回最新已提交的值）。必须在事务内调用。
+     * @return 修订号；锁行不存在时为空。
+     */
+    @Query(value = "SELECT revision FROM department_locks WHERE department = :department FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockRevision(@Param("department") String department);
+
+    /**
+     * 修订号加一。必须在已通过 {@link #lockRevision} 锁定该行的事务内调用。
+     * @return 更新的行数。
+     */
+    @Modifying
+    @Query("update DepartmentLock d set d.revision = d.revision + 1 where d.department = :department")
+    int incrementRevision(@Param("department") String department);
+}
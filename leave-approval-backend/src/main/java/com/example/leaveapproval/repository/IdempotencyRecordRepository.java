@@ -0,0 +1,38 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    /**
+     * 删除某个用户某个键已过期的记录，使该键可以重新使用（否则唯一约束会拦截新记录）。
+     * @return 删除的记录数。
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("userId") Long userId,
+                      @Param("idempotencyKey") String idempotencyKey,
+                      @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 批量删除指定时间之前创建的记录（一条 DELETE 语句，不逐行加载）。
+     * @return 删除的记录数。
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,36 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.LeaveBalance;
+import com.example.leaveapproval.model.LeaveType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
+
+    /**
+     * 根据 (用户, 请假类型, 年度) 查找余额行（走唯一索引）。
+     */
+    Optional<LeaveBalance> findByUserIdAndLeaveTypeAndYear(Long userId, LeaveType leaveType, Integer year);
+
+    /**
+     * 查找用户某一年度的所有余额行。
+     */
+    List<LeaveBalance> findByUserIdAndYear(Long userId, Integer year);
+
+    /**
+     * 以悲观写锁读取余额行，用于记账时串行化同一余额行的并发更新。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from LeaveBalance b where b.user.id = :userId and b.leaveType = :leaveType and b.year = :year")
+    Optional<LeaveBalance> findForUpdate(@Param("userId") Long userId,
+                                         @Param("leaveType") LeaveType leaveType,
+                                         @Param("year") Integer year);
+}
@@ -0,0 +1,42 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.LeaveDaysRollup;
+import com.example.leaveapproval.model.LeaveType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface LeaveDaysRollupRepository extends JpaRepository<LeaveDaysRollup, Long> {
+
+    /**
+     * 原子地累加一行汇总（不先读后写，避免并发审批丢失更新）。
+     * @return 受影响的行数；为 0 表示该行尚不存在。
+     */
+    @Modifying
+    @Query("update LeaveDaysRollup r set r.approvedDays = r.approvedDays + :days, r.requestCount = r.requestCount + :requests " +
+            "where r.periodMonth = :periodMonth and r.department = :department and r.leaveType = :leaveType")
+    int increment(@Param("periodMonth") String periodMonth,
+                  @Param("department") String department,
+                  @Param("leaveType") LeaveType leaveType,
+                  @Param("days") long days,
+                  @Param("requests") long requests);
+
+    List<LeaveDaysRollup> findByPeriodMonthInOrderByPeriodMonthAsc(Collection<String> periodMonths);
+
+    List<LeaveDaysRollup> findByPeriodMonthInAndDepartmentOrderByPeriodMonthAsc(Collection<String> periodMonths, String department);
+
+    /**
+     * 锁定某月份的全部汇总行直到当前事务结束（对账时原地更新，期间的增量累加等待对账提交）。
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from LeaveDaysRollup r where r.periodMonth = :periodMonth")
+    List<LeaveDaysRollup> findByPeriodMonthForUpdate(@Param("periodMonth") String periodMonth);
+}
@@ -0,0 +1,21 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.LeaveLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaveLedgerEntryRepository extends JpaRepository<LeaveLedgerEntry, Long> {
+
+    /**
+     * 查找某个请假申请产生的所有流水，按记账顺序排序。
+     */
+    List<LeaveLedgerEntry> findByLeaveRequestIdOrderByIdAsc(Long requestId);
+
+    /**
+     * 用户某一年度的流水明细，按记账顺序排序。
+     */
+    List<LeaveLedgerEntry> findByUserIdAndYearOrderByIdAsc(Long userId, Integer year);
+}
@@ -3,13 +3,27 @@ package com.example.leaveapproval.repository;
 import com.example.leaveapproval.model.LeaveRequest;
 import com.example.leaveapproval.model.LeaveStatus;
 import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.projection.AbsenceIntervalView;
+import com.example.leaveapproval.repository.projection.LeaveDaysSourceView;
+import com.example.leaveapproval.repository.projection.LeaveRequestVersionView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-// 移除了 java.util.List 的导入，因为 findByStatusEnum 现在返回 Page
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long>, JpaSpecificationExecutor<LeaveRequest> {
@@ -43,4 +57,102 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Long
      * @return 符合条件的请假申请的分页列表。
      */
     Page<LeaveRequest> findByStatusEnum(LeaveStatus statusEnum, Pageable pageable); // <<--- 修改了返回值和参数
-}
\ No newline at end of file
+
+    /**
+     * 只查询请假申请的版本号和更新时间，不加载实体及关联。
+     * @param id 请假申请ID。
+     * @return 版本投影；申请不存在时为空。
+     */
+    @Query("select lr.id as id, lr.version as version, lr.updatedAt as updatedAt from LeaveRequest lr where lr.id = :id")
+    Optional<LeaveRequestVersionView> findVersionById(@Param("id") Long id);
+
+    /**
+     * 查询申请人与 [startDate, endDate] 重叠的有效请假申请ID（按开始日期排序）。
+     * 走 (applicant_id, start_date, end_date) 复合索引，是提交时重叠检测的权威判断。
+     * 以加锁读执行（PESSIMISTIC_READ）：在申请人行锁之后读取最新已提交的数据，不受事务快照影响（MySQL 可重复读）。
+     * @param applicantId 申请人ID。
+     * @param statuses 会占用日期的状态集合。
+     * @param startDate 新申请的开始日期（包含）。
+     * @param endDate 新申请的结束日期（包含）。
+     * @return 重叠的请假申请ID列表。
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select lr.id from LeaveRequest lr where lr.applicant.id = :applicantId and lr.statusEnum in :statuses " +
+            "and lr.startDate <= :endDate and lr.endDate >= :startDate order by lr.startDate")
+    List<Long> findOverlappingIds(@Param("applicantId") Long applicantId,
+                                  @Param("statuses") Collection<LeaveStatus> statuses,
+                                  @Param("startDate") LocalDate startDate,
+                                  @Param("endDate") LocalDate endDate);
+
+    /**
+     * 查询某部门在 [fromDate, toDate] 内有交集的指定状态请假区间（只返回申请人ID和起止日期）。
+     * @param department 部门名称。
+     * @param status 请假状态（通常为 APPROVED）。
+     * @param fromDate 区间开始日期（包含）。
+     * @param toDate 区间结束日期（包含）。
+     * @return 请假区间投影列表。
+     */
+    @Query("select lr.applicant.id as applicantId, lr.startDate as startDate, lr.endDate as endDate from LeaveRequest lr " +
+            "where lr.applicant.department = :department and lr.statusEnum = :status " +
+            "and lr.startDate <= :toDate and lr.endDate >= :fromDate")
+    List<AbsenceIntervalView> findDepartmentAbsences(@Param("department") String department,
+                                                     @Param("status") LeaveStatus status,
+                                                     @Param("fromDate") LocalDate fromDate,
+                                                     @Param("toDate") LocalDate toDate);
+
+    /**
+     * 与 {@link #findDepartmentAbsences} 相同，但以加锁读（PESSIMISTIC_READ）执行，读取最新已提交的数据而不是事务快照。
+     * 用于在部门锁内加载最低在岗人数校验的每日请假人数。
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select lr.applicant.id as applicantId, lr.startDate as startDate, lr.endDate as endDate from LeaveRequest lr " +
+            "where lr.applicant.department = :department and lr.statusEnum = :status " +
+            "and lr.startDate <= :toDate and lr.endDate >= :fromDate")
+    List<AbsenceIntervalView> findDepartmentAbsencesWithLock(@Param("department") String department,
+                                                             @Param("status") LeaveStatus status,
+                                                             @Param("fromDate") LocalDate fromDate,
+                                                             @Param("toDate") LocalDate toDate);
+
+    /**
+     * 以只进游标流式读取请假申请（导出用），申请人和当前审批人一并抓取。
+     * 所有过滤条件均可为 null（表示不过滤）；日期范围按与 [fromDate, toDate] 有交集过滤。
+     * 调用方必须在只读事务内消费并关闭返回的 Stream。
+     * fetch size 为 500：MySQL 需在连接串中开启 useCursorFetch 才会按批从服务端游标读取。
+     * @param status 请假状态。
+     * @param fromDate 区间开始日期（包含）。
+     * @param toDate 区间结束日期（包含）。
+     * @param department 申请人部门。
+     * @return 按ID升序的请假申请流。
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select lr from LeaveRequest lr join fetch lr.applicant a left join fetch lr.currentApprover " +
+            "where (:status is null or lr.statusEnum = :status) " +
+            "and (:fromDate is null or lr.endDate >= :fromDate) " +
+            "and (:toDate is null or lr.startDate <= :toDate) " +
+            "and (:department is null or a.department = :department) " +
+            "order by lr.id")
+    Stream<LeaveRequest> streamForExport(@Param("status") LeaveStatus status,
+                                         @Param("fromDate") LocalDate fromDate,
+                                         @Param("toDate") LocalDate toDate,
+                                         @Param("department") String department);
+
+    /**
+     * 查询与 [fromDate, toDate] 有交集的指定状态请假的部门、类型及起止日期（重建汇总用）。
+     * 部门取批准时记录的部门，与增量写入一致；没有记录时取申请人当前部门。
+     * @param status 请假状态（通常为 APPROVED）。
+     * @param fromDate 区间开始日期（包含）。
+     * @param toDate 区间结束日期（包含）。
+     * @return 投影列表。
+     */
+    @Query("select coalesce(lr.approvedDepartment, a.department) as department, lr.leaveType as leaveType, " +
+            "lr.startDate as startDate, lr.endDate as endDate " +
+            "from LeaveRequest lr join lr.applicant a " +
+            "where lr.statusEnum = :status and lr.startDate <= :toDate and lr.endDate >= :fromDate")
+    List<LeaveDaysSourceView> findLeaveDaysSources(@Param("status") LeaveStatus status,
+                                                   @Param("fromDate") LocalDate fromDate,
+                                                   @Param("toDate") LocalDate toDate);
+}
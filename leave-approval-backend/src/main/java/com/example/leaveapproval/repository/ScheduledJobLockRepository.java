@@ -0,0 +1,35 @@
+package com.example.leaveapproval.repository;
+
+import com.example.leaveapproval.model.ScheduledJobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ScheduledJobLockRepository extends JpaRepository<ScheduledJobLock, String> {
+
+    /**
+     * 插入一行已过期的租约。行已存在时抛出 {@link org.springframework.dao.DataIntegrityViolationException}，
+     * 调用方应在独立事务中执行并忽略该异常。
+     * @return 插入的行数。
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scheduled_job_locks (name, locked_until) VALUES (:name, :lockedUntil)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    /**
+     * 租约已到期时原子地取得租约（条件更新，多个实例同时执行时只有一个成功）。
+     * @return 1 表示取得租约；0 表示租约仍被持有（或行不存在）。
+     */
+    @Modifying
+    @Query("update ScheduledJobLock l set l.lockedUntil = :lockedUntil, l.lockedBy = :lockedBy " +
+            "where l.name = :name and l.lockedUntil <= :now")
+    int tryAcquire(@Param("name") String name,
+                   @Param("now") LocalDateTime now,
+                   @Param("lockedUntil") LocalDateTime lockedUntil,
+                   @Param("lockedBy") String lockedBy);
+}
@@ -2,9 +2,14 @@ package com.example.leaveapproval.repository;
 
 import com.example.leaveapproval.model.User;
 import com.example.leaveapproval.model.Role; // <<--- 导入 Role 枚举
+import com.example.leaveapproval.repository.projection.UserNameView;
+import com.example.leaveapproval.repository.projection.UserProfileRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List; // <<--- 导入 List
 import java.util.Optional; // 导入 Optional
 
@@ -32,6 +37,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByRolesContaining(Role role); // <<--- 添加这个关键方法
 
+    /**
+     * 统计部门内启用状态的用户数。
+     * @param department 部门名称。
+     * @return 用户数量。
+     */
+    long countByDepartmentAndEnabledTrue(String department);
+
+    /**
+     * 批量查询用户的ID和姓名（投影查询，不加载角色）。
+     * @param ids 用户ID集合。
+     * @return 用户姓名投影列表。
+     */
+    List<UserNameView> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 批量查询用户资料（连同上级用户名和角色），一次查询完成：每个角色一行，调用方按用户ID合并。
+     * @param ids 用户ID集合，不能为空。
+     * @return 用户资料投影列表。
+     */
+    @Query("select u.id as id, u.username as username, u.fullName as fullName, u.email as email, " +
+            "u.department as department, m.id as managerId, m.username as managerUsername, r as role, " +
+            "u.enabled as enabled, u.createdAt as createdAt, u.updatedAt as updatedAt " +
+            "from User u left join u.manager m left join u.roles r where u.id in :ids")
+    List<UserProfileRow> findProfileRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 以 SELECT ... FOR UPDATE 锁定用户行，直到当前事务结束（必须在事务内调用）。
+     * 用于串行化同一申请人的请假提交：日期重叠检测与插入之间不会插入另一个提交。
+     * @param id 用户ID。
+     * @return 被锁定的用户ID；用户不存在时为空。
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+
     // 你可以根据需要添加其他查询方法，例如：
     // 查找拥有特定角色的第一个用户（按ID升序）
     // Optional<User> findTopByRolesContainingOrderByIdAsc(Role role);
@@ -0,0 +1,15 @@
+package com.example.leaveapproval.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * 已批准请假的申请人及起止日期投影，用于构建团队请假日历。
+ */
+public interface AbsenceIntervalView {
+
+    Long getApplicantId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,23 @@
+package com.example.leaveapproval.repository.projection;
+
+import com.example.leaveapproval.model.ApprovalHistory;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审批历史步骤投影：一条审批记录及其所属请假申请的提交时间。
+ */
+public interface ApprovalStepView {
+
+    Long getRequestId();
+
+    LocalDateTime getRequestCreatedAt();
+
+    String getApproverNode();
+
+    Long getApproverId();
+
+    ApprovalHistory.Decision getDecision();
+
+    LocalDateTime getDecidedAt();
+}
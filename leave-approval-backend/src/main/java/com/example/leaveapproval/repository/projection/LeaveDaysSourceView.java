@@ -0,0 +1,19 @@
+package com.example.leaveapproval.repository.projection;
+
+import com.example.leaveapproval.model.LeaveType;
+
+import java.time.LocalDate;
+
+/**
+ * 已批准请假的部门（批准时记录的部门）、类型及起止日期投影，用于重建请假天数汇总。
+ */
+public interface LeaveDaysSourceView {
+
+    String getDepartment();
+
+    LeaveType getLeaveType();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
@@ -0,0 +1,15 @@
+package com.example.leaveapproval.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * 请假申请的版本投影，只查询版本号和更新时间，用于条件请求（If-None-Match）的校验。
+ */
+public interface LeaveRequestVersionView {
+
+    Long getId();
+
+    long getVersion();
+
+    LocalDateTime getUpdatedAt();
+}
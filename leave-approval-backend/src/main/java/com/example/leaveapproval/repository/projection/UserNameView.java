@@ -0,0 +1,13 @@
+package com.example.leaveapproval.repository.projection;
+
+/**
+ * 用户ID与姓名投影，只查询展示所需的列，不加载角色等关联数据。
+ */
+public interface UserNameView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getFullName();
+}
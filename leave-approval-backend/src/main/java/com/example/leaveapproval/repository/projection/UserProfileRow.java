@@ -0,0 +1,33 @@
+package com.example.leaveapproval.repository.projection;
+
+import com.example.leaveapproval.model.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户资料投影（连接上级和角色），每个角色一行，同一用户的多行按ID合并为一个 UserDto。
+ */
+public interface UserProfileRow {
+
+    Long getId();
+
+    String getUsername();
+
+    String getFullName();
+
+    String getEmail();
+
+    String getDepartment();
+
+    Long getManagerId();
+
+    String getManagerUsername();
+
+    Role getRole();
+
+    boolean isEnabled();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
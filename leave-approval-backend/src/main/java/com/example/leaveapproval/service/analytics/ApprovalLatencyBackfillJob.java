@@ -0,0 +1,100 @@
+package com.example.leaveapproval.service.analytics;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 从审批历史回填 {@link ApprovalLatencyHistograms}。
+ * <p>
+ * 以当前时间为截止点，按月分段读取最近 N 个月的审批步骤（每次只有一个月的数据在内存中），
+ * 构建新的直方图后整体替换累计值；回填期间提交的审批仍通过事件实时计入。
+ * 应用启动后在后台线程执行一次（app.approval-latency.backfill-on-startup），也可由管理员手动触发。
+ */
+@Component
+public class ApprovalLatencyBackfillJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApprovalLatencyBackfillJob.class);
+
+    private final ApprovalStepReader approvalStepReader;
+    private final ApprovalLatencyHistograms histograms;
+    private final boolean backfillOnStartup;
+    private final int defaultMonths;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public ApprovalLatencyBackfillJob(ApprovalStepReader approvalStepReader,
+                                      ApprovalLatencyHistograms histograms,
+                                      @Value("${app.approval-latency.backfill-on-startup:true}") boolean backfillOnStartup,
+                                      @Value("${app.approval-latency.backfill-months:12}") int defaultMonths) {
+        this.approvalStepReader = approvalStepReader;
+        this.histograms = histograms;
+        this.backfillOnStartup = backfillOnStartup;
+        this.defaultMonths = defaultMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                backfill(defaultMonths);
+            } catch (RuntimeException e) {
+                logger.error("启动时回填审批时长直方图失败：{}", e.getMessage(), e);
+            }
+        }, "approval-latency-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getDefaultMonths() {
+        return defaultMonths;
+    }
+
+    /**
+     * 用最近 months 个月的审批历史重建直方图。
+     * @param months 回填的月数（从截止点往前）。
+     * @return 回填的审批步骤数。
+     * @throws IllegalStateException 如果已有回填正在执行。
+     */
+    public int backfill(int months) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Approval latency backfill is already running.");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            LocalDateTime cutoff = LocalDateTime.now();
+            histograms.discardPendingRecordings();
+
+            LocalDateTime coverageStart = cutoff.toLocalDate().withDayOfMonth(1).minusMonths(months).atStartOfDay();
+            Map<String, Histogram> seeded = new HashMap<>();
+            int steps = 0;
+            for (LocalDateTime from = coverageStart; from.isBefore(cutoff); from = from.plusMonths(1)) {
+                LocalDateTime to = from.plusMonths(1).isBefore(cutoff) ? from.plusMonths(1) : cutoff;
+                for (ApprovalStep step : approvalStepReader.readStepsDecidedBetween(from, to)) {
+                    seeded.computeIfAbsent(step.getApproverNode(), node -> ApprovalLatencyHistograms.newHistogram())
+                            .recordValue(ApprovalLatencyHistograms.clamp(step.getDurationSeconds()));
+                    steps++;
+                }
+            }
+            histograms.replaceAccumulated(seeded, coverageStart);
+            logger.info("审批时长直方图回填完成：自 {} 起共 {} 个审批步骤，耗时 {} ms。",
+                    coverageStart, steps, System.currentTimeMillis() - started);
+            return steps;
+        } finally {
+            running.set(false);
+        }
+    }
+}
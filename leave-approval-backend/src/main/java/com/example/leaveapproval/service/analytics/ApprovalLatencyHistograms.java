@@ -0,0 +1,113 @@
+package com.example.leaveapproval.service.analytics;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按审批节点（TeamLeadApprover、DeptManagerApprover、HRApprover、AdminOverride）统计申请在节点停留时长的 HDR 直方图。
+ * <p>
+ * 审批事件提交后写入每个节点的 {@link Recorder}（无锁，不阻塞审批线程）；读取时把新增记录并入累计直方图再返回副本。
+ * 数值以秒为单位，保留 3 位有效数字，超过一年的停留时长按一年计。
+ * 统计只保存在内存中，重启后由 {@link ApprovalLatencyBackfillJob} 从审批历史回填。
+ */
+@Component
+public class ApprovalLatencyHistograms {
+
+    static final long HIGHEST_TRACKABLE_SECONDS = Duration.ofDays(366).getSeconds();
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<String, NodeHistogram> nodes = new ConcurrentHashMap<>();
+    private volatile LocalDateTime coverageStart = LocalDateTime.now(); // 统计覆盖的最早审批时间
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        if (event.getApproverNode() == null || event.getNodeEnteredAt() == null) {
+            return; // 提交、取消不对应审批节点
+        }
+        record(event.getApproverNode(), Duration.between(event.getNodeEnteredAt(), event.getOccurredAt()).getSeconds());
+    }
+
+    /**
+     * 记录一次节点停留时长。
+     * @param approverNode 审批节点名称。
+     * @param seconds      停留秒数。
+     */
+    public void record(String approverNode, long seconds) {
+        nodes.computeIfAbsent(approverNode, node -> new NodeHistogram()).recorder.recordValue(clamp(seconds));
+    }
+
+    /**
+     * @return 各审批节点累计直方图的副本，按节点名称排序。
+     */
+    public Map<String, Histogram> snapshot() {
+        Map<String, Histogram> result = new TreeMap<>();
+        nodes.forEach((node, histogram) -> result.put(node, histogram.snapshot()));
+        return result;
+    }
+
+    public LocalDateTime getCoverageStart() {
+        return coverageStart;
+    }
+
+    /**
+     * 开始回填前调用：丢弃尚未并入的实时记录（这些审批已提交，会被回填从审批历史中读到）。
+     * 之后的实时记录保留在 Recorder 中，回填完成后仍会计入。
+     */
+    void discardPendingRecordings() {
+        nodes.values().forEach(NodeHistogram::discardPending);
+    }
+
+    /**
+     * 以回填结果替换各节点的累计直方图。
+     * @param seeded        从审批历史构建的直方图。
+     * @param coverageStart 回填覆盖的最早审批时间。
+     */
+    void replaceAccumulated(Map<String, Histogram> seeded, LocalDateTime coverageStart) {
+        seeded.keySet().forEach(node -> nodes.computeIfAbsent(node, n -> new NodeHistogram()));
+        nodes.forEach((node, histogram) -> histogram.replaceAccumulated(seeded.get(node)));
+        this.coverageStart = coverageStart;
+    }
+
+    static Histogram newHistogram() {
+        return new Histogram(HIGHEST_TRACKABLE_SECONDS, SIGNIFICANT_DIGITS);
+    }
+
+    static long clamp(long seconds) {
+        return Math.min(Math.max(seconds, 0), HIGHEST_TRACKABLE_SECONDS);
+    }
+
+    private static final class NodeHistogram {
+
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_SECONDS, SIGNIFICANT_DIGITS);
+        private final Histogram accumulated = newHistogram();
+        private Histogram interval; // Recorder 交换出的直方图，复用以避免每次分配
+
+        synchronized Histogram snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            accumulated.add(interval);
+            return accumulated.copy();
+        }
+
+        synchronized void discardPending() {
+            interval = recorder.getIntervalHistogram(interval);
+        }
+
+        synchronized void replaceAccumulated(Histogram seeded) {
+            accumulated.reset();
+            if (seeded != null) {
+                accumulated.add(seeded);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.leaveapproval.service.analytics;
+
+import com.example.leaveapproval.model.ApprovalHistory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 一次审批节点处理：申请在 enteredAt 进入 approverNode，在 decidedAt 被处理。
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ApprovalStep {
+
+    private final Long requestId;
+    private final String approverNode;
+    private final ApprovalHistory.Decision decision;
+    private final LocalDateTime enteredAt;
+    private final LocalDateTime decidedAt;
+
+    /**
+     * @return 在该节点停留的秒数（时钟回拨等异常情况按 0 计）。
+     */
+    public long getDurationSeconds() {
+        return Math.max(0, Duration.between(enteredAt, decidedAt).getSeconds());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.leaveapproval.service.analytics;
+
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.ApprovalHistoryRepository;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.repository.projection.ApprovalStepView;
+import com.example.leaveapproval.service.approval.chain.AbstractApprover;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 从审批历史中还原各审批节点的处理步骤。
+ * <p>
+ * 同一请假申请的审批记录按时间排序后，第一步的进入时间是申请提交时间，之后每一步的进入时间是上一步的审批时间。
+ * 早期的审批记录没有 approver_node，按审批人角色推断（与审批链选取节点的规则一致）。
+ */
+@Component
+public class ApprovalStepReader {
+
+    private final ApprovalHistoryRepository approvalHistoryRepository;
+    private final UserRepository userRepository;
+
+    @Autowired
+    public ApprovalStepReader(ApprovalHistoryRepository approvalHistoryRepository, UserRepository userRepository) {
+        this.approvalHistoryRepository = approvalHistoryRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * 读取审批时间在 [from, to) 内的所有审批步骤。
+     * @param from 开始时间（包含）。
+     * @param to   结束时间（不包含）。
+     * @return 审批步骤列表，按请假申请和审批时间排序。
+     */
+    @Transactional(readOnly = true)
+    public List<ApprovalStep> readStepsDecidedBetween(LocalDateTime from, LocalDateTime to) {
+        List<ApprovalStepView> rows = approvalHistoryRepository.findStepsOfRequestsDecidedBetween(from, to);
+        Map<Long, String> inferredNodes = inferNodesForUnlabelledRows(rows);
+
+        List<ApprovalStep> steps = new ArrayList<>();
+        Long currentRequestId = null;
+        LocalDateTime enteredAt = null;
+        for (ApprovalStepView row : rows) {
+            if (!row.getRequestId().equals(currentRequestId)) {
+                currentRequestId = row.getRequestId();
+                enteredAt = row.getRequestCreatedAt();
+            }
+            LocalDateTime decidedAt = row.getDecidedAt();
+            if (enteredAt != null && decidedAt != null && !decidedAt.isBefore(from) && decidedAt.isBefore(to)) {
+                String node = row.getApproverNode() != null ? row.getApproverNode() : inferredNodes.get(row.getApproverId());
+                steps.add(new ApprovalStep(row.getRequestId(), node, row.getDecision(), enteredAt, decidedAt));
+            }
+            enteredAt = decidedAt;
+        }
+        return steps;
+    }
+
+    private Map<Long, String> inferNodesForUnlabelledRows(List<ApprovalStepView> rows) {
+        Set<Long> approverIds = new HashSet<>();
+        for (ApprovalStepView row : rows) {
+            if (row.getApproverNode() == null) {
+                approverIds.add(row.getApproverId());
+            }
+        }
+        Map<Long, String> result = new HashMap<>();
+        if (!approverIds.isEmpty()) {
+            for (User approver : userRepository.findAllById(approverIds)) {
+                result.put(approver.getId(), inferNode(approver.getRoles()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按角色推断审批节点名称（管理员优先记为越级审批）。
+     */
+    static String inferNode(Set<Role> roles) {
+        if (roles.contains(Role.ROLE_ADMIN)) {
+            return AbstractApprover.ADMIN_OVERRIDE_NODE;
+        } else if (roles.contains(Role.ROLE_HR)) {
+            return "HRApprover";
+        } else if (roles.contains(Role.ROLE_DEPT_MANAGER)) {
+            return "DeptManagerApprover";
+        } else if (roles.contains(Role.ROLE_TEAM_LEAD)) {
+            return "TeamLeadApprover";
+        }
+        return "Unknown";
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.leaveapproval.service.analytics;
+
+import com.example.leaveapproval.dto.ApprovalLatencyDto;
+import com.example.leaveapproval.dto.ApprovalTurnaroundDto;
+import com.example.leaveapproval.dto.LeaveDaysRollupDto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * 请假统计服务接口，所有查询只读取预先汇总的行。
+ */
+public interface LeaveAnalyticsService {
+
+    /**
+     * 按 (月份, 部门, 请假类型) 统计某年已批准的请假天数。
+     * @param year       年度。
+     * @param department 部门；为 null 时返回所有部门。
+     * @return 按月份排序的汇总行。
+     */
+    List<LeaveDaysRollupDto> getLeaveDays(int year, String department);
+
+    /**
+     * 按 (月份, 审批节点) 统计某年的审批处理时长。
+     * @param year 年度。
+     * @return 按月份排序的汇总行。
+     */
+    List<ApprovalTurnaroundDto> getApprovalTurnaround(int year);
+
+    /**
+     * 立即重建 [from, to] 内各月份的汇总（例如首次上线时回填历史数据）。
+     * @return 重建的月份数。
+     */
+    int rebuildRollups(YearMonth from, YearMonth to);
+
+    /**
+     * 各审批节点停留时长的分位数（来自内存中的 HDR 直方图）。
+     * @return 统计覆盖起点及各节点的分布。
+     */
+    ApprovalLatencyDto getApprovalLatency();
+
+    /**
+     * 用最近 months 个月的审批历史重建审批时长直方图。
+     * @param months 回填月数；为 null 时使用 app.approval-latency.backfill-months。
+     * @return 回填的审批步骤数。
+     */
+    int backfillApprovalLatency(Integer months);
+}
@@ -0,0 +1,239 @@
+package com.example.leaveapproval.service.analytics;
+
+import com.example.leaveapproval.model.ApprovalTurnaroundRollup;
+import com.example.leaveapproval.model.LeaveDaysRollup;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.repository.ApprovalTurnaroundRollupRepository;
+import com.example.leaveapproval.repository.LeaveDaysRollupRepository;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.ScheduledJobLockRepository;
+import com.example.leaveapproval.repository.projection.LeaveDaysSourceView;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 汇总表对账任务：按月份分区，从 leave_requests 和 approval_history 重新计算汇总行。
+ * <p>
+ * 每个月份在独立事务中对账：先锁定该月已有的汇总行，再重新计算并原地更新（缺少的行插入，
+ * 多余的行清零），期间该月的增量累加等待对账提交后再执行，不会出现汇总行被删除的窗口。
+ * 多个月份在固定大小的线程池中并行执行。部门按批准时记录的部门计算，与增量写入一致。
+ * <p>
+ * 每晚按 app.rollup.reconcile-cron 执行，覆盖最近 app.rollup.reconcile-months-back 个月
+ * 以及未来 app.rollup.reconcile-months-ahead 个月（已批准的未来请假）；多实例部署时
+ * 先取得 scheduled_job_locks 中的租约，只有一个实例执行。
+ */
+@Component
+public class RollupReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupReconciliationJob.class);
+
+    static final String JOB_NAME = "rollup-reconciliation";
+
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final LeaveDaysRollupRepository leaveDaysRollupRepository;
+    private final ApprovalTurnaroundRollupRepository approvalTurnaroundRollupRepository;
+    private final ApprovalStepReader approvalStepReader;
+    private final RollupWriter rollupWriter;
+    private final ScheduledJobLockRepository scheduledJobLockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNew;
+    private final ExecutorService executor;
+    private final int monthsBack;
+    private final int monthsAhead;
+    private final int leaseMinutes;
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Autowired
+    public RollupReconciliationJob(LeaveRequestRepository leaveRequestRepository,
+                                   LeaveDaysRollupRepository leaveDaysRollupRepository,
+                                   ApprovalTurnaroundRollupRepository approvalTurnaroundRollupRepository,
+                                   ApprovalStepReader approvalStepReader,
+                                   RollupWriter rollupWriter,
+                                   ScheduledJobLockRepository scheduledJobLockRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.rollup.reconcile-parallelism:4}") int parallelism,
+                                   @Value("${app.rollup.reconcile-months-back:3}") int monthsBack,
+                                   @Value("${app.rollup.reconcile-months-ahead:6}") int monthsAhead,
+                                   @Value("${app.rollup.reconcile-lease-minutes:60}") int leaseMinutes) {
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.leaveDaysRollupRepository = leaveDaysRollupRepository;
+        this.approvalTurnaroundRollupRepository = approvalTurnaroundRollupRepository;
+        this.approvalStepReader = approvalStepReader;
+        this.rollupWriter = rollupWriter;
+        this.scheduledJobLockRepository = scheduledJobLockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "rollup-reconcile-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.monthsBack = monthsBack;
+        this.monthsAhead = monthsAhead;
+        this.leaseMinutes = leaseMinutes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(cron = "${app.rollup.reconcile-cron:0 30 2 * * *}")
+    public void reconcileRecentMonths() {
+        if (!tryAcquireLease()) {
+            logger.info("汇总表对账租约由其他实例持有，本实例跳过。");
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        reconcile(current.minusMonths(monthsBack), current.plusMonths(monthsAhead));
+    }
+
+    /**
+     * 取得本次定时对账的租约（各自在独立事务中提交，其他实例立即可见）。租约到期前不释放。
+     * @return 是否取得租约。
+     */
+    public boolean tryAcquireLease() {
+        // 截断到秒：数据库时间列精度较低时，插入的过期时间不会因舍入而晚于 now
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        if (!scheduledJobLockRepository.existsById(JOB_NAME)) {
+            try {
+                requiresNew.executeWithoutResult(status -> scheduledJobLockRepository.insert(JOB_NAME, now));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("租约行 {} 已由其他实例插入。", JOB_NAME);
+            }
+        }
+        Integer updated = requiresNew.execute(status ->
+                scheduledJobLockRepository.tryAcquire(JOB_NAME, now, now.plusMinutes(leaseMinutes), instanceId));
+        return updated != null && updated == 1;
+    }
+
+    /**
+     * 并行重建 [from, to] 内每个月份的汇总行，全部完成后返回。
+     * @param from 开始月份（包含）。
+     * @param to   结束月份（包含）。
+     * @return 重建的月份数。
+     */
+    public int reconcile(YearMonth from, YearMonth to) {
+        long started = System.currentTimeMillis();
+        List<CompletableFuture<Void>> partitions = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            YearMonth partition = month;
+            partitions.add(CompletableFuture.runAsync(() -> rebuildMonth(partition), executor));
+        }
+        CompletableFuture.allOf(partitions.toArray(new CompletableFuture[0])).join();
+        logger.info("汇总表对账完成：{} ~ {}，共 {} 个月份，耗时 {} ms。", from, to, partitions.size(), System.currentTimeMillis() - started);
+        return partitions.size();
+    }
+
+    private void rebuildMonth(YearMonth month) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> reconcileMonth(month));
+        } catch (DataIntegrityViolationException e) {
+            // 增量写入在锁定之后并发插入了同一行，重试一次即可锁定该行并原地更新
+            logger.debug("{} 的汇总行被并发插入，重试对账：{}", month, e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> reconcileMonth(month));
+        }
+    }
+
+    private void reconcileMonth(YearMonth month) {
+        String period = month.toString();
+        // 先锁定已有行：之后读取的来源数据包含所有已提交的流转，该月的增量累加在本事务提交后才执行
+        Map<String, LeaveDaysRollup> existingDays = new HashMap<>();
+        for (LeaveDaysRollup row : leaveDaysRollupRepository.findByPeriodMonthForUpdate(period)) {
+            existingDays.put(row.getDepartment() + '|' + row.getLeaveType(), row);
+        }
+        Map<String, ApprovalTurnaroundRollup> existingTurnaround = new HashMap<>();
+        for (ApprovalTurnaroundRollup row : approvalTurnaroundRollupRepository.findByPeriodMonthForUpdate(period)) {
+            existingTurnaround.put(row.getApproverNode(), row);
+        }
+
+        Map<String, Map<LeaveType, long[]>> days = new HashMap<>(); // 部门 -> 类型 -> [天数, 申请数]
+        for (LeaveDaysSourceView source : leaveRequestRepository.findLeaveDaysSources(
+                LeaveStatus.APPROVED, month.atDay(1), month.atEndOfMonth())) {
+            Long monthDays = rollupWriter.splitWorkingDaysByMonth(source.getStartDate(), source.getEndDate()).get(month);
+            if (monthDays == null) {
+                continue;
+            }
+            String dept = source.getDepartment() != null ? source.getDepartment() : LeaveDaysRollup.NO_DEPARTMENT;
+            long[] totals = days.computeIfAbsent(dept, d -> new HashMap<>())
+                    .computeIfAbsent(source.getLeaveType(), t -> new long[2]);
+            totals[0] += monthDays;
+            totals[1]++;
+        }
+
+        Map<String, ApprovalTurnaroundRollup> turnaround = new HashMap<>();
+        for (ApprovalStep step : approvalStepReader.readStepsDecidedBetween(
+                month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay())) {
+            ApprovalTurnaroundRollup row = turnaround.computeIfAbsent(step.getApproverNode(), node -> {
+                ApprovalTurnaroundRollup r = new ApprovalTurnaroundRollup();
+                r.setPeriodMonth(period);
+                r.setApproverNode(node);
+                return r;
+            });
+            long seconds = step.getDurationSeconds();
+            row.setDecisionCount(row.getDecisionCount() + 1);
+            row.setTotalSeconds(row.getTotalSeconds() + seconds);
+            row.setMaxSeconds(Math.max(row.getMaxSeconds(), seconds));
+        }
+
+        List<LeaveDaysRollup> dayRows = new ArrayList<>();
+        days.forEach((dept, byType) -> byType.forEach((type, totals) -> {
+            LeaveDaysRollup row = existingDays.remove(dept + '|' + type);
+            if (row == null) {
+                row = new LeaveDaysRollup();
+                row.setPeriodMonth(period);
+                row.setDepartment(dept);
+                row.setLeaveType(type);
+            }
+            row.setApprovedDays(totals[0]);
+            row.setRequestCount(totals[1]);
+            dayRows.add(row);
+        }));
+        existingDays.values().forEach(row -> {
+            row.setApprovedDays(0);
+            row.setRequestCount(0);
+        });
+        List<ApprovalTurnaroundRollup> turnaroundRows = new ArrayList<>();
+        turnaround.forEach((node, computed) -> {
+            ApprovalTurnaroundRollup row = Objects.requireNonNullElse(existingTurnaround.remove(node), computed);
+            row.setDecisionCount(computed.getDecisionCount());
+            row.setTotalSeconds(computed.getTotalSeconds());
+            row.setMaxSeconds(computed.getMaxSeconds());
+            turnaroundRows.add(row);
+        });
+        existingTurnaround.values().forEach(row -> {
+            row.setDecisionCount(0);
+            row.setTotalSeconds(0);
+            row.setMaxSeconds(0);
+        });
+        leaveDaysRollupRepository.saveAll(dayRows);
+        approvalTurnaroundRollupRepository.saveAll(turnaroundRows);
+        logger.debug("已对账 {} 的汇总：请假天数 {} 行，审批时长 {} 行。", period, dayRows.size(), turnaroundRows.size());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.leaveapproval.service.analytics;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.model.ApprovalTurnaroundRollup;
+import com.example.leaveapproval.model.LeaveDaysRollup;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.repository.ApprovalTurnaroundRollupRepository;
+import com.example.leaveapproval.repository.LeaveDaysRollupRepository;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 汇总表的增量写入。
+ * <p>
+ * 在状态流转事务提交后，以独立的新事务原子累加汇总行（UPDATE ... SET x = x + ?），
+ * 行不存在时插入；并发首次插入同一行导致唯一约束冲突时重试一次即可转为累加。
+ * 增量写入失败只记录日志，不影响业务操作，偏差由每晚的对账任务修正。
+ */
+@Component
+public class RollupWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupWriter.class);
+
+    private final LeaveDaysRollupRepository leaveDaysRollupRepository;
+    private final ApprovalTurnaroundRollupRepository approvalTurnaroundRollupRepository;
+    private final WorkingDayCalendarService workingDayCalendarService;
+    private final TransactionTemplate requiresNew;
+
+    @Autowired
+    public RollupWriter(LeaveDaysRollupRepository leaveDaysRollupRepository,
+                        ApprovalTurnaroundRollupRepository approvalTurnaroundRollupRepository,
+                        WorkingDayCalendarService workingDayCalendarService,
+                        PlatformTransactionManager transactionManager) {
+        this.leaveDaysRollupRepository = leaveDaysRollupRepository;
+        this.approvalTurnaroundRollupRepository = approvalTurnaroundRollupRepository;
+        this.workingDayCalendarService = workingDayCalendarService;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        boolean becameApproved = event.isStatusChanged() && event.getToStatus() == LeaveStatus.APPROVED;
+        boolean leftApproved = event.isStatusChanged() && event.getFromStatus() == LeaveStatus.APPROVED;
+        boolean hasStep = event.getApproverNode() != null && event.getNodeEnteredAt() != null;
+        if (!becameApproved && !leftApproved && !hasStep) {
+            return;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                requiresNew.executeWithoutResult(status -> {
+                    if (becameApproved || leftApproved) {
+                        // 批准和取消都计入批准时的部门；早于该字段的申请没有记录，退回到当前部门
+                        String department = event.getApprovedDepartment() != null
+                                ? event.getApprovedDepartment() : event.getApplicantDepartment();
+                        addLeaveDays(department, event.getLeaveType(),
+                                event.getStartDate(), event.getEndDate(), becameApproved ? 1 : -1);
+                    }
+                    if (hasStep) {
+                        long seconds = Math.max(0, Duration.between(event.getNodeEnteredAt(), event.getOccurredAt()).getSeconds());
+                        addTurnaround(YearMonth.from(event.getOccurredAt()), event.getApproverNode(), seconds);
+                    }
+                });
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= 2) {
+                    logger.warn("更新汇总表失败（请假申请ID {}），将由夜间对账修正：{}", event.getRequestId(), e.getMessage());
+                    return;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("更新汇总表失败（请假申请ID {}），将由夜间对账修正：{}", event.getRequestId(), e.getMessage(), e);
+                return;
+            }
+        }
+    }
+
+    private void addLeaveDays(String department, LeaveType leaveType, LocalDate startDate, LocalDate endDate, int sign) {
+        String dept = department != null ? department : LeaveDaysRollup.NO_DEPARTMENT;
+        for (Map.Entry<YearMonth, Long> perMonth : splitWorkingDaysByMonth(startDate, endDate).entrySet()) {
+            String period = perMonth.getKey().toString();
+            long days = sign * perMonth.getValue();
+            if (leaveDaysRollupRepository.increment(period, dept, leaveType, days, sign) == 0) {
+                LeaveDaysRollup row = new LeaveDaysRollup();
+                row.setPeriodMonth(period);
+                row.setDepartment(dept);
+                row.setLeaveType(leaveType);
+                row.setApprovedDays(days);
+                row.setRequestCount(sign);
+                leaveDaysRollupRepository.saveAndFlush(row);
+            }
+        }
+    }
+
+    private void addTurnaround(YearMonth month, String approverNode, long seconds) {
+        String period = month.toString();
+        if (approvalTurnaroundRollupRepository.increment(period, approverNode, seconds) == 0) {
+            ApprovalTurnaroundRollup row = new ApprovalTurnaroundRollup();
+            row.setPeriodMonth(period);
+            row.setApproverNode(approverNode);
+            row.setDecisionCount(1);
+            row.setTotalSeconds(seconds);
+            row.setMaxSeconds(seconds);
+            approvalTurnaroundRollupRepository.saveAndFlush(row);
+        }
+    }
+
+    /**
+     * 将 [startDate, endDate] 按自然月拆分，返回各月内的工作日天数（跳过为 0 的月份）。
+     */
+    public Map<YearMonth, Long> splitWorkingDaysByMonth(LocalDate startDate, LocalDate endDate) {
+        Map<YearMonth, Long> result = new TreeMap<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            LocalDate from = startDate.isAfter(month.atDay(1)) ? startDate : month.atDay(1);
+            LocalDate to = endDate.isBefore(month.atEndOfMonth()) ? endDate : month.atEndOfMonth();
+            long days = workingDayCalendarService.countWorkingDays(from, to);
+            if (days > 0) {
+                result.put(month, days);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.leaveapproval.service.analytics.impl;
+
+import com.example.leaveapproval.dto.ApprovalLatencyDto;
+import com.example.leaveapproval.dto.ApprovalTurnaroundDto;
+import com.example.leaveapproval.dto.LeaveDaysRollupDto;
+import com.example.leaveapproval.repository.ApprovalTurnaroundRollupRepository;
+import com.example.leaveapproval.repository.LeaveDaysRollupRepository;
+import com.example.leaveapproval.service.analytics.ApprovalLatencyBackfillJob;
+import com.example.leaveapproval.service.analytics.ApprovalLatencyHistograms;
+import com.example.leaveapproval.service.analytics.LeaveAnalyticsService;
+import com.example.leaveapproval.service.analytics.RollupReconciliationJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * {@link LeaveAnalyticsService} 接口的实现类。
+ * 每次查询最多读取 12 个月份分区的汇总行，与请假申请和审批历史的数据量无关。
+ */
+@Service
+@Transactional(readOnly = true)
+public class LeaveAnalyticsServiceImpl implements LeaveAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveAnalyticsServiceImpl.class);
+
+    private final LeaveDaysRollupRepository leaveDaysRollupRepository;
+    private final ApprovalTurnaroundRollupRepository approvalTurnaroundRollupRepository;
+    private final RollupReconciliationJob rollupReconciliationJob;
+    private final ApprovalLatencyHistograms approvalLatencyHistograms;
+    private final ApprovalLatencyBackfillJob approvalLatencyBackfillJob;
+
+    @Autowired
+    public LeaveAnalyticsServiceImpl(LeaveDaysRollupRepository leaveDaysRollupRepository,
+                                     ApprovalTurnaroundRollupRepository approvalTurnaroundRollupRepository,
+                                     RollupReconciliationJob rollupReconciliationJob,
+                                     ApprovalLatencyHistograms approvalLatencyHistograms,
+                                     ApprovalLatencyBackfillJob approvalLatencyBackfillJob) {
+        this.leaveDaysRollupRepository = leaveDaysRollupRepository;
+        this.approvalTurnaroundRollupRepository = approvalTurnaroundRollupRepository;
+        this.rollupReconciliationJob = rollupReconciliationJob;
+        this.approvalLatencyHistograms = approvalLatencyHistograms;
+        this.approvalLatencyBackfillJob = approvalLatencyBackfillJob;
+    }
+
+    @Override
+    public List<LeaveDaysRollupDto> getLeaveDays(int year, String department) {
+        List<String> months = monthsOf(year);
+        return (department == null
+                ? leaveDaysRollupRepository.findByPeriodMonthInOrderByPeriodMonthAsc(months)
+                : leaveDaysRollupRepository.findByPeriodMonthInAndDepartmentOrderByPeriodMonthAsc(months, department))
+                .stream()
+                .filter(row -> row.getApprovedDays() != 0 || row.getRequestCount() != 0)
+                .map(LeaveDaysRollupDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ApprovalTurnaroundDto> getApprovalTurnaround(int year) {
+        return approvalTurnaroundRollupRepository.findByPeriodMonthInOrderByPeriodMonthAsc(monthsOf(year)).stream()
+                .filter(row -> row.getDecisionCount() != 0)
+                .map(ApprovalTurnaroundDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 各月份在对账线程池中各自开启事务
+    public int rebuildRollups(YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' month cannot be before 'from' month.");
+        }
+        logger.info("手动重建汇总表：{} ~ {}", from, to);
+        return rollupReconciliationJob.reconcile(from, to);
+    }
+
+    @Override
+    public ApprovalLatencyDto getApprovalLatency() {
+        ApprovalLatencyDto dto = new ApprovalLatencyDto();
+        dto.setCoverageStart(approvalLatencyHistograms.getCoverageStart());
+        dto.setNodes(approvalLatencyHistograms.snapshot().entrySet().stream()
+                .map(entry -> ApprovalLatencyDto.Node.fromHistogram(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // 按月分段读取，每段各自开启只读事务
+    public int backfillApprovalLatency(Integer months) {
+        int monthsToRead = months != null ? months : approvalLatencyBackfillJob.getDefaultMonths();
+        if (monthsToRead < 1 || monthsToRead > 120) {
+            throw new IllegalArgumentException("Months must be between 1 and 120.");
+        }
+        logger.info("手动回填审批时长直方图：最近 {} 个月", monthsToRead);
+        return approvalLatencyBackfillJob.backfill(monthsToRead);
+    }
+
+    private static List<String> monthsOf(int year) {
+        List<String> months = new ArrayList<>(12);
+        for (int month = 1; month <= 12; month++) {
+            months.add(YearMonth.of(year, month).toString());
+        }
+        return months;
+    }
+}
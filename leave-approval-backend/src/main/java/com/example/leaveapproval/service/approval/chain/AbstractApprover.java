@@ -1,20 +1,34 @@
 package com.example.leaveapproval.service.approval.chain;
 
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
 import com.example.leaveapproval.model.*;
 import com.example.leaveapproval.repository.ApprovalHistoryRepository;
 import com.example.leaveapproval.repository.LeaveRequestRepository;
 import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.metrics.LeaveMetrics;
+import com.example.leaveapproval.service.profiling.ApprovalHistoryWriteJfrEvent;
+import com.example.leaveapproval.service.profiling.ApprovalNodeJfrEvent;
+import com.example.leaveapproval.service.staffing.StaffingCheckService;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.ClassUtils;
 
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDateTime;
 import java.util.Collections; // 导入 Collections
 import java.util.List;      // 导入 List
 
 public abstract class AbstractApprover implements Approver {
     private static final Logger logger = LoggerFactory.getLogger(AbstractApprover.class);
 
+    /**
+     * 管理员越级直接审批时记录的审批节点名称。
+     */
+    public static final String ADMIN_OVERRIDE_NODE = "AdminOverride";
+
     protected Approver nextApproverInChain;
 
     @Autowired
@@ -26,6 +40,18 @@ public abstract class AbstractApprover implements Approver {
     @Autowired
     protected UserRepository userRepository;
 
+    @Autowired
+    protected WorkingDayCalendarService workingDayCalendarService;
+
+    @Autowired
+    protected ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    protected StaffingCheckService staffingCheckService;
+
+    @Autowired
+    protected LeaveMetrics leaveMetrics;
+
     @Override
     public void setNext(Approver nextApprover) {
         this.nextApproverInChain = nextApprover;
@@ -33,24 +59,53 @@ public abstract class AbstractApprover implements Approver {
 
     @Override
     public void handleApprovalAction(LeaveRequest leaveRequest, User actionTakingUser, ApprovalHistory.Decision decision, String comments) {
-        logger.info("Approver Node [{}]: 用户 {} (ID: {}) 尝试对请假ID {} 执行 {} 操作。",
+        Timer.Sample sample = leaveMetrics.start();
+        ApprovalNodeJfrEvent jfrEvent = new ApprovalNodeJfrEvent();
+        jfrEvent.begin();
+        String outcome = LeaveMetrics.OUTCOME_ERROR;
+        try {
+            doHandleApprovalAction(leaveRequest, actionTakingUser, decision, comments);
+            outcome = LeaveMetrics.OUTCOME_SUCCESS;
+        } finally {
+            String node = nodeNameFor(actionTakingUser);
+            leaveMetrics.recordApprovalAction(sample, node, actionTakingUser.getRoles(),
+                    decision, leaveRequest.getLeaveType(), outcome);
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.requestId = leaveRequest.getId() != null ? leaveRequest.getId() : -1;
+                jfrEvent.approverNode = node;
+                jfrEvent.decision = String.valueOf(decision);
+                jfrEvent.statusAfter = String.valueOf(leaveRequest.getStatusEnum());
+                jfrEvent.succeeded = LeaveMetrics.OUTCOME_SUCCESS.equals(outcome);
+                jfrEvent.commit();
+            }
+        }
+    }
+
+    private void doHandleApprovalAction(LeaveRequest leaveRequest, User actionTakingUser, ApprovalHistory.Decision decision, String comments) {
+        logger.debug("Approver Node [{}]: 用户 {} (ID: {}) 尝试对请假ID {} 执行 {} 操作。",
                 this.getClass().getSimpleName(), actionTakingUser.getUsername(), actionTakingUser.getId(),
                 leaveRequest.getId(), decision);
 
+        // 记录流转前的快照，处理完成后随状态流转事件一起发布
+        LeaveStatus fromStatus = leaveRequest.getStatusEnum();
+        Long previousApproverId = leaveRequest.getCurrentApprover() != null ? leaveRequest.getCurrentApprover().getId() : null;
+        // 上一次保存（提交或上一节点审批）的时间即进入本节点的时间
+        LocalDateTime nodeEnteredAt = leaveRequest.getUpdatedAt() != null ? leaveRequest.getUpdatedAt() : leaveRequest.getCreatedAt();
+
         boolean isAdminAction = actionTakingUser.getRoles().contains(Role.ROLE_ADMIN);
 
         if (isAdminAction) {
-            logger.info("Admin用户 {} (ID: {}) 正在执行审批操作。将直接处理请假申请ID {}。",
+            logger.debug("Admin用户 {} (ID: {}) 正在执行审批操作。将直接处理请假申请ID {}。",
                     actionTakingUser.getUsername(), actionTakingUser.getId(), leaveRequest.getId());
             recordApprovalHistory(leaveRequest, actionTakingUser, decision, "Admin操作：" + comments);
             if (decision == ApprovalHistory.Decision.APPROVED) {
                 leaveRequest.setCurrentApprover(null);
                 leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.APPROVED);
-                logger.info("Admin {} 已最终批准请假申请ID {}。", actionTakingUser.getUsername(), leaveRequest.getId());
+                logger.debug("Admin {} 已最终批准请假申请ID {}。", actionTakingUser.getUsername(), leaveRequest.getId());
             } else if (decision == ApprovalHistory.Decision.REJECTED) {
                 leaveRequest.setCurrentApprover(null);
                 leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.REJECTED);
-                logger.info("Admin {} 已驳回请假申请ID {}。", actionTakingUser.getUsername(), leaveRequest.getId());
+                logger.debug("Admin {} 已驳回请假申请ID {}。", actionTakingUser.getUsername(), leaveRequest.getId());
             } else {
                 logger.error("Admin {} 对请假ID {} 执行了未知的审批决定类型: {}",
                         actionTakingUser.getUsername(), leaveRequest.getId(), decision);
@@ -69,14 +124,14 @@ public abstract class AbstractApprover implements Approver {
             }
             if (!canThisRoleApprove(leaveRequest, actionTakingUser)) {
                 if (decision == ApprovalHistory.Decision.APPROVED) {
-                    logger.info("审批角色 {} (用户: {}) 对请假ID {} 的批准超出其直接权限，将流转至下一级。",
-                            this.getClass().getSimpleName().replace("Approver", ""),
+                    logger.debug("审批节点 {} (用户: {}) 对请假ID {} 的批准超出其直接权限，将流转至下一级。",
+                            this.getClass().getSimpleName(),
                             actionTakingUser.getUsername(), leaveRequest.getId());
                     recordApprovalHistory(leaveRequest, actionTakingUser, decision, "通过，转上级审批：" + comments);
                     performApprove(leaveRequest, actionTakingUser);
                 } else if (decision == ApprovalHistory.Decision.REJECTED) {
-                    logger.info("审批角色 {} (用户: {}) 对请假ID {} 执行驳回操作（即使天数可能超出其批准上限）。",
-                            this.getClass().getSimpleName().replace("Approver", ""),
+                    logger.debug("审批节点 {} (用户: {}) 对请假ID {} 执行驳回操作（即使天数可能超出其批准上限）。",
+                            this.getClass().getSimpleName(),
                             actionTakingUser.getUsername(), leaveRequest.getId());
                     recordApprovalHistory(leaveRequest, actionTakingUser, decision, comments);
                     performReject(leaveRequest, actionTakingUser);
@@ -97,21 +152,50 @@ public abstract class AbstractApprover implements Approver {
             }
             leaveRequestRepository.save(leaveRequest);
         }
-        logger.info("请假申请 ID: {} 处理完毕。新状态: {}, 新当前审批人: {}",
-                leaveRequest.getId(),
-                leaveRequest.getStatusEnum(),
-                leaveRequest.getCurrentApprover() != null ? leaveRequest.getCurrentApprover().getUsername() : "无 (流程结束)");
+        eventPublisher.publishEvent(LeaveRequestTransitionEvent.ofApprovalStep(
+                leaveRequest, fromStatus, previousApproverId, actionTakingUser.getId(),
+                nodeNameFor(actionTakingUser), nodeEnteredAt));
+        // 每次审批只输出这一条 INFO：键值对形式，便于按字段检索
+        logger.atInfo()
+                .addKeyValue("event", "approval.step")
+                .addKeyValue("requestId", leaveRequest.getId())
+                .addKeyValue("node", nodeNameFor(actionTakingUser))
+                .addKeyValue("actorId", actionTakingUser.getId())
+                .addKeyValue("decision", decision)
+                .addKeyValue("fromStatus", fromStatus)
+                .addKeyValue("toStatus", leaveRequest.getStatusEnum())
+                .addKeyValue("nextApproverId", () -> leaveRequest.getCurrentApprover() != null ? leaveRequest.getCurrentApprover().getId() : null)
+                .log("审批节点处理完毕");
     }
 
     protected void recordApprovalHistory(LeaveRequest leaveRequest, User approverUser, ApprovalHistory.Decision decision, String comments) {
+        ApprovalHistoryWriteJfrEvent jfrEvent = new ApprovalHistoryWriteJfrEvent();
+        jfrEvent.begin();
         ApprovalHistory history = new ApprovalHistory();
         history.setLeaveRequest(leaveRequest);
         history.setApprover(approverUser);
         history.setDecision(decision);
         history.setComments(comments);
+        history.setApproverNode(nodeNameFor(approverUser));
         approvalHistoryRepository.save(history);
-        logger.info("审批历史已记录：请假ID {}，审批人 {} (ID: {}), 决定 {}，审批节点角色 {}",
-                leaveRequest.getId(), approverUser.getUsername(), approverUser.getId(), decision, this.getClass().getSimpleName());
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.requestId = leaveRequest.getId() != null ? leaveRequest.getId() : -1;
+            jfrEvent.approverNode = history.getApproverNode();
+            jfrEvent.decision = String.valueOf(decision);
+            jfrEvent.commit();
+        }
+        logger.debug("审批历史已记录：请假ID {}，审批人 {} (ID: {}), 决定 {}，审批节点角色 {}",
+                leaveRequest.getId(), approverUser.getUsername(), approverUser.getId(), decision, history.getApproverNode());
+    }
+
+    /**
+     * 本次操作所属的审批节点名称：管理员操作统一记为 {@link #ADMIN_OVERRIDE_NODE}，否则为本节点的类名。
+     */
+    protected String nodeNameFor(User actionTakingUser) {
+        if (actionTakingUser.getRoles().contains(Role.ROLE_ADMIN)) {
+            return ADMIN_OVERRIDE_NODE;
+        }
+        return ClassUtils.getUserClass(this).getSimpleName();
     }
 
     protected void performApprove(LeaveRequest leaveRequest, User currentActionTakingApprover) {
@@ -119,13 +203,15 @@ public abstract class AbstractApprover implements Approver {
         if (nextActualApproverUser != null) {
             leaveRequest.setCurrentApprover(nextActualApproverUser);
             leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.PENDING_APPROVAL);
-            logger.info("请假申请 {} (ID: {}) 已被 {} 代表节点 {} 批准，并成功流转至下一审批人：{}",
+            logger.debug("请假申请 {} (ID: {}) 已被 {} 代表节点 {} 批准，并成功流转至下一审批人：{}",
                     leaveRequest.getLeaveType(), leaveRequest.getId(), currentActionTakingApprover.getUsername(),
                     this.getClass().getSimpleName(), nextActualApproverUser.getUsername());
         } else {
+            // 最终批准前检查部门最低在岗人数（未开启时直接通过）
+            staffingCheckService.checkBeforeFinalApproval(leaveRequest);
             leaveRequest.setCurrentApprover(null);
             leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.APPROVED);
-            logger.info("请假申请 {} (ID: {}) 已被 {} 代表节点 {} 最终批准。",
+            logger.debug("请假申请 {} (ID: {}) 已被 {} 代表节点 {} 最终批准。",
                     leaveRequest.getLeaveType(), leaveRequest.getId(), currentActionTakingApprover.getUsername(),
                     this.getClass().getSimpleName());
         }
@@ -134,17 +220,21 @@ public abstract class AbstractApprover implements Approver {
     protected void performReject(LeaveRequest leaveRequest, User currentActionTakingApprover) {
         leaveRequest.setCurrentApprover(null);
         leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.REJECTED);
-        logger.info("请假申请 {} (ID: {}) 已被 {} 代表节点 {} 驳回。",
+        logger.debug("请假申请 {} (ID: {}) 已被 {} 代表节点 {} 驳回。",
                 leaveRequest.getLeaveType(), leaveRequest.getId(), currentActionTakingApprover.getUsername(),
                 this.getClass().getSimpleName());
     }
 
+    /**
+     * 计算请假天数（工作日），周末和法定节假日不计入，调休上班日计入。
+     * 审批权限（各角色可批准的最大天数）均以此为准。
+     */
     protected long calculateLeaveDays(LeaveRequest leaveRequest) {
         if (leaveRequest.getStartDate() == null || leaveRequest.getEndDate() == null || leaveRequest.getEndDate().isBefore(leaveRequest.getStartDate())) {
             logger.warn("计算请假天数时发现无效日期，请假ID: {}", leaveRequest.getId());
             return 0;
         }
-        return ChronoUnit.DAYS.between(leaveRequest.getStartDate(), leaveRequest.getEndDate()) + 1;
+        return workingDayCalendarService.countWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
     }
 
     /**
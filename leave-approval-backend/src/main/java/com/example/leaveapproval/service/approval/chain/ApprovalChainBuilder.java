@@ -4,6 +4,9 @@ import com.example.leaveapproval.model.LeaveRequest;
 import com.example.leaveapproval.model.User;
 import com.example.leaveapproval.model.Role; // 确保 Role 枚举已更新并包含 getHighestRole 和层级
 import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.metrics.LeaveMetrics;
+import com.example.leaveapproval.service.profiling.ApprovalChainResolutionJfrEvent;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,17 +28,20 @@ public class ApprovalChainBuilder {
     private final Approver deptManagerApprover;
     private final Approver hrApprover;
     private final UserRepository userRepository;
+    private final LeaveMetrics leaveMetrics;
 
     @Autowired
     public ApprovalChainBuilder(
             @Qualifier("teamLeadApprover") Approver teamLeadApprover,
             @Qualifier("deptManagerApprover") Approver deptManagerApprover,
             @Qualifier("hrApprover") Approver hrApprover,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            LeaveMetrics leaveMetrics) {
         this.teamLeadApprover = teamLeadApprover;
         this.deptManagerApprover = deptManagerApprover;
         this.hrApprover = hrApprover;
         this.userRepository = userRepository;
+        this.leaveMetrics = leaveMetrics;
     }
 
     /**
@@ -64,12 +70,32 @@ public class ApprovalChainBuilder {
      * @return 第一个负责审批的 {@link User} 实体；如果无法确定，则抛出异常。
      */
     public User getInitialApproverUser(LeaveRequest leaveRequest, User applicant) {
-        String leaveRequestIdForLog = (leaveRequest != null && leaveRequest.getId() != null) ? leaveRequest.getId().toString() : "未知ID";
-        String leaveRequestTypeForLog = (leaveRequest != null && leaveRequest.getLeaveType() != null) ? leaveRequest.getLeaveType().toString() : "未知类型";
+        Timer.Sample sample = leaveMetrics.start();
+        ApprovalChainResolutionJfrEvent jfrEvent = new ApprovalChainResolutionJfrEvent();
+        jfrEvent.begin();
+        String outcome = LeaveMetrics.OUTCOME_ERROR;
+        User initialApprover = null;
+        try {
+            initialApprover = resolveInitialApproverUser(leaveRequest, applicant);
+            outcome = LeaveMetrics.OUTCOME_SUCCESS;
+            return initialApprover;
+        } finally {
+            leaveMetrics.recordInitialApproverLookup(sample, applicant.getRoles(),
+                    leaveRequest != null ? leaveRequest.getLeaveType() : null, outcome);
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.requestId = leaveRequest != null && leaveRequest.getId() != null ? leaveRequest.getId() : -1;
+                jfrEvent.applicantRole = String.valueOf(Role.getHighestRole(applicant.getRoles()));
+                jfrEvent.approverId = initialApprover != null ? initialApprover.getId() : -1;
+                jfrEvent.commit();
+            }
+        }
+    }
 
-        logger.info("为申请人 {} (ID: {}) 的请假申请 (ID: {}, 类型: {}) 确定初始审批人...",
+    private User resolveInitialApproverUser(LeaveRequest leaveRequest, User applicant) {
+        logger.debug("为申请人 {} (ID: {}) 的请假申请 (ID: {}, 类型: {}) 确定初始审批人...",
                 applicant.getUsername(), applicant.getId(),
-                leaveRequestIdForLog, leaveRequestTypeForLog);
+                leaveRequest != null ? leaveRequest.getId() : null,
+                leaveRequest != null ? leaveRequest.getLeaveType() : null);
 
         User initialApprover = null;
         Set<Role> applicantRoles = applicant.getRoles(); // User.getRoles() 返回 Set<Role>
@@ -97,7 +123,7 @@ public class ApprovalChainBuilder {
             }
 
             if (initialApprover != null) {
-                logger.info("申请人 {} (ADMIN) 的初始审批人确定为 Admin: {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                logger.debug("申请人 {} (ADMIN) 的初始审批人确定为 Admin: {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                 return initialApprover;
             } else {
                 logger.error("Admin {} 提交申请，但无法确定审批人（系统中无Admin用户或配置问题）。", applicant.getUsername());
@@ -109,7 +135,7 @@ public class ApprovalChainBuilder {
         if (highestApplicantRole == Role.ROLE_HR) {
             initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_ADMIN, applicant.getId());
             if (initialApprover != null) {
-                logger.info("申请人 {} (HR) 的初始审批人确定为 Admin: {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                logger.debug("申请人 {} (HR) 的初始审批人确定为 Admin: {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                 return initialApprover;
             } else {
                 logger.error("HR {} 提交申请，但系统中无Admin用户处理。", applicant.getUsername());
@@ -121,13 +147,13 @@ public class ApprovalChainBuilder {
         if (highestApplicantRole == Role.ROLE_DEPT_MANAGER) {
             initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_HR, applicant.getId());
             if (initialApprover != null) {
-                logger.info("申请人 {} (DEPT_MANAGER) 的初始审批人确定为 HR: {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                logger.debug("申请人 {} (DEPT_MANAGER) 的初始审批人确定为 HR: {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                 return initialApprover;
             } else {
                 logger.warn("申请人 {} (DEPT_MANAGER) 未找到HR处理，尝试查找Admin...", applicant.getUsername());
                 initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_ADMIN, applicant.getId());
                 if (initialApprover != null) {
-                    logger.info("申请人 {} (DEPT_MANAGER) 转由 Admin: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                    logger.debug("申请人 {} (DEPT_MANAGER) 转由 Admin: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                     return initialApprover;
                 }
                 logger.error("DeptManager {} 提交申请，但系统中无HR或Admin用户处理。", applicant.getUsername());
@@ -140,25 +166,25 @@ public class ApprovalChainBuilder {
             User manager = applicant.getManager(); // 获取直属经理
             if (manager != null && manager.getRoles() != null && manager.getRoles().contains(Role.ROLE_DEPT_MANAGER) && !manager.getId().equals(applicant.getId())) {
                 initialApprover = manager;
-                logger.info("申请人 {} (TEAM_LEAD) 的初始审批人确定为其直属经理 (DeptManager): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                logger.debug("申请人 {} (TEAM_LEAD) 的初始审批人确定为其直属经理 (DeptManager): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                 return initialApprover;
             } else {
                 logger.warn("申请人 {} (TEAM_LEAD) 无直属DeptManager或直属经理非DeptManager/是本人，尝试查找系统DeptManager...", applicant.getUsername());
                 initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_DEPT_MANAGER, applicant.getId());
                 if (initialApprover != null) {
-                    logger.info("申请人 {} (TEAM_LEAD) 转由系统DeptManager: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                    logger.debug("申请人 {} (TEAM_LEAD) 转由系统DeptManager: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                     return initialApprover;
                 } else {
                     logger.warn("申请人 {} (TEAM_LEAD) 未找到DeptManager，尝试查找系统HR...", applicant.getUsername());
                     initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_HR, applicant.getId());
                     if (initialApprover != null) {
-                        logger.info("申请人 {} (TEAM_LEAD) 转由系统HR: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                        logger.debug("申请人 {} (TEAM_LEAD) 转由系统HR: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                         return initialApprover;
                     } else {
                         logger.warn("申请人 {} (TEAM_LEAD) 未找到HR，尝试查找系统Admin...", applicant.getUsername());
                         initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_ADMIN, applicant.getId());
                         if (initialApprover != null) {
-                            logger.info("申请人 {} (TEAM_LEAD) 转由系统Admin: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                            logger.debug("申请人 {} (TEAM_LEAD) 转由系统Admin: {} (ID: {}) 审批", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                             return initialApprover;
                         }
                         logger.error("TeamLead {} 提交申请，但系统中无DeptManager、HR或Admin用户处理。", applicant.getUsername());
@@ -174,15 +200,15 @@ public class ApprovalChainBuilder {
             if (manager != null && manager.getRoles() != null && !manager.getId().equals(applicant.getId())) {
                 if (manager.getRoles().contains(Role.ROLE_TEAM_LEAD)) {
                     initialApprover = manager;
-                    logger.info("申请人 {} (EMPLOYEE) 的初始审批人确定为其直属经理 (TeamLead): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                    logger.debug("申请人 {} (EMPLOYEE) 的初始审批人确定为其直属经理 (TeamLead): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                     return initialApprover;
                 } else if (manager.getRoles().contains(Role.ROLE_DEPT_MANAGER)) {
                     initialApprover = manager;
-                    logger.info("申请人 {} (EMPLOYEE) 的初始审批人确定为其直属经理 (DeptManager): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                    logger.debug("申请人 {} (EMPLOYEE) 的初始审批人确定为其直属经理 (DeptManager): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                     return initialApprover;
                 } else if (manager.getRoles().contains(Role.ROLE_HR)) {
                     initialApprover = manager;
-                    logger.info("申请人 {} (EMPLOYEE) 的初始审批人确定为其直属经理 (HR): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                    logger.debug("申请人 {} (EMPLOYEE) 的初始审批人确定为其直属经理 (HR): {} (ID: {})", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                     return initialApprover;
                 }
             }
@@ -190,7 +216,7 @@ public class ApprovalChainBuilder {
             logger.warn("申请人 {} (EMPLOYEE) 无合适（非本人）直属经理，尝试按角色全局查找初始审批人...", applicant.getUsername());
             initialApprover = findFirstUserWithRoleExcludingApplicant(Role.ROLE_TEAM_LEAD, applicant.getId());
             if (initialApprover != null) {
-                logger.info("申请人 {} (EMPLOYEE) 找到系统TeamLead: {} (ID: {}) 作为初始审批人。", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
+                logger.debug("申请人 {} (EMPLOYEE) 找到系统TeamLead: {} (ID: {}) 作为初始审批人。", applicant.getUsername(), initialApprover.getUsername(), initialApprover.getId());
                 return initialApprover;
             }
 
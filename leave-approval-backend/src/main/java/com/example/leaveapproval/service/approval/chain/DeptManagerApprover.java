@@ -31,7 +31,7 @@ public class DeptManagerApprover extends AbstractApprover {
         long leaveDays = calculateLeaveDays(leaveRequest); // 使用父类提供的计算天数方法
         boolean canApprove = leaveDays <= MAX_DAYS_CAN_APPROVE_BY_ROLE;
         if (!canApprove) {
-            logger.info("部门经理 {} 无法直接最终批准请假ID {}，申请天数 {} 超过其权限 {} 天。",
+            logger.debug("部门经理 {} 无法直接最终批准请假ID {}，申请天数 {} 超过其权限 {} 天。",
                     actionTakingApprover.getUsername(), leaveRequest.getId(), leaveDays, MAX_DAYS_CAN_APPROVE_BY_ROLE);
         }
         return canApprove;
@@ -61,13 +61,13 @@ public class DeptManagerApprover extends AbstractApprover {
             return null; // 表示部门经理是此场景下的最终审批人 (如果他是审批链的倒数第二环)
         } else {
             // 天数超过部门经理权限，需要流转到下一级 (HR)
-            logger.info("请假申请 ID: {} 天数 {} 超过部门经理权限，查找下一级审批人 (HR)。", leaveRequest.getId(), leaveDays);
+            logger.debug("请假申请 ID: {} 天数 {} 超过部门经理权限，查找下一级审批人 (HR)。", leaveRequest.getId(), leaveDays);
 
             // 使用父类提供的 findUsersByRole 方法查找HR用户
             List<User> hrUsers = findUsersByRole(Role.ROLE_HR);
             if (!hrUsers.isEmpty()) {
                 User hrUser = hrUsers.get(0); // 取第一个找到的HR用户
-                logger.info("找到HR用户 {} 作为请假申请 ID: {} 的下一审批人。", hrUser.getUsername(), leaveRequest.getId());
+                logger.debug("找到HR用户 {} 作为请假申请 ID: {} 的下一审批人。", hrUser.getUsername(), leaveRequest.getId());
                 return hrUser;
             }
 
@@ -36,7 +36,7 @@ public class HRApprover extends AbstractApprover {
         // 这里我们还是使用天数作为判断依据。
         boolean canApprove = leaveDays <= MAX_DAYS_CAN_APPROVE_BY_ROLE;
         if (!canApprove) {
-            logger.info("HR {} 无法批准请假ID {}，申请天数 {} 超过其权限 {} 天。",
+            logger.debug("HR {} 无法批准请假ID {}，申请天数 {} 超过其权限 {} 天。",
                     actionTakingApprover.getUsername(), leaveRequest.getId(), leaveDays, MAX_DAYS_CAN_APPROVE_BY_ROLE);
             // 如果HR都无法批准，通常意味着申请天数过长，可能需要更高级别或特殊流程
         }
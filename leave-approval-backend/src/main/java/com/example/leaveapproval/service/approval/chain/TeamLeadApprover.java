@@ -26,7 +26,7 @@ public class TeamLeadApprover extends AbstractApprover {
         long leaveDays = calculateLeaveDays(leaveRequest);
         boolean canApprove = leaveDays <= MAX_DAYS_CAN_APPROVE_BY_ROLE;
         if (!canApprove) {
-            logger.info("团队领导 {} 无法直接最终批准请假ID {}，申请天数 {} 超过其权限 {} 天。",
+            logger.debug("团队领导 {} 无法直接最终批准请假ID {}，申请天数 {} 超过其权限 {} 天。",
                     actionTakingApprover.getUsername(), leaveRequest.getId(), leaveDays, MAX_DAYS_CAN_APPROVE_BY_ROLE);
         }
         return canApprove;
@@ -52,13 +52,13 @@ public class TeamLeadApprover extends AbstractApprover {
                     leaveRequest.getId(), leaveDays);
             return null; // TeamLead 是此场景的最终审批人
         } else {
-            logger.info("请假申请 ID: {} 天数 {} 超过团队领导权限，查找下一级审批人 (部门经理或HR)。", leaveRequest.getId(), leaveDays);
+            logger.debug("请假申请 ID: {} 天数 {} 超过团队领导权限，查找下一级审批人 (部门经理或HR)。", leaveRequest.getId(), leaveDays);
 
             // 优先查找部门经理
             List<User> deptManagers = findUsersByRole(Role.ROLE_DEPT_MANAGER); // 使用父类的方法
             if (!deptManagers.isEmpty()) {
                 User deptManager = deptManagers.get(0);
-                logger.info("找到部门经理 {} 作为请假申请 ID: {} 的下一审批人。", deptManager.getUsername(), leaveRequest.getId());
+                logger.debug("找到部门经理 {} 作为请假申请 ID: {} 的下一审批人。", deptManager.getUsername(), leaveRequest.getId());
                 return deptManager;
             } else {
                 logger.warn("未找到部门经理，尝试查找HR作为下一级。");
@@ -66,7 +66,7 @@ public class TeamLeadApprover extends AbstractApprover {
                 List<User> hrUsers = findUsersByRole(Role.ROLE_HR); // 使用父类的方法
                 if (!hrUsers.isEmpty()) {
                     User hrUser = hrUsers.get(0);
-                    logger.info("找到HR用户 {} 作为请假申请 ID: {} 的下一审批人。", hrUser.getUsername(), leaveRequest.getId());
+                    logger.debug("找到HR用户 {} 作为请假申请 ID: {} 的下一审批人。", hrUser.getUsername(), leaveRequest.getId());
                     return hrUser;
                 }
             }
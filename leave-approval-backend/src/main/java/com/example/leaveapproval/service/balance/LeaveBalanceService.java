@@ -0,0 +1,47 @@
+package com.example.leaveapproval.service.balance;
+
+import com.example.leaveapproval.dto.LeaveBalanceDto;
+import com.example.leaveapproval.dto.LeaveLedgerEntryDto;
+import com.example.leaveapproval.model.LeaveType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 假期余额服务接口。
+ * 余额由只追加的流水（批准扣减、取消返还）驱动，并按 (用户, 请假类型, 年度) 物化为汇总行。
+ */
+public interface LeaveBalanceService {
+
+    /**
+     * 获取用户某一请假类型在指定年度的余额（单行读取）。
+     * @param userId    用户ID。
+     * @param leaveType 请假类型。
+     * @param year      年度。
+     * @return 余额信息；尚无流水时返回已用为 0 的余额。
+     */
+    LeaveBalanceDto getBalance(Long userId, LeaveType leaveType, int year);
+
+    /**
+     * 获取用户在指定年度所有请假类型的余额。
+     * @param userId 用户ID。
+     * @param year   年度。
+     * @return 按请假类型排列的余额列表。
+     */
+    List<LeaveBalanceDto> getBalances(Long userId, int year);
+
+    /**
+     * 获取用户在指定年度的流水明细。
+     * @param userId 用户ID。
+     * @param year   年度。
+     * @return 按记账顺序排列的流水列表。
+     */
+    List<LeaveLedgerEntryDto> getLedgerEntries(Long userId, int year);
+
+    /**
+     * 校验用户剩余额度是否足够覆盖 [startDate, endDate] 的请假（跨年度时按年度分别校验）。
+     * 不限额度的请假类型直接通过。
+     * @throws IllegalArgumentException 余额不足时抛出。
+     */
+    void checkSufficientBalance(Long userId, LeaveType leaveType, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,232 @@
+package com.example.leaveapproval.service.balance.impl;
+
+import com.example.leaveapproval.dto.LeaveBalanceDto;
+import com.example.leaveapproval.dto.LeaveLedgerEntryDto;
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.model.LeaveBalance;
+import com.example.leaveapproval.model.LeaveLedgerEntry;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.repository.LeaveBalanceRepository;
+import com.example.leaveapproval.repository.LeaveLedgerEntryRepository;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.balance.LeaveBalanceService;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * {@link LeaveBalanceService} 接口的实现类。
+ * <p>
+ * 同步监听 {@link LeaveRequestTransitionEvent}，在发布事件的审批/取消事务内追加流水并更新余额行，
+ * 因此余额与请假状态总是一起提交或一起回滚。余额行以悲观写锁更新，避免并发审批时丢失更新。
+ * 各请假类型的年度额度通过 app.leave.entitlement.&lt;LeaveType&gt; 配置，未配置的类型不限额度。
+ * 余额行创建时该类型尚未配置额度（额度为 null）的，以当前配置为准，并在下次记账时于行锁内写入该行。
+ */
+@Service
+@Transactional
+public class LeaveBalanceServiceImpl implements LeaveBalanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveBalanceServiceImpl.class);
+
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final LeaveLedgerEntryRepository leaveLedgerEntryRepository;
+    private final UserRepository userRepository;
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final WorkingDayCalendarService workingDayCalendarService;
+    private final Map<LeaveType, Integer> entitlements = new EnumMap<>(LeaveType.class);
+
+    @Autowired
+    public LeaveBalanceServiceImpl(LeaveBalanceRepository leaveBalanceRepository,
+                                   LeaveLedgerEntryRepository leaveLedgerEntryRepository,
+                                   UserRepository userRepository,
+                                   LeaveRequestRepository leaveRequestRepository,
+                                   WorkingDayCalendarService workingDayCalendarService,
+                                   Environment environment) {
+        this.leaveBalanceRepository = leaveBalanceRepository;
+        this.leaveLedgerEntryRepository = leaveLedgerEntryRepository;
+        this.userRepository = userRepository;
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.workingDayCalendarService = workingDayCalendarService;
+        for (LeaveType type : LeaveType.values()) {
+            Integer days = environment.getProperty("app.leave.entitlement." + type.name(), Integer.class);
+            if (days != null) {
+                entitlements.put(type, days);
+            }
+        }
+        logger.info("假期年度额度配置：{}（未列出的类型不限额度）", entitlements);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LeaveBalanceDto getBalance(Long userId, LeaveType leaveType, int year) {
+        return leaveBalanceRepository.findByUserIdAndLeaveTypeAndYear(userId, leaveType, year)
+                .map(this::toDto)
+                .orElseGet(() -> LeaveBalanceDto.unused(userId, leaveType, year, entitlements.get(leaveType)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveBalanceDto> getBalances(Long userId, int year) {
+        Map<LeaveType, LeaveBalance> rows = leaveBalanceRepository.findByUserIdAndYear(userId, year).stream()
+                .collect(Collectors.toMap(LeaveBalance::getLeaveType, b -> b));
+        List<LeaveBalanceDto> result = new ArrayList<>();
+        for (LeaveType type : LeaveType.values()) {
+            LeaveBalance row = rows.get(type);
+            result.add(row != null ? toDto(row)
+                    : LeaveBalanceDto.unused(userId, type, year, entitlements.get(type)));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LeaveLedgerEntryDto> getLedgerEntries(Long userId, int year) {
+        return leaveLedgerEntryRepository.findByUserIdAndYearOrderByIdAsc(userId, year).stream()
+                .map(LeaveLedgerEntryDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkSufficientBalance(Long userId, LeaveType leaveType, LocalDate startDate, LocalDate endDate) {
+        if (!entitlements.containsKey(leaveType)) {
+            return;
+        }
+        for (Map.Entry<Integer, Long> perYear : splitWorkingDaysByYear(startDate, endDate).entrySet()) {
+            long remainingDays = getBalance(userId, leaveType, perYear.getKey()).getRemainingDays();
+            if (remainingDays < perYear.getValue()) {
+                throw new IllegalArgumentException(String.format(
+                        "Insufficient %s balance for %d: %d working day(s) remaining, %d requested.",
+                        leaveType, perYear.getKey(), remainingDays, perYear.getValue()));
+            }
+        }
+    }
+
+    /**
+     * 在发布事件的事务内记账：最终批准时扣减，已批准的申请被取消时返还。
+     */
+    @EventListener
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        if (!event.isStatusChanged()) {
+            return;
+        }
+        if (event.getToStatus() == LeaveStatus.APPROVED) {
+            debit(event);
+        } else if (event.getFromStatus() == LeaveStatus.APPROVED && event.getToStatus() == LeaveStatus.CANCELLED) {
+            credit(event);
+        }
+    }
+
+    private void debit(LeaveRequestTransitionEvent event) {
+        for (Map.Entry<Integer, Long> perYear : splitWorkingDaysByYear(event.getStartDate(), event.getEndDate()).entrySet()) {
+            int year = perYear.getKey();
+            long days = perYear.getValue();
+            LeaveBalance balance = lockOrCreateBalance(event.getApplicantId(), event.getLeaveType(), year);
+            if (balance.getEntitledDays() != null && balance.getUsedDays() + days > balance.getEntitledDays()) {
+                // 提交时已校验过余额，这里仍不足说明期间有其他申请先被批准
+                throw new IllegalArgumentException(String.format(
+                        "Insufficient %s balance for %d to approve leave request (ID: %d): %d working day(s) remaining, %d requested.",
+                        event.getLeaveType(), year, event.getRequestId(), balance.getRemainingDays(), days));
+            }
+            balance.setUsedDays(balance.getUsedDays() + days);
+            leaveBalanceRepository.save(balance);
+            appendEntry(event, year, LeaveLedgerEntry.EntryType.DEBIT, days);
+        }
+        logger.info("请假申请ID {} 已批准，已扣减用户ID {} 的 {} 余额。", event.getRequestId(), event.getApplicantId(), event.getLeaveType());
+    }
+
+    private void credit(LeaveRequestTransitionEvent event) {
+        // 按该申请已记的流水冲销，而不是按当前日历重新计算，保证扣减与返还严格对等
+        Map<Integer, Long> netByYear = new TreeMap<>();
+        for (LeaveLedgerEntry entry : leaveLedgerEntryRepository.findByLeaveRequestIdOrderByIdAsc(event.getRequestId())) {
+            netByYear.merge(entry.getYear(), entry.getDays(), Long::sum);
+        }
+        for (Map.Entry<Integer, Long> perYear : netByYear.entrySet()) {
+            long days = perYear.getValue();
+            if (days <= 0) {
+                continue;
+            }
+            LeaveBalance balance = lockOrCreateBalance(event.getApplicantId(), event.getLeaveType(), perYear.getKey());
+            balance.setUsedDays(balance.getUsedDays() - days);
+            leaveBalanceRepository.save(balance);
+            appendEntry(event, perYear.getKey(), LeaveLedgerEntry.EntryType.CREDIT, -days);
+        }
+        logger.info("已批准的请假申请ID {} 被取消，已返还用户ID {} 的 {} 余额。", event.getRequestId(), event.getApplicantId(), event.getLeaveType());
+    }
+
+    private LeaveBalance lockOrCreateBalance(Long userId, LeaveType leaveType, int year) {
+        Optional<LeaveBalance> locked = leaveBalanceRepository.findForUpdate(userId, leaveType, year);
+        if (locked.isPresent()) {
+            LeaveBalance balance = locked.get();
+            if (balance.getEntitledDays() == null) {
+                // 行创建时该类型尚未配置额度：在行锁内补写当前配置，由调用方随已用天数一起保存
+                balance.setEntitledDays(entitlements.get(leaveType));
+            }
+            return balance;
+        }
+        LeaveBalance balance = new LeaveBalance();
+        balance.setUser(userRepository.getReferenceById(userId));
+        balance.setLeaveType(leaveType);
+        balance.setYear(year);
+        balance.setEntitledDays(entitlements.get(leaveType));
+        balance.setUsedDays(0);
+        // 并发首次创建同一行时，唯一约束会让后提交的事务失败（409），不会产生重复行
+        return leaveBalanceRepository.saveAndFlush(balance);
+    }
+
+    /**
+     * 余额行的额度为 null 且该类型已配置额度时，按当前配置计算额度和剩余天数。
+     */
+    private LeaveBalanceDto toDto(LeaveBalance balance) {
+        LeaveBalanceDto dto = LeaveBalanceDto.fromEntity(balance);
+        Integer configured = entitlements.get(balance.getLeaveType());
+        if (dto.getEntitledDays() == null && configured != null) {
+            dto.setEntitledDays(configured);
+            dto.setRemainingDays(configured - dto.getUsedDays());
+        }
+        return dto;
+    }
+
+    private void appendEntry(LeaveRequestTransitionEvent event, int year, LeaveLedgerEntry.EntryType entryType, long days) {
+        LeaveLedgerEntry entry = new LeaveLedgerEntry();
+        entry.setUser(userRepository.getReferenceById(event.getApplicantId()));
+        entry.setLeaveRequest(leaveRequestRepository.getReferenceById(event.getRequestId()));
+        entry.setLeaveType(event.getLeaveType());
+        entry.setYear(year);
+        entry.setEntryType(entryType);
+        entry.setDays(days);
+        leaveLedgerEntryRepository.save(entry);
+    }
+
+    /**
+     * 将 [startDate, endDate] 按自然年拆分，返回各年度内的工作日天数（跳过为 0 的年度）。
+     */
+    private Map<Integer, Long> splitWorkingDaysByYear(LocalDate startDate, LocalDate endDate) {
+        Map<Integer, Long> result = new TreeMap<>();
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate from = year == startDate.getYear() ? startDate : LocalDate.of(year, 1, 1);
+            LocalDate to = year == endDate.getYear() ? endDate : LocalDate.of(year, 12, 31);
+            long days = workingDayCalendarService.countWorkingDays(from, to);
+            if (days > 0) {
+                result.put(year, days);
+            }
+        }
+        return result;
+    }
+}
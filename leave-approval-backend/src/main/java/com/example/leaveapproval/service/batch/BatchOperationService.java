@@ -0,0 +1,21 @@
+package com.example.leaveapproval.service.batch;
+
+import com.example.leaveapproval.dto.BatchRequestDto;
+import com.example.leaveapproval.dto.BatchResponseDto;
+import com.example.leaveapproval.model.User;
+
+/**
+ * 批量操作服务接口：在一次请求中按顺序执行多个写操作（创建/更新用户、提交请假、审批）。
+ */
+public interface BatchOperationService {
+
+    /**
+     * 按请求中的顺序和事务分组执行子操作。
+     * 单个子操作失败不会中断批次，失败原因记录在对应的结果中；权限按单个接口的规则逐个校验。
+     * @param request     批量请求。
+     * @param currentUser 当前登录用户。
+     * @return 每个子操作的结果。
+     * @throws IllegalArgumentException 子操作数量超过上限时。
+     */
+    BatchResponseDto execute(BatchRequestDto request, User currentUser);
+}
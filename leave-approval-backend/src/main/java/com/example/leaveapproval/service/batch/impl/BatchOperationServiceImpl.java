@@ -0,0 +1,265 @@
+package com.example.leaveapproval.service.batch.impl;
+
+import com.example.leaveapproval.dto.AdminUserCreateRequest;
+import com.example.leaveapproval.dto.ApprovalActionDto;
+import com.example.leaveapproval.dto.BatchRequestDto;
+import com.example.leaveapproval.dto.BatchResponseDto;
+import com.example.leaveapproval.dto.LeaveRequestCreateDto;
+import com.example.leaveapproval.dto.MessageResponse;
+import com.example.leaveapproval.dto.UserUpdateRequest;
+import com.example.leaveapproval.exception.GlobalExceptionHandler;
+import com.example.leaveapproval.exception.ResourceNotFoundException;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.batch.BatchOperationService;
+import com.example.leaveapproval.service.leave.LeaveRequestManagementService;
+import com.example.leaveapproval.service.user.AdminUserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link BatchOperationService} 接口的实现类。
+ * <p>
+ * 子操作在请求线程上依次调用与单个接口相同的服务方法，认证只在批次请求上进行一次，权限按单个接口的规则逐个校验。
+ * 每个事务组由 {@link TransactionTemplate} 包裹，组内的服务调用加入同一个事务：任一操作失败时不再执行组内剩余操作，
+ * 整组回滚，已执行的操作记为 424。组提交后清空持久化上下文，大批次的内存占用和脏检查开销不随操作数增长。
+ * <p>
+ * 失败的状态码和响应体由 {@link GlobalExceptionHandler} 中对应的处理方法生成，与单个接口一致。
+ */
+@Service
+public class BatchOperationServiceImpl implements BatchOperationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchOperationServiceImpl.class);
+
+    private final AdminUserService adminUserService;
+    private final LeaveRequestManagementService leaveRequestManagementService;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final ExceptionHandlerMethodResolver exceptionHandlerMethods;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxOperations;
+
+    @Autowired
+    public BatchOperationServiceImpl(AdminUserService adminUserService,
+                                     LeaveRequestManagementService leaveRequestManagementService,
+                                     GlobalExceptionHandler exceptionHandler,
+                                     ObjectMapper objectMapper,
+                                     Validator validator,
+                                     EntityManager entityManager,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.batch.max-operations:1000}") int maxOperations) {
+        this.adminUserService = adminUserService;
+        this.leaveRequestManagementService = leaveRequestManagementService;
+        this.exceptionHandler = exceptionHandler;
+        this.exceptionHandlerMethods = new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxOperations = maxOperations;
+    }
+
+    @Override
+    public BatchResponseDto execute(BatchRequestDto request, User currentUser) {
+        List<BatchRequestDto.Operation> operations = request.getOperations();
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("Too many operations in one batch (max " + maxOperations + ").");
+        }
+        int groupSize = request.getTransactionGroupSize() == null || request.getTransactionGroupSize() == 0
+                ? operations.size() : request.getTransactionGroupSize();
+        logger.info("用户 {} (ID: {}) 提交批量操作：共 {} 个子操作，每 {} 个为一个事务组。",
+                currentUser.getUsername(), currentUser.getId(), operations.size(), groupSize);
+
+        List<BatchResponseDto.Result> results = new ArrayList<>(operations.size());
+        for (int start = 0; start < operations.size(); start += groupSize) {
+            results.addAll(executeGroup(operations, start, Math.min(start + groupSize, operations.size()), currentUser));
+        }
+        long failed = results.stream().filter(result -> result.getStatus() >= 400).count();
+        logger.info("用户 {} 的批量操作完成：成功 {} 个，失败或回滚 {} 个。", currentUser.getUsername(), results.size() - failed, failed);
+        return new BatchResponseDto(results);
+    }
+
+    private List<BatchResponseDto.Result> executeGroup(List<BatchRequestDto.Operation> operations, int start, int end, User currentUser) {
+        List<BatchResponseDto.Result> results = new ArrayList<>(end - start);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int index = start; index < end; index++) {
+                    BatchRequestDto.Operation operation = operations.get(index);
+                    BatchResponseDto.Result result;
+                    try {
+                        result = success(index, operation, executeOperation(operation, currentUser));
+                    } catch (Exception e) {
+                        result = failure(index, operation, e);
+                    }
+                    results.add(result);
+                    if (result.getStatus() >= 400) {
+                        status.setRollbackOnly();
+                        skipRemaining(operations, index, start, end, results);
+                        return;
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // 提交时失败（如唯一约束在刷新时才触发）：整组都没有生效
+            logger.warn("批量操作第 {} 至 {} 个子操作的事务提交失败：{}", start, end - 1, e.getMessage());
+            BatchResponseDto.Result error = failure(start, operations.get(start), e);
+            results.clear();
+            for (int index = start; index < end; index++) {
+                results.add(new BatchResponseDto.Result(index, operations.get(index).getRef(), error.getStatus(), error.getBody()));
+            }
+        } finally {
+            entityManager.clear();
+        }
+        return results;
+    }
+
+    private Object executeOperation(BatchRequestDto.Operation operation, User currentUser) {
+        switch (operation.getOp()) {
+            case CREATE_USER -> {
+                requireAdmin(currentUser);
+                return adminUserService.createUser(readBody(operation, AdminUserCreateRequest.class));
+            }
+            case UPDATE_USER -> {
+                requireAdmin(currentUser);
+                Long userId = requireId(operation);
+                return adminUserService.updateUser(userId, readBody(operation, UserUpdateRequest.class))
+                        .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+            }
+            case SUBMIT_LEAVE -> {
+                // 与单条提交相同的重叠检查：查询前会自动刷新，组内先提交的申请对后面的申请可见
+                return leaveRequestManagementService.submitLeaveRequest(readBody(operation, LeaveRequestCreateDto.class));
+            }
+            case APPROVAL_ACTION -> {
+                return leaveRequestManagementService.processApprovalAction(requireId(operation),
+                        readBody(operation, ApprovalActionDto.class), currentUser.getId());
+            }
+            default -> throw new IllegalArgumentException("Unsupported operation: " + operation.getOp());
+        }
+    }
+
+    private static void requireAdmin(User currentUser) {
+        if (!currentUser.getRoles().contains(Role.ROLE_ADMIN)) {
+            throw new AccessDeniedException("Operation requires ADMIN role.");
+        }
+    }
+
+    private static Long requireId(BatchRequestDto.Operation operation) {
+        if (operation.getId() == null) {
+            throw new IllegalArgumentException("Operation " + operation.getOp() + " requires an id.");
+        }
+        return operation.getId();
+    }
+
+    /**
+     * 把子操作的请求体转换为单个接口的 DTO 并执行 Bean Validation（相当于单个接口上的 @Valid）。
+     */
+    private <T> T readBody(BatchRequestDto.Operation operation, Class<T> type) {
+        if (operation.getBody() == null || operation.getBody().isNull()) {
+            throw new IllegalArgumentException("Operation " + operation.getOp() + " requires a body.");
+        }
+        T body;
+        try {
+            body = objectMapper.treeToValue(operation.getBody(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed body for operation " + operation.getOp() + ": " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new InvalidBodyException(violations);
+        }
+        return body;
+    }
+
+    private static BatchResponseDto.Result success(int index, BatchRequestDto.Operation operation, Object body) {
+        HttpStatus status = switch (operation.getOp()) {
+            case CREATE_USER, SUBMIT_LEAVE -> HttpStatus.CREATED;
+            default -> HttpStatus.OK;
+        };
+        return new BatchResponseDto.Result(index, operation.getRef(), status.value(), body);
+    }
+
+    private BatchResponseDto.Result failure(int index, BatchRequestDto.Operation operation, Exception e) {
+        if (e instanceof InvalidBodyException invalid) {
+            // 与 @Valid 校验失败的响应相同：字段名到错误信息
+            Map<String, String> errors = new HashMap<>();
+            invalid.violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+            return new BatchResponseDto.Result(index, operation.getRef(), HttpStatus.BAD_REQUEST.value(), errors);
+        }
+        ResponseEntity<?> response = handle(e);
+        if (response.getStatusCode().is5xxServerError()) {
+            logger.error("批量操作第 {} 个子操作 ({}) 执行出错：{}", index, operation.getOp(), e.getMessage(), e);
+        }
+        return new BatchResponseDto.Result(index, operation.getRef(), response.getStatusCode().value(), response.getBody());
+    }
+
+    /**
+     * 调用 {@link GlobalExceptionHandler} 中匹配该异常的处理方法。
+     */
+    private ResponseEntity<?> handle(Exception e) {
+        Method method = exceptionHandlerMethods.resolveMethod(e);
+        if (method != null) {
+            Object[] args = new Object[method.getParameterCount()];
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < args.length; i++) {
+                args[i] = parameterTypes[i].isInstance(e) ? e : null;
+            }
+            try {
+                return (ResponseEntity<?>) method.invoke(exceptionHandler, args);
+            } catch (IllegalAccessException | InvocationTargetException ex) {
+                logger.error("调用异常处理方法 {} 失败。", method.getName(), ex);
+            }
+        }
+        return new ResponseEntity<>(new MessageResponse("An unexpected error occurred: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private static void skipRemaining(List<BatchRequestDto.Operation> operations, int failedIndex, int start, int end,
+                                      List<BatchResponseDto.Result> results) {
+        MessageResponse rolledBack = new MessageResponse("Rolled back: operation " + failedIndex + " in the same transaction group failed.");
+        MessageResponse notExecuted = new MessageResponse("Not executed: operation " + failedIndex + " in the same transaction group failed.");
+        for (int i = 0; i < failedIndex - start; i++) {
+            BatchResponseDto.Result executed = results.get(i);
+            executed.setStatus(HttpStatus.FAILED_DEPENDENCY.value());
+            executed.setBody(rolledBack);
+        }
+        for (int index = failedIndex + 1; index < end; index++) {
+            results.add(new BatchResponseDto.Result(index, operations.get(index).getRef(), HttpStatus.FAILED_DEPENDENCY.value(), notExecuted));
+        }
+    }
+
+    /**
+     * 子操作请求体校验失败。
+     */
+    private static final class InvalidBodyException extends RuntimeException {
+
+        private final transient Set<? extends ConstraintViolation<?>> violations;
+
+        private InvalidBodyException(Set<? extends ConstraintViolation<?>> violations) {
+            super("Validation failed");
+            this.violations = violations;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.leaveapproval.service.calendar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 某一区域的节假日配置：法定节假日 + 调休上班日。
+ * <p>
+ * 节假日文件为纯文本，每行一条记录，'#' 之后为注释：
+ * <pre>
+ *   2025-01-01                 单日假期
+ *   2025-01-28..2025-02-04     连续假期（含首尾）
+ *   +2025-01-26                调休上班日（周末补班）
+ * </pre>
+ */
+public final class RegionHolidays {
+
+    private final String region;
+    private final Set<LocalDate> holidays;
+    private final Set<LocalDate> adjustedWorkdays;
+
+    public RegionHolidays(String region, Set<LocalDate> holidays, Set<LocalDate> adjustedWorkdays) {
+        this.region = region;
+        this.holidays = Collections.unmodifiableSet(holidays);
+        this.adjustedWorkdays = Collections.unmodifiableSet(adjustedWorkdays);
+    }
+
+    /**
+     * 未配置任何节假日的区域（仅周末休息）。
+     */
+    public static RegionHolidays weekendsOnly(String region) {
+        return new RegionHolidays(region, new HashSet<>(), new HashSet<>());
+    }
+
+    /**
+     * 从节假日文件解析区域配置。
+     * @param region 区域代码。
+     * @param reader 文件内容。
+     * @return 解析结果。
+     * @throws IOException 读取失败。
+     * @throws IllegalArgumentException 如果某行格式无效。
+     */
+    public static RegionHolidays parse(String region, BufferedReader reader) throws IOException {
+        Set<LocalDate> holidays = new HashSet<>();
+        Set<LocalDate> adjustedWorkdays = new HashSet<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int commentStart = line.indexOf('#');
+            String entry = (commentStart >= 0 ? line.substring(0, commentStart) : line).trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            try {
+                if (entry.startsWith("+")) {
+                    adjustedWorkdays.add(LocalDate.parse(entry.substring(1).trim()));
+                } else if (entry.contains("..")) {
+                    String[] range = entry.split("\\.\\.", 2);
+                    LocalDate from = LocalDate.parse(range[0].trim());
+                    LocalDate to = LocalDate.parse(range[1].trim());
+                    if (to.isBefore(from)) {
+                        throw new IllegalArgumentException("节假日区间结束日期早于开始日期");
+                    }
+                    for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                        holidays.add(date);
+                    }
+                } else {
+                    holidays.add(LocalDate.parse(entry));
+                }
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new IllegalArgumentException(
+                        "节假日文件格式错误（区域 " + region + "，第 " + lineNumber + " 行：'" + line + "'）：" + e.getMessage(), e);
+            }
+        }
+        return new RegionHolidays(region, holidays, adjustedWorkdays);
+    }
+
+    /**
+     * 生成指定年份的工作日日历。
+     */
+    public YearCalendar buildYear(int year) {
+        return YearCalendar.build(year, holidays, adjustedWorkdays);
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public Set<LocalDate> getHolidays() {
+        return holidays;
+    }
+
+    public Set<LocalDate> getAdjustedWorkdays() {
+        return adjustedWorkdays;
+    }
+}
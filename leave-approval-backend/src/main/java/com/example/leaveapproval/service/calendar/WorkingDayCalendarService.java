@@ -0,0 +1,45 @@
+package com.example.leaveapproval.service.calendar;
+
+import java.time.LocalDate;
+
+/**
+ * 工作日日历服务接口。
+ * 负责根据各区域的节假日配置判断某天是否为工作日，并统计日期区间内的工作日数。
+ * 请假天数、审批权限判断等都应以工作日而非自然日为准。
+ */
+public interface WorkingDayCalendarService {
+
+    /**
+     * 使用默认区域统计 [startInclusive, endInclusive] 区间内的工作日数。
+     * @param startInclusive 开始日期（包含）。
+     * @param endInclusive   结束日期（包含）。
+     * @return 工作日数；任一日期为 null 或结束早于开始时返回 0。
+     */
+    long countWorkingDays(LocalDate startInclusive, LocalDate endInclusive);
+
+    /**
+     * 使用指定区域统计 [startInclusive, endInclusive] 区间内的工作日数。
+     * @param region         区域代码（例如 "CN"）。
+     * @param startInclusive 开始日期（包含）。
+     * @param endInclusive   结束日期（包含）。
+     * @return 工作日数；任一日期为 null 或结束早于开始时返回 0。
+     * @throws IllegalArgumentException 如果区域未配置。
+     */
+    long countWorkingDays(String region, LocalDate startInclusive, LocalDate endInclusive);
+
+    /**
+     * 使用默认区域判断某天是否为工作日。
+     */
+    boolean isWorkingDay(LocalDate date);
+
+    /**
+     * 使用指定区域判断某天是否为工作日。
+     * @throws IllegalArgumentException 如果区域未配置。
+     */
+    boolean isWorkingDay(String region, LocalDate date);
+
+    /**
+     * @return 默认区域代码。
+     */
+    String getDefaultRegion();
+}
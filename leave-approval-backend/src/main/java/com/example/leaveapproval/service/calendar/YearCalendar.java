@@ -0,0 +1,85 @@
+package com.example.leaveapproval.service.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.BitSet;
+import java.util.Set;
+
+/**
+ * 单个年份的工作日日历（不可变）。
+ * 以位图记录当年每一天是否为工作日（第 i 位对应 dayOfYear = i），
+ * 并预先计算前缀和数组，使任意日期区间内的工作日计数为 O(1)。
+ */
+public final class YearCalendar {
+
+    private final int year;
+    private final int daysInYear;
+    private final BitSet workingDays;
+    // prefixWorkingDays[i] = 当年第 1..i 天中的工作日数量，prefixWorkingDays[0] = 0
+    private final int[] prefixWorkingDays;
+
+    private YearCalendar(int year, BitSet workingDays) {
+        this.year = year;
+        this.daysInYear = Year.of(year).length();
+        this.workingDays = workingDays;
+        this.prefixWorkingDays = new int[daysInYear + 1];
+        for (int day = 1; day <= daysInYear; day++) {
+            prefixWorkingDays[day] = prefixWorkingDays[day - 1] + (workingDays.get(day) ? 1 : 0);
+        }
+    }
+
+    /**
+     * 构建某一年的工作日日历。
+     * 默认周一至周五为工作日；holidays 中的日期强制为休息日，adjustedWorkdays 中的日期（调休补班）强制为工作日。
+     *
+     * @param year             年份。
+     * @param holidays         法定节假日集合（可包含其他年份的日期，会被忽略）。
+     * @param adjustedWorkdays 调休上班日集合（可包含其他年份的日期，会被忽略）。
+     * @return 该年份的日历。
+     */
+    public static YearCalendar build(int year, Set<LocalDate> holidays, Set<LocalDate> adjustedWorkdays) {
+        BitSet bits = new BitSet(Year.of(year).length() + 1);
+        LocalDate date = LocalDate.of(year, 1, 1);
+        while (date.getYear() == year) {
+            DayOfWeek dayOfWeek = date.getDayOfWeek();
+            boolean working = dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY;
+            if (holidays.contains(date)) {
+                working = false;
+            }
+            if (adjustedWorkdays.contains(date)) {
+                working = true;
+            }
+            if (working) {
+                bits.set(date.getDayOfYear());
+            }
+            date = date.plusDays(1);
+        }
+        return new YearCalendar(year, bits);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public boolean isWorkingDay(int dayOfYear) {
+        return workingDays.get(dayOfYear);
+    }
+
+    /**
+     * 统计当年第 fromDayOfYear 天到第 toDayOfYear 天（均包含）之间的工作日数。
+     * 越界的参数会被截断到当年范围内；区间为空时返回 0。
+     */
+    public int countWorkingDays(int fromDayOfYear, int toDayOfYear) {
+        int from = Math.max(1, fromDayOfYear);
+        int to = Math.min(daysInYear, toDayOfYear);
+        if (to < from) {
+            return 0;
+        }
+        return prefixWorkingDays[to] - prefixWorkingDays[from - 1];
+    }
+
+    public int getWorkingDaysInYear() {
+        return prefixWorkingDays[daysInYear];
+    }
+}
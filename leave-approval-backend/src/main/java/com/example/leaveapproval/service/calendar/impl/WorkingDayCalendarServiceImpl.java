@@ -0,0 +1,137 @@
+package com.example.leaveapproval.service.calendar.impl;
+
+import com.example.leaveapproval.service.calendar.RegionHolidays;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.calendar.YearCalendar;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link WorkingDayCalendarService} 的实现。
+ * 启动时从 {@code app.calendar.holidays-location} 下加载各区域的节假日文件（holidays-{区域}.txt），
+ * 每个 (区域, 年份) 的 {@link YearCalendar} 在首次使用时构建并缓存，之后的计数只涉及数组访问。
+ */
+@Service
+public class WorkingDayCalendarServiceImpl implements WorkingDayCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkingDayCalendarServiceImpl.class);
+
+    private final ResourceLoader resourceLoader;
+    private final String defaultRegion;
+    private final String[] regions;
+    private final String holidaysLocation;
+
+    private final Map<String, RegionHolidays> holidaysByRegion = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, YearCalendar>> yearCalendarsByRegion = new ConcurrentHashMap<>();
+
+    @Autowired
+    public WorkingDayCalendarServiceImpl(
+            ResourceLoader resourceLoader,
+            @Value("${app.calendar.default-region:CN}") String defaultRegion,
+            @Value("${app.calendar.regions:CN}") String[] regions,
+            @Value("${app.calendar.holidays-location:classpath:calendar/}") String holidaysLocation) {
+        this.resourceLoader = resourceLoader;
+        this.defaultRegion = defaultRegion;
+        this.regions = regions;
+        this.holidaysLocation = holidaysLocation.endsWith("/") ? holidaysLocation : holidaysLocation + "/";
+    }
+
+    @PostConstruct
+    public void loadHolidays() {
+        for (String region : regions) {
+            String trimmedRegion = region.trim();
+            if (trimmedRegion.isEmpty()) {
+                continue;
+            }
+            holidaysByRegion.put(trimmedRegion, readRegion(trimmedRegion));
+            yearCalendarsByRegion.put(trimmedRegion, new ConcurrentHashMap<>());
+        }
+        if (!holidaysByRegion.containsKey(defaultRegion)) {
+            logger.warn("默认节假日区域 {} 未在 app.calendar.regions 中配置，将按仅周末休息处理。", defaultRegion);
+            holidaysByRegion.put(defaultRegion, RegionHolidays.weekendsOnly(defaultRegion));
+            yearCalendarsByRegion.put(defaultRegion, new ConcurrentHashMap<>());
+        }
+    }
+
+    private RegionHolidays readRegion(String region) {
+        Resource resource = resourceLoader.getResource(holidaysLocation + "holidays-" + region + ".txt");
+        if (!resource.exists()) {
+            logger.warn("未找到区域 {} 的节假日文件 ({})，该区域将按仅周末休息处理。", region, resource.getDescription());
+            return RegionHolidays.weekendsOnly(region);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            RegionHolidays holidays = RegionHolidays.parse(region, reader);
+            logger.info("已加载区域 {} 的节假日配置：{} 个假日，{} 个调休上班日。",
+                    region, holidays.getHolidays().size(), holidays.getAdjustedWorkdays().size());
+            return holidays;
+        } catch (IOException e) {
+            throw new IllegalStateException("读取区域 " + region + " 的节假日文件失败：" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long countWorkingDays(LocalDate startInclusive, LocalDate endInclusive) {
+        return countWorkingDays(defaultRegion, startInclusive, endInclusive);
+    }
+
+    @Override
+    public long countWorkingDays(String region, LocalDate startInclusive, LocalDate endInclusive) {
+        if (startInclusive == null || endInclusive == null || endInclusive.isBefore(startInclusive)) {
+            return 0;
+        }
+        if (startInclusive.getYear() == endInclusive.getYear()) {
+            return yearCalendar(region, startInclusive.getYear())
+                    .countWorkingDays(startInclusive.getDayOfYear(), endInclusive.getDayOfYear());
+        }
+        // 跨年区间：首尾两年按区间计数，中间整年直接取全年工作日数
+        long total = yearCalendar(region, startInclusive.getYear())
+                .countWorkingDays(startInclusive.getDayOfYear(), Integer.MAX_VALUE);
+        for (int year = startInclusive.getYear() + 1; year < endInclusive.getYear(); year++) {
+            total += yearCalendar(region, year).getWorkingDaysInYear();
+        }
+        total += yearCalendar(region, endInclusive.getYear())
+                .countWorkingDays(1, endInclusive.getDayOfYear());
+        return total;
+    }
+
+    @Override
+    public boolean isWorkingDay(LocalDate date) {
+        return isWorkingDay(defaultRegion, date);
+    }
+
+    @Override
+    public boolean isWorkingDay(String region, LocalDate date) {
+        return yearCalendar(region, date.getYear()).isWorkingDay(date.getDayOfYear());
+    }
+
+    @Override
+    public String getDefaultRegion() {
+        return defaultRegion;
+    }
+
+    private YearCalendar yearCalendar(String region, int year) {
+        Map<Integer, YearCalendar> calendars = yearCalendarsByRegion.get(region);
+        if (calendars == null) {
+            throw new IllegalArgumentException("未配置的节假日区域：" + region);
+        }
+        YearCalendar calendar = calendars.get(year);
+        if (calendar == null) {
+            calendar = calendars.computeIfAbsent(year, y -> holidaysByRegion.get(region).buildYear(y));
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.leaveapproval.service.coalescing;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记只读的 Service 方法：参数相同的并发调用共享同一次执行和结果（single-flight），见 {@link RequestCoalescer}。
+ * <p>
+ * 只能用于结果只取决于参数的方法（不读取当前登录用户等上下文），参数类型需要正确实现 equals / hashCode。
+ * 返回值由多个调用方共享，调用方不能修改。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+
+    /**
+     * 执行完成后结果继续复用的时长（毫秒）。0 表示只合并同时进行中的调用，完成后即丢弃。
+     * 请假申请状态流转或用户资料变更提交后，所有结果立即失效。
+     */
+    long ttlMillis() default 0;
+}
@@ -0,0 +1,181 @@
+package com.example.leaveapproval.service.coalescing;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合并参数相同的并发只读调用（single-flight）。
+ * <p>
+ * 早上上班时大量管理员、HR 同时打开待审批列表，参数完全相同（第一页、PENDING_APPROVAL），
+ * 不合并时每个请求各自查询一次数据库。这里以“方法 + 参数列表”为键：第一个调用方执行方法，
+ * 执行期间到达的相同调用等待并共享它的结果或异常；{@link Coalesced#ttlMillis()} 大于 0 时，
+ * 完成后的结果在这段时间内继续复用，到期后由定时任务移除；条目数超过 max-entries 时完成的结果不再保留。
+ * <p>
+ * 请假申请状态流转、用户资料变更提交后清空所有条目：之后到达的调用重新执行，不会拿到流转前的结果。
+ * 已经在等待的调用仍取得进行中那次执行的结果，与它们各自单独查询时可能读到的数据一致。
+ * 与详情缓存相同，合并只在单个实例内进行。
+ * <p>
+ * 拦截器的顺序在事务之前（见 CoalescingConfig），等待的调用不开启事务、不占用数据库连接。
+ */
+@Component
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private record Key(Method method, List<Object> arguments) {
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        boolean isReusable(long now, long ttlNanos) {
+            return !result.isDone() || now - completedAtNanos < ttlNanos;
+        }
+
+        Object await() throws Throwable {
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<Method, Long> ttlNanosByMethod = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService expiry;
+
+    public RequestCoalescer(@Value("${app.coalescing.enabled:true}") boolean enabled,
+                            @Value("${app.coalescing.max-entries:10000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.meterRegistry = meterRegistry;
+        this.expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coalescing-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("leave.coalescing.entries", flights, Map::size)
+                .description("进行中或在有效期内的合并调用数")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiry.shutdownNow();
+    }
+
+    /**
+     * 执行或合并一次被 {@link Coalesced} 标记的方法调用。
+     */
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!enabled) {
+            return invocation.proceed();
+        }
+        Method method = invocation.getMethod();
+        long ttlNanos = ttlNanosByMethod.computeIfAbsent(method, m -> resolveTtlNanos(m, invocation.getThis()));
+        Key key = new Key(method, Arrays.asList(invocation.getArguments()));
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight != null) {
+                if (flight.isReusable(System.nanoTime(), ttlNanos)) {
+                    count(method, flight.result.isDone() ? "reused" : "joined");
+                    return flight.await();
+                }
+                flights.remove(key, flight);
+                continue;
+            }
+            Flight own = new Flight();
+            if (flights.putIfAbsent(key, own) == null) {
+                count(method, "executed");
+                return execute(key, own, invocation, ttlNanos);
+            }
+        }
+    }
+
+    private Object execute(Key key, Flight flight, MethodInvocation invocation, long ttlNanos) throws Throwable {
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            // 异常只交给正在等待的调用，不复用
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        flight.completedAtNanos = System.nanoTime();
+        flight.result.complete(result);
+        if (ttlNanos <= 0 || flights.size() > maxEntries) {
+            flights.remove(key, flight);
+        } else {
+            // 到期后移除，不依赖之后是否还有相同的调用
+            expiry.schedule(() -> flights.remove(key, flight), ttlNanos, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private static long resolveTtlNanos(Method method, Object target) {
+        Method specificMethod = target != null ? AopUtils.getMostSpecificMethod(method, AopUtils.getTargetClass(target)) : method;
+        Coalesced coalesced = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Coalesced.class);
+        return coalesced != null ? TimeUnit.MILLISECONDS.toNanos(coalesced.ttlMillis()) : 0;
+    }
+
+    private void count(Method method, String outcome) {
+        Counter.builder("leave.coalescing.calls")
+                .description("被合并方法的调用次数：executed 实际执行，joined 等待进行中的执行，reused 复用有效期内的结果")
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLeaveRequestTransition(LeaveRequestTransitionEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        invalidateAll();
+    }
+
+    int entryCount() {
+        return flights.size();
+    }
+
+    private void invalidateAll() {
+        if (!flights.isEmpty()) {
+            logger.trace("数据变更，清空 {} 个合并调用条目", flights.size());
+            flights.clear();
+        }
+    }
+}
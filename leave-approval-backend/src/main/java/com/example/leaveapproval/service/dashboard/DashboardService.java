@@ -0,0 +1,18 @@
+package com.example.leaveapproval.service.dashboard;
+
+import com.example.leaveapproval.dto.DashboardDto;
+import com.example.leaveapproval.model.User;
+
+/**
+ * 首页初始化数据服务接口。
+ */
+public interface DashboardService {
+
+    /**
+     * 并行加载首页的各部分数据：当前用户、我的申请（第一页）、待我审批（第一页）、可选经理和本年度假期余额。
+     * 每个部分有独立的超时，超时或失败的部分在结果的 errors 中说明，不影响其他部分。
+     * @param currentUser 当前登录用户（认证过滤器加载的实体，只使用ID和角色）。
+     * @return 首页数据。
+     */
+    DashboardDto getDashboard(User currentUser);
+}
@@ -0,0 +1,196 @@
+package com.example.leaveapproval.service.dashboard.impl;
+
+import com.example.leaveapproval.dto.DashboardDto;
+import com.example.leaveapproval.dto.UserDto;
+import com.example.leaveapproval.exception.ResourceNotFoundException;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.balance.LeaveBalanceService;
+import com.example.leaveapproval.service.dashboard.DashboardService;
+import com.example.leaveapproval.service.leave.LeaveRequestManagementService;
+import com.example.leaveapproval.service.leave.view.LeaveRequestFields;
+import com.example.leaveapproval.service.user.AdminUserService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link DashboardService} 接口的实现类。
+ * <p>
+ * 各部分提交到有界线程池并行加载，每个部分在各自的只读事务中执行（不依赖请求线程的安全上下文和持久化上下文）。
+ * 线程池大小限制了首页请求同时占用的数据库连接数，队列满时新的部分直接记为 rejected；
+ * 超过 section-timeout-ms 仍未完成的部分记为 timeout，其他部分照常返回。
+ * <p>
+ * 超时的部分会被取消并中断其线程；阻塞在 JDBC 调用中的线程不一定响应中断，
+ * 因此各部分的事务还设置了不短于 section-timeout-ms 的超时，事务内的查询带有相应的 JDBC 查询超时，
+ * 超时后由驱动终止查询并回滚，不会在后台继续占用连接。
+ */
+@Service
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
+
+    static final String ERROR_TIMEOUT = "timeout";
+    static final String ERROR_FAILED = "error";
+    static final String ERROR_REJECTED = "rejected";
+
+    private static final int PAGE_SIZE = 10;
+    private static final Set<Role> APPROVER_ROLES = Set.of(Role.ROLE_TEAM_LEAD, Role.ROLE_DEPT_MANAGER, Role.ROLE_HR);
+
+    private final UserRepository userRepository;
+    private final LeaveRequestManagementService leaveRequestManagementService;
+    private final AdminUserService adminUserService;
+    private final LeaveBalanceService leaveBalanceService;
+    private final TransactionTemplate sectionTransaction;
+    private final ExecutorService executor;
+    private final long sectionTimeoutMs;
+
+    @Autowired
+    public DashboardServiceImpl(UserRepository userRepository,
+                                LeaveRequestManagementService leaveRequestManagementService,
+                                AdminUserService adminUserService,
+                                LeaveBalanceService leaveBalanceService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.dashboard.parallelism:4}") int parallelism,
+                                @Value("${app.dashboard.queue-capacity:200}") int queueCapacity,
+                                @Value("${app.dashboard.section-timeout-ms:3000}") long sectionTimeoutMs) {
+        this.userRepository = userRepository;
+        this.leaveRequestManagementService = leaveRequestManagementService;
+        this.adminUserService = adminUserService;
+        this.leaveBalanceService = leaveBalanceService;
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        // 事务超时以秒为单位，向上取整
+        this.sectionTransaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sectionTimeoutMs + 999)));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-section-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.sectionTimeoutMs = sectionTimeoutMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public DashboardDto getDashboard(User currentUser) {
+        Long userId = currentUser.getId();
+        boolean isAdmin = currentUser.getRoles().contains(Role.ROLE_ADMIN);
+        boolean isApprover = isAdmin || currentUser.getRoles().stream().anyMatch(APPROVER_ROLES::contains);
+        int year = LocalDate.now().getYear();
+        DashboardDto dashboard = new DashboardDto();
+
+        // 先全部提交再逐个等待，各部分的超时从提交时刻起算
+        Map<String, Section<?>> sections = new LinkedHashMap<>();
+        sections.put(DashboardDto.CURRENT_USER, submit(() -> loadCurrentUser(userId), dashboard::setCurrentUser));
+        sections.put(DashboardDto.MY_REQUESTS, submit(
+                () -> new PagedModel<>(leaveRequestManagementService.getMyLeaveRequests(userId,
+                        PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")), LeaveRequestFields.ALL)),
+                dashboard::setMyRequests));
+        if (isApprover) {
+            Pageable inboxPage = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "createdAt"));
+            sections.put(DashboardDto.PENDING_APPROVALS, submit(
+                    () -> new PagedModel<>(isAdmin
+                            ? leaveRequestManagementService.adminGetAllPendingRequests(null, inboxPage, LeaveRequestFields.ALL)
+                            : leaveRequestManagementService.getPendingApprovalRequestsForUser(userId, null, inboxPage, LeaveRequestFields.ALL)),
+                    dashboard::setPendingApprovals));
+        }
+        sections.put(DashboardDto.POTENTIAL_MANAGERS, submit(adminUserService::getPotentialManagers, dashboard::setPotentialManagers));
+        sections.put(DashboardDto.BALANCES, submit(() -> leaveBalanceService.getBalances(userId, year), dashboard::setBalances));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        sections.forEach((name, section) -> {
+            String error = section.await(deadline);
+            if (error != null) {
+                dashboard.getErrors().put(name, error);
+                logger.warn("用户ID {} 的首页数据部分 {} 未返回：{}", userId, name, error);
+            }
+        });
+        return dashboard;
+    }
+
+    private UserDto loadCurrentUser(Long userId) {
+        // 认证过滤器加载的用户实体已脱离会话，经理等延迟加载的关联需要在本部分的事务中重新读取
+        return userRepository.findById(userId)
+                .map(UserDto::fromEntity)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    }
+
+    private <T> Section<T> submit(Supplier<T> loader, Consumer<T> setter) {
+        try {
+            // submit 返回 FutureTask：cancel(true) 会中断执行该部分的线程（CompletableFuture 不会）
+            return new Section<>(executor.submit(() -> sectionTransaction.execute(status -> loader.get())), setter);
+        } catch (RejectedExecutionException e) {
+            return new Section<>(null, setter);
+        }
+    }
+
+    /**
+     * 已提交的一个部分：等待结果并写入首页数据。
+     */
+    private static final class Section<T> {
+
+        private final Future<T> future; // null 表示线程池拒绝
+        private final Consumer<T> setter;
+
+        private Section(Future<T> future, Consumer<T> setter) {
+            this.future = future;
+            this.setter = setter;
+        }
+
+        /**
+         * @return null 表示成功，否则为错误原因。
+         */
+        private String await(long deadlineNanos) {
+            if (future == null) {
+                return ERROR_REJECTED;
+            }
+            try {
+                setter.accept(future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+                return null;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                return ERROR_TIMEOUT;
+            } catch (ExecutionException e) {
+                logger.error("首页数据部分加载失败：{}", e.getCause().getMessage(), e.getCause());
+                return ERROR_FAILED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                return ERROR_TIMEOUT;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.leaveapproval.service.export;
+
+import com.example.leaveapproval.model.LeaveStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * 请假数据导出服务接口（供薪资核算、审计等全量拉取）。
+ * 逐行从数据库游标读取并直接写入输出流，内存占用与导出行数无关。
+ */
+public interface LeaveExportService {
+
+    /**
+     * 导出格式。
+     */
+    enum Format {
+        CSV("text/csv", "csv"),
+        JSON("application/json", "json");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * 将符合条件的请假申请写入输出流。所有过滤条件均可为 null。
+     * @param status     请假状态。
+     * @param fromDate   与该日期之后有交集的申请（包含）。
+     * @param toDate     与该日期之前有交集的申请（包含）。
+     * @param department 申请人部门。
+     * @param format     导出格式。
+     * @param out        输出流（不会被关闭）。
+     * @return 导出的行数。
+     * @throws IOException 写出失败（例如客户端断开）时抛出。
+     */
+    long export(LeaveStatus status, LocalDate fromDate, LocalDate toDate, String department,
+                Format format, OutputStream out) throws IOException;
+}
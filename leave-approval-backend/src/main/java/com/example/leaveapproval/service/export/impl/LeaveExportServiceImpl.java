@@ -0,0 +1,160 @@
+package com.example.leaveapproval.service.export.impl;
+
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.export.LeaveExportService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * {@link LeaveExportService} 接口的实现类。
+ * <p>
+ * 在只读事务内消费 {@link LeaveRequestRepository#streamForExport} 返回的只进游标，
+ * 每写出一行就将该请假申请从持久化上下文中分离，因此一级缓存中只会累积申请人/审批人（数量以组织规模为上限），
+ * 不会随导出行数增长。
+ */
+@Service
+public class LeaveExportServiceImpl implements LeaveExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveExportServiceImpl.class);
+
+    private static final String[] COLUMNS = {
+            "id", "applicantId", "applicantUsername", "applicantFullName", "department", "leaveType",
+            "startDate", "endDate", "workingDays", "status", "currentApproverUsername", "reason",
+            "createdAt", "updatedAt"
+    };
+
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final WorkingDayCalendarService workingDayCalendarService;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public LeaveExportServiceImpl(LeaveRequestRepository leaveRequestRepository,
+                                  WorkingDayCalendarService workingDayCalendarService,
+                                  ObjectMapper objectMapper) {
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.workingDayCalendarService = workingDayCalendarService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(LeaveStatus status, LocalDate fromDate, LocalDate toDate, String department,
+                       Format format, OutputStream out) throws IOException {
+        logger.info("开始导出请假数据：status={}, from={}, to={}, department={}, format={}",
+                status, fromDate, toDate, department, format);
+        long count;
+        try (Stream<LeaveRequest> rows = leaveRequestRepository.streamForExport(status, fromDate, toDate, department)) {
+            count = format == Format.JSON ? writeJson(rows.iterator(), out) : writeCsv(rows.iterator(), out);
+        }
+        logger.info("请假数据导出完成，共 {} 行。", count);
+        return count;
+    }
+
+    private long writeCsv(Iterator<LeaveRequest> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF'); // BOM，便于 Excel 正确识别 UTF-8 中文
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        long count = 0;
+        while (rows.hasNext()) {
+            LeaveRequest lr = rows.next();
+            Object[] values = values(lr);
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values[i]));
+            }
+            writer.write("\r\n");
+            entityManager.detach(lr);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeJson(Iterator<LeaveRequest> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            while (rows.hasNext()) {
+                LeaveRequest lr = rows.next();
+                Object[] values = values(lr);
+                generator.writeStartObject();
+                for (int i = 0; i < COLUMNS.length; i++) {
+                    generator.writeFieldName(COLUMNS[i]);
+                    if (values[i] instanceof Number number) {
+                        generator.writeNumber(number.longValue());
+                    } else if (values[i] == null) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeString(values[i].toString());
+                    }
+                }
+                generator.writeEndObject();
+                entityManager.detach(lr);
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private Object[] values(LeaveRequest lr) {
+        User applicant = lr.getApplicant();
+        User currentApprover = lr.getCurrentApprover();
+        return new Object[]{
+                lr.getId(),
+                applicant.getId(),
+                applicant.getUsername(),
+                applicant.getFullName(),
+                applicant.getDepartment(),
+                lr.getLeaveType(),
+                lr.getStartDate(),
+                lr.getEndDate(),
+                workingDayCalendarService.countWorkingDays(lr.getStartDate(), lr.getEndDate()),
+                lr.getStatusEnum(),
+                currentApprover != null ? currentApprover.getUsername() : null,
+                lr.getReason(),
+                lr.getCreatedAt(),
+                lr.getUpdatedAt()
+        };
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
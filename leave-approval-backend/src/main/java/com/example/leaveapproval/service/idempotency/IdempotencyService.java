@@ -0,0 +1,33 @@
+package com.example.leaveapproval.service.idempotency;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * 写接口的幂等键（Idempotency-Key 请求头）支持。
+ * <p>
+ * 客户端为每个逻辑操作生成一个键（如 UUID），超时重试时带上同一个键：
+ * 首次请求成功后保存原始响应，之后同一用户使用同一个键的请求直接返回保存的响应（带 Idempotent-Replayed 响应头），
+ * 不再执行审批流程。失败的请求不保存，重试时会重新执行。
+ */
+public interface IdempotencyService {
+
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * 以幂等方式执行写操作。
+     * @param userId         当前用户ID，键的作用域。
+     * @param idempotencyKey 请求头中的键；为 null 时直接执行操作。
+     * @param operation      操作名（含目标资源ID），与请求体一起识别“同一个请求”。
+     * @param requestBody    请求体，可以为 null。
+     * @param responseType   响应体类型，重放时按此类型还原。
+     * @param action         实际的写操作；与幂等记录在同一个事务中执行。
+     * @return 操作的响应，或首次请求保存的响应。
+     * @throws IllegalArgumentException        键格式无效，或同一个键已用于不同的请求时。
+     * @throws com.example.leaveapproval.exception.IdempotencyKeyConflictException 同一个键的另一个请求仍在处理中时。
+     */
+    <T> ResponseEntity<T> execute(Long userId, String idempotencyKey, String operation, Object requestBody,
+                                  Class<T> responseType, Supplier<ResponseEntity<T>> action);
+}
@@ -0,0 +1,234 @@
+package com.example.leaveapproval.service.idempotency.impl;
+
+import com.example.leaveapproval.exception.IdempotencyKeyConflictException;
+import com.example.leaveapproval.model.IdempotencyRecord;
+import com.example.leaveapproval.repository.IdempotencyRecordRepository;
+import com.example.leaveapproval.service.idempotency.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * {@link IdempotencyService} 接口的实现类。
+ * <p>
+ * 查找顺序：内存中的 LRU 前置缓存（命中时不访问数据库）、idempotency_keys 表。
+ * 都未命中时在一个事务中执行写操作并插入幂等记录，二者一起提交或回滚。
+ * 本实例上同一个键的并发请求直接返回 409；其他实例上的并发请求由唯一约束拦截，
+ * 插入失败的一方整个事务回滚，随后读取先提交的记录并返回其响应。
+ * <p>
+ * 记录保留 ttl-hours 小时：过期记录不再重放（前置缓存和数据库查询都按创建时间判断），
+ * 同一个键再次使用时在写操作的事务中先删除过期记录；其余过期记录由定时任务批量删除。
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_:.\\-]{1,64}");
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Map<String, StoredResponse> cache;
+    // 本实例上正在执行的键
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${app.idempotency.cache-size:10000}") int cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @Override
+    public <T> ResponseEntity<T> execute(Long userId, String idempotencyKey, String operation, Object requestBody,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (!KEY_PATTERN.matcher(idempotencyKey).matches()) {
+            throw new IllegalArgumentException("Invalid Idempotency-Key: expected 1-64 characters of [A-Za-z0-9_:.-].");
+        }
+        byte[] requestHash = hash(operation, requestBody);
+        String cacheKey = userId + ":" + idempotencyKey;
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null && cached.createdAt().isAfter(cutoff)) {
+            return replay(cached, requestHash, idempotencyKey, responseType, "cache");
+        }
+        if (!inFlight.add(cacheKey)) {
+            record("conflict");
+            throw new IdempotencyKeyConflictException(idempotencyKey);
+        }
+        try {
+            Optional<StoredResponse> stored = findStored(userId, idempotencyKey);
+            if (stored.isPresent() && stored.get().createdAt().isAfter(cutoff)) {
+                cache.put(cacheKey, stored.get());
+                return replay(stored.get(), requestHash, idempotencyKey, responseType, "database");
+            }
+            // 记录已过期但尚未被定时任务删除：与新记录在同一个事务中替换
+            boolean replaceExpired = stored.isPresent();
+            StoredResponse[] saved = new StoredResponse[1];
+            ResponseEntity<T> response;
+            try {
+                response = transactionTemplate.execute(status -> {
+                    if (replaceExpired) {
+                        idempotencyRecordRepository.deleteExpired(userId, idempotencyKey, cutoff);
+                    }
+                    ResponseEntity<T> result = action.get();
+                    if (result.getStatusCode().is2xxSuccessful()) {
+                        saved[0] = save(userId, idempotencyKey, requestHash, result);
+                    }
+                    return result;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // 另一个实例先提交了同一个键：本次操作已随事务回滚，返回先提交的响应
+                Optional<StoredResponse> winner = findStored(userId, idempotencyKey)
+                        .filter(winnerResponse -> winnerResponse.createdAt().isAfter(cutoff));
+                if (winner.isEmpty()) {
+                    throw e;
+                }
+                logger.info("幂等键 {} 已由并发请求先提交，返回其响应。", idempotencyKey);
+                cache.put(cacheKey, winner.get());
+                return replay(winner.get(), requestHash, idempotencyKey, responseType, "database");
+            }
+            if (saved[0] != null) {
+                cache.put(cacheKey, saved[0]);
+            }
+            record("executed");
+            return response;
+        } finally {
+            inFlight.remove(cacheKey);
+        }
+    }
+
+    /**
+     * 定时删除超过保留期的幂等记录，并清理前置缓存中的过期条目。
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(cutoff);
+        synchronized (cache) {
+            cache.values().removeIf(response -> response.createdAt().isBefore(cutoff));
+        }
+        if (deleted > 0) {
+            logger.info("已删除 {} 条过期的幂等键记录（{} 之前）。", deleted, cutoff);
+        }
+    }
+
+    private StoredResponse save(Long userId, String idempotencyKey, byte[] requestHash, ResponseEntity<?> response) {
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setUserId(userId);
+        idempotencyRecord.setIdempotencyKey(idempotencyKey);
+        idempotencyRecord.setRequestHash(requestHash);
+        idempotencyRecord.setResponseStatus(response.getStatusCode().value());
+        try {
+            idempotencyRecord.setResponseBody(objectMapper.writeValueAsBytes(response.getBody()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response for idempotency record", e);
+        }
+        // IDENTITY 主键立即插入，唯一约束冲突在这里抛出
+        IdempotencyRecord saved = idempotencyRecordRepository.save(idempotencyRecord);
+        return StoredResponse.of(saved);
+    }
+
+    private Optional<StoredResponse> findStored(Long userId, String idempotencyKey) {
+        return idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey).map(StoredResponse::of);
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, byte[] requestHash, String idempotencyKey,
+                                         Class<T> responseType, String source) {
+        if (!Arrays.equals(stored.requestHash(), requestHash)) {
+            record("mismatch");
+            throw new IllegalArgumentException("Idempotency-Key '" + idempotencyKey + "' was already used for a different request.");
+        }
+        record("replayed");
+        logger.debug("幂等键 {} 命中（{}），返回保存的响应。", idempotencyKey, source);
+        try {
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(stored.body(), responseType));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stored response for Idempotency-Key " + idempotencyKey, e);
+        }
+    }
+
+    private byte[] hash(String operation, Object requestBody) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (requestBody != null) {
+                digest.update(objectMapper.writeValueAsBytes(requestBody));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash request for Idempotency-Key", e);
+        }
+    }
+
+    private void record(String outcome) {
+        Counter.builder("leave.idempotency.requests")
+                .description("带 Idempotency-Key 的写请求数（executed / replayed / mismatch / conflict）")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * 保存的响应（前置缓存条目）。
+     */
+    private record StoredResponse(byte[] requestHash, int status, byte[] body, LocalDateTime createdAt) {
+
+        static StoredResponse of(IdempotencyRecord idempotencyRecord) {
+            LocalDateTime createdAt = idempotencyRecord.getCreatedAt() != null ? idempotencyRecord.getCreatedAt() : LocalDateTime.now();
+            return new StoredResponse(idempotencyRecord.getRequestHash(), idempotencyRecord.getResponseStatus(),
+                    idempotencyRecord.getResponseBody(), createdAt);
+        }
+    }
+}
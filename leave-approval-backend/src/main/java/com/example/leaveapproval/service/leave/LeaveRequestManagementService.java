@@ -5,6 +5,8 @@ import com.example.leaveapproval.dto.LeaveRequestCreateDto;
 import com.example.leaveapproval.dto.LeaveRequestViewDto;
 import com.example.leaveapproval.model.LeaveStatus; // 确保导入
 import com.example.leaveapproval.model.User; // 确保导入 (如果方法参数需要)
+import com.example.leaveapproval.repository.projection.LeaveRequestVersionView;
+import com.example.leaveapproval.service.leave.view.LeaveRequestFields;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -48,31 +50,42 @@ public interface LeaveRequestManagementService {
      */
     Optional<LeaveRequestViewDto> getLeaveRequestDetailsById(Long leaveRequestId);
 
+    /**
+     * 只查询请假申请的版本号和更新时间，用于在加载详情前校验条件请求。
+     * @param leaveRequestId 请假申请ID。
+     * @return 版本投影；申请不存在时为空。
+     */
+    Optional<LeaveRequestVersionView> getLeaveRequestVersion(Long leaveRequestId);
+
 
     /**
      * 获取指定用户提交的所有请假申请（分页）。
      * @param applicantId 申请人的用户ID。
      * @param pageable    分页参数对象。
+     * @param fields      字段选择，未选中的关联数据（用户信息、审批历史）不会加载。
      * @return 请假申请视图DTO的分页列表。
      */
-    Page<LeaveRequestViewDto> getMyLeaveRequests(Long applicantId, Pageable pageable);
+    Page<LeaveRequestViewDto> getMyLeaveRequests(Long applicantId, Pageable pageable, LeaveRequestFields fields);
 
     /**
      * 获取分配给指定审批人的特定状态的请假申请列表（分页）。
      * @param approverId 指定审批人的用户ID。
      * @param status     要查询的请假状态。如果为null，则通常查询 PENDING_APPROVAL。
      * @param pageable   分页参数对象。
+     * @param fields     字段选择，未选中的关联数据（用户信息、审批历史）不会加载。
      * @return 符合条件的请假申请视图DTO的分页列表。
      */
-    Page<LeaveRequestViewDto> getPendingApprovalRequestsForUser(Long approverId, LeaveStatus status, Pageable pageable);
+    Page<LeaveRequestViewDto> getPendingApprovalRequestsForUser(Long approverId, LeaveStatus status, Pageable pageable,
+                                                                LeaveRequestFields fields);
 
     /**
      * 【新增方法】管理员获取所有处于特定状态（默认为 PENDING_APPROVAL）的请假申请（分页）。
      * 此方法不限制审批人。
      * @param status 要查询的请假状态。如果为null，则查询 PENDING_APPROVAL。
      * @param pageable 分页参数对象。
+     * @param fields 字段选择，未选中的关联数据（用户信息、审批历史）不会加载。
      * @return 符合条件的请假申请视图DTO的分页列表。
      */
-    Page<LeaveRequestViewDto> adminGetAllPendingRequests(LeaveStatus status, Pageable pageable); // <<--- 新增此方法
+    Page<LeaveRequestViewDto> adminGetAllPendingRequests(LeaveStatus status, Pageable pageable, LeaveRequestFields fields); // <<--- 新增此方法
 
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.example.leaveapproval.model.LeaveRequest;
 // LeaveStatus 和 User 可能在子类实现的方法签名中用到，或者在父类模板方法中用到
 import com.example.leaveapproval.model.LeaveStatus;
 import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.profiling.LeaveSubmitJfrEvent;
 // Repository 导入不再需要，因为父类不再直接持有它们
 // import com.example.leaveapproval.repository.LeaveRequestRepository;
 // import com.example.leaveapproval.repository.UserRepository;
@@ -40,16 +41,34 @@ public abstract class LeaveRequestProcessService {
 
     @Transactional // 保持事务注解在模板方法上
     public final LeaveRequestViewDto submitLeaveRequest(LeaveRequestCreateDto createDto) {
-        logger.info("Processing new leave request of type: {}", createDto.getLeaveType());
+        LeaveSubmitJfrEvent jfrEvent = new LeaveSubmitJfrEvent();
+        jfrEvent.begin();
+        User applicant = null;
+        LeaveRequestViewDto viewDto = null;
+        try {
+            applicant = getCurrentApplicant(); // 调用子类实现的获取申请人方法
+            viewDto = doSubmitLeaveRequest(createDto, applicant);
+            return viewDto;
+        } finally {
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.requestId = viewDto != null && viewDto.getId() != null ? viewDto.getId() : -1;
+                jfrEvent.applicantId = applicant != null ? applicant.getId() : -1;
+                jfrEvent.leaveType = String.valueOf(createDto.getLeaveType());
+                jfrEvent.succeeded = viewDto != null;
+                jfrEvent.commit();
+            }
+        }
+    }
 
-        User applicant = getCurrentApplicant(); // 调用子类实现的获取申请人方法
+    private LeaveRequestViewDto doSubmitLeaveRequest(LeaveRequestCreateDto createDto, User applicant) {
+        logger.debug("Processing new leave request of type: {}", createDto.getLeaveType());
         logger.debug("Applicant identified: {}", applicant.getUsername());
 
         validateSpecificRules(createDto, applicant); // 调用子类实现的校验方法
         logger.debug("Specific rules validation passed.");
 
         LeaveRequest leaveRequest = createAndSaveInitialLeaveRequestEntity(createDto, applicant); // 调用子类实现的创建和保存方法
-        logger.info("Leave request entity created and saved with ID: {}, initial status: {}", leaveRequest.getId(), leaveRequest.getStatusEnum());
+        logger.debug("Leave request entity created and saved with ID: {}, initial status: {}", leaveRequest.getId(), leaveRequest.getStatusEnum());
 
         startApprovalWorkflow(leaveRequest, applicant); // 调用子类实现的启动工作流方法
         logger.debug("Approval workflow started. Current approver (if set): {}",
@@ -57,7 +76,7 @@ public abstract class LeaveRequestProcessService {
 
         // 保存因 startApprovalWorkflow 可能导致的 currentApprover 或 status 变更
         LeaveRequest updatedRequestAfterWorkflow = saveLeaveRequest(leaveRequest); // 调用子类实现的保存方法
-        logger.info("Leave request (ID: {}) saved after workflow start. Status: {}, Approver ID: {}",
+        logger.debug("Leave request (ID: {}) saved after workflow start. Status: {}, Approver ID: {}",
                 updatedRequestAfterWorkflow.getId(),
                 updatedRequestAfterWorkflow.getStatusEnum(),
                 updatedRequestAfterWorkflow.getCurrentApprover() != null ? updatedRequestAfterWorkflow.getCurrentApprover().getId() : "N/A");
@@ -65,8 +84,17 @@ public abstract class LeaveRequestProcessService {
         performPostSubmissionActions(updatedRequestAfterWorkflow); // 调用钩子方法
         logger.debug("Post-submission actions completed for leave request ID: {}.", updatedRequestAfterWorkflow.getId());
 
-        LeaveRequestViewDto viewDto = LeaveRequestViewDto.fromEntity(updatedRequestAfterWorkflow);
-        logger.info("Leave request processing complete. Returning DTO for ID: {}.", updatedRequestAfterWorkflow.getId());
+        LeaveRequestViewDto viewDto = buildViewDto(updatedRequestAfterWorkflow); // 调用子类实现的视图转换方法
+        // 每次提交只输出这一条 INFO：键值对形式，便于按字段检索
+        logger.atInfo()
+                .addKeyValue("event", "leave.submitted")
+                .addKeyValue("requestId", updatedRequestAfterWorkflow.getId())
+                .addKeyValue("applicantId", applicant.getId())
+                .addKeyValue("leaveType", updatedRequestAfterWorkflow.getLeaveType())
+                .addKeyValue("startDate", updatedRequestAfterWorkflow.getStartDate())
+                .addKeyValue("endDate", updatedRequestAfterWorkflow.getEndDate())
+                .addKeyValue("approverId", () -> updatedRequestAfterWorkflow.getCurrentApprover() != null ? updatedRequestAfterWorkflow.getCurrentApprover().getId() : null)
+                .log("请假申请已提交");
         return viewDto;
     }
 
@@ -108,6 +136,14 @@ public abstract class LeaveRequestProcessService {
      */
     protected abstract LeaveRequest saveLeaveRequest(LeaveRequest leaveRequest);
 
+    /**
+     * 抽象方法：将已保存的请假申请实体转换为返回给客户端的视图DTO。
+     * 请假天数需按工作日日历计算，日历服务由子类持有。
+     * @param leaveRequest 已保存的 LeaveRequest 实体。
+     * @return 视图DTO。
+     */
+    protected abstract LeaveRequestViewDto buildViewDto(LeaveRequest leaveRequest);
+
 
     // --- 钩子方法 (子类可选择覆盖) ---
 
@@ -1,6 +1,8 @@
 package com.example.leaveapproval.service.leave.impl;
 
 import com.example.leaveapproval.dto.LeaveRequestCreateDto;
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
 import com.example.leaveapproval.exception.ResourceNotFoundException; // 确保导入
 import com.example.leaveapproval.model.LeaveRequest;
 import com.example.leaveapproval.model.LeaveStatus;
@@ -8,17 +10,21 @@ import com.example.leaveapproval.model.User;
 import com.example.leaveapproval.repository.LeaveRequestRepository;
 import com.example.leaveapproval.repository.UserRepository;
 import com.example.leaveapproval.service.approval.chain.ApprovalChainBuilder;
+import com.example.leaveapproval.service.balance.LeaveBalanceService;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
 import com.example.leaveapproval.service.leave.LeaveRequestProcessService; // 导入父类
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication; // 导入 Authentication
 import org.springframework.security.core.context.SecurityContextHolder; // 导入 SecurityContextHolder
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // 子类现在负责事务的边界
 
-import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * 通用请假类型的处理服务实现。
@@ -31,10 +37,19 @@ public class GenericLeaveProcessServiceImpl extends LeaveRequestProcessService {
 
     private static final Logger logger = LoggerFactory.getLogger(GenericLeaveProcessServiceImpl.class);
 
+    /**
+     * 会占用日期的状态：只有这些状态的申请参与重叠检测。
+     */
+    private static final Set<LeaveStatus> ACTIVE_STATUSES =
+            EnumSet.of(LeaveStatus.PENDING_APPROVAL, LeaveStatus.APPROVED, LeaveStatus.PROCESSING);
+
     // 子类直接注入并持有 Repositories
     private final LeaveRequestRepository leaveRequestRepository;
     private final UserRepository userRepository;
     private final ApprovalChainBuilder approvalChainBuilder;
+    private final WorkingDayCalendarService workingDayCalendarService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LeaveBalanceService leaveBalanceService;
 
     /**
      * 通过构造函数注入所有依赖。
@@ -42,16 +57,25 @@ public class GenericLeaveProcessServiceImpl extends LeaveRequestProcessService {
      * @param leaveRequestRepository 请假申请数据仓库。
      * @param userRepository 用户数据仓库。
      * @param approvalChainBuilder 审批链构建器。
+     * @param workingDayCalendarService 工作日日历服务，用于计算请假天数。
+     * @param eventPublisher 事件发布器，用于发布状态流转事件。
+     * @param leaveBalanceService 假期余额服务，用于校验剩余额度。
      */
     @Autowired
     public GenericLeaveProcessServiceImpl(
             LeaveRequestRepository leaveRequestRepository,
             UserRepository userRepository,
-            ApprovalChainBuilder approvalChainBuilder) {
+            ApprovalChainBuilder approvalChainBuilder,
+            WorkingDayCalendarService workingDayCalendarService,
+            ApplicationEventPublisher eventPublisher,
+            LeaveBalanceService leaveBalanceService) {
         // super(); // 父类现在没有需要调用的带参构造函数了，可以省略或调用隐式的super()
         this.leaveRequestRepository = leaveRequestRepository;
         this.userRepository = userRepository;
         this.approvalChainBuilder = approvalChainBuilder;
+        this.workingDayCalendarService = workingDayCalendarService;
+        this.eventPublisher = eventPublisher;
+        this.leaveBalanceService = leaveBalanceService;
         logger.debug("GenericLeaveProcessServiceImpl CONSTRUCTOR: All dependencies injected.");
     }
 
@@ -114,25 +138,43 @@ public class GenericLeaveProcessServiceImpl extends LeaveRequestProcessService {
 
     @Override
     protected void validateSpecificRules(LeaveRequestCreateDto createDto, User applicant) {
-        logger.info("Executing specific rule validation for generic leave. Applicant: {}, Type: {}",
+        logger.debug("Executing specific rule validation for generic leave. Applicant: {}, Type: {}",
                 applicant.getUsername(), createDto.getLeaveType());
-        long leaveDays = ChronoUnit.DAYS.between(createDto.getStartDate(), createDto.getEndDate()) + 1;
+        if (createDto.getEndDate().isBefore(createDto.getStartDate())) {
+            throw new IllegalArgumentException("End date cannot be before start date.");
+        }
+        // 按工作日计算：整段落在周末或法定节假日内的申请没有意义
+        long leaveDays = workingDayCalendarService.countWorkingDays(createDto.getStartDate(), createDto.getEndDate());
         if (leaveDays <= 0) {
-            throw new IllegalArgumentException("Leave duration must be greater than 0 days.");
+            throw new IllegalArgumentException("Leave duration must be greater than 0 working days.");
         }
-        logger.debug("Calculated leave duration: {} days.", leaveDays);
-        logger.info("Specific rules validation passed for generic leave. Applicant: {}", applicant.getUsername());
+        logger.debug("Calculated leave duration: {} working days.", leaveDays);
+        // 同一申请人的有效申请（待审批/已批准）日期不能重叠。
+        // 先锁定申请人行：同一申请人的并发提交在此排队，直到前一个事务结束，检测与插入之间不会插入另一个提交；
+        // 再以加锁读走 (applicant_id, start_date, end_date) 索引做一次范围查询，能看到其他事务和其他实例刚提交的申请
+        userRepository.lockById(applicant.getId());
+        leaveRequestRepository.findOverlappingIds(applicant.getId(), ACTIVE_STATUSES, createDto.getStartDate(), createDto.getEndDate())
+                .stream()
+                .findFirst()
+                .ifPresent(overlappingId -> {
+                    throw new IllegalArgumentException(
+                            "Requested dates overlap with existing leave request (ID: " + overlappingId + ").");
+                });
+        // 有额度限制的请假类型：剩余额度需覆盖本次申请（跨年度时按年度分别校验）
+        leaveBalanceService.checkSufficientBalance(applicant.getId(), createDto.getLeaveType(),
+                createDto.getStartDate(), createDto.getEndDate());
+        logger.debug("Specific rules validation passed for generic leave. Applicant: {}", applicant.getUsername());
     }
 
     @Override
     protected void startApprovalWorkflow(LeaveRequest leaveRequest, User applicant) {
-        logger.info("Starting approval workflow for generic leave. Leave ID: {}, Applicant: {}",
+        logger.debug("Starting approval workflow for generic leave. Leave ID: {}, Applicant: {}",
                 leaveRequest.getId(), applicant.getUsername());
         User initialApproverUser = approvalChainBuilder.getInitialApproverUser(leaveRequest, applicant);
         if (initialApproverUser != null) {
             leaveRequest.setCurrentApprover(initialApproverUser);
             // 状态 PENDING_APPROVAL 已在 createAndSaveInitialLeaveRequestEntity 中设置
-            logger.info("Leave request (ID: {}, Type: {}) assigned to initial approver: {} (ID: {}). Current status: {}",
+            logger.debug("Leave request (ID: {}, Type: {}) assigned to initial approver: {} (ID: {}). Current status: {}",
                     leaveRequest.getId(), leaveRequest.getLeaveType(),
                     initialApproverUser.getUsername(), initialApproverUser.getId(),
                     leaveRequest.getStatusEnum());
@@ -156,9 +198,16 @@ public class GenericLeaveProcessServiceImpl extends LeaveRequestProcessService {
         return this.leaveRequestRepository.save(leaveRequest);
     }
 
+    @Override
+    protected LeaveRequestViewDto buildViewDto(LeaveRequest leaveRequest) {
+        return LeaveRequestViewDto.fromEntity(leaveRequest, workingDayCalendarService);
+    }
+
     @Override
     protected void performPostSubmissionActions(LeaveRequest leaveRequest) {
-        logger.info("Executing post-submission actions for generic leave. Leave ID: {}", leaveRequest.getId());
+        logger.debug("Executing post-submission actions for generic leave. Leave ID: {}", leaveRequest.getId());
         // 通知逻辑等
+        eventPublisher.publishEvent(LeaveRequestTransitionEvent.of(
+                leaveRequest, null, null, leaveRequest.getApplicant().getId()));
     }
 }
\ No newline at end of file
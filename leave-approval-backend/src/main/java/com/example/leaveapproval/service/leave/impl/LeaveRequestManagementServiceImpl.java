@@ -1,18 +1,27 @@
 package com.example.leaveapproval.service.leave.impl;
 
+import com.example.leaveapproval.config.logging.LogMarkers;
 import com.example.leaveapproval.dto.ApprovalActionDto;
 import com.example.leaveapproval.dto.ApprovalHistoryViewDto;
 import com.example.leaveapproval.dto.LeaveRequestCreateDto;
 import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
 import com.example.leaveapproval.exception.ResourceNotFoundException;
 import com.example.leaveapproval.model.*; // User, LeaveRequest, ApprovalHistory, Role, LeaveStatus, LeaveType
 import com.example.leaveapproval.model.state.LeaveState; // 明确导入 LeaveState 接口
 import com.example.leaveapproval.repository.ApprovalHistoryRepository;
 import com.example.leaveapproval.repository.LeaveRequestRepository;
 import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.repository.projection.LeaveRequestVersionView;
 import com.example.leaveapproval.service.approval.chain.Approver;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.coalescing.Coalesced;
 import com.example.leaveapproval.service.leave.LeaveRequestManagementService;
 import com.example.leaveapproval.service.leave.LeaveRequestProcessService;
+import com.example.leaveapproval.service.leave.view.LeaveRequestFields;
+import com.example.leaveapproval.service.metrics.LeaveMetrics;
+import com.example.leaveapproval.service.profiling.LeaveViewPopulationJfrEvent;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +35,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -40,6 +50,8 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
     private final ApprovalHistoryRepository approvalHistoryRepository;
     private final LeaveRequestProcessService leaveRequestProcessService;
     private final ApplicationContext applicationContext;
+    private final WorkingDayCalendarService workingDayCalendarService;
+    private final LeaveMetrics leaveMetrics;
 
     @Autowired
     public LeaveRequestManagementServiceImpl(
@@ -47,12 +59,16 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
             UserRepository userRepository,
             ApprovalHistoryRepository approvalHistoryRepository,
             @Qualifier("genericLeaveProcessService") LeaveRequestProcessService leaveRequestProcessService,
-            ApplicationContext applicationContext) {
+            ApplicationContext applicationContext,
+            WorkingDayCalendarService workingDayCalendarService,
+            LeaveMetrics leaveMetrics) {
         this.leaveRequestRepository = leaveRequestRepository;
         this.userRepository = userRepository;
         this.approvalHistoryRepository = approvalHistoryRepository;
         this.leaveRequestProcessService = leaveRequestProcessService;
         this.applicationContext = applicationContext;
+        this.workingDayCalendarService = workingDayCalendarService;
+        this.leaveMetrics = leaveMetrics;
     }
 
     private User getCurrentAuthenticatedUser() {
@@ -67,16 +83,16 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
 
     @Override
     public LeaveRequestViewDto submitLeaveRequest(LeaveRequestCreateDto createDto) {
-        logger.info("接收到新的请假申请提交请求。");
+        logger.debug("接收到新的请假申请提交请求。");
         LeaveRequestViewDto createdLeaveRequest = leaveRequestProcessService.submitLeaveRequest(createDto);
-        logger.info("请假申请 (ID: {}) 已成功提交并启动审批流程，当前状态: {}",
+        logger.debug("请假申请 (ID: {}) 已成功提交并启动审批流程，当前状态: {}",
                 createdLeaveRequest.getId(), createdLeaveRequest.getStatus());
         return createdLeaveRequest;
     }
 
     @Override
     public LeaveRequestViewDto processApprovalAction(Long leaveRequestId, ApprovalActionDto actionDto, Long approverUserId) {
-        logger.info("用户ID {} 尝试处理请假申请ID {}，决定：{}，意见：'{}'",
+        logger.debug("用户ID {} 尝试处理请假申请ID {}，决定：{}，意见：'{}'",
                 approverUserId, leaveRequestId, actionDto.getDecision(), actionDto.getComments());
 
         LeaveRequest leaveRequest = leaveRequestRepository.findById(leaveRequestId)
@@ -159,7 +175,7 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
 
         try {
             approverNode.handleApprovalAction(leaveRequest, actionTakingApprover, actionDto.getDecision(), actionDto.getComments());
-            logger.info("请假申请 ID: {} 的审批操作已由 {} (ID: {}) 代表节点 {} (角色匹配自 {}) 处理完成。",
+            logger.debug("请假申请 ID: {} 的审批操作已由 {} (ID: {}) 代表节点 {} (角色匹配自 {}) 处理完成。",
                     leaveRequestId, actionTakingApprover.getUsername(), actionTakingApprover.getId(),
                     approverNode.getClass().getSimpleName(),
                     designatedApproverForNode != null ? designatedApproverForNode.getUsername() : "系统/Admin");
@@ -190,7 +206,7 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
             return applicationContext.getBean("teamLeadApprover", Approver.class);
         }
         if (user.getRoles().size() == 1 && user.getRoles().contains(Role.ROLE_ADMIN)) {
-            logger.info("为纯Admin角色 {} 指定HR审批节点作为入口。", user.getUsername());
+            logger.info(LogMarkers.HIGH_VOLUME, "为纯Admin角色 {} 指定HR审批节点作为入口。", user.getUsername());
             return applicationContext.getBean("hrApprover", Approver.class);
         }
         logger.warn("用户 {} (ID: {}) 具有角色 {}，但没有匹配的特定审批处理者节点配置用于启动审批链。如果操作者是Admin，其权限仍将在审批链内部处理。",
@@ -200,7 +216,7 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
 
     @Override
     public LeaveRequestViewDto cancelLeaveRequest(Long leaveRequestId, Long applicantId) {
-        logger.info("用户ID {} 尝试取消请假申请ID {}", applicantId, leaveRequestId);
+        logger.debug("用户ID {} 尝试取消请假申请ID {}", applicantId, leaveRequestId);
         LeaveRequest leaveRequest = leaveRequestRepository.findById(leaveRequestId)
                 .orElseThrow(() -> new ResourceNotFoundException("LeaveRequest", "id", leaveRequestId));
         User actionTaker = userRepository.findById(applicantId)
@@ -214,10 +230,19 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
         }
 
         try {
+            LeaveStatus fromStatus = leaveRequest.getStatusEnum();
+            Long previousApproverId = leaveRequest.getCurrentApprover() != null ? leaveRequest.getCurrentApprover().getId() : null;
             leaveRequest.cancel(actionTaker);
             LeaveRequest cancelledRequest = leaveRequestRepository.save(leaveRequest);
-            logger.info("请假申请 ID: {} 已被申请人 {} 成功取消，新状态: {}",
-                    cancelledRequest.getId(), actionTaker.getUsername(), cancelledRequest.getStatusEnum());
+            applicationContext.publishEvent(LeaveRequestTransitionEvent.of(
+                    cancelledRequest, fromStatus, previousApproverId, actionTaker.getId()));
+            logger.atInfo()
+                    .addKeyValue("event", "leave.cancelled")
+                    .addKeyValue("requestId", cancelledRequest.getId())
+                    .addKeyValue("actorId", actionTaker.getId())
+                    .addKeyValue("fromStatus", fromStatus)
+                    .addKeyValue("toStatus", cancelledRequest.getStatusEnum())
+                    .log("请假申请已取消");
             return populateLeaveRequestViewDto(cancelledRequest);
         } catch (IllegalStateException e) {
             logger.warn("取消操作失败 (ID: {}，操作人: {}): {}", leaveRequestId, actionTaker.getUsername(), e.getMessage(), e);
@@ -235,48 +260,90 @@ public class LeaveRequestManagementServiceImpl implements LeaveRequestManagement
 
     @Override
     @Transactional(readOnly = true)
-    public Page<LeaveRequestViewDto> getMyLeaveRequests(Long applicantId, Pageable pageable) {
-        logger.debug("用户ID {} 查询我的请假申请，分页：{}", applicantId, pageable);
+    public Optional<LeaveRequestVersionView> getLeaveRequestVersion(Long leaveRequestId) {
+        return leaveRequestRepository.findVersionById(leaveRequestId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<LeaveRequestViewDto> getMyLeaveRequests(Long applicantId, Pageable pageable, LeaveRequestFields fields) {
+        logger.debug("用户ID {} 查询我的请假申请，分页：{}，字段：{}", applicantId, pageable, fields.cacheKey());
         // userRepository.findById(applicantId) // 这行不是必须的，除非你要校验用户存在
         //         .orElseThrow(() -> new ResourceNotFoundException("User (Applicant)", "id", applicantId));
-        return leaveRequestRepository.findByApplicantId(applicantId, pageable)
-                .map(this::populateLeaveRequestViewDto);
+        return populatePage(leaveRequestRepository.findByApplicantId(applicantId, pageable), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<LeaveRequestViewDto> getPendingApprovalRequestsForUser(Long approverId, LeaveStatus status, Pageable pageable) {
+    @Coalesced(ttlMillis = 500)
+    public Page<LeaveRequestViewDto> getPendingApprovalRequestsForUser(Long approverId, LeaveStatus status, Pageable pageable,
+                                                                       LeaveRequestFields fields) {
         LeaveStatus queryStatus = (status == null) ? LeaveStatus.PENDING_APPROVAL : status;
-        logger.debug("审批人ID {} 查询状态为 {} 的请假申请列表，分页：{}", approverId, queryStatus, pageable);
+        logger.debug("审批人ID {} 查询状态为 {} 的请假申请列表，分页：{}，字段：{}", approverId, queryStatus, pageable, fields.cacheKey());
         // userRepository.findById(approverId) // 这行不是必须的，除非你要校验用户存在
         //        .orElseThrow(() -> new ResourceNotFoundException("User (Approver)", "id", approverId));
-        return leaveRequestRepository.findByCurrentApproverIdAndStatusEnum(approverId, queryStatus, pageable)
-                .map(this::populateLeaveRequestViewDto);
+        return populatePage(leaveRequestRepository.findByCurrentApproverIdAndStatusEnum(approverId, queryStatus, pageable), fields);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<LeaveRequestViewDto> adminGetAllPendingRequests(LeaveStatus status, Pageable pageable) {
+    @Coalesced(ttlMillis = 500) // 上班高峰大量管理员、HR 以相同参数查询，合并为一次查询
+    public Page<LeaveRequestViewDto> adminGetAllPendingRequests(LeaveStatus status, Pageable pageable, LeaveRequestFields fields) {
         LeaveStatus queryStatus = (status == null) ? LeaveStatus.PENDING_APPROVAL : status;
-        logger.info("Admin 操作：获取所有状态为 {} 的请假申请，分页：{}", queryStatus, pageable);
+        logger.info(LogMarkers.HIGH_VOLUME, "Admin 操作：获取所有状态为 {} 的请假申请，分页：{}", queryStatus, pageable);
         // 更正点：使用 Repository 中定义的 findByStatusEnum
-        return leaveRequestRepository.findByStatusEnum(queryStatus, pageable)
-                .map(this::populateLeaveRequestViewDto);
+        return populatePage(leaveRequestRepository.findByStatusEnum(queryStatus, pageable), fields);
+    }
+
+    /**
+     * 列表页填充：只在选择了审批历史时查询，并且整页一次查出，而不是逐行查询。
+     */
+    private Page<LeaveRequestViewDto> populatePage(Page<LeaveRequest> page, LeaveRequestFields fields) {
+        Map<Long, List<ApprovalHistory>> historiesByRequest = Map.of();
+        if (fields.includesHistory() && page.hasContent()) {
+            List<Long> requestIds = page.getContent().stream().map(LeaveRequest::getId).toList();
+            // 规范化结构只需要审批人ID，不必连带加载审批人
+            List<ApprovalHistory> histories = fields.isNormalized()
+                    ? approvalHistoryRepository.findByLeaveRequestIdInOrderByApprovedAtAscIdAsc(requestIds)
+                    : approvalHistoryRepository.findWithApproverByLeaveRequestIdIn(requestIds);
+            historiesByRequest = histories.stream()
+                    .collect(Collectors.groupingBy(history -> history.getLeaveRequest().getId()));
+        }
+        Map<Long, List<ApprovalHistory>> histories = historiesByRequest;
+        return page.map(leaveRequest -> populateLeaveRequestViewDto(leaveRequest, fields,
+                fields.includesHistory() ? histories.getOrDefault(leaveRequest.getId(), List.of()) : null));
     }
 
     private LeaveRequestViewDto populateLeaveRequestViewDto(LeaveRequest leaveRequest) {
         if (leaveRequest == null) return null;
-        LeaveRequestViewDto dto = LeaveRequestViewDto.fromEntity(leaveRequest);
-        if (dto != null) {
-            // 更正点：使用 Repository 中定义的 findByLeaveRequestOrderByApprovedAtAsc
-            List<ApprovalHistory> histories = approvalHistoryRepository.findByLeaveRequestOrderByApprovedAtAsc(leaveRequest);
+        // 更正点：使用 Repository 中定义的 findByLeaveRequestOrderByApprovedAtAsc
+        return populateLeaveRequestViewDto(leaveRequest, LeaveRequestFields.ALL,
+                approvalHistoryRepository.findByLeaveRequestOrderByApprovedAtAsc(leaveRequest));
+    }
+
+    /**
+     * @param histories 已查出的审批历史；为 null 时不填充（未选择审批历史）。
+     */
+    private LeaveRequestViewDto populateLeaveRequestViewDto(LeaveRequest leaveRequest, LeaveRequestFields fields,
+                                                            List<ApprovalHistory> histories) {
+        Timer.Sample sample = leaveMetrics.start();
+        LeaveViewPopulationJfrEvent jfrEvent = new LeaveViewPopulationJfrEvent();
+        jfrEvent.begin();
+        LeaveRequestViewDto dto = LeaveRequestViewDto.fromEntity(leaveRequest, workingDayCalendarService, fields);
+        if (dto != null && histories != null) {
             dto.setApprovalHistory(
                     histories.stream()
-                            .map(ApprovalHistoryViewDto::fromEntity)
+                            .map(history -> ApprovalHistoryViewDto.fromEntity(history, fields.isNormalized()))
                             .collect(Collectors.toList())
             );
             logger.trace("为请假申请ID {} 填充了 {} 条审批历史记录。", leaveRequest.getId(), histories.size());
         }
+        leaveMetrics.recordViewPopulation(sample, leaveRequest.getLeaveType());
+        if (jfrEvent.shouldCommit()) {
+            jfrEvent.requestId = leaveRequest.getId() != null ? leaveRequest.getId() : -1;
+            jfrEvent.historyCount = dto != null && dto.getApprovalHistory() != null ? dto.getApprovalHistory().size() : 0;
+            jfrEvent.commit();
+        }
         return dto;
     }
-}
\ No newline at end of file
+}
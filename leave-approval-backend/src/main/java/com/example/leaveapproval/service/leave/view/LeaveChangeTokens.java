@@ -0,0 +1,83 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请假申请接口的 ETag 和列表变更令牌。
+ * <p>
+ * 详情的 ETag 由申请ID、版本号和更新时间生成，可以在加载实体前用一次投影查询算出。
+ * 列表的令牌按用户维护计数器：申请人、流转前后的审批人在每次状态流转提交后递增，
+ * 全量待审批列表（管理员）使用全局计数器。轮询时比较令牌只需一次内存查找。
+ * <p>
+ * 视图中内嵌了用户资料，用户变更时递增资料代数，使所有 ETag 失效；
+ * 令牌前缀包含启动时刻，重启后计数器从零开始也不会与旧令牌冲突。
+ * 与时间线索引、详情缓存相同，令牌只在单个实例内有效。
+ */
+@Component
+public class LeaveChangeTokens {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong profileGeneration = new AtomicLong();
+    private final AtomicLong allRequestsCounter = new AtomicLong();
+    private final Map<Long, AtomicLong> userCounters = new ConcurrentHashMap<>();
+
+    /**
+     * 用户资料代数：加载视图前读取，传给 {@link #detailETag}，避免加载期间的资料变更被新 ETag 掩盖。
+     */
+    public long profileGeneration() {
+        return profileGeneration.get();
+    }
+
+    /**
+     * @return 请假申请详情的 ETag（不含引号）。
+     */
+    public String detailETag(Long leaveRequestId, long version, LocalDateTime updatedAt, long profileGeneration) {
+        long updatedAtMillis = updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        return "lr-" + epoch + "." + profileGeneration + "-" + leaveRequestId + "-" + version + "-" + Long.toString(updatedAtMillis, 36);
+    }
+
+    /**
+     * @param userId 申请人或审批人ID。
+     * @return 与该用户有关的请假申请列表（我的申请、指派给我的待审批）的变更令牌。
+     */
+    public String userListToken(Long userId) {
+        AtomicLong counter = userCounters.get(userId);
+        return "u" + userId + "-" + epoch + "." + profileGeneration.get() + "-" + (counter != null ? counter.get() : 0);
+    }
+
+    /**
+     * @return 全部请假申请列表（管理员视角）的变更令牌。
+     */
+    public String allRequestsToken() {
+        return "all-" + epoch + "." + profileGeneration.get() + "-" + allRequestsCounter.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        increment(event.getApplicantId());
+        increment(event.getPreviousApproverId());
+        increment(event.getCurrentApproverId());
+        allRequestsCounter.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        profileGeneration.incrementAndGet();
+    }
+
+    private void increment(Long userId) {
+        if (userId != null) {
+            userCounters.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
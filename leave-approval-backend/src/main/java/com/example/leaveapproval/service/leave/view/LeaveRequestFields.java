@@ -0,0 +1,185 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 列表接口的字段选择（稀疏字段集）：{@code fields=id,status,startDate} 只返回列出的字段，
+ * {@code include=history} 附带审批历史，{@code shape=normalized} 返回规范化结构。
+ * <p>
+ * fields 和 include 都不传时返回完整视图（含审批历史），与原有行为一致；只要传了其中一个，
+ * 审批历史就只在 {@code include=history} 或 fields 中列出 approvalHistory 时加载。
+ * 未选择的申请人、当前审批人不会从数据库加载，未选择审批历史时不执行历史查询。
+ * {@code id} 总是返回，未知的字段名视为请求参数错误。
+ * <p>
+ * 规范化结构中，行内的申请人、当前审批人和审批历史中的审批人只保留用户ID
+ * （applicantId、currentApproverId、approverId），每个用户的资料在 {@code includes.users} 中只出现一次。
+ */
+public final class LeaveRequestFields {
+
+    public static final String APPLICANT = "applicant";
+    public static final String CURRENT_APPROVER = "currentApprover";
+    public static final String APPROVAL_HISTORY = "approvalHistory";
+    public static final String INCLUDE_HISTORY = "history";
+    public static final String SHAPE_NESTED = "nested";
+    public static final String SHAPE_NORMALIZED = "normalized";
+
+    private static final String APPLICANT_ID = "applicantId";
+    private static final String CURRENT_APPROVER_ID = "currentApproverId";
+
+    private static final Set<String> KNOWN_FIELDS = Set.of(
+            "id", APPLICANT, "leaveType", "startDate", "endDate", "reason", "status", CURRENT_APPROVER,
+            "attachmentsPath", "createdAt", "updatedAt", "version", "leaveDurationInDays", APPROVAL_HISTORY, "warnings");
+
+    /**
+     * 完整视图（含审批历史）。
+     */
+    public static final LeaveRequestFields ALL = new LeaveRequestFields(null, true, false);
+
+    private final Set<String> fields; // null 表示全部字段
+    private final boolean history;
+    private final boolean normalized;
+
+    private LeaveRequestFields(Set<String> fields, boolean history, boolean normalized) {
+        this.fields = fields;
+        this.history = history;
+        this.normalized = normalized;
+    }
+
+    /**
+     * 解析请求参数。
+     * @param fields  逗号分隔的 {@link LeaveRequestViewDto} 属性名，可以为 null。
+     * @param include 逗号分隔的附加内容，目前只支持 history，可以为 null。
+     * @param shape   nested（默认）或 normalized，可以为 null。
+     * @throws IllegalArgumentException 字段名、附加内容或结构无法识别时。
+     */
+    public static LeaveRequestFields parse(String fields, String include, String shape) {
+        boolean normalized = parseShape(shape);
+        if (fields == null && include == null) {
+            return normalized ? new LeaveRequestFields(null, true, true) : ALL;
+        }
+        boolean history = false;
+        for (String name : split(include)) {
+            if (!INCLUDE_HISTORY.equals(name)) {
+                throw new IllegalArgumentException("Unknown include value: " + name);
+            }
+            history = true;
+        }
+        if (fields == null) {
+            return new LeaveRequestFields(null, history, normalized);
+        }
+        Set<String> selected = new TreeSet<>();
+        selected.add("id");
+        for (String name : split(fields)) {
+            if (!KNOWN_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        if (history) {
+            selected.add(APPROVAL_HISTORY);
+        }
+        return new LeaveRequestFields(Collections.unmodifiableSet(selected), selected.contains(APPROVAL_HISTORY), normalized);
+    }
+
+    private static boolean parseShape(String shape) {
+        if (shape == null || shape.isBlank() || SHAPE_NESTED.equals(shape.trim())) {
+            return false;
+        }
+        if (SHAPE_NORMALIZED.equals(shape.trim())) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unknown shape: " + shape);
+    }
+
+    private static String[] split(String value) {
+        if (value == null) {
+            return new String[0];
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * @return 是否需要填充该字段。审批历史由 {@link #includesHistory()} 单独判断。
+     */
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public boolean includesHistory() {
+        return history;
+    }
+
+    /**
+     * @return 是否返回规范化结构（行内只保留用户ID）。
+     */
+    public boolean isNormalized() {
+        return normalized;
+    }
+
+    /**
+     * @return 序列化时使用的过滤器，只输出选中的字段。
+     */
+    public FilterProvider toFilterProvider() {
+        SimpleBeanPropertyFilter filter;
+        if (fields != null) {
+            Set<String> output = new HashSet<>(fields);
+            if (normalized) {
+                // 规范化结构中用户对象换成ID
+                if (output.remove(APPLICANT)) {
+                    output.add(APPLICANT_ID);
+                }
+                if (output.remove(CURRENT_APPROVER)) {
+                    output.add(CURRENT_APPROVER_ID);
+                }
+            }
+            filter = SimpleBeanPropertyFilter.filterOutAllExcept(output);
+        } else {
+            Set<String> excluded = new HashSet<>();
+            if (!history) {
+                excluded.add(APPROVAL_HISTORY);
+            }
+            if (normalized) {
+                excluded.add(APPLICANT);
+                excluded.add(CURRENT_APPROVER);
+            }
+            filter = SimpleBeanPropertyFilter.serializeAllExcept(excluded);
+        }
+        return new SimpleFilterProvider().addFilter(LeaveRequestViewDto.FIELDS_FILTER, filter);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LeaveRequestFields other)) {
+            return false;
+        }
+        return history == other.history && normalized == other.normalized && Objects.equals(fields, other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fields, history, normalized);
+    }
+
+    /**
+     * @return 选择的规范化描述，参与列表 ETag 的计算（字段顺序不影响结果）。
+     */
+    public String cacheKey() {
+        return (fields != null ? String.join(",", fields) : "*") + (history ? "+history" : "") + (normalized ? "~normalized" : "");
+    }
+}
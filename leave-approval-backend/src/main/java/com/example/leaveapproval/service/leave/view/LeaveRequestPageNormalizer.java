@@ -0,0 +1,93 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.dto.ApprovalHistoryViewDto;
+import com.example.leaveapproval.dto.LeaveRequestPageDto;
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.dto.UserDto;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.repository.projection.UserProfileRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 把请假申请分页结果转换为规范化结构：收集行内引用的用户ID（申请人、当前审批人、审批历史中的审批人），
+ * 用一次投影查询加载这些用户的资料，放入 includes.users。
+ * <p>
+ * 审批人的待审批列表中每行的当前审批人相同，申请人也经常重复，
+ * 规范化后每个用户只序列化一次，响应体积和序列化耗时都随不同用户数而不是行数增长。
+ */
+@Component
+public class LeaveRequestPageNormalizer {
+
+    private final UserRepository userRepository;
+
+    public LeaveRequestPageNormalizer(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * @param page 按 {@link LeaveRequestFields#isNormalized()} 填充的分页结果（行内只有用户ID）。
+     * @return 规范化结构的分页结果。
+     */
+    public LeaveRequestPageDto normalize(Page<LeaveRequestViewDto> page) {
+        Set<Long> userIds = new TreeSet<>();
+        for (LeaveRequestViewDto row : page.getContent()) {
+            addIfPresent(userIds, row.getApplicantId());
+            addIfPresent(userIds, row.getCurrentApproverId());
+            if (row.getApprovalHistory() != null) {
+                for (ApprovalHistoryViewDto history : row.getApprovalHistory()) {
+                    addIfPresent(userIds, history.getApproverId());
+                }
+            }
+        }
+
+        LeaveRequestPageDto dto = new LeaveRequestPageDto();
+        dto.setContent(page.getContent());
+        dto.setPage(new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages()));
+        LeaveRequestPageDto.Includes includes = new LeaveRequestPageDto.Includes();
+        includes.setUsers(userIds.isEmpty() ? Map.of() : loadUsers(userIds));
+        dto.setIncludes(includes);
+        return dto;
+    }
+
+    private Map<Long, UserDto> loadUsers(Set<Long> userIds) {
+        // 每个角色一行，按用户ID合并
+        Map<Long, UserDto> users = new TreeMap<>();
+        for (UserProfileRow row : userRepository.findProfileRowsByIdIn(userIds)) {
+            UserDto user = users.computeIfAbsent(row.getId(), id -> fromProfileRow(row));
+            if (row.getRole() != null) {
+                user.getRoles().add(row.getRole());
+            }
+        }
+        return users;
+    }
+
+    private static UserDto fromProfileRow(UserProfileRow row) {
+        UserDto user = new UserDto();
+        user.setId(row.getId());
+        user.setUsername(row.getUsername());
+        user.setFullName(row.getFullName());
+        user.setEmail(row.getEmail());
+        user.setDepartment(row.getDepartment());
+        user.setManagerId(row.getManagerId());
+        user.setManagerUsername(row.getManagerUsername());
+        user.setRoles(new HashSet<>());
+        user.setEnabled(row.isEnabled());
+        user.setCreatedAt(row.getCreatedAt());
+        user.setUpdatedAt(row.getUpdatedAt());
+        return user;
+    }
+
+    private static void addIfPresent(Set<Long> userIds, Long userId) {
+        if (userId != null) {
+            userIds.add(userId);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 已结束请假申请的详情 JSON 缓存（序列化后的字节）。
+ * <p>
+ * 驳回和取消是终态；已批准的申请只允许在开始前由申请人取消，取消时的状态流转事件会使对应条目失效，
+ * 因此这三种状态的视图在没有流转事件和用户资料变更时不会变化。命中时直接返回缓存的字节数组写入响应，
+ * 不查库、不组装 DTO、不再序列化；缓存中同时保存 ETag，条件请求命中时直接返回 304。
+ * <p>
+ * 缓存按总字节数限制，LRU 淘汰。可选配置堆外容量：从堆内淘汰的条目转存到直接内存，
+ * 堆外命中时复制回堆内（提升为最近使用），堆外再满时才真正丢弃。
+ * <p>
+ * 与 {@link com.example.leaveapproval.service.teamcalendar.DepartmentAbsenceIndex} 相同，失效在事务提交后进行，
+ * 并用修改计数丢弃与失效交错、可能已过期的写入。
+ */
+@Component
+public class LeaveRequestViewCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveRequestViewCache.class);
+
+    /**
+     * 视图可以缓存的状态。
+     */
+    public static final Set<LeaveStatus> CACHEABLE_STATUSES =
+            Collections.unmodifiableSet(EnumSet.of(LeaveStatus.APPROVED, LeaveStatus.REJECTED, LeaveStatus.CANCELLED));
+
+    /**
+     * 序列化后的详情及其 ETag。json 由缓存持有，调用方不得修改。
+     */
+    public record CachedView(byte[] json, String etag) {
+    }
+
+    private record OffHeapView(ByteBuffer json, String etag) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final LeaveChangeTokens changeTokens;
+    private final boolean enabled;
+    private final long maxHeapBytes;
+    private final long maxOffHeapBytes;
+
+    // 两个 LRU 表及其字节数都由 this 保护
+    private final LinkedHashMap<Long, CachedView> heap = new LinkedHashMap<>(256, 0.75f, true);
+    private final LinkedHashMap<Long, OffHeapView> offHeap = new LinkedHashMap<>(256, 0.75f, true);
+    private long heapBytes;
+    private long offHeapBytes;
+    // 每次失效都会递增；用于丢弃与失效交错、可能已过期的写入
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public LeaveRequestViewCache(ObjectMapper objectMapper, LeaveChangeTokens changeTokens, MeterRegistry meterRegistry,
+                                 @Value("${app.leave.view-cache.enabled:true}") boolean enabled,
+                                 @Value("${app.leave.view-cache.max-heap-bytes:33554432}") long maxHeapBytes,
+                                 @Value("${app.leave.view-cache.max-off-heap-bytes:0}") long maxOffHeapBytes) {
+        this.objectMapper = objectMapper;
+        this.changeTokens = changeTokens;
+        this.enabled = enabled;
+        this.maxHeapBytes = maxHeapBytes;
+        this.maxOffHeapBytes = maxOffHeapBytes;
+
+        FunctionCounter.builder("leave.request.view-cache.requests", hits, LongAdder::sum)
+                .description("请假申请详情缓存的查询次数").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("leave.request.view-cache.requests", misses, LongAdder::sum)
+                .description("请假申请详情缓存的查询次数").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("leave.request.view-cache.evictions", evictions, LongAdder::sum)
+                .description("因容量不足被丢弃的缓存条目数").register(meterRegistry);
+        Gauge.builder("leave.request.view-cache.bytes", this, cache -> cache.heapBytes())
+                .description("缓存占用的字节数").tag("region", "heap").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("leave.request.view-cache.bytes", this, cache -> cache.offHeapBytes())
+                .description("缓存占用的字节数").tag("region", "off-heap").baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * @return 缓存的详情；未缓存时为 null。
+     */
+    public CachedView get(Long leaveRequestId) {
+        if (!enabled) {
+            return null;
+        }
+        CachedView view;
+        synchronized (this) {
+            view = heap.get(leaveRequestId);
+            if (view == null) {
+                OffHeapView spilled = offHeap.remove(leaveRequestId);
+                if (spilled != null) {
+                    offHeapBytes -= spilled.json().capacity();
+                    byte[] json = new byte[spilled.json().capacity()];
+                    spilled.json().duplicate().get(json);
+                    view = new CachedView(json, spilled.etag());
+                    putHeap(leaveRequestId, view);
+                }
+            }
+        }
+        if (view == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return view;
+    }
+
+    /**
+     * 加载视图前调用，获取当前的修改计数，之后传给 {@link #serialize}。
+     */
+    public long modificationStamp() {
+        return modificationCount.get();
+    }
+
+    /**
+     * 序列化视图并生成 ETag；状态可缓存且加载期间没有发生失效时放入缓存。
+     * @param stamp             加载视图前通过 {@link #modificationStamp()} 取得的修改计数。
+     * @param profileGeneration 加载视图前通过 {@link LeaveChangeTokens#profileGeneration()} 取得的资料代数。
+     * @return 与 HTTP 消息转换器输出相同的 JSON 字节及 ETag。
+     */
+    public CachedView serialize(LeaveRequestViewDto view, long stamp, long profileGeneration) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(view);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize leave request " + view.getId(), e);
+        }
+        String etag = changeTokens.detailETag(view.getId(), view.getVersion() != null ? view.getVersion() : 0,
+                view.getUpdatedAt(), profileGeneration);
+        CachedView cachedView = new CachedView(json, etag);
+        if (enabled && CACHEABLE_STATUSES.contains(view.getStatus()) && json.length <= maxHeapBytes) {
+            synchronized (this) {
+                if (modificationCount.get() == stamp && !heap.containsKey(view.getId())) {
+                    removeOffHeap(view.getId());
+                    putHeap(view.getId(), cachedView);
+                }
+            }
+        }
+        return cachedView;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        if (event.getRequestId() == null) {
+            return;
+        }
+        synchronized (this) {
+            modificationCount.incrementAndGet();
+            CachedView removed = heap.remove(event.getRequestId());
+            if (removed != null) {
+                heapBytes -= removed.json().length;
+            }
+            removeOffHeap(event.getRequestId());
+        }
+    }
+
+    /**
+     * 视图中内嵌了申请人和审批人的资料，用户变更很少发生，直接清空整个缓存。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        synchronized (this) {
+            modificationCount.incrementAndGet();
+            heap.clear();
+            offHeap.clear();
+            heapBytes = 0;
+            offHeapBytes = 0;
+        }
+        logger.debug("用户ID {} 的资料已变更，已清空请假申请详情缓存。", event.getUserId());
+    }
+
+    synchronized long heapBytes() {
+        return heapBytes;
+    }
+
+    synchronized long offHeapBytes() {
+        return offHeapBytes;
+    }
+
+    private void putHeap(Long leaveRequestId, CachedView view) {
+        heap.put(leaveRequestId, view);
+        heapBytes += view.json().length;
+        Iterator<Map.Entry<Long, CachedView>> eldest = heap.entrySet().iterator();
+        while (heapBytes > maxHeapBytes && eldest.hasNext()) {
+            Map.Entry<Long, CachedView> entry = eldest.next();
+            eldest.remove();
+            heapBytes -= entry.getValue().json().length;
+            spill(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void spill(Long leaveRequestId, CachedView view) {
+        byte[] json = view.json();
+        if (json.length > maxOffHeapBytes) {
+            evictions.increment();
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(json.length).put(json).flip();
+        offHeap.put(leaveRequestId, new OffHeapView(buffer, view.etag()));
+        offHeapBytes += json.length;
+        Iterator<Map.Entry<Long, OffHeapView>> eldest = offHeap.entrySet().iterator();
+        while (offHeapBytes > maxOffHeapBytes && eldest.hasNext()) {
+            offHeapBytes -= eldest.next().getValue().json().capacity();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private void removeOffHeap(Long leaveRequestId) {
+        OffHeapView removed = offHeap.remove(leaveRequestId);
+        if (removed != null) {
+            offHeapBytes -= removed.json().capacity();
+        }
+    }
+}
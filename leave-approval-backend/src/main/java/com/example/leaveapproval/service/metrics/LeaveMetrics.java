@@ -0,0 +1,87 @@
+package com.example.leaveapproval.service.metrics;
+
+import com.example.leaveapproval.model.ApprovalHistory;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.model.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * 请假业务指标的统一入口。
+ * <p>
+ * HTTP 接口（http.server.requests）、Repository 方法（spring.data.repository.invocations）、
+ * 连接池（hikaricp.*）和 Hibernate 统计（hibernate.*）由 Spring Boot 自动采集；
+ * 这里只补充审批链内部的计时器。
+ * 标签值只取枚举或审批节点类名，取值个数固定，不会随数据量增长。
+ */
+@Component
+public class LeaveMetrics {
+
+    public static final String INITIAL_APPROVER_TIMER = "leave.approval.initial-approver";
+    public static final String APPROVAL_ACTION_TIMER = "leave.approval.action";
+    public static final String VIEW_POPULATION_TIMER = "leave.request.view.populate";
+
+    public static final String OUTCOME_SUCCESS = "SUCCESS";
+    public static final String OUTCOME_ERROR = "ERROR";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public LeaveMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * 记录一次初始审批人查找的耗时。
+     * @param applicantRoles 申请人角色（按最高角色打标签）。
+     */
+    public void recordInitialApproverLookup(Timer.Sample sample, Set<Role> applicantRoles, LeaveType leaveType, String outcome) {
+        sample.stop(Timer.builder(INITIAL_APPROVER_TIMER)
+                .description("确定初始审批人的耗时")
+                .tag("role", roleTag(applicantRoles))
+                .tag("leave_type", leaveType != null ? leaveType.name() : NONE)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 记录一次审批节点处理的耗时。
+     * @param approverNode 审批节点名称（管理员操作为 AdminOverride）。
+     * @param actorRoles   操作人角色（按最高角色打标签）。
+     */
+    public void recordApprovalAction(Timer.Sample sample, String approverNode, Set<Role> actorRoles,
+                                     ApprovalHistory.Decision decision, LeaveType leaveType, String outcome) {
+        sample.stop(Timer.builder(APPROVAL_ACTION_TIMER)
+                .description("审批节点处理审批操作的耗时")
+                .tag("node", approverNode)
+                .tag("role", roleTag(actorRoles))
+                .tag("decision", decision != null ? decision.name() : NONE)
+                .tag("leave_type", leaveType != null ? leaveType.name() : NONE)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 记录一次请假申请视图 DTO 组装（含审批历史查询）的耗时。
+     */
+    public void recordViewPopulation(Timer.Sample sample, LeaveType leaveType) {
+        sample.stop(Timer.builder(VIEW_POPULATION_TIMER)
+                .description("组装请假申请视图 DTO 的耗时")
+                .tag("leave_type", leaveType != null ? leaveType.name() : NONE)
+                .register(meterRegistry));
+    }
+
+    private static String roleTag(Set<Role> roles) {
+        Role highest = Role.getHighestRole(roles);
+        return highest != null ? highest.name() : NONE;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.leaveapproval.service.notification;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+/**
+ * 请假申请变化的服务端推送（Server-Sent Events）。
+ * <p>
+ * 每次状态流转提交后，向相关用户的连接推送事件：
+ * <ul>
+ *   <li>{@code inbox}：申请进入该用户的待审批列表（成为当前审批人）</li>
+ *   <li>{@code inbox-removed}：申请离开该用户的待审批列表（已处理、流转或被取消）</li>
+ *   <li>{@code request-status}：该用户提交的申请发生流转（状态或当前审批人变化）</li>
+ * </ul>
+ * 客户端收到事件后再刷新对应列表（可带 If-None-Match），不再需要定时轮询。
+ */
+public interface LeaveNotificationService {
+
+    /**
+     * 为用户建立推送连接。
+     * @param userId 当前用户ID。
+     * @return 推送连接；连接总数已达上限时为空。
+     */
+    Optional<SseEmitter> subscribe(Long userId);
+
+    /**
+     * @return 当前打开的推送连接数。
+     */
+    int getConnectionCount();
+}
@@ -0,0 +1,300 @@
+package com.example.leaveapproval.service.notification.impl;
+
+import com.example.leaveapproval.dto.LeaveNotificationDto;
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.service.notification.LeaveNotificationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link LeaveNotificationService} 接口的实现类。
+ * <p>
+ * 连接基于 Servlet 异步请求：建立后请求线程立即归还，空闲连接只占用一个 TCP 连接和一个 SseEmitter 对象。
+ * 每个连接有自己的有界发送队列：事务提交后只把事件放入相关连接的队列（不阻塞提交审批的请求线程），
+ * 由一个小的写出线程池按连接依次写出（同一连接的事件保持顺序，同一时刻只有一个线程写同一连接）。
+ * <p>
+ * 写出是阻塞的，客户端不读取时写出会卡住；卡住的连接只占用一个写出线程，不影响其他连接：
+ * 队列满或单次写出超过 write-timeout-ms 的连接被判定为慢连接，立即停止向其投递并关闭，
+ * 客户端重连后可通过 ETag 重新同步列表。
+ * SseEmitter 的 send/complete 在同一把锁上，因此关闭连接也交给写出线程执行，心跳和投递线程从不等待写出。
+ * 定时向每个连接的队列放入注释行作为心跳，及时发现已断开的连接并防止代理因空闲超时断开。
+ */
+@Service
+public class LeaveNotificationServiceImpl implements LeaveNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaveNotificationServiceImpl.class);
+
+    static final String EVENT_CONNECTED = "connected";
+    static final String EVENT_INBOX = "inbox";
+    static final String EVENT_INBOX_REMOVED = "inbox-removed";
+    static final String EVENT_REQUEST_STATUS = "request-status";
+
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final Map<Long, Deque<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong slowConnectionsClosed = new AtomicLong();
+    private final ExecutorService writers;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final long timeoutMs;
+    private final int connectionQueueCapacity;
+    private final long writeTimeoutNanos;
+
+    @Autowired
+    public LeaveNotificationServiceImpl(MeterRegistry meterRegistry,
+                                        @Value("${app.notifications.max-connections:10000}") int maxConnections,
+                                        @Value("${app.notifications.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                        @Value("${app.notifications.timeout-ms:1800000}") long timeoutMs,
+                                        @Value("${app.notifications.writer-threads:4}") int writerThreads,
+                                        @Value("${app.notifications.connection-queue-capacity:100}") int connectionQueueCapacity,
+                                        @Value("${app.notifications.write-timeout-ms:10000}") long writeTimeoutMs) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeoutMs = timeoutMs;
+        this.connectionQueueCapacity = connectionQueueCapacity;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs);
+        AtomicInteger threadCount = new AtomicInteger();
+        // 每个连接同一时刻最多有一个写出任务在排队或执行，任务数不超过连接数
+        this.writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "leave-notification-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("leave.notifications.connections", connections, AtomicInteger::get)
+                .description("打开的 SSE 推送连接数").register(meterRegistry);
+        Gauge.builder("leave.notifications.slow.closed", slowConnectionsClosed, AtomicLong::get)
+                .description("因写出卡住或队列满而关闭的 SSE 推送连接数").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(userConnections -> userConnections.forEach(Connection::close));
+        subscribers.clear();
+        writers.shutdown();
+    }
+
+    @Override
+    public Optional<SseEmitter> subscribe(Long userId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            logger.warn("推送连接数已达上限 {}，拒绝用户ID {} 的连接。", maxConnections, userId);
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+        Deque<Connection> evicted = new ArrayDeque<>();
+        subscribers.compute(userId, (id, userConnections) -> {
+            Deque<Connection> current = userConnections != null ? userConnections : new ConcurrentLinkedDeque<>();
+            current.addLast(connection);
+            // 同一用户打开过多页面时关闭最早的连接
+            while (current.size() > maxConnectionsPerUser) {
+                evicted.add(current.pollFirst());
+                connections.decrementAndGet();
+            }
+            return current;
+        });
+        evicted.forEach(Connection::close);
+        emitter.onCompletion(() -> unsubscribe(connection));
+        emitter.onTimeout(() -> unsubscribe(connection));
+        emitter.onError(error -> unsubscribe(connection));
+
+        connection.enqueue(SseEmitter.event()
+                .name(EVENT_CONNECTED)
+                .reconnectTime(RECONNECT_DELAY_MS)
+                .data(Map.of("userId", userId), MediaType.APPLICATION_JSON));
+        logger.debug("用户ID {} 建立推送连接，当前连接数 {}。", userId, connections.get());
+        return Optional.of(emitter);
+    }
+
+    @Override
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        if (subscribers.isEmpty() || event.getRequestId() == null) {
+            return;
+        }
+        LeaveNotificationDto notification = LeaveNotificationDto.fromEvent(event);
+        boolean approverChanged = !Objects.equals(event.getPreviousApproverId(), event.getCurrentApproverId());
+        send(event.getApplicantId(), EVENT_REQUEST_STATUS, notification);
+        if (approverChanged && event.getToStatus() == LeaveStatus.PENDING_APPROVAL) {
+            send(event.getCurrentApproverId(), EVENT_INBOX, notification);
+        }
+        if (event.getPreviousApproverId() != null && (approverChanged || event.getToStatus() != LeaveStatus.PENDING_APPROVAL)) {
+            send(event.getPreviousApproverId(), EVENT_INBOX_REMOVED, notification);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userConnections -> {
+            for (Connection connection : userConnections) {
+                if (connection.isWriteStalled(now)) {
+                    connection.closeAsSlow("单次写出超时");
+                } else {
+                    connection.enqueue(SseEmitter.event().comment("ping"));
+                }
+            }
+        });
+    }
+
+    private void send(Long userId, String eventName, LeaveNotificationDto notification) {
+        if (userId == null) {
+            return;
+        }
+        Deque<Connection> userConnections = subscribers.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (Connection connection : userConnections) {
+            connection.enqueue(SseEmitter.event().name(eventName).data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void unsubscribe(Connection connection) {
+        subscribers.computeIfPresent(connection.userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connections.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    /**
+     * 单个推送连接：有界发送队列，以及在写出线程池中依次写出队列的任务。
+     * 队列和状态都在该对象的锁内访问；SseEmitter 只在写出任务中调用（subscribe 前的首个事件同样经由队列）。
+     */
+    private final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean scheduled;      // 是否已有写出任务在排队或执行
+        private boolean closed;
+        private boolean writing;
+        private long writeStartedNanos;
+
+        private Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() < connectionQueueCapacity) {
+                    pending.add(event);
+                    scheduleIfIdle();
+                    return;
+                }
+            }
+            closeAsSlow("发送队列已满");
+        }
+
+        synchronized boolean isWriteStalled(long nowNanos) {
+            return writing && nowNanos - writeStartedNanos > writeTimeoutNanos;
+        }
+
+        /**
+         * 停止投递并关闭连接；emitter.complete() 由写出任务执行（正在写出时待其返回后执行）。
+         */
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+                scheduleIfIdle();
+            }
+            unsubscribe(this);
+        }
+
+        void closeAsSlow(String reason) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            long total = slowConnectionsClosed.incrementAndGet();
+            logger.warn("用户ID {} 的推送连接过慢（{}），已关闭（累计 {} 个）。", userId, reason, total);
+            close();
+        }
+
+        private void scheduleIfIdle() {
+            if (!scheduled) {
+                scheduled = true;
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                synchronized (this) {
+                    if (closed) {
+                        scheduled = false;
+                        break;
+                    }
+                    event = pending.poll();
+                    if (event == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    writing = true;
+                    writeStartedNanos = System.nanoTime();
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // 客户端已断开或连接已完成
+                    logger.debug("向用户ID {} 推送失败，关闭连接：{}", userId, e.getMessage());
+                    synchronized (this) {
+                        closed = true;
+                        pending.clear();
+                        scheduled = false;
+                    }
+                    unsubscribe(this);
+                    break;
+                } finally {
+                    synchronized (this) {
+                        writing = false;
+                    }
+                }
+            }
+            emitter.complete();
+        }
+    }
+}
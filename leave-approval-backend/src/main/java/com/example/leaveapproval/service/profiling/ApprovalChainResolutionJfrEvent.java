@@ -0,0 +1,30 @@
+package com.example.leaveapproval.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：为新申请确定初始审批人（审批链解析）的耗时。
+ */
+@Name(ApprovalChainResolutionJfrEvent.NAME)
+@Label("Approval Chain Resolution")
+@Category(ProfilingService.JFR_CATEGORY)
+@Description("确定初始审批人的耗时")
+@StackTrace(false)
+public class ApprovalChainResolutionJfrEvent extends Event {
+
+    public static final String NAME = "com.example.leaveapproval.ApprovalChainResolution";
+
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("Applicant Role")
+    public String applicantRole;
+
+    @Label("Approver Id")
+    public long approverId;
+}
@@ -0,0 +1,30 @@
+package com.example.leaveapproval.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：写入一条审批历史记录的耗时。
+ */
+@Name(ApprovalHistoryWriteJfrEvent.NAME)
+@Label("Approval History Write")
+@Category(ProfilingService.JFR_CATEGORY)
+@Description("写入审批历史记录的耗时")
+@StackTrace(false)
+public class ApprovalHistoryWriteJfrEvent extends Event {
+
+    public static final String NAME = "com.example.leaveapproval.ApprovalHistoryWrite";
+
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("Approver Node")
+    public String approverNode;
+
+    @Label("Decision")
+    public String decision;
+}
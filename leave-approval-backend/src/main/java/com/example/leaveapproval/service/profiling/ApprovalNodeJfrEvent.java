@@ -0,0 +1,36 @@
+package com.example.leaveapproval.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：审批节点处理一次审批操作的耗时。
+ */
+@Name(ApprovalNodeJfrEvent.NAME)
+@Label("Approval Node Handling")
+@Category(ProfilingService.JFR_CATEGORY)
+@Description("审批节点处理审批操作的耗时")
+@StackTrace(false)
+public class ApprovalNodeJfrEvent extends Event {
+
+    public static final String NAME = "com.example.leaveapproval.ApprovalNode";
+
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("Approver Node")
+    public String approverNode;
+
+    @Label("Decision")
+    public String decision;
+
+    @Label("Status After")
+    public String statusAfter;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
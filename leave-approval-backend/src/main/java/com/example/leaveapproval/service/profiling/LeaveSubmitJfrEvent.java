@@ -0,0 +1,33 @@
+package com.example.leaveapproval.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：一次请假申请提交（校验、保存、确定初始审批人）的完整耗时。
+ */
+@Name(LeaveSubmitJfrEvent.NAME)
+@Label("Leave Submit")
+@Category(ProfilingService.JFR_CATEGORY)
+@Description("请假申请提交的完整处理耗时")
+@StackTrace(false)
+public class LeaveSubmitJfrEvent extends Event {
+
+    public static final String NAME = "com.example.leaveapproval.LeaveSubmit";
+
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("Applicant Id")
+    public long applicantId;
+
+    @Label("Leave Type")
+    public String leaveType;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,27 @@
+package com.example.leaveapproval.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR 事件：组装一个请假申请视图 DTO（含审批历史查询）的耗时。
+ */
+@Name(LeaveViewPopulationJfrEvent.NAME)
+@Label("Leave View Population")
+@Category(ProfilingService.JFR_CATEGORY)
+@Description("组装请假申请视图 DTO 的耗时")
+@StackTrace(false)
+public class LeaveViewPopulationJfrEvent extends Event {
+
+    public static final String NAME = "com.example.leaveapproval.LeaveViewPopulation";
+
+    @Label("Request Id")
+    public long requestId;
+
+    @Label("History Count")
+    public int historyCount;
+}
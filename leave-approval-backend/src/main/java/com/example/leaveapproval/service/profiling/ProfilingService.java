@@ -0,0 +1,40 @@
+package com.example.leaveapproval.service.profiling;
+
+import com.example.leaveapproval.dto.SqlQueryProfileDto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 按需 JFR 录制服务：在运行中的服务内启动限时录制，无需重启或挂载外部 agent。
+ * 另提供 SQL 语句执行统计的查询与清空。
+ */
+public interface ProfilingService {
+
+    /**
+     * 审批流程自定义 JFR 事件所属的分类（在 JDK Mission Control 中按此分组显示）。
+     */
+    String JFR_CATEGORY = "Leave Approval";
+
+    /**
+     * 启动一次限时录制。同一时间只允许一次录制。
+     * @param duration 录制时长，不能超过 app.profiling.max-duration-seconds。
+     * @return 录制结束后完成的 Future，结果为 .jfr 文件路径（在下一次录制开始时删除）。
+     * @throws IllegalArgumentException 如果时长不在允许范围内。
+     * @throws IllegalStateException    如果已有录制正在进行或录制无法启动。
+     */
+    CompletableFuture<Path> startTimedRecording(Duration duration);
+
+    /**
+     * 按总耗时降序返回执行最重的 SQL 语句（按归一化后的 SQL 汇总）。
+     * @param limit 返回条数，1 到 500。
+     * @throws IllegalArgumentException 如果条数不在允许范围内。
+     */
+    SqlQueryProfileDto getTopQueries(int limit);
+
+    /**
+     * 清空 SQL 语句执行统计，从当前时刻重新开始累计。
+     */
+    void resetQueryStatistics();
+}
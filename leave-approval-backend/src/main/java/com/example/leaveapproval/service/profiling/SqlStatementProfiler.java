@@ -0,0 +1,253 @@
+package com.example.leaveapproval.service.profiling;
+
+import com.example.leaveapproval.dto.SqlQueryProfileDto;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL 语句统计（由 DataSourceProxyConfig 注册为 datasource-proxy 的监听器）。
+ * <p>
+ * 每条语句先归一化（字面量替换为 ?，IN 列表折叠，空白压缩），再按归一化后的 SQL 累计次数和耗时（纳秒计时），
+ * 供管理员按总耗时查看最重的查询。
+ * <p>
+ * 同时按 HTTP 请求计数：请求线程在 {@link #beginRequest()} 与 {@link #endRequest(String)} 之间执行的语句
+ * 按归一化 SQL 分别计数，同一条语句超过阈值时输出告警（典型的 N+1：逐条加载审批历史或审批人）。
+ * 告警按 (接口, SQL) 限流：每个间隔内只输出一次，并附带期间被省略的次数，热点接口不会刷屏，也不会被采样丢失。
+ * 请求之外执行的语句（定时任务、启动回填、异步导出线程）只计入全局统计。
+ */
+@Component
+public class SqlStatementProfiler implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementProfiler.class);
+
+    /** 超过统计上限后，新出现的语句统一计入此项 */
+    static final String OTHER_STATEMENTS = "(other statements)";
+    private static final int MAX_LOGGED_SQL_LENGTH = 300;
+    private static final String START_NANOS = SqlStatementProfiler.class.getName() + ".startNanos";
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int nPlusOneThreshold;
+    private final int maxTrackedStatements;
+    private final long nPlusOneWarnIntervalNanos;
+    private final Map<String, QueryStats> statsBySql = new ConcurrentHashMap<>();
+    // 原始 SQL -> 归一化 SQL；Hibernate 生成的语句文本固定，缓存后大部分语句不必重复跑正则
+    private final Map<String, String> normalizedCache = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, Integer>> requestCounts = new ThreadLocal<>();
+    // 接口 + 归一化 SQL -> N+1 告警的限流状态
+    private final Map<String, WarningThrottle> nPlusOneWarnings = new ConcurrentHashMap<>();
+    private volatile LocalDateTime since = LocalDateTime.now();
+
+    @Autowired
+    public SqlStatementProfiler(@Value("${app.sql-profiling.n-plus-one-threshold:10}") int nPlusOneThreshold,
+                                @Value("${app.sql-profiling.max-tracked-statements:500}") int maxTrackedStatements,
+                                @Value("${app.sql-profiling.n-plus-one-warn-interval-seconds:60}") int nPlusOneWarnIntervalSeconds) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.maxTrackedStatements = maxTrackedStatements;
+        this.nPlusOneWarnIntervalNanos = TimeUnit.SECONDS.toNanos(nPlusOneWarnIntervalSeconds);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // datasource-proxy 的 elapsedTime 只精确到毫秒，短语句大多记为 0，这里自行按纳秒计时
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (queryInfoList.isEmpty()) {
+            return;
+        }
+        Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = startNanos != null
+                ? System.nanoTime() - startNanos
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        // 批量执行是一次往返，耗时平摊到批内各条语句
+        long elapsedNanosPerStatement = elapsedNanos / queryInfoList.size();
+        Map<String, Integer> counts = requestCounts.get();
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = normalize(queryInfo.getQuery());
+            statsFor(sql).record(elapsedNanosPerStatement, execInfo.isSuccess());
+            if (counts != null) {
+                counts.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * 开始统计当前线程（一个 HTTP 请求）执行的语句。
+     */
+    public void beginRequest() {
+        requestCounts.set(new HashMap<>());
+    }
+
+    /**
+     * 结束当前线程的请求统计；同一条语句执行次数超过阈值时输出 N+1 告警（按接口和 SQL 限流）。
+     * @param endpoint 请求方法和路由模板（如 GET /api/leave-requests/{id}），用于定位接口。
+     */
+    public void endRequest(String endpoint) {
+        Map<String, Integer> counts = requestCounts.get();
+        requestCounts.remove();
+        if (counts == null || counts.isEmpty()) {
+            return;
+        }
+        int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+        logger.debug("{} 共执行 {} 条 SQL（{} 种）", endpoint, total, counts.size());
+        counts.forEach((sql, count) -> {
+            if (count <= nPlusOneThreshold) {
+                return;
+            }
+            long suppressed = throttleFor(endpoint, sql).tryAcquire(System.nanoTime(), nPlusOneWarnIntervalNanos);
+            if (suppressed < 0) {
+                return;
+            }
+            logger.atWarn()
+                    .addKeyValue("event", "sql.n-plus-one")
+                    .addKeyValue("endpoint", endpoint)
+                    .addKeyValue("count", count)
+                    .addKeyValue("totalStatements", total)
+                    .addKeyValue("suppressed", suppressed)
+                    .addKeyValue("sql", abbreviate(sql))
+                    .log("单个请求内同一条 SQL 重复执行，疑似 N+1 查询");
+        });
+    }
+
+    /**
+     * 按总耗时降序返回最重的语句。
+     */
+    public SqlQueryProfileDto getTopQueries(int limit) {
+        SqlQueryProfileDto dto = new SqlQueryProfileDto();
+        dto.setSince(since);
+        dto.setTrackedStatements(statsBySql.size());
+        dto.setQueries(statsBySql.entrySet().stream()
+                .map(entry -> entry.getValue().toDto(entry.getKey()))
+                .sorted(Comparator.comparingDouble(SqlQueryProfileDto.Query::getTotalMillis).reversed()
+                        .thenComparing(Comparator.comparingLong(SqlQueryProfileDto.Query::getCount).reversed()))
+                .limit(limit)
+                .toList());
+        return dto;
+    }
+
+    /**
+     * 清空全局统计（正在进行中的请求计数不受影响）。
+     */
+    public void reset() {
+        statsBySql.clear();
+        normalizedCache.clear();
+        since = LocalDateTime.now();
+    }
+
+    private QueryStats statsFor(String sql) {
+        QueryStats stats = statsBySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String key = statsBySql.size() < maxTrackedStatements ? sql : OTHER_STATEMENTS;
+        return statsBySql.computeIfAbsent(key, k -> new QueryStats());
+    }
+
+    private WarningThrottle throttleFor(String endpoint, String sql) {
+        String key = endpoint + ' ' + sql;
+        WarningThrottle throttle = nPlusOneWarnings.get(key);
+        if (throttle != null) {
+            return throttle;
+        }
+        // 与语句统计相同的上限：超出后新出现的组合共用一个限流状态
+        String bounded = nPlusOneWarnings.size() < maxTrackedStatements ? key : OTHER_STATEMENTS;
+        return nPlusOneWarnings.computeIfAbsent(bounded, k -> new WarningThrottle());
+    }
+
+    String normalize(String sql) {
+        String cached = normalizedCache.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMERIC_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        // 缓存同样有上限：拼接了字面量的语句文本各不相同，不能无限缓存
+        if (normalizedCache.size() < maxTrackedStatements * 4) {
+            normalizedCache.put(sql, normalized);
+        }
+        return normalized;
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL_LENGTH ? sql : sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+    }
+
+    /**
+     * 单个 (接口, SQL) 的告警限流：距上次输出不足一个间隔时只计数。
+     */
+    private static class WarningThrottle {
+        private boolean logged;
+        private long lastLoggedNanos;
+        private long suppressed;
+
+        /**
+         * @return 可以输出时返回上次输出后被省略的次数；仍在间隔内时返回 -1。
+         */
+        synchronized long tryAcquire(long nowNanos, long intervalNanos) {
+            if (logged && nowNanos - lastLoggedNanos < intervalNanos) {
+                suppressed++;
+                return -1;
+            }
+            long result = suppressed;
+            logged = true;
+            lastLoggedNanos = nowNanos;
+            suppressed = 0;
+            return result;
+        }
+    }
+
+    private static class QueryStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long elapsedNanos, boolean success) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (!success) {
+                failures.increment();
+            }
+        }
+
+        SqlQueryProfileDto.Query toDto(String sql) {
+            SqlQueryProfileDto.Query query = new SqlQueryProfileDto.Query();
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / NANOS_PER_MILLI;
+            query.setSql(sql);
+            query.setCount(executions);
+            query.setFailures(failures.sum());
+            query.setTotalMillis(totalMillis);
+            query.setMeanMillis(executions > 0 ? totalMillis / executions : 0);
+            query.setMaxMillis(maxNanos.get() / NANOS_PER_MILLI);
+            return query;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.leaveapproval.service.profiling.impl;
+
+import com.example.leaveapproval.dto.SqlQueryProfileDto;
+import com.example.leaveapproval.service.profiling.ApprovalChainResolutionJfrEvent;
+import com.example.leaveapproval.service.profiling.ApprovalHistoryWriteJfrEvent;
+import com.example.leaveapproval.service.profiling.ApprovalNodeJfrEvent;
+import com.example.leaveapproval.service.profiling.LeaveSubmitJfrEvent;
+import com.example.leaveapproval.service.profiling.LeaveViewPopulationJfrEvent;
+import com.example.leaveapproval.service.profiling.ProfilingService;
+import com.example.leaveapproval.service.profiling.SqlStatementProfiler;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link ProfilingService} 接口的实现类。
+ * <p>
+ * 录制配置以 JDK 自带的配置（app.profiling.base-configuration，默认 profile）为基础，
+ * 再开启审批流程的自定义事件（阈值 0，不采集调用栈）。录制在计时线程上到期停止并写入临时目录。
+ */
+@Service
+public class ProfilingServiceImpl implements ProfilingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingServiceImpl.class);
+    private static final int MAX_TOP_QUERIES = 500;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final List<String> CUSTOM_EVENTS = List.of(
+            LeaveSubmitJfrEvent.NAME,
+            ApprovalChainResolutionJfrEvent.NAME,
+            ApprovalNodeJfrEvent.NAME,
+            ApprovalHistoryWriteJfrEvent.NAME,
+            LeaveViewPopulationJfrEvent.NAME);
+
+    private final SqlStatementProfiler sqlStatementProfiler;
+    private final String baseConfiguration;
+    private final Duration maxDuration;
+    private final AtomicBoolean recordingInProgress = new AtomicBoolean();
+    private final ScheduledExecutorService timer;
+    private Path recordingDirectory;
+
+    @Autowired
+    public ProfilingServiceImpl(SqlStatementProfiler sqlStatementProfiler,
+                                @Value("${app.profiling.base-configuration:profile}") String baseConfiguration,
+                                @Value("${app.profiling.max-duration-seconds:300}") long maxDurationSeconds) {
+        this.sqlStatementProfiler = sqlStatementProfiler;
+        this.baseConfiguration = baseConfiguration;
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-recording-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+        deletePreviousRecordings();
+    }
+
+    @Override
+    public CompletableFuture<Path> startTimedRecording(Duration duration) {
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Recording duration must be between 1 and " + maxDuration.getSeconds() + " seconds.");
+        }
+        if (!recordingInProgress.compareAndSet(false, true)) {
+            throw new IllegalStateException("A profiling recording is already in progress.");
+        }
+        Recording recording;
+        try {
+            deletePreviousRecordings();
+            recording = new Recording(recordingSettings());
+            recording.setName("leave-approval-" + LocalDateTime.now().format(FILE_TIMESTAMP));
+            recording.setToDisk(true);
+            recording.start();
+        } catch (IOException | ParseException | RuntimeException e) {
+            recordingInProgress.set(false);
+            logger.error("启动 JFR 录制失败：{}", e.getMessage(), e);
+            throw new IllegalStateException("Failed to start profiling recording: " + e.getMessage(), e);
+        }
+        logger.info("已启动 JFR 录制 {}，时长 {} 秒。", recording.getName(), duration.getSeconds());
+
+        CompletableFuture<Path> result = new CompletableFuture<>();
+        timer.schedule(() -> finishRecording(recording, result), duration.toMillis(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @Override
+    public SqlQueryProfileDto getTopQueries(int limit) {
+        if (limit < 1 || limit > MAX_TOP_QUERIES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_QUERIES + ".");
+        }
+        return sqlStatementProfiler.getTopQueries(limit);
+    }
+
+    @Override
+    public void resetQueryStatistics() {
+        sqlStatementProfiler.reset();
+        logger.info("SQL 语句执行统计已清空。");
+    }
+
+    private void finishRecording(Recording recording, CompletableFuture<Path> result) {
+        try {
+            recording.stop();
+            Path file = recordingDirectory().resolve(recording.getName() + ".jfr");
+            recording.dump(file);
+            logger.info("JFR 录制 {} 已完成：{}（{} 字节）。", recording.getName(), file, Files.size(file));
+            result.complete(file);
+        } catch (IOException | RuntimeException e) {
+            logger.error("JFR 录制 {} 写出失败：{}", recording.getName(), e.getMessage(), e);
+            result.completeExceptionally(new IllegalStateException("Failed to write profiling recording: " + e.getMessage(), e));
+        } finally {
+            recording.close();
+            recordingInProgress.set(false);
+        }
+    }
+
+    private Map<String, String> recordingSettings() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(baseConfiguration).getSettings());
+        for (String event : CUSTOM_EVENTS) {
+            settings.put(event + "#enabled", "true");
+            settings.put(event + "#threshold", "0 ms");
+        }
+        return settings;
+    }
+
+    private synchronized Path recordingDirectory() throws IOException {
+        if (recordingDirectory == null) {
+            recordingDirectory = Files.createTempDirectory("leave-approval-jfr");
+        }
+        return recordingDirectory;
+    }
+
+    /**
+     * 只保留最近一次录制的文件：新录制开始前删除旧文件，避免临时目录无限增长。
+     */
+    private synchronized void deletePreviousRecordings() {
+        if (recordingDirectory == null) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(recordingDirectory, "*.jfr")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("清理旧的 JFR 录制文件失败：{}", e.getMessage());
+        }
+    }
+}
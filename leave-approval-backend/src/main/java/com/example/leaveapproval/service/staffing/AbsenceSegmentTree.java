@@ -0,0 +1,106 @@
+package com.example.leaveapproval.service.staffing;
+
+import java.util.function.IntConsumer;
+
+/**
+ * 支持区间加法与区间最大值查询的线段树（懒标记），下标为一年中的第几天（从 0 开始）。
+ * 每个叶子保存当天已批准请假的人数。非线程安全，由调用方加锁。
+ */
+final class AbsenceSegmentTree {
+
+    private final int size;
+    private final int[] max;
+    private final int[] lazy;
+
+    AbsenceSegmentTree(int size) {
+        this.size = size;
+        this.max = new int[4 * size];
+        this.lazy = new int[4 * size];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 区间 [from, to]（包含）内每天加上 delta。
+     */
+    void add(int from, int to, int delta) {
+        if (from > to) {
+            return;
+        }
+        add(1, 0, size - 1, from, to, delta);
+    }
+
+    /**
+     * @return 区间 [from, to]（包含）内的最大请假人数。
+     */
+    int max(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        return max(1, 0, size - 1, from, to);
+    }
+
+    /**
+     * 按升序回调区间 [from, to] 内请假人数 &gt;= threshold 的每一天；最大值不足的子树直接剪枝。
+     */
+    void forEachAtLeast(int from, int to, int threshold, IntConsumer consumer) {
+        if (from > to) {
+            return;
+        }
+        forEachAtLeast(1, 0, size - 1, from, to, threshold, consumer);
+    }
+
+    private void add(int node, int lo, int hi, int from, int to, int delta) {
+        if (to < lo || hi < from) {
+            return;
+        }
+        if (from <= lo && hi <= to) {
+            max[node] += delta;
+            lazy[node] += delta;
+            return;
+        }
+        pushDown(node);
+        int mid = (lo + hi) >>> 1;
+        add(2 * node, lo, mid, from, to, delta);
+        add(2 * node + 1, mid + 1, hi, from, to, delta);
+        max[node] = Math.max(max[2 * node], max[2 * node + 1]);
+    }
+
+    private int max(int node, int lo, int hi, int from, int to) {
+        if (to < lo || hi < from) {
+            return Integer.MIN_VALUE;
+        }
+        if (from <= lo && hi <= to) {
+            return max[node];
+        }
+        pushDown(node);
+        int mid = (lo + hi) >>> 1;
+        return Math.max(max(2 * node, lo, mid, from, to), max(2 * node + 1, mid + 1, hi, from, to));
+    }
+
+    private void forEachAtLeast(int node, int lo, int hi, int from, int to, int threshold, IntConsumer consumer) {
+        if (to < lo || hi < from || max[node] < threshold) {
+            return;
+        }
+        if (lo == hi) {
+            consumer.accept(lo);
+            return;
+        }
+        pushDown(node);
+        int mid = (lo + hi) >>> 1;
+        forEachAtLeast(2 * node, lo, mid, from, to, threshold, consumer);
+        forEachAtLeast(2 * node + 1, mid + 1, hi, from, to, threshold, consumer);
+    }
+
+    private void pushDown(int node) {
+        if (lazy[node] != 0) {
+            for (int child = 2 * node; child <= 2 * node + 1; child++) {
+                max[child] += lazy[node];
+                lazy[child] += lazy[node];
+            }
+            lazy[node] = 0;
+        }
+    }
+}
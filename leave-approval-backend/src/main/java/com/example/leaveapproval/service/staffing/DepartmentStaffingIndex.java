@@ -0,0 +1,227 @@
+package com.example.leaveapproval.service.staffing;
+
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.projection.AbsenceIntervalView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 部门每日请假人数索引：每个 (部门, 年度) 一棵 {@link AbsenceSegmentTree}，是最终批准时最低在岗人数校验的依据。
+ * <p>
+ * 只在持有部门锁行时查询（见 StaffingCheckServiceImpl），并传入锁行上的修订号。会改变部门已批准请假的事务
+ * 都在同一把锁内递增修订号，因此缓存的修订号与锁行一致时，树中正好是所有已提交的已批准请假，
+ * 查询某区间内请假人数达到阈值的日期为 O(log n + k)，不需要扫描重叠的请假申请；
+ * 不一致时（例如其他实例批准或取消了请假）丢弃该部门，在锁内以加锁读重新加载所需年度。
+ * <p>
+ * 本实例事务中的 +1/-1 在事务提交后按修订号应用：缓存恰好停在前一个修订号时增量更新，否则丢弃该部门。
+ * 当前事务自己已有未提交的变更时，锁内加载的结果包含这些变更，只用于本次查询，不放入缓存。
+ * 部门和每个部门的年度都按 LRU 淘汰（max-cached-departments / max-cached-years）。
+ */
+@Component
+public class DepartmentStaffingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentStaffingIndex.class);
+
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final Map<String, DepartmentYears> departments;
+    private final int maxCachedYears;
+
+    @Autowired
+    public DepartmentStaffingIndex(LeaveRequestRepository leaveRequestRepository,
+                                   @Value("${app.staffing.max-cached-departments:256}") int maxCachedDepartments,
+                                   @Value("${app.staffing.max-cached-years:3}") int maxCachedYears) {
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.maxCachedYears = maxCachedYears;
+        this.departments = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DepartmentYears> eldest) {
+                return size() > maxCachedDepartments;
+            }
+        });
+    }
+
+    /**
+     * 查找 [startDate, endDate] 内已批准请假人数 &gt;= threshold 的日期。必须在持有该部门锁行的事务内调用。
+     * @param department 部门名称。
+     * @param revision   锁行上读取到的修订号。
+     * @param startDate  开始日期（包含）。
+     * @param endDate    结束日期（包含）。
+     * @param threshold  请假人数阈值。
+     * @return 按日期升序的列表。
+     */
+    public List<LocalDate> findDaysWithAbsencesAtLeast(String department, long revision,
+                                                       LocalDate startDate, LocalDate endDate, int threshold) {
+        DepartmentYears years = hasUncommittedChanges(department)
+                ? new DepartmentYears(Integer.MAX_VALUE)
+                : departments.computeIfAbsent(department, d -> new DepartmentYears(maxCachedYears));
+        List<LocalDate> result = new ArrayList<>();
+        synchronized (years) {
+            if (years.revision != revision) {
+                years.trees.clear();
+                years.revision = revision;
+            }
+            for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+                int from = year == startDate.getYear() ? startDate.getDayOfYear() - 1 : 0;
+                int to = year == endDate.getYear() ? endDate.getDayOfYear() - 1 : Year.of(year).length() - 1;
+                LocalDate firstDay = LocalDate.ofYearDay(year, 1);
+                AbsenceSegmentTree tree = years.trees.get(year);
+                if (tree == null) {
+                    tree = load(department, year);
+                    years.trees.put(year, tree);
+                }
+                tree.forEachAtLeast(from, to, threshold, day -> result.add(firstDay.plusDays(day)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 记录当前事务对部门已批准请假的变更，事务提交后应用到缓存；没有事务时立即应用。
+     * @param department 部门名称。
+     * @param revision   本次变更递增后的修订号。
+     * @param startDate  请假开始日期。
+     * @param endDate    请假结束日期。
+     * @param delta      +1 表示批准，-1 表示已批准的请假被取消。
+     */
+    public void recordChange(String department, long revision, LocalDate startDate, LocalDate endDate, int delta) {
+        afterCommit(department, () -> {
+            DepartmentYears years = departments.get(department);
+            if (years == null) {
+                return;
+            }
+            synchronized (years) {
+                if (years.revision >= revision) {
+                    return; // 提交后其他事务已在锁内重新加载，结果已包含本次变更
+                }
+                if (years.revision != revision - 1) {
+                    years.trees.clear();
+                    years.revision = -1;
+                    return;
+                }
+                years.revision = revision;
+                for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+                    AbsenceSegmentTree tree = years.trees.get(year);
+                    if (tree != null) {
+                        apply(tree, year, startDate, endDate, delta);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 记录当前事务中无法增量维护的变更（用户换部门或被删除），事务提交后丢弃落后于该修订号的缓存；没有事务时立即丢弃。
+     * @param department 部门名称。
+     * @param revision   本次变更递增后的修订号。
+     */
+    public void recordInvalidation(String department, long revision) {
+        afterCommit(department, () -> {
+            DepartmentYears years = departments.get(department);
+            if (years == null) {
+                return;
+            }
+            synchronized (years) {
+                if (years.revision < revision) {
+                    years.trees.clear();
+                    years.revision = -1;
+                    logger.debug("部门 {} 的请假人数已变更（修订号 {}），已丢弃缓存。", department, revision);
+                }
+            }
+        });
+    }
+
+    int cachedDepartmentCount() {
+        return departments.size();
+    }
+
+    private AbsenceSegmentTree load(String department, int year) {
+        LocalDate firstDay = LocalDate.ofYearDay(year, 1);
+        LocalDate lastDay = firstDay.plusYears(1).minusDays(1);
+        List<AbsenceIntervalView> intervals = leaveRequestRepository.findDepartmentAbsencesWithLock(
+                department, LeaveStatus.APPROVED, firstDay, lastDay);
+        AbsenceSegmentTree tree = new AbsenceSegmentTree(Year.of(year).length());
+        for (AbsenceIntervalView interval : intervals) {
+            apply(tree, year, interval.getStartDate(), interval.getEndDate(), 1);
+        }
+        logger.debug("已加载部门 {} {} 年的每日请假人数，区间 {} 个。", department, year, intervals.size());
+        return tree;
+    }
+
+    private boolean hasUncommittedChanges(String department) {
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        return pending != null && pending.departments.contains(department);
+    }
+
+    private void afterCommit(String department, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.departments.add(department);
+        pending.actions.add(action);
+    }
+
+    private static void apply(AbsenceSegmentTree tree, int year, LocalDate startDate, LocalDate endDate, int delta) {
+        int from = startDate.getYear() < year ? 0 : startDate.getDayOfYear() - 1;
+        int to = endDate.getYear() > year ? tree.size() - 1 : endDate.getDayOfYear() - 1;
+        tree.add(from, to, delta);
+    }
+
+    /**
+     * 单个部门按年度的线段树及其对应的修订号，所有访问都在该对象的锁内进行；
+     * 年度按访问顺序排列，超出上限时淘汰最久未查询的年度。
+     */
+    private static final class DepartmentYears {
+        private final Map<Integer, AbsenceSegmentTree> trees;
+        private long revision = -1;
+
+        private DepartmentYears(int maxCachedYears) {
+            this.trees = new LinkedHashMap<>(8, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, AbsenceSegmentTree> eldest) {
+                    return size() > maxCachedYears;
+                }
+            };
+        }
+    }
+
+    /**
+     * 当前事务中尚未提交的变更：涉及的部门，以及提交后要应用到缓存的操作。
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Set<String> departments = new HashSet<>();
+        private final List<Runnable> actions = new ArrayList<>();
+
+        @Override
+        public void afterCommit() {
+            actions.forEach(Runnable::run);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DepartmentStaffingIndex.this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.leaveapproval.service.staffing;
+
+import com.example.leaveapproval.model.LeaveRequest;
+
+/**
+ * 最低在岗人数校验服务接口。
+ * 最终批准请假前检查：批准后部门在岗人数是否会在某个工作日低于配置的最低人数。
+ */
+public interface StaffingCheckService {
+
+    /**
+     * 在最终批准前执行校验：锁定部门后按部门每日请假人数索引判断（同一部门的最终批准串行执行），BLOCK 模式下抛出
+     * {@link com.example.leaveapproval.exception.StaffingConstraintViolationException}，
+     * WARN 模式下把提示追加到请假申请的 warnings 中并放行。必须在审批事务内调用。
+     * @param leaveRequest 待批准的请假申请。
+     */
+    void checkBeforeFinalApproval(LeaveRequest leaveRequest);
+}
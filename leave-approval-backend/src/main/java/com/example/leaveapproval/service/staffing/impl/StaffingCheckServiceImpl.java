@@ -0,0 +1,187 @@
+package com.example.leaveapproval.service.staffing.impl;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import com.example.leaveapproval.exception.StaffingConstraintViolationException;
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.repository.DepartmentLockRepository;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.staffing.DepartmentStaffingIndex;
+import com.example.leaveapproval.service.staffing.StaffingCheckService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link StaffingCheckService} 接口的实现类。
+ * 各部门最低在岗人数通过 app.staffing.min-present.&lt;部门名称&gt; 配置，未配置的部门不校验。
+ * <p>
+ * 最终批准前先锁定部门锁行（同一部门的最终批准在所有实例间串行执行），再按锁行上的修订号查询
+ * {@link DepartmentStaffingIndex}。在发布事件的事务内同步监听请假状态流转和用户资料变更：
+ * 已校验部门的已批准请假发生变化时，在同一把锁内递增修订号，并登记提交后对索引的增量更新。
+ */
+@Service
+public class StaffingCheckServiceImpl implements StaffingCheckService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaffingCheckServiceImpl.class);
+
+    /**
+     * 校验不通过时的处理方式。
+     */
+    public enum Mode {
+        WARN,   // 放行，并在响应中附带提示
+        BLOCK   // 拒绝批准（409）
+    }
+
+    private final DepartmentStaffingIndex departmentStaffingIndex;
+    private final UserRepository userRepository;
+    private final DepartmentLockRepository departmentLockRepository;
+    private final WorkingDayCalendarService workingDayCalendarService;
+    private final Environment environment;
+    private final TransactionTemplate requiresNew;
+    private final boolean enabled;
+    private final Mode mode;
+    // 已确认存在锁行的部门（锁行只增不删），之后无需再检查
+    private final Set<String> departmentsWithLockRow = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public StaffingCheckServiceImpl(DepartmentStaffingIndex departmentStaffingIndex,
+                                    UserRepository userRepository,
+                                    DepartmentLockRepository departmentLockRepository,
+                                    WorkingDayCalendarService workingDayCalendarService,
+                                    Environment environment,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.staffing.enabled:false}") boolean enabled,
+                                    @Value("${app.staffing.mode:WARN}") Mode mode) {
+        this.departmentStaffingIndex = departmentStaffingIndex;
+        this.userRepository = userRepository;
+        this.departmentLockRepository = departmentLockRepository;
+        this.workingDayCalendarService = workingDayCalendarService;
+        this.environment = environment;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.mode = mode;
+    }
+
+    @Override
+    public void checkBeforeFinalApproval(LeaveRequest leaveRequest) {
+        String department = leaveRequest.getApplicant().getDepartment();
+        Integer minPresent = minPresentFor(department);
+        if (!enabled || minPresent == null) {
+            return;
+        }
+        long revision = lockDepartment(department);
+        int threshold = absenceThreshold(department, minPresent);
+        List<LocalDate> understaffedDates = departmentStaffingIndex
+                .findDaysWithAbsencesAtLeast(department, revision, leaveRequest.getStartDate(), leaveRequest.getEndDate(), threshold)
+                .stream()
+                .filter(workingDayCalendarService::isWorkingDay)
+                .collect(Collectors.toList());
+        if (understaffedDates.isEmpty()) {
+            return;
+        }
+        if (mode == Mode.BLOCK) {
+            logger.warn("请假申请ID {} 批准后部门 {} 在岗人数将低于 {} 人，已阻止：{}",
+                    leaveRequest.getId(), department, minPresent, understaffedDates);
+            throw new StaffingConstraintViolationException(department, minPresent, understaffedDates);
+        }
+        logger.info("请假申请ID {} 批准后部门 {} 在岗人数将低于 {} 人（仅提示）：{}",
+                leaveRequest.getId(), department, minPresent, understaffedDates);
+        leaveRequest.getWarnings().add(String.format(
+                "Department '%s' will have fewer than %d people present on: %s", department, minPresent, understaffedDates));
+    }
+
+    /**
+     * 请假进入或离开 APPROVED：递增部门修订号，提交后对索引 +1/-1（最终批准时锁已由 checkBeforeFinalApproval 持有）。
+     */
+    @EventListener
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        boolean wasApproved = event.getFromStatus() == LeaveStatus.APPROVED;
+        boolean isApproved = event.getToStatus() == LeaveStatus.APPROVED;
+        String department = event.getApplicantDepartment();
+        if (wasApproved == isApproved || !isChecked(department)) {
+            return;
+        }
+        long revision = advanceRevision(department);
+        departmentStaffingIndex.recordChange(department, revision, event.getStartDate(), event.getEndDate(), isApproved ? 1 : -1);
+    }
+
+    /**
+     * 用户换部门或被删除：变更前后两个部门的已批准请假都可能变化，递增两者的修订号（按部门名称顺序加锁，避免死锁）。
+     */
+    @EventListener
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        if (!event.isDeleted() && Objects.equals(event.getPreviousDepartment(), event.getDepartment())) {
+            return;
+        }
+        Stream.of(event.getPreviousDepartment(), event.getDepartment())
+                .filter(this::isChecked)
+                .distinct()
+                .sorted()
+                .forEach(department -> departmentStaffingIndex.recordInvalidation(department, advanceRevision(department)));
+    }
+
+    /**
+     * 锁定部门锁行直到当前事务结束，返回其修订号；锁行不存在时先在独立事务中插入。
+     * 先插入再加锁：可重复读下对不存在的行加锁会持有间隙锁，再从另一个连接插入会与自己互相等待。
+     */
+    private long lockDepartment(String department) {
+        if (!departmentsWithLockRow.contains(department)) {
+            if (!departmentLockRepository.existsById(department)) {
+                try {
+                    requiresNew.executeWithoutResult(status -> departmentLockRepository.insert(department));
+                } catch (DataIntegrityViolationException e) {
+                    logger.debug("部门 {} 的锁行已由其他事务插入。", department);
+                }
+            }
+            departmentsWithLockRow.add(department);
+        }
+        return departmentLockRepository.lockRevision(department)
+                .orElseThrow(() -> new IllegalStateException("Department lock row is missing for department: " + department));
+    }
+
+    private long advanceRevision(String department) {
+        long revision = lockDepartment(department);
+        departmentLockRepository.incrementRevision(department);
+        return revision + 1;
+    }
+
+    /**
+     * 批准后当天请假人数 = 已批准人数 + 1，需满足 在岗 = 部门人数 - 请假人数 &gt;= minPresent，
+     * 即已批准人数达到 部门人数 - minPresent 时人手不足。
+     */
+    private int absenceThreshold(String department, int minPresent) {
+        long headcount = userRepository.countByDepartmentAndEnabledTrue(department);
+        return (int) Math.max(0, headcount - minPresent);
+    }
+
+    private boolean isChecked(String department) {
+        return enabled && minPresentFor(department) != null;
+    }
+
+    private Integer minPresentFor(String department) {
+        if (department == null) {
+            return null;
+        }
+        return environment.getProperty("app.staffing.min-present." + department, Integer.class);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.leaveapproval.service.teamcalendar;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.projection.AbsenceIntervalView;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 部门请假位图索引：为每个 (部门, 日期) 维护一个 RoaringBitmap，存放当天已批准请假的用户ID。
+ * <p>
+ * 按 (部门, 月份) 懒加载：首次查看某部门某月时执行一次范围查询填充当月位图，
+ * 之后由状态流转事件在事务提交后增量维护（变为 APPROVED 时加入，离开 APPROVED 时移除）。
+ * 每个部门一把锁，读取时返回位图副本，调用方可随意使用。
+ * <p>
+ * 部门和每个部门已加载的月份都按 LRU 淘汰（max-cached-departments / max-cached-months），
+ * 任意部门、月份的查询不会让缓存无限增长。用户换部门或被删除时，变更前后两个部门的缓存整体丢弃，下次查看时重新加载。
+ */
+@Component
+public class DepartmentAbsenceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentAbsenceIndex.class);
+
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final Map<String, DepartmentDays> departments;
+    private final int maxCachedMonths;
+
+    @Autowired
+    public DepartmentAbsenceIndex(LeaveRequestRepository leaveRequestRepository,
+                                  @Value("${app.team-calendar.max-cached-departments:256}") int maxCachedDepartments,
+                                  @Value("${app.team-calendar.max-cached-months:24}") int maxCachedMonths) {
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.maxCachedMonths = maxCachedMonths;
+        this.departments = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DepartmentDays> eldest) {
+                return size() > maxCachedDepartments;
+            }
+        });
+    }
+
+    /**
+     * 获取某部门某月每天请假的用户ID位图。
+     * @param department 部门名称。
+     * @param month      月份。
+     * @return 长度为当月天数的数组，下标 0 对应 1 号；每个元素都是独立副本。
+     */
+    public RoaringBitmap[] getMonth(String department, YearMonth month) {
+        DepartmentDays days = departments.computeIfAbsent(department, d -> new DepartmentDays(maxCachedMonths));
+        long modificationsBeforeLoad;
+        synchronized (days) {
+            if (days.isLoaded(month)) {
+                return days.copyMonth(month);
+            }
+            modificationsBeforeLoad = days.modificationCount;
+        }
+        List<AbsenceIntervalView> intervals = leaveRequestRepository.findDepartmentAbsences(
+                department, LeaveStatus.APPROVED, month.atDay(1), month.atEndOfMonth());
+        synchronized (days) {
+            if (days.isLoaded(month)) {
+                return days.copyMonth(month); // 并发加载，已由其他线程完成
+            }
+            if (days.modificationCount == modificationsBeforeLoad) {
+                for (AbsenceIntervalView interval : intervals) {
+                    days.apply(month, interval.getApplicantId(), interval.getStartDate(), interval.getEndDate(), true);
+                }
+                days.markLoaded(month);
+                logger.debug("已加载部门 {} {} 的请假位图，区间 {} 个。", department, month, intervals.size());
+                return days.copyMonth(month);
+            }
+        }
+        // 加载期间有事件提交，结果可能已过期：本次直接用查询结果构建，不放入缓存
+        DepartmentDays snapshot = new DepartmentDays(1);
+        for (AbsenceIntervalView interval : intervals) {
+            snapshot.apply(month, interval.getApplicantId(), interval.getStartDate(), interval.getEndDate(), true);
+        }
+        return snapshot.copyMonth(month);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransition(LeaveRequestTransitionEvent event) {
+        boolean wasApproved = event.getFromStatus() == LeaveStatus.APPROVED;
+        boolean isApproved = event.getToStatus() == LeaveStatus.APPROVED;
+        if (wasApproved == isApproved || event.getApplicantDepartment() == null || event.getApplicantId() == null) {
+            return;
+        }
+        DepartmentDays days = departments.get(event.getApplicantDepartment());
+        if (days == null) {
+            return; // 该部门尚未被查看过，首次查看时会从数据库加载
+        }
+        synchronized (days) {
+            days.modificationCount++;
+            YearMonth month = YearMonth.from(event.getStartDate());
+            YearMonth last = YearMonth.from(event.getEndDate());
+            for (; !month.isAfter(last); month = month.plusMonths(1)) {
+                if (days.isLoaded(month)) {
+                    days.apply(month, event.getApplicantId(), event.getStartDate(), event.getEndDate(), isApproved);
+                }
+            }
+        }
+    }
+
+    /**
+     * 用户换部门或被删除：变更前后两个部门的位图都可能包含过期的用户ID，整体丢弃。
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        if (!event.isDeleted() && Objects.equals(event.getPreviousDepartment(), event.getDepartment())) {
+            return;
+        }
+        Stream.of(event.getPreviousDepartment(), event.getDepartment())
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(department -> {
+                    if (departments.remove(department) != null) {
+                        logger.debug("用户ID {} 的部门已变更，已丢弃部门 {} 的请假位图。", event.getUserId(), department);
+                    }
+                });
+    }
+
+    int cachedDepartmentCount() {
+        return departments.size();
+    }
+
+    /**
+     * 单个部门的按日位图，所有访问都在该对象的锁内进行。
+     * 已加载的月份按访问顺序排列，超出上限时淘汰最久未查看的月份及其位图。
+     */
+    private static final class DepartmentDays {
+        private final Map<Long, RoaringBitmap> byEpochDay = new HashMap<>();
+        private final LinkedHashMap<YearMonth, Boolean> loadedMonths;
+        private long modificationCount;
+
+        DepartmentDays(int maxCachedMonths) {
+            this.loadedMonths = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<YearMonth, Boolean> eldest) {
+                    if (size() <= maxCachedMonths) {
+                        return false;
+                    }
+                    YearMonth evicted = eldest.getKey();
+                    for (long day = evicted.atDay(1).toEpochDay(); day <= evicted.atEndOfMonth().toEpochDay(); day++) {
+                        byEpochDay.remove(day);
+                    }
+                    return true;
+                }
+            };
+        }
+
+        boolean isLoaded(YearMonth month) {
+            return loadedMonths.get(month) != null;
+        }
+
+        void markLoaded(YearMonth month) {
+            loadedMonths.put(month, Boolean.TRUE);
+        }
+
+        /**
+         * 将 [start, end] 与 month 的交集内每一天加入或移除 userId。
+         */
+        void apply(YearMonth month, Long userId, LocalDate start, LocalDate end, boolean add) {
+            int id = Math.toIntExact(userId);
+            long from = Math.max(start.toEpochDay(), month.atDay(1).toEpochDay());
+            long to = Math.min(end.toEpochDay(), month.atEndOfMonth().toEpochDay());
+            for (long day = from; day <= to; day++) {
+                if (add) {
+                    byEpochDay.computeIfAbsent(day, d -> new RoaringBitmap()).add(id);
+                } else {
+                    RoaringBitmap bitmap = byEpochDay.get(day);
+                    if (bitmap != null) {
+                        bitmap.remove(id);
+                        if (bitmap.isEmpty()) {
+                            byEpochDay.remove(day);
+                        }
+                    }
+                }
+            }
+        }
+
+        RoaringBitmap[] copyMonth(YearMonth month) {
+            RoaringBitmap[] result = new RoaringBitmap[month.lengthOfMonth()];
+            long firstDay = month.atDay(1).toEpochDay();
+            for (int i = 0; i < result.length; i++) {
+                RoaringBitmap bitmap = byEpochDay.get(firstDay + i);
+                result[i] = bitmap != null ? bitmap.clone() : new RoaringBitmap();
+            }
+            return result;
+        }
+    }
+}
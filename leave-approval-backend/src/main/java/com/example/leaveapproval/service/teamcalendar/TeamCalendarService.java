@@ -0,0 +1,19 @@
+package com.example.leaveapproval.service.teamcalendar;
+
+import com.example.leaveapproval.dto.TeamCalendarMonthDto;
+
+import java.time.YearMonth;
+
+/**
+ * 团队请假日历服务接口。
+ */
+public interface TeamCalendarService {
+
+    /**
+     * 获取部门某月每天的已批准请假人员（热力图）。
+     * @param department 部门名称。
+     * @param month      月份。
+     * @return 当月每天的请假人数、人员及是否为工作日。
+     */
+    TeamCalendarMonthDto getMonth(String department, YearMonth month);
+}
@@ -0,0 +1,82 @@
+package com.example.leaveapproval.service.teamcalendar.impl;
+
+import com.example.leaveapproval.dto.TeamCalendarMonthDto;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.repository.projection.UserNameView;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import com.example.leaveapproval.service.teamcalendar.DepartmentAbsenceIndex;
+import com.example.leaveapproval.service.teamcalendar.TeamCalendarService;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link TeamCalendarService} 接口的实现类。
+ * 每天的请假人员来自 {@link DepartmentAbsenceIndex} 的位图，数据库只用于统计部门人数和查询请假人员姓名。
+ */
+@Service
+@Transactional(readOnly = true)
+public class TeamCalendarServiceImpl implements TeamCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TeamCalendarServiceImpl.class);
+
+    private final DepartmentAbsenceIndex departmentAbsenceIndex;
+    private final UserRepository userRepository;
+    private final WorkingDayCalendarService workingDayCalendarService;
+
+    @Autowired
+    public TeamCalendarServiceImpl(DepartmentAbsenceIndex departmentAbsenceIndex,
+                                   UserRepository userRepository,
+                                   WorkingDayCalendarService workingDayCalendarService) {
+        this.departmentAbsenceIndex = departmentAbsenceIndex;
+        this.userRepository = userRepository;
+        this.workingDayCalendarService = workingDayCalendarService;
+    }
+
+    @Override
+    public TeamCalendarMonthDto getMonth(String department, YearMonth month) {
+        RoaringBitmap[] absences = departmentAbsenceIndex.getMonth(department, month);
+        RoaringBitmap everyone = RoaringBitmap.or(absences);
+
+        List<TeamCalendarMonthDto.Day> days = new ArrayList<>(absences.length);
+        for (int i = 0; i < absences.length; i++) {
+            LocalDate date = month.atDay(i + 1);
+            TeamCalendarMonthDto.Day day = new TeamCalendarMonthDto.Day();
+            day.setDate(date);
+            day.setWorkingDay(workingDayCalendarService.isWorkingDay(date));
+            day.setAbsentCount(absences[i].getCardinality());
+            List<Long> ids = new ArrayList<>(day.getAbsentCount());
+            absences[i].forEach((int id) -> ids.add((long) id));
+            day.setAbsentUserIds(ids);
+            days.add(day);
+        }
+
+        Map<Long, String> members = new TreeMap<>();
+        if (!everyone.isEmpty()) {
+            List<Long> ids = new ArrayList<>(everyone.getCardinality());
+            everyone.forEach((int id) -> ids.add((long) id));
+            for (UserNameView user : userRepository.findByIdIn(ids)) {
+                members.put(user.getId(), user.getFullName());
+            }
+        }
+
+        TeamCalendarMonthDto dto = new TeamCalendarMonthDto();
+        dto.setDepartment(department);
+        dto.setMonth(month.toString());
+        dto.setHeadcount(userRepository.countByDepartmentAndEnabledTrue(department));
+        dto.setDays(days);
+        dto.setMembers(members);
+        logger.debug("部门 {} {} 团队日历：当月请假 {} 人。", department, month, members.size());
+        return dto;
+    }
+}
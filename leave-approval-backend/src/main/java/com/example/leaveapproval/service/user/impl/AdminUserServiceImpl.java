@@ -3,6 +3,7 @@ package com.example.leaveapproval.service.user.impl;
 import com.example.leaveapproval.dto.AdminUserCreateRequest;
 import com.example.leaveapproval.dto.UserDto;
 import com.example.leaveapproval.dto.UserUpdateRequest;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
 import com.example.leaveapproval.exception.ResourceNotFoundException;
 import com.example.leaveapproval.model.Role; // 新增：导入 Role 枚举
 import com.example.leaveapproval.model.User;
@@ -11,6 +12,7 @@ import com.example.leaveapproval.service.user.AdminUserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -38,11 +40,14 @@ public class AdminUserServiceImpl implements AdminUserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AdminUserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public AdminUserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -113,6 +118,7 @@ public class AdminUserServiceImpl implements AdminUserService {
 
         return userRepository.findById(id).flatMap(user -> {
             boolean isModified = false;
+            String previousDepartment = user.getDepartment();
 
             if (StringUtils.hasText(updateRequest.getFullName()) && !updateRequest.getFullName().equals(user.getFullName())) {
                 user.setFullName(updateRequest.getFullName());
@@ -175,6 +181,8 @@ public class AdminUserServiceImpl implements AdminUserService {
 
             if (isModified) {
                 User updatedUser = userRepository.save(user);
+                eventPublisher.publishEvent(new UserProfileChangedEvent(updatedUser.getId(), false,
+                        previousDepartment, updatedUser.getDepartment()));
                 logger.info("管理员操作：用户更新成功，用户ID：{}", updatedUser.getId());
                 return Optional.of(UserDto.fromEntity(updatedUser));
             } else {
@@ -186,12 +194,13 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Override
     public void deleteUser(Long id) {
         logger.info("管理员操作：尝试删除用户，用户ID：{}", id);
-        if (!userRepository.existsById(id)) {
+        User user = userRepository.findById(id).orElseThrow(() -> {
             String errorMessage = "错误：尝试删除的用户 (ID: " + id + ") 不存在。";
             logger.warn(errorMessage);
-            throw new ResourceNotFoundException("User", "id", id);
-        }
-        userRepository.deleteById(id);
+            return new ResourceNotFoundException("User", "id", id);
+        });
+        userRepository.delete(user);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(id, true, user.getDepartment(), user.getDepartment()));
         logger.info("管理员操作：用户删除成功，用户ID：{}", id);
     }
 
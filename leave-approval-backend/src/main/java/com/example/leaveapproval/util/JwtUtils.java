@@ -27,6 +27,9 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs}") // 从 application.properties 读取过期时间
     private int jwtExpirationMs;
 
+    // 允许通过 access_token 查询参数认证的唯一路径（SSE 推送）
+    public static final String SSE_STREAM_PATH = "/api/notifications/stream";
+
     private Key key;
 
     // 初始化密钥
@@ -97,6 +100,12 @@ public class JwtUtils {
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
             return headerAuth.substring(7);
         }
+        // EventSource（SSE）无法设置请求头，只有推送接口允许用查询参数传递令牌，避免令牌出现在其他接口的 URL 中
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (SSE_STREAM_PATH.equals(path)) {
+            String token = request.getParameter("access_token");
+            return StringUtils.hasText(token) ? token : null;
+        }
         return null;
     }
 }
\ No newline at end of file
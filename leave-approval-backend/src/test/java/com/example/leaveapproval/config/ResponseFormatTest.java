@@ -0,0 +1,44 @@
+package com.example.leaveapproval.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseFormatTest {
+
+    @Test
+    void missingWildcardOrJsonAcceptMeansJson() {
+        assertThat(ResponseFormat.negotiate(null)).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate(" ")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("*/*")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/json")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("text/html, application/xhtml+xml")).isEqualTo(ResponseFormat.JSON);
+    }
+
+    @Test
+    void binaryFormatsAreSelectedExplicitly() {
+        assertThat(ResponseFormat.negotiate("application/cbor")).isEqualTo(ResponseFormat.CBOR);
+        assertThat(ResponseFormat.negotiate("application/x-jackson-smile")).isEqualTo(ResponseFormat.SMILE);
+        assertThat(ResponseFormat.negotiate("application/cbor;charset=UTF-8")).isEqualTo(ResponseFormat.CBOR);
+    }
+
+    @Test
+    void highestQualityWinsAndTiesKeepFirst() {
+        assertThat(ResponseFormat.negotiate("application/json;q=0.5, application/cbor")).isEqualTo(ResponseFormat.CBOR);
+        assertThat(ResponseFormat.negotiate("application/cbor;q=0.5, application/json")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/x-jackson-smile, application/cbor")).isEqualTo(ResponseFormat.SMILE);
+        assertThat(ResponseFormat.negotiate("application/json, application/cbor")).isEqualTo(ResponseFormat.JSON);
+    }
+
+    @Test
+    void malformedAcceptFallsBackToJson() {
+        assertThat(ResponseFormat.negotiate("application/cbor;q=oops")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("not a media type")).isEqualTo(ResponseFormat.JSON);
+    }
+
+    @Test
+    void etagSuffixDistinguishesRepresentations() {
+        assertThat(ResponseFormat.JSON.getEtagSuffix()).isEmpty();
+        assertThat(ResponseFormat.CBOR.getEtagSuffix()).isNotEqualTo(ResponseFormat.SMILE.getEtagSuffix()).isNotEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.leaveapproval.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplingTurboFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("sampled.category");
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setKeepOneIn(3);
+        filter.start();
+    }
+
+    @Test
+    void infoWithMarkerKeepsOneInN() {
+        assertThat(decide(Level.INFO, 6)).containsExactly(
+                FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY,
+                FilterReply.NEUTRAL, FilterReply.DENY, FilterReply.DENY);
+    }
+
+    @Test
+    void warnAndErrorWithMarkerAreNeverSampled() {
+        assertThat(decide(Level.WARN, 5)).containsOnly(FilterReply.NEUTRAL);
+        assertThat(decide(Level.ERROR, 5)).containsOnly(FilterReply.NEUTRAL);
+    }
+
+    private List<FilterReply> decide(Level level, int times) {
+        List<FilterReply> replies = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            replies.add(filter.decide(LogMarkers.HIGH_VOLUME, logger, level, "message", null, null));
+        }
+        return replies;
+    }
+}
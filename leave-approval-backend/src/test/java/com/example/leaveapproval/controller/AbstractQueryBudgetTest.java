@@ -0,0 +1,241 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.util.JwtUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 接口 SQL 语句数回归测试的基类。
+ * <p>
+ * 在内嵌 H2 上初始化一个组织（两个业务部门，每个部门一名部门经理、两名组长、每组四名员工，外加 HR 部门），
+ * 并让每名员工走一遍真实的提交 / 审批流程，使列表接口的每一页都有完整的数据。
+ * <p>
+ * {@link #performWithinBudget} 按 Hibernate 统计断言单次请求执行的 SQL 语句数和加载的实体数不超过预算。
+ * 预算按当前实现的实测值设定：重新引入 N+1 或误把关联改成 EAGER 都会让语句数或实体数超出预算。
+ * 确实需要多查询时，在对应测试中调整预算并说明原因。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+abstract class AbstractQueryBudgetTest {
+
+    protected static final String PASSWORD = "password";
+    protected static final String[] DEPARTMENTS = {"RD", "SALES"};
+    protected static final int TEAMS_PER_DEPARTMENT = 2;
+    protected static final int EMPLOYEES_PER_TEAM = 4;
+    // 每名员工初始化时提交的申请数：第一条批准、第二条驳回、其余待审批
+    protected static final int SEEDED_REQUESTS_PER_EMPLOYEE = 3;
+    // 该员工额外提交更多申请，使“我的申请”第一页是满页
+    protected static final String BUSY_EMPLOYEE = "rd.t1.e1";
+    protected static final int BUSY_EMPLOYEE_EXTRA_REQUESTS = 9;
+
+    private static final LeaveType[] SEEDED_LEAVE_TYPES = {LeaveType.ANNUAL_LEAVE, LeaveType.SICK_LEAVE, LeaveType.PERSONAL_LEAVE};
+    private static final Map<String, String> tokens = new HashMap<>();
+    private static final Map<String, LocalDate> nextLeaveDates = new HashMap<>();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seedOrganization() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // 同一 Spring 上下文（同一个内存库）中的测试类共用初始化数据
+        if (userRepository.existsByUsername(BUSY_EMPLOYEE)) {
+            return;
+        }
+        seedUsers();
+        seedLeaveRequests();
+    }
+
+    /**
+     * 执行请求并断言 SQL 语句数和加载的实体数不超过预算。
+     * @param maxStatements     允许的最多 SQL 语句数（含 JWT 过滤器加载当前用户的查询）。
+     * @param maxEntitiesLoaded 允许加载的最多实体数。
+     */
+    protected ResultActions performWithinBudget(MockHttpServletRequestBuilder request, int maxStatements, int maxEntitiesLoaded)
+            throws Exception {
+        statistics.clear();
+        ResultActions result = mockMvc.perform(request);
+        long statements = statistics.getPrepareStatementCount();
+        long entitiesLoaded = statistics.getEntityLoadCount();
+        MvcResult mvcResult = result.andReturn();
+        String endpoint = mvcResult.getRequest().getMethod() + " " + mvcResult.getRequest().getRequestURI();
+        assertThat(statements)
+                .as("SQL statements executed by %s (entities loaded: %d, collections fetched: %d)",
+                        endpoint, entitiesLoaded, statistics.getCollectionFetchCount())
+                .isLessThanOrEqualTo(maxStatements);
+        assertThat(entitiesLoaded)
+                .as("Entities loaded by %s (SQL statements: %d)", endpoint, statements)
+                .isLessThanOrEqualTo(maxEntitiesLoaded);
+        return result;
+    }
+
+    protected static String bearer(String username) {
+        return "Bearer " + tokens.get(username);
+    }
+
+    protected User user(String username) {
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+
+    protected static String teamLead(String department, int team) {
+        return department.toLowerCase() + ".t" + team + ".lead";
+    }
+
+    protected static String employee(String department, int team, int index) {
+        return department.toLowerCase() + ".t" + team + ".e" + index;
+    }
+
+    /**
+     * 以指定员工身份提交一条一天的请假申请（日期按员工依次顺延，不会与其已有申请重叠）。
+     * @return 新申请的 ID。
+     */
+    protected long submitLeave(String username, LeaveType leaveType) throws Exception {
+        MvcResult result = mockMvc.perform(submitLeaveRequest(username, leaveType))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return readId(result);
+    }
+
+    protected MockHttpServletRequestBuilder submitLeaveRequest(String username, LeaveType leaveType) throws Exception {
+        LocalDate date = nextLeaveDate(username);
+        Map<String, Object> body = Map.of(
+                "leaveType", leaveType,
+                "startDate", date,
+                "endDate", date,
+                "reason", "query budget test leave");
+        return post("/api/leave-requests")
+                .header(HttpHeaders.AUTHORIZATION, bearer(username))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+
+    protected MockHttpServletRequestBuilder approvalAction(String approver, long leaveRequestId, String decision) throws Exception {
+        return post("/api/leave-requests/{id}/action", leaveRequestId)
+                .header(HttpHeaders.AUTHORIZATION, bearer(approver))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("decision", decision, "comments", "query budget test")));
+    }
+
+    protected long readId(MvcResult result) throws Exception {
+        JsonNode json = objectMapper.readTree(result.getResponse().getContentAsString());
+        return json.get("id").asLong();
+    }
+
+    protected static synchronized LocalDate nextLeaveDate(String username) {
+        // 从明年三月起按工作日依次顺延；每人每种假期每年只用几天，不会触及额度
+        LocalDate date = nextLeaveDates.getOrDefault(username, LocalDate.of(LocalDate.now().getYear() + 1, 3, 1));
+        while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            date = date.plusDays(1);
+        }
+        nextLeaveDates.put(username, date.plusDays(1));
+        return date;
+    }
+
+    private void seedUsers() {
+        // 所有测试用户共用一个密码哈希，避免逐个执行 BCrypt
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        User admin = user("admin");
+        admin.setPassword(encodedPassword);
+        userRepository.save(admin);
+        issueToken(admin);
+
+        for (String department : DEPARTMENTS) {
+            User manager = createUser(department.toLowerCase() + ".manager", department, null, encodedPassword,
+                    Role.ROLE_DEPT_MANAGER, Role.ROLE_EMPLOYEE);
+            for (int team = 1; team <= TEAMS_PER_DEPARTMENT; team++) {
+                User lead = createUser(teamLead(department, team), department, manager, encodedPassword,
+                        Role.ROLE_TEAM_LEAD, Role.ROLE_EMPLOYEE);
+                for (int index = 1; index <= EMPLOYEES_PER_TEAM; index++) {
+                    createUser(employee(department, team, index), department, lead, encodedPassword, Role.ROLE_EMPLOYEE);
+                }
+            }
+        }
+        User hr = createUser("hr", "HR", null, encodedPassword, Role.ROLE_HR, Role.ROLE_EMPLOYEE);
+        createUser("hr.e1", "HR", hr, encodedPassword, Role.ROLE_EMPLOYEE);
+    }
+
+    private User createUser(String username, String department, User manager, String encodedPassword, Role... roles) {
+        User user = new User(username, encodedPassword, username, username + "@example.com", new LinkedHashSet<>(List.of(roles)));
+        user.setDepartment(department);
+        user.setManager(manager);
+        user.setEnabled(true);
+        User saved = userRepository.save(user);
+        issueToken(saved);
+        return saved;
+    }
+
+    private void issueToken(User user) {
+        List<String> roles = user.getRoles().stream().map(Role::name).toList();
+        tokens.put(user.getUsername(), jwtUtils.generateTokenFromUsername(user.getUsername(), user.getId(), roles));
+    }
+
+    private void seedLeaveRequests() throws Exception {
+        for (String department : DEPARTMENTS) {
+            for (int team = 1; team <= TEAMS_PER_DEPARTMENT; team++) {
+                String lead = teamLead(department, team);
+                for (int index = 1; index <= EMPLOYEES_PER_TEAM; index++) {
+                    String employee = employee(department, team, index);
+                    for (int i = 0; i < SEEDED_REQUESTS_PER_EMPLOYEE; i++) {
+                        long id = submitLeave(employee, SEEDED_LEAVE_TYPES[i % SEEDED_LEAVE_TYPES.length]);
+                        if (i == 0) {
+                            mockMvc.perform(approvalAction(lead, id, "APPROVED")).andExpect(status().isOk());
+                        } else if (i == 1) {
+                            mockMvc.perform(approvalAction(lead, id, "REJECTED")).andExpect(status().isOk());
+                        }
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < BUSY_EMPLOYEE_EXTRA_REQUESTS; i++) {
+            submitLeave(BUSY_EMPLOYEE, SEEDED_LEAVE_TYPES[i % SEEDED_LEAVE_TYPES.length]);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link AdminUserController} 各接口的 SQL 语句数预算。
+ */
+class AdminUserControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getAllUsersFullPage() throws Exception {
+        performWithinBudget(get("/api/admin/users")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 14, 11)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+
+    @Test
+    void getUserById() throws Exception {
+        User employee = user(employee("RD", 2, 3));
+
+        performWithinBudget(get("/api/admin/users/{id}", employee.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 4, 3)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value(employee.getUsername()));
+    }
+
+    @Test
+    void createUser() throws Exception {
+        performWithinBudget(createUserRequest("budget.create"), 7, 2)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.managerUsername").value(teamLead("RD", 1)));
+    }
+
+    @Test
+    void updateUser() throws Exception {
+        User employee = user(employee("SALES", 1, 2));
+        Map<String, Object> body = Map.of(
+                "fullName", "Updated Name",
+                "department", "SALES",
+                "managerId", user(teamLead("SALES", 2)).getId(),
+                "roles", List.of(Role.ROLE_EMPLOYEE),
+                "enabled", true);
+
+        performWithinBudget(put("/api/admin/users/{id}", employee.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)), 5, 3)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.managerUsername").value(teamLead("SALES", 2)));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        MvcResult created = mockMvc.perform(createUserRequest("budget.delete"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = readId(created);
+
+        performWithinBudget(delete("/api/admin/users/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 6, 2)
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder createUserRequest(String username) throws Exception {
+        Map<String, Object> body = Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", PASSWORD,
+                "fullName", "Budget Test User",
+                "department", "RD",
+                "managerId", user(teamLead("RD", 1)).getId(),
+                "roles", List.of(Role.ROLE_EMPLOYEE));
+        return post("/api/admin/users")
+                .header(HttpHeaders.AUTHORIZATION, bearer("admin"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.leaveapproval.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link AuthController} 各接口的 SQL 语句数预算。
+ */
+class AuthControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void login() throws Exception {
+        Map<String, Object> body = Map.of("username", teamLead("RD", 2), "password", PASSWORD);
+
+        performWithinBudget(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)), 2, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    @Test
+    void register() throws Exception {
+        Map<String, Object> body = Map.of(
+                "username", "budget.register",
+                "email", "budget.register@example.com",
+                "password", PASSWORD,
+                "fullName", "Registered User",
+                "managerId", user(teamLead("SALES", 1)).getId());
+
+        performWithinBudget(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)), 5, 1)
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getPotentialManagers() throws Exception {
+        // 两个部门各一名部门经理、两名组长，外加 HR 和管理员
+        int managers = DEPARTMENTS.length * (1 + TEAMS_PER_DEPARTMENT) + 2;
+
+        performWithinBudget(get("/api/auth/potential-managers"), 12, 8)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(managers));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link BatchController} 的 SQL 语句数预算：认证只在批次请求上执行一次，其余语句与各子操作单独调用时相同。
+ */
+class BatchControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    private static final String LEAD = teamLead("SALES", 2);
+
+    @Test
+    void approveInBatch() throws Exception {
+        long first = submitLeave(employee("SALES", 2, 1), LeaveType.PERSONAL_LEAVE);
+        long second = submitLeave(employee("SALES", 2, 2), LeaveType.PERSONAL_LEAVE);
+        Map<String, Object> decision = Map.of("decision", "APPROVED", "comments", "batch");
+
+        performWithinBudget(batch(LEAD, Map.of("operations", List.of(
+                        Map.of("ref", "a", "op", "APPROVAL_ACTION", "id", first, "body", decision),
+                        Map.of("ref", "b", "op", "APPROVAL_ACTION", "id", second, "body", decision)))), 29, 9)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].ref").value("a"))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].body.id").value(first))
+                .andExpect(jsonPath("$.results[1].status").value(200))
+                .andExpect(jsonPath("$.results[1].body.id").value(second));
+    }
+
+    @Test
+    void failedOperationRollsBackTransactionGroup() throws Exception {
+        String applicant = employee("SALES", 2, 3);
+        LocalDate date = nextLeaveDate(applicant);
+        Map<String, Object> valid = Map.of("leaveType", "ANNUAL_LEAVE", "startDate", date, "endDate", date, "reason", "batch leave");
+        Map<String, Object> invalid = Map.of("leaveType", "ANNUAL_LEAVE", "startDate", date.plusDays(7), "endDate", date.plusDays(7), "reason", "x");
+
+        performWithinBudget(batch(applicant, Map.of("transactionGroupSize", 0, "operations", List.of(
+                        Map.of("op", "SUBMIT_LEAVE", "body", valid),
+                        Map.of("op", "SUBMIT_LEAVE", "body", invalid),
+                        Map.of("op", "CREATE_USER", "body", Map.of())))), 10, 5)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(424))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].body.reason").isNotEmpty())
+                .andExpect(jsonPath("$.results[2].status").value(424));
+
+        // 回滚后第一条申请不存在：同样的日期可以再次提交
+        mockMvc.perform(get("/api/leave-requests/my-requests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(applicant)))
+                .andExpect(jsonPath("$.page.totalElements").value(SEEDED_REQUESTS_PER_EMPLOYEE));
+    }
+
+    @Test
+    void overlappingSubmissionsInOneGroupFailLikeSingleSubmit() throws Exception {
+        String applicant = employee("RD", 1, 3);
+        LocalDate date = nextLeaveDate(applicant);
+        Map<String, Object> first = Map.of("leaveType", "SICK_LEAVE", "startDate", date, "endDate", date, "reason", "batch leave");
+        Map<String, Object> overlapping = Map.of("leaveType", "PERSONAL_LEAVE", "startDate", date, "endDate", date, "reason", "batch leave");
+
+        // 组内先提交的申请在重叠查询前已刷新到数据库，与单条提交使用同一检查和错误信息
+        mockMvc.perform(batch(applicant, Map.of("transactionGroupSize", 0, "operations", List.of(
+                        Map.of("op", "SUBMIT_LEAVE", "body", first),
+                        Map.of("op", "SUBMIT_LEAVE", "body", overlapping)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(424))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].body.message").value(startsWith("Requested dates overlap with existing leave request")));
+    }
+
+    @Test
+    void createUserRequiresAdmin() throws Exception {
+        Map<String, Object> user = Map.of("username", "batch.user", "email", "batch.user@example.com", "password", PASSWORD,
+                "fullName", "Batch User", "roles", List.of("ROLE_EMPLOYEE"));
+
+        performWithinBudget(batch(LEAD, Map.of("operations", List.of(Map.of("op", "CREATE_USER", "body", user)))), 2, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(403));
+    }
+
+    private MockHttpServletRequestBuilder batch(String username, Map<String, Object> body) throws Exception {
+        return post("/api/batch")
+                .header(HttpHeaders.AUTHORIZATION, bearer(username))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+    }
+}
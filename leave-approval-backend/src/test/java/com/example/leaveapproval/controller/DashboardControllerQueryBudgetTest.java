@@ -0,0 +1,41 @@
+package com.example.leaveapproval.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link DashboardController} 的 SQL 语句数预算。
+ * 各部分在线程池中并行加载，预算是所有部分的语句数之和（员工没有待审批部分）。
+ */
+class DashboardControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void getDashboardForEmployee() throws Exception {
+        performWithinBudget(get("/api/dashboard")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE)), 23, 24)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentUser.username").value(BUSY_EMPLOYEE))
+                .andExpect(jsonPath("$.myRequests.content.length()").value(10))
+                .andExpect(jsonPath("$.pendingApprovals").doesNotExist())
+                .andExpect(jsonPath("$.potentialManagers").isNotEmpty())
+                .andExpect(jsonPath("$.balances").isNotEmpty())
+                .andExpect(jsonPath("$.errors").isEmpty());
+    }
+
+    @Test
+    void getDashboardForTeamLead() throws Exception {
+        String teamLead = teamLead("RD", 1);
+
+        performWithinBudget(get("/api/dashboard")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(teamLead)), 27, 27)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentUser.username").value(teamLead))
+                .andExpect(jsonPath("$.pendingApprovals.content").isNotEmpty())
+                .andExpect(jsonPath("$.pendingApprovals.page.totalElements").isNumber())
+                .andExpect(jsonPath("$.errors").isEmpty());
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link LeaveRequestController} 各接口的 SQL 语句数预算。
+ * 列表接口按满页（10 条，每条带审批人和审批历史）计算预算，审批历史整页一次查询；
+ * 带 fields / include 参数的用例验证未选择的关联数据不会加载。
+ */
+class LeaveRequestControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    private static final String APPLICANT = "sales.t2.e4";
+    private static final String LEAD = "sales.t2.lead";
+
+    @Test
+    void submitLeaveRequest() throws Exception {
+        performWithinBudget(submitLeaveRequest(APPLICANT, LeaveType.ANNUAL_LEAVE), 11, 5)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING_APPROVAL"));
+    }
+
+    @Test
+    void approveLeaveRequest() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.ANNUAL_LEAVE);
+
+        performWithinBudget(approvalAction(LEAD, id, "APPROVED"), 14, 6)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void rejectLeaveRequest() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.SICK_LEAVE);
+
+        performWithinBudget(approvalAction(LEAD, id, "REJECTED"), 10, 5)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+    }
+
+    @Test
+    void cancelApprovedLeaveRequest() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.PERSONAL_LEAVE);
+        mockMvc.perform(approvalAction(LEAD, id, "APPROVED")).andExpect(status().isOk());
+
+        performWithinBudget(post("/api/leave-requests/{id}/cancel", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT)), 13, 8)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    @Test
+    void submitLeaveRequestReplayedByIdempotencyKey() throws Exception {
+        MockHttpServletRequestBuilder submit = submitLeaveRequest(APPLICANT, LeaveType.SICK_LEAVE)
+                .header("Idempotency-Key", "budget-submit-1");
+        // 比普通提交多一次键查找和一次记录插入
+        long id = readId(performWithinBudget(submit, 13, 5)
+                .andExpect(status().isCreated())
+                .andReturn());
+
+        // 重试命中内存前置缓存：只有认证查询，不再执行提交流程
+        performWithinBudget(submit, 2, 1)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(id));
+    }
+
+    @Test
+    void approveLeaveRequestReplayedByIdempotencyKey() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.SICK_LEAVE);
+        mockMvc.perform(approvalAction(LEAD, id, "APPROVED").header("Idempotency-Key", "budget-approve-1"))
+                .andExpect(status().isOk());
+
+        performWithinBudget(approvalAction(LEAD, id, "APPROVED").header("Idempotency-Key", "budget-approve-1"), 2, 1)
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+        // 同一个键用于不同的请求
+        mockMvc.perform(approvalAction(LEAD, id, "REJECTED").header("Idempotency-Key", "budget-approve-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getLeaveRequestDetails() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.ANNUAL_LEAVE);
+        mockMvc.perform(approvalAction(LEAD, id, "REJECTED")).andExpect(status().isOk());
+
+        performWithinBudget(get("/api/leave-requests/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT)), 7, 6)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+    }
+
+    @Test
+    void getCachedLeaveRequestDetails() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.ANNUAL_LEAVE);
+        mockMvc.perform(approvalAction(LEAD, id, "APPROVED")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/leave-requests/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT))).andExpect(status().isOk());
+
+        // 已结束的申请第二次查询命中详情缓存，只剩认证过滤器加载当前用户的查询
+        performWithinBudget(get("/api/leave-requests/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT)), 2, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void getLeaveRequestDetailsNotModified() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.ANNUAL_LEAVE);
+        String etag = mockMvc.perform(get("/api/leave-requests/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 待审批的申请不在详情缓存中：只多一次版本投影查询，不加载实体
+        performWithinBudget(get("/api/leave-requests/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag), 3, 1)
+                .andExpect(status().isNotModified());
+
+        // 流转后版本号变化，旧 ETag 不再匹配
+        mockMvc.perform(approvalAction(LEAD, id, "APPROVED")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/leave-requests/{id}", id)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPROVED"));
+    }
+
+    @Test
+    void getMyLeaveRequestsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/leave-requests/my-requests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 列表令牌在内存中比较，只剩认证过滤器加载当前用户的查询
+        performWithinBudget(get("/api/leave-requests/my-requests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag), 2, 1)
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getMyLeaveRequestsFullPage() throws Exception {
+        performWithinBudget(get("/api/leave-requests/my-requests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE)), 8, 14)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+
+    @Test
+    void getPendingApprovalsForTeamLead() throws Exception {
+        performWithinBudget(get("/api/leave-requests/pending-approvals")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(teamLead("RD", 1))), 11, 17)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+
+    @Test
+    void getPendingApprovalsForAdmin() throws Exception {
+        performWithinBudget(get("/api/leave-requests/pending-approvals")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 20, 26)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10));
+    }
+
+    @Test
+    void getMyLeaveRequestsSparseFields() throws Exception {
+        // 只剩认证、分页查询和计数查询：不查审批历史，也不加载用户
+        performWithinBudget(get("/api/leave-requests/my-requests")
+                        .param("fields", "id,status,startDate,endDate")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE)), 4, 11)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.content[0].status").exists())
+                .andExpect(jsonPath("$.content[0].applicant").doesNotExist())
+                .andExpect(jsonPath("$.content[0].approvalHistory").doesNotExist());
+    }
+
+    @Test
+    void getPendingApprovalsForAdminWithHistory() throws Exception {
+        // 审批历史整页一次查出；不加载当前审批人
+        performWithinBudget(get("/api/leave-requests/pending-approvals")
+                        .param("fields", "id,status,applicant")
+                        .param("include", "history")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 18, 24)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.content[0].applicant.username").exists())
+                .andExpect(jsonPath("$.content[0].approvalHistory").isArray())
+                .andExpect(jsonPath("$.content[0].currentApprover").doesNotExist());
+    }
+
+    @Test
+    void getMyLeaveRequestsUnknownField() throws Exception {
+        performWithinBudget(get("/api/leave-requests/my-requests")
+                        .param("fields", "id,password")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE)), 2, 1)
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPendingApprovalsForAdminNormalized() throws Exception {
+        // 行内只有用户ID，用户资料（含上级和角色）一次投影查询
+        performWithinBudget(get("/api/leave-requests/pending-approvals")
+                        .param("shape", "normalized")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 6, 11)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.page.totalElements").exists())
+                .andExpect(jsonPath("$.content[0].applicant").doesNotExist())
+                .andExpect(jsonPath("$.content[0].applicantId").isNumber())
+                .andExpect(jsonPath("$.content[0].currentApproverId").isNumber())
+                .andExpect(jsonPath("$.content[0].approvalHistory").isArray())
+                .andExpect(jsonPath("$.includes.users.*.username").isNotEmpty())
+                .andExpect(jsonPath("$.includes.users.*.roles[0]").isNotEmpty());
+    }
+
+    @Test
+    void getMyLeaveRequestsAsCbor() throws Exception {
+        // 二进制格式与 JSON 的查询相同；ETag 带格式后缀，与 JSON 表示区分
+        MvcResult result = performWithinBudget(get("/api/leave-requests/my-requests")
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(BUSY_EMPLOYEE)), 8, 14)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith(".cbor\"")))
+                .andReturn();
+
+        JsonNode page = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertThat(page.path("content").size()).isEqualTo(10);
+        assertThat(page.path("content").get(0).path("applicant").path("username").asText()).isEqualTo(BUSY_EMPLOYEE);
+    }
+
+    @Test
+    void getCachedLeaveRequestDetailsAsSmile() throws Exception {
+        long id = submitLeave(APPLICANT, LeaveType.ANNUAL_LEAVE);
+        mockMvc.perform(approvalAction(LEAD, id, "APPROVED")).andExpect(status().isOk());
+        // 二进制格式不写入 JSON 字节缓存，先用 JSON 查询一次填充缓存
+        mockMvc.perform(get("/api/leave-requests/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT))).andExpect(status().isOk());
+        String etag = mockMvc.perform(get("/api/leave-requests/{id}", id)
+                        .accept("application/x-jackson-smile")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // JSON 字节缓存命中时，二进制格式的 304 同样不查库
+        performWithinBudget(get("/api/leave-requests/{id}", id)
+                        .accept("application/x-jackson-smile")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(APPLICANT))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag), 2, 1)
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getPendingApprovalsForAdminCoalesced() throws Exception {
+        // 每页 5 条，与其他用例的参数不同，不受它们留下的合并结果影响
+        long totalElements = objectMapper.readTree(mockMvc.perform(get("/api/leave-requests/pending-approvals")
+                        .param("size", "5")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).path("page").path("totalElements").asLong();
+
+        // 有效期内参数相同的调用复用上一次的结果，只剩认证过滤器加载当前用户的查询
+        performWithinBudget(get("/api/leave-requests/pending-approvals")
+                        .param("size", "5")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")), 2, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5));
+
+        // 状态流转提交后合并结果失效，新提交的申请立即可见
+        submitLeave(APPLICANT, LeaveType.PERSONAL_LEAVE);
+        mockMvc.perform(get("/api/leave-requests/pending-approvals")
+                        .param("size", "5")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(totalElements + 1));
+    }
+}
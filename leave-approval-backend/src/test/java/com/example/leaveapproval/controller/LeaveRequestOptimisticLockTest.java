@@ -0,0 +1,55 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.service.staffing.StaffingCheckService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 审批事务读取请假申请之后、提交之前，另一个事务先修改了同一条申请：@Version 检查使后提交的审批失败并返回 409。
+ */
+class LeaveRequestOptimisticLockTest extends AbstractQueryBudgetTest {
+
+    @MockitoSpyBean
+    private StaffingCheckService staffingCheckService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void approvalBasedOnStaleVersionReturnsConflict() throws Exception {
+        String applicant = employee("RD", 1, 2);
+        long id = submitLeave(applicant, LeaveType.SICK_LEAVE);
+        long version = currentVersion(id);
+        // 最终批准前（实体已在审批事务中加载），由另一个线程的独立事务修改同一行
+        doAnswer(call -> {
+            CompletableFuture.runAsync(() ->
+                    jdbcTemplate.update("UPDATE leave_requests SET version = version + 1 WHERE id = ?", id)).get();
+            return call.callRealMethod();
+        }).when(staffingCheckService).checkBeforeFinalApproval(any());
+
+        mockMvc.perform(approvalAction(teamLead("RD", 1), id, "APPROVED"))
+                .andExpect(status().isConflict());
+
+        assertThat(currentVersion(id)).isEqualTo(version + 1);
+        mockMvc.perform(get("/api/leave-requests/{id}", id).header(HttpHeaders.AUTHORIZATION, bearer(applicant)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING_APPROVAL"));
+    }
+
+    private long currentVersion(long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM leave_requests WHERE id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 同一申请人并发提交相同日期的请假：日期重叠检测必须在锁内查询数据库，只能有一个提交成功。
+ */
+class LeaveRequestSubmitConcurrencyTest extends AbstractQueryBudgetTest {
+
+    @Test
+    void identicalConcurrentSubmissionsCreateOneRequest() throws Exception {
+        MockHttpServletRequestBuilder submit = submitLeaveRequest(employee("RD", 2, 3), LeaveType.SICK_LEAVE);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(submit).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(results).containsExactlyInAnyOrder(201, 400);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
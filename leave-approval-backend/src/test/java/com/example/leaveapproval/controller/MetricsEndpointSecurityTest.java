@@ -0,0 +1,39 @@
+package com.example.leaveapproval.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.http.HttpHeaders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /actuator/prometheus 不对匿名请求开放：只接受抓取令牌或管理员 JWT（抓取令牌见 application-test.properties）。
+ * 测试默认不导出指标，这里显式开启以注册 Prometheus 端点。
+ */
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointSecurityTest extends AbstractQueryBudgetTest {
+
+    private static final String PROMETHEUS = "/actuator/prometheus";
+
+    @Test
+    void anonymousScrapeIsRejected() throws Exception {
+        mockMvc.perform(get(PROMETHEUS)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get(PROMETHEUS).header(HttpHeaders.AUTHORIZATION, "Bearer wrong-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scrapeTokenOrAdminCanReadMetrics() throws Exception {
+        mockMvc.perform(get(PROMETHEUS).header(HttpHeaders.AUTHORIZATION, "Bearer test-scrape-token"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(PROMETHEUS).header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void employeeTokenCannotReadMetrics() throws Exception {
+        mockMvc.perform(get(PROMETHEUS).header(HttpHeaders.AUTHORIZATION, bearer(employee("RD", 1, 2))))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@link NotificationController} 推送连接的 SQL 语句数预算：建立连接只有认证查询，之后的推送不查库。
+ */
+class NotificationControllerQueryBudgetTest extends AbstractQueryBudgetTest {
+
+    private static final String APPLICANT = "sales.t1.e3";
+    private static final String LEAD = "sales.t1.lead";
+
+    @Test
+    void streamPushesInboxAndStatusEvents() throws Exception {
+        MvcResult leadStream = performWithinBudget(get("/api/notifications/stream")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(LEAD)), 2, 1)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // EventSource 不能设置请求头，用查询参数传递令牌
+        MvcResult applicantStream = mockMvc.perform(get("/api/notifications/stream")
+                        .param("access_token", bearer(APPLICANT).substring("Bearer ".length())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long id = submitLeave(APPLICANT, LeaveType.ANNUAL_LEAVE);
+        awaitEvent(leadStream.getResponse(), "event:inbox", id);
+        awaitEvent(applicantStream.getResponse(), "event:request-status", id);
+
+        mockMvc.perform(approvalAction(LEAD, id, "APPROVED")).andExpect(status().isOk());
+        awaitEvent(leadStream.getResponse(), "event:inbox-removed", id);
+    }
+
+    private static void awaitEvent(MockHttpServletResponse response, String eventLine, long requestId) throws Exception {
+        String expectedData = "\"requestId\":" + requestId + ",";
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            String content = response.getContentAsString();
+            int event = content.indexOf(eventLine + "\n");
+            if (event >= 0 && content.indexOf(expectedData, event) >= 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        assertThat(response.getContentAsString()).contains(eventLine, expectedData);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.repository.LeaveDaysRollupRepository;
+import com.example.leaveapproval.service.analytics.RollupReconciliationJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 汇总表对账：按批准时的部门重建，与增量写入一致（申请人之后换部门也不会来回变化）；
+ * 定时对账的租约同一时间只有一个持有者。
+ */
+class RollupReconciliationTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private RollupReconciliationJob rollupReconciliationJob;
+
+    @Autowired
+    private LeaveDaysRollupRepository leaveDaysRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconciliationKeepsLeaveDaysUnderTheDepartmentAtApprovalTime() throws Exception {
+        String applicant = employee("RD", 2, 4);
+        LocalDate date = LocalDate.of(LocalDate.now().getYear() + 2, 6, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+        YearMonth month = YearMonth.from(date);
+        long id = submitLeaveOn(applicant, date);
+        mockMvc.perform(approvalAction(teamLead("RD", 2), id, "APPROVED")).andExpect(status().isOk());
+        assertThat(sickLeaveRequests(month)).containsExactly(Map.entry("RD", 1L));
+
+        jdbcTemplate.update("UPDATE users SET department = 'OPS' WHERE username = ?", applicant);
+        try {
+            rollupReconciliationJob.reconcile(month, month);
+            assertThat(sickLeaveRequests(month)).containsExactly(Map.entry("RD", 1L));
+        } finally {
+            jdbcTemplate.update("UPDATE users SET department = 'RD' WHERE username = ?", applicant);
+        }
+    }
+
+    @Test
+    void scheduledReconciliationLeaseIsHeldByOneCallerAtATime() {
+        jdbcTemplate.update("DELETE FROM scheduled_job_locks");
+        assertThat(rollupReconciliationJob.tryAcquireLease()).isTrue();
+        assertThat(rollupReconciliationJob.tryAcquireLease()).isFalse();
+    }
+
+    private List<Map.Entry<String, Long>> sickLeaveRequests(YearMonth month) {
+        return leaveDaysRollupRepository.findByPeriodMonthInOrderByPeriodMonthAsc(List.of(month.toString())).stream()
+                .filter(row -> row.getLeaveType() == LeaveType.SICK_LEAVE && row.getRequestCount() != 0)
+                .map(row -> Map.entry(row.getDepartment(), row.getRequestCount()))
+                .toList();
+    }
+
+    private long submitLeaveOn(String username, LocalDate date) throws Exception {
+        Map<String, Object> body = Map.of(
+                "leaveType", LeaveType.SICK_LEAVE,
+                "startDate", date,
+                "endDate", date,
+                "reason", "rollup reconciliation test leave");
+        MvcResult result = mockMvc.perform(post("/api/leave-requests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(username))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return readId(result);
+    }
+}
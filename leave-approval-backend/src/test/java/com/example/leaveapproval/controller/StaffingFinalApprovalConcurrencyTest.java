@@ -0,0 +1,108 @@
+package com.example.leaveapproval.controller;
+
+import com.example.leaveapproval.model.LeaveType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 最低在岗人数校验：同一部门两笔日期重叠的请假被并发最终批准时只能有一笔通过；
+ * 其他实例批准的请假（本实例没有收到增量）通过部门锁行的修订号被发现。
+ */
+@TestPropertySource(properties = {"app.staffing.enabled=true", "app.staffing.mode=BLOCK"})
+class StaffingFinalApprovalConcurrencyTest extends AbstractQueryBudgetTest {
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentFinalApprovalsCannotBothPushDepartmentBelowMinimum() throws Exception {
+        // SALES 共 11 人：最低 10 人在岗，即每天最多 1 人请假
+        LocalDate date = LocalDate.of(LocalDate.now().getYear() + 1, 12, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+        long first = submitLeaveOn(employee("SALES", 1, 1), date);
+        long second = submitLeaveOn(employee("SALES", 1, 2), date);
+        environment.getPropertySources().addFirst(new MapPropertySource("staffing", Map.of("app.staffing.min-present.SALES", 10)));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (long id : new long[]{first, second}) {
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(approvalAction(teamLead("SALES", 1), id, "APPROVED"))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(results).containsExactlyInAnyOrder(200, 409);
+        } finally {
+            executor.shutdownNow();
+            environment.getPropertySources().remove("staffing");
+        }
+    }
+
+    @Test
+    void approvalCommittedOnAnotherInstanceIsSeenThroughTheRevision() throws Exception {
+        LocalDate firstDate = LocalDate.of(LocalDate.now().getYear() + 1, 11, 2).with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+        LocalDate secondDate = firstDate.plusDays(1);
+        long first = submitLeaveOn(employee("SALES", 2, 1), firstDate);
+        long approvedElsewhere = submitLeaveOn(employee("SALES", 2, 2), secondDate);
+        long third = submitLeaveOn(employee("SALES", 2, 3), secondDate);
+        environment.getPropertySources().addFirst(new MapPropertySource("staffing", Map.of("app.staffing.min-present.SALES", 10)));
+        try {
+            // 本实例批准第一笔：加载并缓存 SALES 的每日请假人数
+            mockMvc.perform(approvalAction(teamLead("SALES", 2), first, "APPROVED")).andExpect(status().isOk());
+            // 另一个实例批准第二笔：只修改数据库并递增修订号，本实例的缓存不会收到增量
+            jdbcTemplate.update("UPDATE leave_requests SET status = 'APPROVED', current_approver_id = NULL WHERE id = ?", approvedElsewhere);
+            jdbcTemplate.update("UPDATE department_locks SET revision = revision + 1 WHERE department = 'SALES'");
+
+            mockMvc.perform(approvalAction(teamLead("SALES", 2), third, "APPROVED")).andExpect(status().isConflict());
+        } finally {
+            environment.getPropertySources().remove("staffing");
+        }
+    }
+
+    private long submitLeaveOn(String username, LocalDate date) throws Exception {
+        Map<String, Object> body = Map.of(
+                "leaveType", LeaveType.SICK_LEAVE,
+                "startDate", date,
+                "endDate", date,
+                "reason", "staffing concurrency test leave");
+        MvcResult result = mockMvc.perform(post("/api/leave-requests")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(username))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return readId(result);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.leaveapproval.service.balance;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.model.LeaveBalance;
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.LeaveBalanceRepository;
+import com.example.leaveapproval.repository.LeaveLedgerEntryRepository;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.balance.impl.LeaveBalanceServiceImpl;
+import com.example.leaveapproval.service.calendar.WorkingDayCalendarService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaveBalanceServiceImplTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private LeaveBalanceRepository leaveBalanceRepository;
+    private LeaveBalanceServiceImpl leaveBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        leaveBalanceRepository = mock(LeaveBalanceRepository.class);
+        WorkingDayCalendarService calendar = mock(WorkingDayCalendarService.class);
+        when(calendar.countWorkingDays(any(), any())).thenReturn(2L);
+        leaveBalanceService = new LeaveBalanceServiceImpl(leaveBalanceRepository, mock(LeaveLedgerEntryRepository.class),
+                mock(UserRepository.class), mock(LeaveRequestRepository.class), calendar,
+                new MockEnvironment().withProperty("app.leave.entitlement.ANNUAL_LEAVE", "5"));
+    }
+
+    @Test
+    void rowCreatedBeforeEntitlementWasConfiguredUsesConfiguredEntitlement() {
+        givenBalance(null, 4);
+
+        assertThatThrownBy(() -> leaveBalanceService.checkSufficientBalance(1L, LeaveType.ANNUAL_LEAVE, MONDAY, TUESDAY))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 working day(s) remaining, 2 requested");
+        assertThat(leaveBalanceService.getBalance(1L, LeaveType.ANNUAL_LEAVE, 2026).getEntitledDays()).isEqualTo(5);
+    }
+
+    @Test
+    void debitPersistsConfiguredEntitlementIntoRowWithoutOne() {
+        LeaveBalance balance = givenBalance(null, 1);
+        when(leaveBalanceRepository.findForUpdate(1L, LeaveType.ANNUAL_LEAVE, 2026)).thenReturn(Optional.of(balance));
+
+        leaveBalanceService.onTransition(LeaveRequestTransitionEvent.of(approvedLeave(), LeaveStatus.PENDING_APPROVAL, null, 2L));
+
+        ArgumentCaptor<LeaveBalance> saved = ArgumentCaptor.forClass(LeaveBalance.class);
+        verify(leaveBalanceRepository).save(saved.capture());
+        assertThat(saved.getValue().getEntitledDays()).isEqualTo(5);
+        assertThat(saved.getValue().getUsedDays()).isEqualTo(3);
+    }
+
+    @Test
+    void debitBeyondResolvedEntitlementIsRejected() {
+        LeaveBalance balance = givenBalance(null, 4);
+        when(leaveBalanceRepository.findForUpdate(1L, LeaveType.ANNUAL_LEAVE, 2026)).thenReturn(Optional.of(balance));
+
+        assertThatThrownBy(() -> leaveBalanceService.onTransition(
+                LeaveRequestTransitionEvent.of(approvedLeave(), LeaveStatus.PENDING_APPROVAL, null, 2L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 working day(s) remaining, 2 requested");
+    }
+
+    @Test
+    void insufficientRemainingDaysAreRejected() {
+        givenBalance(5, 4);
+
+        assertThatThrownBy(() -> leaveBalanceService.checkSufficientBalance(1L, LeaveType.ANNUAL_LEAVE, MONDAY, TUESDAY))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("1 working day(s) remaining, 2 requested");
+    }
+
+    @Test
+    void missingRowUsesConfiguredEntitlement() {
+        when(leaveBalanceRepository.findByUserIdAndLeaveTypeAndYear(1L, LeaveType.ANNUAL_LEAVE, 2026)).thenReturn(Optional.empty());
+
+        assertThatCode(() -> leaveBalanceService.checkSufficientBalance(1L, LeaveType.ANNUAL_LEAVE, MONDAY, TUESDAY))
+                .doesNotThrowAnyException();
+    }
+
+    private LeaveBalance givenBalance(Integer entitledDays, long usedDays) {
+        User user = new User();
+        user.setId(1L);
+        LeaveBalance balance = new LeaveBalance();
+        balance.setUser(user);
+        balance.setLeaveType(LeaveType.ANNUAL_LEAVE);
+        balance.setYear(2026);
+        balance.setEntitledDays(entitledDays);
+        balance.setUsedDays(usedDays);
+        when(leaveBalanceRepository.findByUserIdAndLeaveTypeAndYear(1L, LeaveType.ANNUAL_LEAVE, 2026)).thenReturn(Optional.of(balance));
+        return balance;
+    }
+
+    private static LeaveRequest approvedLeave() {
+        User applicant = new User();
+        applicant.setId(1L);
+        LeaveRequest leaveRequest = new LeaveRequest();
+        leaveRequest.setId(10L);
+        leaveRequest.setApplicant(applicant);
+        leaveRequest.setLeaveType(LeaveType.ANNUAL_LEAVE);
+        leaveRequest.setStartDate(MONDAY);
+        leaveRequest.setEndDate(TUESDAY);
+        leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.APPROVED);
+        return leaveRequest;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.leaveapproval.service.calendar.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkingDayCalendarServiceImplTest {
+
+    private WorkingDayCalendarServiceImpl calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new WorkingDayCalendarServiceImpl(new DefaultResourceLoader(), "CN", new String[]{"CN", "US"}, "classpath:calendar/");
+        calendar.loadHolidays();
+    }
+
+    @Test
+    void yearBoundaryCountsNewYearHolidayAndAdjustedSunday() {
+        // 12-29 ~ 12-31 周一至周三上班；2026-01-01 ~ 01-03 元旦；01-04 周日调休上班；01-05 周一
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 5))).isEqualTo(5);
+        assertThat(calendar.isWorkingDay(LocalDate.of(2026, 1, 1))).isFalse();
+        assertThat(calendar.isWorkingDay(LocalDate.of(2026, 1, 4))).isTrue();
+    }
+
+    @Test
+    void springFestivalCountsAdjustedSaturdays() {
+        // 02-09 ~ 02-13 上班 5 天，02-14 周六补班，02-15 ~ 02-23 春节，02-24 ~ 02-27 上班 4 天，02-28 周六补班
+        assertThat(calendar.countWorkingDays(LocalDate.of(2026, 2, 9), LocalDate.of(2026, 2, 28))).isEqualTo(11);
+        assertThat(calendar.countWorkingDays(LocalDate.of(2026, 2, 15), LocalDate.of(2026, 2, 23))).isZero();
+    }
+
+    @Test
+    void singleDaysAndEmptyRanges() {
+        assertThat(calendar.countWorkingDays(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 2))).isEqualTo(1);
+        assertThat(calendar.countWorkingDays(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1))).isZero();
+        assertThat(calendar.countWorkingDays(LocalDate.of(2026, 3, 5), LocalDate.of(2026, 3, 2))).isZero();
+        assertThat(calendar.countWorkingDays(null, LocalDate.of(2026, 3, 2))).isZero();
+    }
+
+    @Test
+    void multiYearRangesMatchDayByDayCount() {
+        // 2024、2027 未配置节假日，仅周末休息；中间整年走全年合计
+        LocalDate start = LocalDate.of(2024, 12, 30);
+        LocalDate end = LocalDate.of(2027, 1, 4);
+
+        assertThat(calendar.countWorkingDays(start, end)).isEqualTo(naiveCount("CN", start, end));
+        assertThat(calendar.countWorkingDays(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)))
+                .isEqualTo(naiveCount("CN", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+    }
+
+    @Test
+    void randomRangesMatchDayByDayCount() {
+        Random random = new Random(7);
+        LocalDate origin = LocalDate.of(2024, 11, 1);
+        for (int i = 0; i < 300; i++) {
+            LocalDate start = origin.plusDays(random.nextInt(900));
+            LocalDate end = start.plusDays(random.nextInt(120));
+            assertThat(calendar.countWorkingDays(start, end)).as("%s..%s", start, end).isEqualTo(naiveCount("CN", start, end));
+        }
+    }
+
+    @Test
+    void regionWithoutHolidayFileUsesWeekendsOnly() {
+        LocalDate start = LocalDate.of(2025, 12, 29);
+        LocalDate end = LocalDate.of(2026, 1, 11);
+
+        assertThat(calendar.countWorkingDays("US", start, end)).isEqualTo(10);
+        assertThatThrownBy(() -> calendar.countWorkingDays("JP", start, end)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private long naiveCount(String region, LocalDate start, LocalDate end) {
+        long count = 0;
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (calendar.isWorkingDay(region, date)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void isWorkingDayFollowsWeekendsOutsideConfiguredYears() {
+        LocalDate saturday = LocalDate.of(2027, 3, 6);
+        assertThat(saturday.getDayOfWeek()).isEqualTo(DayOfWeek.SATURDAY);
+        assertThat(calendar.isWorkingDay(saturday)).isFalse();
+        assertThat(calendar.isWorkingDay(saturday.plusDays(2))).isTrue();
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.leaveapproval.service.coalescing;
+
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescerTest {
+
+    private final Queries target = new Queries();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(true, 2, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void concurrentCallsJoinOneExecution() throws Throwable {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        Object shared = new Object();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Object> first = executor.submit(call(invocation("inFlightOnly", "page-0", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                release.await();
+                return shared;
+            })));
+            started.await();
+            Future<?>[] joiners = new Future<?>[3];
+            for (int i = 0; i < joiners.length; i++) {
+                joiners[i] = executor.submit(call(invocation("inFlightOnly", "page-0", () -> {
+                    executions.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            // 等所有调用都挂到进行中的那次执行上，再放行
+            while (count("joined") < joiners.length) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(shared);
+            for (Future<?> joiner : joiners) {
+                assertThat(joiner.get(5, TimeUnit.SECONDS)).isSameAs(shared);
+            }
+            assertThat(executions).hasValue(1);
+            // ttlMillis = 0：完成后立即丢弃
+            assertThat(coalescer.entryCount()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedResultIsReusedWithinTtlAndRemovedWhenItExpires() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+        Object first = coalescer.invoke(invocation("shortTtl", "page-0", executions::incrementAndGet));
+        Object second = coalescer.invoke(invocation("shortTtl", "page-0", executions::incrementAndGet));
+
+        assertThat(second).isSameAs(first);
+        assertThat(count("reused")).isEqualTo(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.entryCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // 没有后续调用也会在到期后移除
+        assertThat(coalescer.entryCount()).isZero();
+        coalescer.invoke(invocation("shortTtl", "page-0", executions::incrementAndGet));
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void completedResultsBeyondMaxEntriesAreNotRetained() throws Throwable {
+        for (int page = 0; page < 5; page++) {
+            coalescer.invoke(invocation("longTtl", "page-" + page, Object::new));
+        }
+
+        assertThat(coalescer.entryCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void differentArgumentsDoNotShareResults() throws Throwable {
+        Object first = coalescer.invoke(invocation("longTtl", "page-0", Object::new));
+        Object second = coalescer.invoke(invocation("longTtl", "page-1", Object::new));
+
+        assertThat(second).isNotSameAs(first);
+    }
+
+    @Test
+    void failuresAreNotReused() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+        assertThatThrownBy(() -> coalescer.invoke(invocation("longTtl", "page-0", () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("boom");
+        }))).isInstanceOf(IllegalStateException.class);
+
+        coalescer.invoke(invocation("longTtl", "page-0", executions::incrementAndGet));
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void dataChangeInvalidatesRetainedResults() throws Throwable {
+        Object first = coalescer.invoke(invocation("longTtl", "page-0", Object::new));
+
+        coalescer.onUserProfileChanged(new UserProfileChangedEvent(1L, false, "RD", "RD"));
+
+        assertThat(coalescer.invoke(invocation("longTtl", "page-0", Object::new))).isNotSameAs(first);
+    }
+
+    private double count(String outcome) {
+        var counter = meterRegistry.find("leave.coalescing.calls").tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private Callable<Object> call(MethodInvocation invocation) {
+        return () -> {
+            try {
+                return coalescer.invoke(invocation);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private MethodInvocation invocation(String methodName, String argument, Body body) throws Throwable {
+        Method method = Queries.class.getMethod(methodName, String.class);
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(new Object[]{argument});
+        when(invocation.getThis()).thenReturn(target);
+        when(invocation.proceed()).thenAnswer(call -> body.run());
+        return invocation;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        Object run() throws Exception;
+    }
+
+    public static class Queries {
+
+        @Coalesced
+        public Object inFlightOnly(String page) {
+            return null;
+        }
+
+        @Coalesced(ttlMillis = 100)
+        public Object shortTtl(String page) {
+            return null;
+        }
+
+        @Coalesced(ttlMillis = 60_000)
+        public Object longTtl(String page) {
+            return null;
+        }
+    }
+}
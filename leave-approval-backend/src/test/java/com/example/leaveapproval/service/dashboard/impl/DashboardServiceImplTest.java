@@ -0,0 +1,96 @@
+package com.example.leaveapproval.service.dashboard.impl;
+
+import com.example.leaveapproval.dto.DashboardDto;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.balance.LeaveBalanceService;
+import com.example.leaveapproval.service.leave.LeaveRequestManagementService;
+import com.example.leaveapproval.service.user.AdminUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardServiceImplTest {
+
+    private UserRepository userRepository;
+    private LeaveRequestManagementService leaveRequestManagementService;
+    private LeaveBalanceService leaveBalanceService;
+    private PlatformTransactionManager transactionManager;
+    private DashboardServiceImpl dashboardService;
+    private User currentUser;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        leaveRequestManagementService = mock(LeaveRequestManagementService.class);
+        leaveBalanceService = mock(LeaveBalanceService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        currentUser = new User();
+        currentUser.setId(1L);
+        currentUser.setRoles(new HashSet<>(Set.of(Role.ROLE_EMPLOYEE)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(currentUser));
+        when(leaveRequestManagementService.getMyLeaveRequests(eq(1L), any(), any())).thenReturn(Page.empty());
+        dashboardService = new DashboardServiceImpl(userRepository, leaveRequestManagementService, mock(AdminUserService.class),
+                leaveBalanceService, transactionManager, 4, 10, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardService.shutdown();
+    }
+
+    @Test
+    void timedOutSectionIsInterruptedAndOtherSectionsReturn() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(leaveBalanceService.getBalances(eq(1L), anyInt())).thenAnswer(call -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return List.of();
+        });
+
+        DashboardDto dashboard = dashboardService.getDashboard(currentUser);
+
+        assertThat(dashboard.getErrors()).containsExactly(Map.entry(DashboardDto.BALANCES, DashboardServiceImpl.ERROR_TIMEOUT));
+        assertThat(dashboard.getCurrentUser().getId()).isEqualTo(1L);
+        assertThat(dashboard.getMyRequests()).isNotNull();
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void sectionsRunInReadOnlyTransactionsWithTimeout() {
+        when(leaveBalanceService.getBalances(eq(1L), anyInt())).thenReturn(List.of());
+
+        DashboardDto dashboard = dashboardService.getDashboard(currentUser);
+
+        assertThat(dashboard.getErrors()).isEmpty();
+        // section-timeout-ms = 200，事务超时向上取整为 1 秒
+        verify(transactionManager, atLeastOnce()).getTransaction(argThat((TransactionDefinition definition) ->
+                definition.isReadOnly() && definition.getTimeout() == 1));
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.leaveapproval.service.idempotency.impl;
+
+import com.example.leaveapproval.exception.IdempotencyKeyConflictException;
+import com.example.leaveapproval.model.IdempotencyRecord;
+import com.example.leaveapproval.repository.IdempotencyRecordRepository;
+import com.example.leaveapproval.service.idempotency.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceImplTest {
+
+    private static final String KEY = "retry-1";
+    private static final String OPERATION = "submit";
+    private static final Map<String, String> BODY = Map.of("reason", "trip");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository = mock(IdempotencyRecordRepository.class);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(any(), any())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, objectMapper,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), 24, 100);
+    }
+
+    @Test
+    void retryIsReplayedWithoutRunningTheActionAgain() {
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<String> first = execute(1L, BODY, () -> created("request-" + executions.incrementAndGet()));
+        ResponseEntity<String> retry = execute(1L, BODY, () -> created("request-" + executions.incrementAndGet()));
+
+        assertThat(first.getBody()).isEqualTo("request-1");
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getBody()).isEqualTo("request-1");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void keyUsedByAnotherUserIsIndependent() {
+        execute(1L, BODY, () -> created("alice"));
+
+        // 同一个键、不同的请求体：对另一个用户既不重放也不算误用
+        ResponseEntity<String> other = execute(2L, Map.of("reason", "other"), () -> created("bob"));
+
+        assertThat(other.getBody()).isEqualTo("bob");
+        assertThat(other.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() {
+        execute(1L, BODY, () -> created("alice"));
+
+        assertThatThrownBy(() -> execute(1L, Map.of("reason", "other"), () -> created("again")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(KEY);
+    }
+
+    @Test
+    void concurrentRequestWithSameKeyIsRejectedWhileInFlight() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResponseEntity<String>> first = executor.submit(() -> execute(1L, BODY, () -> {
+                started.countDown();
+                await(release);
+                return created("first");
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> execute(1L, BODY, () -> created("second")))
+                    .isInstanceOf(IdempotencyKeyConflictException.class);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS).getBody()).isEqualTo("first");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void uniqueViolationFromAnotherInstanceReplaysTheWinner() throws Exception {
+        IdempotencyRecord winner = storedRecord(1L, BODY, "winner", LocalDateTime.now().minusSeconds(1));
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY))
+                .thenReturn(Optional.empty(), Optional.of(winner));
+        when(idempotencyRecordRepository.save(any())).thenThrow(new DataIntegrityViolationException("uk_idempotency_user_key"));
+
+        ResponseEntity<String> response = execute(1L, BODY, () -> created("loser"));
+
+        assertThat(response.getBody()).isEqualTo("winner");
+        assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void expiredRecordIsNotReplayedAndIsReplaced() throws Exception {
+        IdempotencyRecord expired = storedRecord(1L, BODY, "stale", LocalDateTime.now().minusHours(25));
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.of(expired));
+
+        ResponseEntity<String> response = execute(1L, BODY, () -> created("fresh"));
+
+        assertThat(response.getBody()).isEqualTo("fresh");
+        verify(idempotencyRecordRepository).deleteExpired(eq(1L), eq(KEY), any());
+    }
+
+    @Test
+    void liveRecordIsNotDeleted() throws Exception {
+        IdempotencyRecord live = storedRecord(1L, BODY, "stored", LocalDateTime.now().minusHours(1));
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, KEY)).thenReturn(Optional.of(live));
+
+        assertThat(execute(1L, BODY, () -> created("fresh")).getBody()).isEqualTo("stored");
+        verify(idempotencyRecordRepository, never()).deleteExpired(any(), any(), any());
+    }
+
+    private ResponseEntity<String> execute(Long userId, Object body, Supplier<ResponseEntity<String>> action) {
+        return idempotencyService.execute(userId, KEY, OPERATION, body, String.class, action);
+    }
+
+    private IdempotencyRecord storedRecord(Long userId, Object body, String responseBody, LocalDateTime createdAt) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(OPERATION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(objectMapper.writeValueAsBytes(body));
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setUserId(userId);
+        idempotencyRecord.setIdempotencyKey(KEY);
+        idempotencyRecord.setRequestHash(digest.digest());
+        idempotencyRecord.setResponseStatus(HttpStatus.CREATED.value());
+        idempotencyRecord.setResponseBody(objectMapper.writeValueAsBytes(responseBody));
+        idempotencyRecord.setCreatedAt(createdAt);
+        return idempotencyRecord;
+    }
+
+    private static ResponseEntity<String> created(String body) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
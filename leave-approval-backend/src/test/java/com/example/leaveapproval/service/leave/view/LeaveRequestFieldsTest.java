@@ -0,0 +1,112 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.dto.UserDto;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeaveRequestFieldsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void noParametersMeansFullViewWithHistory() {
+        LeaveRequestFields fields = LeaveRequestFields.parse(null, null, null);
+
+        assertThat(fields).isSameAs(LeaveRequestFields.ALL);
+        assertThat(fields.includes(LeaveRequestFields.APPLICANT)).isTrue();
+        assertThat(fields.includesHistory()).isTrue();
+        assertThat(fields.isNormalized()).isFalse();
+    }
+
+    @Test
+    void selectedFieldsAlwaysIncludeIdAndSkipHistoryUnlessRequested() {
+        LeaveRequestFields fields = LeaveRequestFields.parse(" status, startDate ,,", null, null);
+
+        assertThat(fields.includes("id")).isTrue();
+        assertThat(fields.includes("status")).isTrue();
+        assertThat(fields.includes(LeaveRequestFields.APPLICANT)).isFalse();
+        assertThat(fields.includesHistory()).isFalse();
+        assertThat(LeaveRequestFields.parse("status", "history", null).includesHistory()).isTrue();
+        assertThat(LeaveRequestFields.parse("status,approvalHistory", null, null).includesHistory()).isTrue();
+        assertThat(LeaveRequestFields.parse(null, "history", null).includes(LeaveRequestFields.APPLICANT)).isTrue();
+    }
+
+    @Test
+    void unknownValuesAreRejected() {
+        assertThatThrownBy(() -> LeaveRequestFields.parse("status,password", null, null))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("password");
+        assertThatThrownBy(() -> LeaveRequestFields.parse(null, "comments", null))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("comments");
+        assertThatThrownBy(() -> LeaveRequestFields.parse(null, null, "flat"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("flat");
+    }
+
+    @Test
+    void cacheKeyIgnoresFieldOrderAndDistinguishesOptions() {
+        LeaveRequestFields statusFirst = LeaveRequestFields.parse("status,startDate", null, null);
+        LeaveRequestFields startDateFirst = LeaveRequestFields.parse("startDate,status", null, null);
+
+        assertThat(statusFirst.cacheKey()).isEqualTo(startDateFirst.cacheKey());
+        assertThat(statusFirst).isEqualTo(startDateFirst).hasSameHashCodeAs(startDateFirst);
+        assertThat(LeaveRequestFields.ALL.cacheKey()).isEqualTo("*+history");
+        assertThat(LeaveRequestFields.parse("status", "history", "normalized").cacheKey())
+                .isEqualTo("approvalHistory,id,status+history~normalized");
+        assertThat(LeaveRequestFields.parse(null, "", null).cacheKey()).isEqualTo("*");
+    }
+
+    @Test
+    void filterProviderOutputsOnlySelectedFields() throws Exception {
+        JsonNode json = write(LeaveRequestFields.parse("status", null, null));
+
+        assertThat(names(json)).containsExactlyInAnyOrder("id", "status");
+    }
+
+    @Test
+    void fullViewWithoutHistoryExcludesOnlyHistory() throws Exception {
+        JsonNode json = write(LeaveRequestFields.parse(null, "", null));
+
+        assertThat(json.has("approvalHistory")).isFalse();
+        assertThat(json.has("applicant")).isTrue();
+        assertThat(json.has("reason")).isTrue();
+    }
+
+    @Test
+    void normalizedShapeReplacesUsersWithIds() throws Exception {
+        JsonNode selected = write(LeaveRequestFields.parse("applicant,currentApprover", null, "normalized"));
+        JsonNode full = write(LeaveRequestFields.parse(null, null, "normalized"));
+
+        assertThat(names(selected)).containsExactlyInAnyOrder("id", "applicantId", "currentApproverId");
+        assertThat(full.has("applicant")).isFalse();
+        assertThat(full.has("currentApprover")).isFalse();
+        assertThat(full.get("applicantId").asLong()).isEqualTo(7L);
+    }
+
+    private JsonNode write(LeaveRequestFields fields) throws Exception {
+        UserDto applicant = new UserDto();
+        applicant.setId(7L);
+        LeaveRequestViewDto view = new LeaveRequestViewDto();
+        view.setId(1L);
+        view.setStatus(LeaveStatus.APPROVED);
+        view.setReason("family trip");
+        view.setApplicant(applicant);
+        view.setApplicantId(7L);
+        view.setCurrentApproverId(8L);
+        view.setApprovalHistory(List.of());
+        return objectMapper.readTree(objectMapper.writer(fields.toFilterProvider()).writeValueAsBytes(view));
+    }
+
+    private static List<String> names(JsonNode json) {
+        List<String> names = new ArrayList<>();
+        json.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
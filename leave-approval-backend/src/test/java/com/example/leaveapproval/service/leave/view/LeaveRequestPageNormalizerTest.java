@@ -0,0 +1,143 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.dto.ApprovalHistoryViewDto;
+import com.example.leaveapproval.dto.LeaveRequestPageDto;
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.repository.projection.UserProfileRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeaveRequestPageNormalizerTest {
+
+    private UserRepository userRepository;
+    private LeaveRequestPageNormalizer normalizer;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        normalizer = new LeaveRequestPageNormalizer(userRepository);
+    }
+
+    @Test
+    void referencedUsersAreLoadedOnceAndMergedByRole() {
+        when(userRepository.findProfileRowsByIdIn(any())).thenReturn(List.of(
+                profile(1L, "rd.t1.e1", Role.ROLE_EMPLOYEE),
+                profile(2L, "rd.t1.e2", Role.ROLE_EMPLOYEE),
+                profile(3L, "rd.t1.lead", Role.ROLE_TEAM_LEAD),
+                profile(3L, "rd.t1.lead", Role.ROLE_EMPLOYEE),
+                profile(4L, "rd.manager", null)));
+        // 两行的当前审批人相同，历史中的审批人也只出现一次
+        LeaveRequestViewDto first = row(10L, 1L, 3L);
+        first.setApprovalHistory(List.of(history(4L), history(3L)));
+        LeaveRequestViewDto second = row(11L, 2L, 3L);
+        Page<LeaveRequestViewDto> page = new PageImpl<>(List.of(first, second), PageRequest.of(0, 2), 5);
+
+        LeaveRequestPageDto dto = normalizer.normalize(page);
+
+        verify(userRepository).findProfileRowsByIdIn(Set.of(1L, 2L, 3L, 4L));
+        assertThat(dto.getContent()).containsExactly(first, second);
+        assertThat(dto.getIncludes().getUsers()).containsOnlyKeys(1L, 2L, 3L, 4L);
+        assertThat(dto.getIncludes().getUsers().get(3L).getRoles()).containsExactlyInAnyOrder(Role.ROLE_TEAM_LEAD, Role.ROLE_EMPLOYEE);
+        assertThat(dto.getIncludes().getUsers().get(4L).getRoles()).isEmpty();
+        assertThat(dto.getPage().size()).isEqualTo(2);
+        assertThat(dto.getPage().totalElements()).isEqualTo(5);
+        assertThat(dto.getPage().totalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void pageWithoutUserReferencesDoesNotQuery() {
+        LeaveRequestPageDto dto = normalizer.normalize(new PageImpl<>(List.of(row(10L, null, null))));
+
+        assertThat(dto.getIncludes().getUsers()).isEmpty();
+        verify(userRepository, never()).findProfileRowsByIdIn(any());
+    }
+
+    private static LeaveRequestViewDto row(Long id, Long applicantId, Long currentApproverId) {
+        LeaveRequestViewDto row = new LeaveRequestViewDto();
+        row.setId(id);
+        row.setApplicantId(applicantId);
+        row.setCurrentApproverId(currentApproverId);
+        return row;
+    }
+
+    private static ApprovalHistoryViewDto history(Long approverId) {
+        ApprovalHistoryViewDto history = new ApprovalHistoryViewDto();
+        history.setApproverId(approverId);
+        return history;
+    }
+
+    private static UserProfileRow profile(Long id, String username, Role role) {
+        return new UserProfileRow() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getFullName() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return username + "@example.com";
+            }
+
+            @Override
+            public String getDepartment() {
+                return "RD";
+            }
+
+            @Override
+            public Long getManagerId() {
+                return null;
+            }
+
+            @Override
+            public String getManagerUsername() {
+                return null;
+            }
+
+            @Override
+            public Role getRole() {
+                return role;
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return null;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return null;
+            }
+        };
+    }
+}
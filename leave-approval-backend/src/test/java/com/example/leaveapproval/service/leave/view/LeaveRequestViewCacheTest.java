@@ -0,0 +1,104 @@
+package com.example.leaveapproval.service.leave.view;
+
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaveRequestViewCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+    // 状态相同、ID 同为一位数的视图序列化后大小相同
+    private final int entryBytes = serializedSize(view(1L, LeaveStatus.APPROVED));
+
+    @Test
+    void heapIsBoundedByBytesAndEvictsLeastRecentlyUsed() {
+        LeaveRequestViewCache cache = cache(2L * entryBytes + entryBytes / 2, 0);
+        put(cache, view(1L, LeaveStatus.APPROVED));
+        put(cache, view(2L, LeaveStatus.APPROVED));
+        assertThat(cache.get(1L)).isNotNull(); // 1 成为最近使用
+
+        put(cache, view(3L, LeaveStatus.APPROVED));
+
+        assertThat(cache.heapBytes()).isEqualTo(2L * entryBytes);
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(1L)).isNotNull();
+        assertThat(cache.get(3L)).isNotNull();
+    }
+
+    @Test
+    void evictedEntrySpillsOffHeapAndIsPromotedOnHit() {
+        LeaveRequestViewCache cache = cache(entryBytes, entryBytes);
+        LeaveRequestViewCache.CachedView first = put(cache, view(1L, LeaveStatus.APPROVED));
+        put(cache, view(2L, LeaveStatus.APPROVED));
+        assertThat(cache.offHeapBytes()).isEqualTo(entryBytes);
+
+        LeaveRequestViewCache.CachedView promoted = cache.get(1L);
+
+        assertThat(promoted.json()).isEqualTo(first.json());
+        assertThat(promoted.etag()).isEqualTo(first.etag());
+        // 1 回到堆内，2 被挤到堆外
+        assertThat(cache.heapBytes()).isEqualTo(entryBytes);
+        assertThat(cache.offHeapBytes()).isEqualTo(entryBytes);
+        assertThat(cache.get(2L)).isNotNull();
+
+        put(cache, view(3L, LeaveStatus.APPROVED));
+        put(cache, view(4L, LeaveStatus.APPROVED));
+        // 堆外也满时真正丢弃
+        assertThat(cache.heapBytes() + cache.offHeapBytes()).isEqualTo(2L * entryBytes);
+    }
+
+    @Test
+    void pendingRequestsAndOversizedEntriesAreNotCached() {
+        LeaveRequestViewCache cache = cache(entryBytes - 1, 0);
+        put(cache, view(1L, LeaveStatus.APPROVED));
+        assertThat(cache.get(1L)).isNull();
+
+        LeaveRequestViewCache roomy = cache(10L * entryBytes, 0);
+        put(roomy, view(2L, LeaveStatus.PENDING_APPROVAL));
+        assertThat(roomy.get(2L)).isNull();
+    }
+
+    @Test
+    void writeInterleavedWithInvalidationIsDropped() {
+        LeaveRequestViewCache cache = cache(10L * entryBytes, 0);
+        long stamp = cache.modificationStamp();
+
+        cache.onUserProfileChanged(new UserProfileChangedEvent(1L, false, "RD", "RD"));
+        cache.serialize(view(1L, LeaveStatus.APPROVED), stamp, 0);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private LeaveRequestViewCache cache(long maxHeapBytes, long maxOffHeapBytes) {
+        return new LeaveRequestViewCache(objectMapper, new LeaveChangeTokens(), new SimpleMeterRegistry(),
+                true, maxHeapBytes, maxOffHeapBytes);
+    }
+
+    private static LeaveRequestViewCache.CachedView put(LeaveRequestViewCache cache, LeaveRequestViewDto view) {
+        return cache.serialize(view, cache.modificationStamp(), 0);
+    }
+
+    private int serializedSize(LeaveRequestViewDto view) {
+        try {
+            return objectMapper.writeValueAsBytes(view).length;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LeaveRequestViewDto view(Long id, LeaveStatus status) {
+        LeaveRequestViewDto view = new LeaveRequestViewDto();
+        view.setId(id);
+        view.setStatus(status);
+        view.setVersion(1L);
+        view.setReason("family trip");
+        return view;
+    }
+}
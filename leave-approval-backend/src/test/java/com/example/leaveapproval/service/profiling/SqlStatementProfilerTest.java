@@ -0,0 +1,90 @@
+package com.example.leaveapproval.service.profiling;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.leaveapproval.dto.SqlQueryProfileDto;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementProfilerTest {
+
+    private final SqlStatementProfiler profiler = new SqlStatementProfiler(10, 500, 60);
+
+    @Test
+    void subMillisecondStatementsAccumulateFractionalMillis() {
+        for (int i = 0; i < 3; i++) {
+            execute(List.of(new QueryInfo("select * from users where id = " + i)));
+        }
+
+        SqlQueryProfileDto.Query query = profiler.getTopQueries(10).getQueries().get(0);
+        assertThat(query.getSql()).isEqualTo("select * from users where id = ?");
+        assertThat(query.getCount()).isEqualTo(3);
+        assertThat(query.getTotalMillis()).isGreaterThan(0);
+        assertThat(query.getMeanMillis()).isEqualTo(query.getTotalMillis() / 3);
+        assertThat(query.getMaxMillis()).isBetween(query.getMeanMillis(), query.getTotalMillis());
+    }
+
+    @Test
+    void batchElapsedTimeIsSplitAcrossStatements() {
+        execute(List.of(new QueryInfo("insert into audit values (1)"), new QueryInfo("insert into audit values (2)")));
+
+        SqlQueryProfileDto.Query query = profiler.getTopQueries(10).getQueries().get(0);
+        assertThat(query.getSql()).isEqualTo("insert into audit values (?)");
+        assertThat(query.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void normalizeCollapsesLiteralsAndInLists() {
+        assertThat(profiler.normalize("select  *\n from t where name = 'O''Brien' and id in (1, 2, 3)"))
+                .isEqualTo("select * from t where name = ? and id in (?...)");
+    }
+
+    @Test
+    void nPlusOneWarningIsThrottledPerEndpointAndStatement() {
+        Logger logger = (Logger) LoggerFactory.getLogger(SqlStatementProfiler.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            for (int request = 0; request < 3; request++) {
+                runRequest("GET /api/leave-requests", "select * from approval_history where request_id = ");
+            }
+            runRequest("GET /api/leave-requests/{id}", "select * from approval_history where request_id = ");
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertThat(appender.list)
+                .extracting(event -> event.getKeyValuePairs().stream()
+                        .filter(pair -> pair.key.equals("endpoint"))
+                        .findFirst().orElseThrow().value)
+                .containsExactly("GET /api/leave-requests", "GET /api/leave-requests/{id}");
+    }
+
+    private void runRequest(String endpoint, String sqlPrefix) {
+        profiler.beginRequest();
+        for (int i = 0; i < 11; i++) {
+            execute(List.of(new QueryInfo(sqlPrefix + i)));
+        }
+        profiler.endRequest(endpoint);
+    }
+
+    private void execute(List<QueryInfo> queries) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setSuccess(true);
+        profiler.beforeQuery(execInfo, queries);
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < 50_000) {
+            Thread.onSpinWait();
+        }
+        execInfo.setElapsedTime(0); // datasource-proxy 按毫秒计时，亚毫秒的语句记为 0
+        profiler.afterQuery(execInfo, queries);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.leaveapproval.service.staffing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AbsenceSegmentTreeTest {
+
+    @Test
+    void rangeAddCoversBoundaryDays() {
+        AbsenceSegmentTree tree = new AbsenceSegmentTree(365);
+
+        tree.add(0, 0, 1);
+        tree.add(364, 364, 2);
+        tree.add(0, 364, 1);
+
+        assertThat(tree.max(0, 0)).isEqualTo(2);
+        assertThat(tree.max(1, 363)).isEqualTo(1);
+        assertThat(tree.max(364, 364)).isEqualTo(3);
+        assertThat(tree.max(0, 364)).isEqualTo(3);
+        assertThat(tree.max(5, 4)).isZero();
+    }
+
+    @Test
+    void forEachAtLeastReportsDaysInAscendingOrder() {
+        AbsenceSegmentTree tree = new AbsenceSegmentTree(366);
+        tree.add(0, 10, 1);
+        tree.add(5, 365, 1);
+        tree.add(365, 365, 1);
+
+        List<Integer> days = new ArrayList<>();
+        tree.forEachAtLeast(0, 365, 2, days::add);
+
+        assertThat(days).hasSize(6 + 1).startsWith(5, 6, 7, 8, 9, 10).endsWith(365);
+        List<Integer> limited = new ArrayList<>();
+        tree.forEachAtLeast(8, 364, 2, limited::add);
+        assertThat(limited).containsExactly(8, 9, 10);
+    }
+
+    @Test
+    void removingEveryIntervalRestoresZero() {
+        AbsenceSegmentTree tree = new AbsenceSegmentTree(365);
+        tree.add(30, 40, 1);
+        tree.add(35, 60, 1);
+        tree.add(30, 40, -1);
+        tree.add(35, 60, -1);
+
+        assertThat(tree.max(0, 364)).isZero();
+        List<Integer> days = new ArrayList<>();
+        tree.forEachAtLeast(0, 364, 1, days::add);
+        assertThat(days).isEmpty();
+    }
+
+    @Test
+    void matchesNaiveCountsForRandomRanges() {
+        Random random = new Random(42);
+        AbsenceSegmentTree tree = new AbsenceSegmentTree(365);
+        int[] naive = new int[365];
+        for (int i = 0; i < 500; i++) {
+            int from = random.nextInt(365);
+            int to = from + random.nextInt(365 - from);
+            int delta = random.nextBoolean() ? 1 : -1;
+            tree.add(from, to, delta);
+            for (int day = from; day <= to; day++) {
+                naive[day] += delta;
+            }
+            int queryFrom = random.nextInt(365);
+            int queryTo = queryFrom + random.nextInt(365 - queryFrom);
+            int expected = Integer.MIN_VALUE;
+            for (int day = queryFrom; day <= queryTo; day++) {
+                expected = Math.max(expected, naive[day]);
+            }
+            assertThat(tree.max(queryFrom, queryTo)).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.leaveapproval.service.staffing;
+
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.projection.AbsenceIntervalView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DepartmentStaffingIndexTest {
+
+    private static final LocalDate NEW_YEARS_EVE = LocalDate.of(2025, 12, 31);
+    private static final LocalDate NEW_YEARS_DAY = LocalDate.of(2026, 1, 1);
+
+    private LeaveRequestRepository leaveRequestRepository;
+    private DepartmentStaffingIndex index;
+
+    @BeforeEach
+    void setUp() {
+        leaveRequestRepository = mock(LeaveRequestRepository.class);
+        when(leaveRequestRepository.findDepartmentAbsencesWithLock(any(), eq(LeaveStatus.APPROVED), any(), any())).thenReturn(List.of());
+        index = new DepartmentStaffingIndex(leaveRequestRepository, 2, 2);
+    }
+
+    @AfterEach
+    void clearTransactionSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(index);
+    }
+
+    @Test
+    void loadedYearsCountDatabaseIntervalsAcrossYearBoundary() {
+        when(leaveRequestRepository.findDepartmentAbsencesWithLock(eq("RD"), eq(LeaveStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(
+                        interval(1L, LocalDate.of(2025, 12, 30), LocalDate.of(2026, 1, 2)),
+                        interval(2L, NEW_YEARS_EVE, NEW_YEARS_DAY)));
+
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 0, LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 3), 2))
+                .containsExactly(NEW_YEARS_EVE, NEW_YEARS_DAY);
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 0, LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 3), 1))
+                .containsExactly(LocalDate.of(2025, 12, 30), NEW_YEARS_EVE, NEW_YEARS_DAY, LocalDate.of(2026, 1, 2));
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+    }
+
+    @Test
+    void changesAtTheNextRevisionAreAppliedIncrementally() {
+        index.findDaysWithAbsencesAtLeast("RD", 4, NEW_YEARS_EVE, NEW_YEARS_DAY, 1);
+
+        index.recordChange("RD", 5, NEW_YEARS_EVE, NEW_YEARS_DAY, 1);
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_EVE, NEW_YEARS_DAY, 1))
+                .containsExactly(NEW_YEARS_EVE, NEW_YEARS_DAY);
+
+        index.recordChange("RD", 6, NEW_YEARS_EVE, NEW_YEARS_DAY, -1);
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 6, NEW_YEARS_EVE, NEW_YEARS_DAY, 1)).isEmpty();
+        // 两个年度各只查询了一次，之后全部增量维护
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+    }
+
+    @Test
+    void revisionChangedElsewhereReloadsFromDatabase() {
+        index.findDaysWithAbsencesAtLeast("RD", 4, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        when(leaveRequestRepository.findDepartmentAbsencesWithLock(eq("RD"), eq(LeaveStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(interval(1L, NEW_YEARS_DAY, NEW_YEARS_DAY)));
+
+        // 另一个实例批准了一笔请假：修订号前进，但本实例没有收到变更
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1)).containsExactly(NEW_YEARS_DAY);
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+    }
+
+    @Test
+    void changeThatSkipsARevisionDropsTheDepartment() {
+        index.findDaysWithAbsencesAtLeast("RD", 4, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        index.recordChange("RD", 6, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        index.findDaysWithAbsencesAtLeast("RD", 6, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+    }
+
+    @Test
+    void changeAlreadyIncludedByAReloadIsIgnored() {
+        when(leaveRequestRepository.findDepartmentAbsencesWithLock(eq("RD"), eq(LeaveStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(interval(1L, NEW_YEARS_DAY, NEW_YEARS_DAY)));
+        index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        // 提交后的增量晚于其他事务在锁内的重新加载到达
+        index.recordChange("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 2)).isEmpty();
+    }
+
+    @Test
+    void invalidationDropsOutdatedDepartment() {
+        index.findDaysWithAbsencesAtLeast("RD", 4, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        index.findDaysWithAbsencesAtLeast("SALES", 9, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        index.recordInvalidation("RD", 5);
+        index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        index.findDaysWithAbsencesAtLeast("SALES", 9, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+        verify(leaveRequestRepository, times(1)).findDepartmentAbsencesWithLock(eq("SALES"), any(), any(), any());
+    }
+
+    @Test
+    void uncommittedChangesAreAppliedOnlyAfterCommit() {
+        index.findDaysWithAbsencesAtLeast("RD", 4, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.recordChange("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        // 本事务已批准的请假由锁内加载（加锁读能看到本事务的修改）得到，该结果不放入缓存
+        when(leaveRequestRepository.findDepartmentAbsencesWithLock(eq("RD"), eq(LeaveStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(interval(1L, NEW_YEARS_DAY, NEW_YEARS_DAY)));
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1)).containsExactly(NEW_YEARS_DAY);
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(index.findDaysWithAbsencesAtLeast("RD", 5, NEW_YEARS_DAY, NEW_YEARS_DAY, 1)).containsExactly(NEW_YEARS_DAY);
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("RD"), any(), any(), any());
+    }
+
+    @Test
+    void departmentsAndYearsAreEvictedLeastRecentlyUsed() {
+        index.findDaysWithAbsencesAtLeast("RD", 0, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        index.findDaysWithAbsencesAtLeast("SALES", 0, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        index.findDaysWithAbsencesAtLeast("HR", 0, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+        assertThat(index.cachedDepartmentCount()).isEqualTo(2);
+
+        index.findDaysWithAbsencesAtLeast("HR", 0, LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 1), 1);
+        index.findDaysWithAbsencesAtLeast("HR", 0, LocalDate.of(2028, 1, 1), LocalDate.of(2028, 1, 1), 1);
+        index.findDaysWithAbsencesAtLeast("HR", 0, NEW_YEARS_DAY, NEW_YEARS_DAY, 1);
+
+        // 每个部门最多缓存两个年度：2026 年已被淘汰，需要重新加载
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsencesWithLock(eq("HR"), any(), eq(NEW_YEARS_DAY), any());
+    }
+
+    private static AbsenceIntervalView interval(Long applicantId, LocalDate start, LocalDate end) {
+        return new AbsenceIntervalView() {
+            @Override
+            public Long getApplicantId() {
+                return applicantId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.leaveapproval.service.teamcalendar;
+
+import com.example.leaveapproval.event.LeaveRequestTransitionEvent;
+import com.example.leaveapproval.event.UserProfileChangedEvent;
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.LeaveRequestRepository;
+import com.example.leaveapproval.repository.projection.AbsenceIntervalView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DepartmentAbsenceIndexTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2026, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2026, 2);
+
+    private LeaveRequestRepository leaveRequestRepository;
+    private DepartmentAbsenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        leaveRequestRepository = mock(LeaveRequestRepository.class);
+        when(leaveRequestRepository.findDepartmentAbsences(any(), eq(LeaveStatus.APPROVED), any(), any())).thenReturn(List.of());
+        index = new DepartmentAbsenceIndex(leaveRequestRepository, 2, 2);
+    }
+
+    @Test
+    void approveThenCancelIsSymmetricAcrossMonthBoundary() {
+        index.getMonth("RD", JANUARY);
+        index.getMonth("RD", FEBRUARY);
+        LeaveRequest first = leave(7L, "RD", LocalDate.of(2026, 1, 30), LocalDate.of(2026, 2, 2));
+        LeaveRequest second = leave(8L, "RD", LocalDate.of(2026, 1, 31), LocalDate.of(2026, 1, 31));
+
+        transition(first, LeaveStatus.PENDING_APPROVAL, LeaveStatus.APPROVED);
+        transition(second, LeaveStatus.PENDING_APPROVAL, LeaveStatus.APPROVED);
+        RoaringBitmap[] january = index.getMonth("RD", JANUARY);
+        RoaringBitmap[] february = index.getMonth("RD", FEBRUARY);
+        assertThat(january[28].isEmpty()).isTrue();
+        assertThat(january[29].toArray()).containsExactly(7);
+        assertThat(january[30].toArray()).containsExactly(7, 8);
+        assertThat(february[0].toArray()).containsExactly(7);
+        assertThat(february[1].toArray()).containsExactly(7);
+        assertThat(february[2].isEmpty()).isTrue();
+
+        transition(first, LeaveStatus.APPROVED, LeaveStatus.CANCELLED);
+        assertThat(index.getMonth("RD", JANUARY)[30].toArray()).containsExactly(8);
+        transition(second, LeaveStatus.APPROVED, LeaveStatus.CANCELLED);
+        assertThat(Arrays.stream(index.getMonth("RD", JANUARY))).allMatch(RoaringBitmap::isEmpty);
+        assertThat(Arrays.stream(index.getMonth("RD", FEBRUARY))).allMatch(RoaringBitmap::isEmpty);
+        // 全部由事件增量维护，每个月只查询了一次
+        verify(leaveRequestRepository, times(1)).findDepartmentAbsences(eq("RD"), any(), eq(JANUARY.atDay(1)), any());
+    }
+
+    @Test
+    void loadedMonthReflectsDatabaseIntervals() {
+        when(leaveRequestRepository.findDepartmentAbsences(eq("RD"), eq(LeaveStatus.APPROVED), any(), any()))
+                .thenReturn(List.of(interval(3L, LocalDate.of(2025, 12, 30), LocalDate.of(2026, 1, 2))));
+
+        RoaringBitmap[] january = index.getMonth("RD", JANUARY);
+
+        assertThat(january[0].toArray()).containsExactly(3);
+        assertThat(january[1].toArray()).containsExactly(3);
+        assertThat(january[2].isEmpty()).isTrue();
+    }
+
+    @Test
+    void departmentChangeDropsBothDepartments() {
+        index.getMonth("RD", JANUARY);
+        index.getMonth("SALES", JANUARY);
+
+        index.onUserProfileChanged(new UserProfileChangedEvent(7L, false, "RD", "SALES"));
+        index.getMonth("RD", JANUARY);
+        index.getMonth("SALES", JANUARY);
+
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsences(eq("RD"), any(), any(), any());
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsences(eq("SALES"), any(), any(), any());
+    }
+
+    @Test
+    void profileChangeWithinDepartmentKeepsCache() {
+        index.getMonth("RD", JANUARY);
+
+        index.onUserProfileChanged(new UserProfileChangedEvent(7L, false, "RD", "RD"));
+        index.getMonth("RD", JANUARY);
+
+        verify(leaveRequestRepository, times(1)).findDepartmentAbsences(eq("RD"), any(), any(), any());
+    }
+
+    @Test
+    void departmentsAndMonthsAreEvictedLeastRecentlyUsed() {
+        index.getMonth("RD", JANUARY);
+        index.getMonth("SALES", JANUARY);
+        index.getMonth("HR", JANUARY);
+        assertThat(index.cachedDepartmentCount()).isEqualTo(2);
+
+        index.getMonth("HR", FEBRUARY);
+        index.getMonth("HR", YearMonth.of(2026, 3));
+        index.getMonth("HR", JANUARY);
+
+        // 每个部门最多缓存两个月：一月已被淘汰，需要重新加载
+        verify(leaveRequestRepository, times(2)).findDepartmentAbsences(eq("HR"), any(), eq(JANUARY.atDay(1)), any());
+    }
+
+    private void transition(LeaveRequest leaveRequest, LeaveStatus from, LeaveStatus to) {
+        leaveRequest.setStatusEnumAndUpdateState(to);
+        index.onTransition(LeaveRequestTransitionEvent.of(leaveRequest, from, null, null));
+    }
+
+    private static LeaveRequest leave(Long applicantId, String department, LocalDate start, LocalDate end) {
+        User applicant = new User();
+        applicant.setId(applicantId);
+        applicant.setDepartment(department);
+        LeaveRequest leaveRequest = new LeaveRequest();
+        leaveRequest.setId(applicantId * 100);
+        leaveRequest.setApplicant(applicant);
+        leaveRequest.setLeaveType(LeaveType.ANNUAL_LEAVE);
+        leaveRequest.setStartDate(start);
+        leaveRequest.setEndDate(end);
+        return leaveRequest;
+    }
+
+    private static AbsenceIntervalView interval(Long applicantId, LocalDate start, LocalDate end) {
+        return new AbsenceIntervalView() {
+            @Override
+            public Long getApplicantId() {
+                return applicantId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return end;
+            }
+        };
+    }
+}
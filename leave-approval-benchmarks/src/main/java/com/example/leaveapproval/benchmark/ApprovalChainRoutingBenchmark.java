@@ -0,0 +1,87 @@
+package com.example.leaveapproval.benchmark;
+
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.repository.UserRepository;
+import com.example.leaveapproval.service.approval.chain.ApprovalChainBuilder;
+import com.example.leaveapproval.service.metrics.LeaveMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link ApprovalChainBuilder#getInitialApproverUser} 的路由决策（含计时器和 JFR 事件的开销）。
+ * UserRepository 用 Mockito 模拟，按角色返回固定的用户列表；需要查库的分支会包含 Mockito 调用本身的开销，
+ * 比较时应与同一分支的历史结果对比，而不是跨分支比较。
+ * <ul>
+ *   <li>EMPLOYEE_WITH_TEAM_LEAD：直属上级是组长，不查库（最常见的路径）</li>
+ *   <li>EMPLOYEE_WITHOUT_MANAGER：未设置上级，回退为按角色查找组长</li>
+ *   <li>TEAM_LEAD：直属上级是部门经理</li>
+ *   <li>DEPT_MANAGER：按角色查找 HR</li>
+ *   <li>HR：按角色查找管理员</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApprovalChainRoutingBenchmark {
+
+    @Param({"EMPLOYEE_WITH_TEAM_LEAD", "EMPLOYEE_WITHOUT_MANAGER", "TEAM_LEAD", "DEPT_MANAGER", "HR"})
+    public String applicantProfile;
+
+    private ApprovalChainBuilder approvalChainBuilder;
+    private LeaveRequest leaveRequest;
+    private User applicant;
+
+    @Setup
+    public void setUp() {
+        User deptManager = BenchmarkFixtures.deptManager();
+        User teamLead = BenchmarkFixtures.teamLead(deptManager);
+        User hr = BenchmarkFixtures.user(10L, "hr", null, Role.ROLE_HR, Role.ROLE_EMPLOYEE);
+        User admin = BenchmarkFixtures.user(20L, "admin", null, Role.ROLE_ADMIN, Role.ROLE_EMPLOYEE);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByRolesContaining(Role.ROLE_TEAM_LEAD)).thenReturn(List.of(teamLead));
+        when(userRepository.findByRolesContaining(Role.ROLE_DEPT_MANAGER)).thenReturn(List.of(deptManager));
+        when(userRepository.findByRolesContaining(Role.ROLE_HR)).thenReturn(List.of(hr));
+        when(userRepository.findByRolesContaining(Role.ROLE_ADMIN)).thenReturn(List.of(admin));
+
+        // 审批节点只在审批操作时使用，初始审批人路由不需要
+        approvalChainBuilder = new ApprovalChainBuilder(null, null, null, userRepository,
+                new LeaveMetrics(new SimpleMeterRegistry()));
+
+        applicant = switch (applicantProfile) {
+            case "EMPLOYEE_WITH_TEAM_LEAD" -> BenchmarkFixtures.employee(teamLead);
+            case "EMPLOYEE_WITHOUT_MANAGER" -> BenchmarkFixtures.employee(null);
+            case "TEAM_LEAD" -> teamLead;
+            case "DEPT_MANAGER" -> deptManager;
+            case "HR" -> hr;
+            default -> throw new IllegalArgumentException("Unknown applicant profile: " + applicantProfile);
+        };
+        leaveRequest = BenchmarkFixtures.pendingLeaveRequest(applicant, null);
+    }
+
+    @Benchmark
+    public User initialApprover() {
+        return approvalChainBuilder.getInitialApproverUser(leaveRequest, applicant);
+    }
+}
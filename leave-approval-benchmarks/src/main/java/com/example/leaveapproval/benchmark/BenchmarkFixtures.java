@@ -0,0 +1,77 @@
+package com.example.leaveapproval.benchmark;
+
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.LeaveStatus;
+import com.example.leaveapproval.model.LeaveType;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 基准共用的测试数据：一个典型的组织层级（部门经理 -> 组长 -> 员工）和一条待审批的请假申请。
+ * 实体直接构造，不经过 Hibernate，因此测量的是映射和业务逻辑本身的开销。
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static User user(long id, String username, User manager, Role... roles) {
+        // 与 Hibernate 加载的实体一样使用 HashSet（实体字段声明的类型）
+        Set<Role> roleSet = new HashSet<>(EnumSet.of(roles[0], roles));
+        User user = new User(username, "{bcrypt}not-used", username, username + "@example.com", roleSet);
+        user.setId(id);
+        user.setDepartment("RD");
+        user.setManager(manager);
+        user.setEnabled(true);
+        user.setCreatedAt(LocalDateTime.of(2025, 1, 6, 9, 0));
+        user.setUpdatedAt(LocalDateTime.of(2025, 1, 6, 9, 0));
+        return user;
+    }
+
+    static User deptManager() {
+        return user(1L, "rd.manager", null, Role.ROLE_DEPT_MANAGER, Role.ROLE_EMPLOYEE);
+    }
+
+    static User teamLead(User deptManager) {
+        return user(2L, "rd.lead", deptManager, Role.ROLE_TEAM_LEAD, Role.ROLE_EMPLOYEE);
+    }
+
+    static User employee(User teamLead) {
+        return user(3L, "rd.employee", teamLead, Role.ROLE_EMPLOYEE);
+    }
+
+    static LeaveRequest pendingLeaveRequest(User applicant, User approver) {
+        LeaveRequest leaveRequest = new LeaveRequest();
+        leaveRequest.setId(100L);
+        leaveRequest.setApplicant(applicant);
+        leaveRequest.setCurrentApprover(approver);
+        leaveRequest.setLeaveType(LeaveType.ANNUAL_LEAVE);
+        leaveRequest.setStartDate(LocalDate.of(2025, 3, 3));
+        leaveRequest.setEndDate(LocalDate.of(2025, 3, 7));
+        leaveRequest.setReason("Family trip");
+        leaveRequest.setStatusEnumAndUpdateState(LeaveStatus.PENDING_APPROVAL);
+        leaveRequest.setCreatedAt(LocalDateTime.of(2025, 2, 20, 10, 30));
+        leaveRequest.setUpdatedAt(LocalDateTime.of(2025, 2, 20, 10, 30));
+        return leaveRequest;
+    }
+
+    /**
+     * 为 Spring 通过 @Value 注入的私有字段赋值（基准中不启动 Spring 容器）。
+     */
+    static void setField(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set field " + fieldName + " on " + target.getClass().getName(), e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.leaveapproval.benchmark;
+
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.dto.UserDto;
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.calendar.impl.WorkingDayCalendarServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体到 DTO 的映射：列表接口每行都会调用一次 {@link LeaveRequestViewDto#fromEntity}
+ * （内含申请人和当前审批人两次 {@link UserDto#fromEntity}，以及工作日天数计算）。
+ * 审批历史由 Service 层查询后填充，不在此测量范围内。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private WorkingDayCalendarServiceImpl workingDayCalendar;
+    private User applicant;
+    private LeaveRequest leaveRequest;
+
+    @Setup
+    public void setUp() {
+        // 使用后端打包的 CN 节假日文件，与运行时一致
+        workingDayCalendar = new WorkingDayCalendarServiceImpl(new DefaultResourceLoader(), "CN", new String[]{"CN"}, "classpath:calendar/");
+        workingDayCalendar.loadHolidays();
+        User teamLead = BenchmarkFixtures.teamLead(BenchmarkFixtures.deptManager());
+        applicant = BenchmarkFixtures.employee(teamLead);
+        leaveRequest = BenchmarkFixtures.pendingLeaveRequest(applicant, teamLead);
+        // 预热年度日历缓存，测量稳态开销
+        workingDayCalendar.countWorkingDays(leaveRequest.getStartDate(), leaveRequest.getEndDate());
+    }
+
+    @Benchmark
+    public UserDto userDtoFromEntity() {
+        return UserDto.fromEntity(applicant);
+    }
+
+    @Benchmark
+    public LeaveRequestViewDto leaveRequestViewDtoFromEntity() {
+        return LeaveRequestViewDto.fromEntity(leaveRequest, workingDayCalendar);
+    }
+}
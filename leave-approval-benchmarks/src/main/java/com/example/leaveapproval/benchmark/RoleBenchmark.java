@@ -0,0 +1,60 @@
+package com.example.leaveapproval.benchmark;
+
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 角色相关的热点：{@link Role#getHighestRole}（审批路由、指标标签、JFR 事件每次都会调用）
+ * 和 {@link User#getAuthorities}（每个携带 JWT 的请求在认证时调用）。
+ * 按角色数参数化：普通员工 1 个角色，组长 2 个，兼任多职的管理员 5 个。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleBenchmark {
+
+    @Param({"ROLE_EMPLOYEE",
+            "ROLE_TEAM_LEAD,ROLE_EMPLOYEE",
+            "ROLE_ADMIN,ROLE_HR,ROLE_DEPT_MANAGER,ROLE_TEAM_LEAD,ROLE_EMPLOYEE"})
+    public String roles;
+
+    private Set<Role> roleSet;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Role[] parsed = Arrays.stream(roles.split(",")).map(Role::valueOf).toArray(Role[]::new);
+        user = BenchmarkFixtures.user(1L, "benchmark.user", null, parsed);
+        roleSet = user.getRoles();
+    }
+
+    @Benchmark
+    public Role highestRole() {
+        return Role.getHighestRole(roleSet);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> authorities() {
+        return user.getAuthorities();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.leaveapproval.benchmark;
+
+import com.example.leaveapproval.dto.ApprovalHistoryViewDto;
+import com.example.leaveapproval.dto.LeaveRequestViewDto;
+import com.example.leaveapproval.dto.UserDto;
+import com.example.leaveapproval.model.ApprovalHistory;
+import com.example.leaveapproval.model.LeaveRequest;
+import com.example.leaveapproval.model.Role;
+import com.example.leaveapproval.model.User;
+import com.example.leaveapproval.service.calendar.impl.WorkingDayCalendarServiceImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表页在 JSON、CBOR、Smile 三种响应格式下的序列化 / 反序列化开销。
+ * 每行是带申请人、当前审批人和两条审批历史的完整视图（默认的嵌套结构）。
+ * ObjectMapper 的配置与应用一致：Java 时间类型写成 ISO 字符串，默认过滤器输出全部字段。
+ * <p>
+ * 负载大小在初始化时打印（{@code [payload] ...} 行），与耗时一起比较。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    private static final TypeReference<List<LeaveRequestViewDto>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"10", "50"})
+    public int rows;
+
+    private ObjectMapper mapper;
+    private List<LeaveRequestViewDto> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (format) {
+            case "json" -> configure(JsonMapper.builder());
+            case "cbor" -> configure(CBORMapper.builder());
+            case "smile" -> configure(SmileMapper.builder());
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+
+        WorkingDayCalendarServiceImpl workingDayCalendar =
+                new WorkingDayCalendarServiceImpl(new DefaultResourceLoader(), "CN", new String[]{"CN"}, "classpath:calendar/");
+        workingDayCalendar.loadHolidays();
+        User deptManager = BenchmarkFixtures.deptManager();
+        User teamLead = BenchmarkFixtures.teamLead(deptManager);
+        page = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            // 不同申请人，审批人相同：与审批人的待审批列表一致
+            User applicant = BenchmarkFixtures.user(1000L + i, "rd.employee" + i, teamLead, Role.ROLE_EMPLOYEE);
+            LeaveRequest leaveRequest = BenchmarkFixtures.pendingLeaveRequest(applicant, teamLead);
+            leaveRequest.setId(100L + i);
+            LeaveRequestViewDto view = LeaveRequestViewDto.fromEntity(leaveRequest, workingDayCalendar);
+            view.setApprovalHistory(List.of(
+                    history(2L * i, teamLead, ApprovalHistory.Decision.APPROVED, LocalDateTime.of(2025, 2, 21, 9, 15)),
+                    history(2L * i + 1, deptManager, ApprovalHistory.Decision.APPROVED, LocalDateTime.of(2025, 2, 22, 14, 40))));
+            page.add(view);
+        }
+        payload = mapper.writeValueAsBytes(page);
+        System.out.printf("[payload] format=%s rows=%d bytes=%d%n", format, rows, payload.length);
+    }
+
+    private static ObjectMapper configure(MapperBuilder<?, ?> builder) {
+        return builder
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .filterProvider(new SimpleFilterProvider()
+                        .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                        .setFailOnUnknownId(false))
+                .build();
+    }
+
+    private static ApprovalHistoryViewDto history(long id, User approver, ApprovalHistory.Decision decision,
+                                                  LocalDateTime approvedAt) {
+        ApprovalHistoryViewDto history = new ApprovalHistoryViewDto();
+        history.setId(id);
+        history.setApprover(UserDto.fromEntity(approver));
+        history.setDecision(decision);
+        history.setComments("同意");
+        history.setApprovedAt(approvedAt);
+        return history;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<LeaveRequestViewDto> deserialize() throws IOException {
+        return mapper.readValue(payload, PAGE_TYPE);
+    }
+}
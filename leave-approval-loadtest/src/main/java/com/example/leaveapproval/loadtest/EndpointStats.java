@@ -0,0 +1,68 @@
+package com.example.leaveapproval.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个接口在计量窗口内的延迟直方图（微秒）和响应计数。
+ */
+final class EndpointStats {
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder success = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordResponse(int status, long latencyNanos) {
+        recorder.recordValue(Math.max(1, latencyNanos / 1000));
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            success.increment();
+        }
+    }
+
+    /**
+     * 连接失败或超时：计入错误数，不计入延迟分布。
+     */
+    void recordIoError() {
+        ioErrors.increment();
+    }
+
+    LoadTestReport.EndpointResult toResult(double measuredSeconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        long responses = success.sum() + clientErrors.sum() + serverErrors.sum();
+        return new LoadTestReport.EndpointResult(
+                name,
+                responses + ioErrors.sum(),
+                success.sum(),
+                clientErrors.sum(),
+                serverErrors.sum(),
+                ioErrors.sum(),
+                measuredSeconds > 0 ? responses / measuredSeconds : 0,
+                millis(histogram.getMean()),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.leaveapproval.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 按场景配比对运行中的应用施压。
+ * <p>
+ * 默认是闭环模型：每个线程收到响应后立即发出下一个请求。指定 rate（总请求数 / 秒）时改为开环模型，
+ * 每个线程按固定间隔排定请求，延迟从计划发出时刻算起——服务端变慢导致请求积压时，
+ * 排队时间也计入延迟，避免协调遗漏（coordinated omission）使高分位数偏低。
+ * 预热期内的请求照常发出但不计入统计。
+ */
+final class LoadRunner {
+
+    static final String SUBMIT = "submit";
+    static final String APPROVE = "approve";
+    static final String LIST = "list";
+    static final String LOGIN = "login";
+
+    private static final int MAX_QUEUED_APPROVALS = 50_000;
+
+    record Config(URI baseUrl, int threads, Duration warmup, Duration duration, double rate,
+                  Map<String, Integer> mix, Duration requestTimeout) {
+    }
+
+    private record PendingApproval(long requestId, String approver) {
+    }
+
+    private final Config config;
+    private final OrgManifest manifest;
+    private final TokenIssuer tokenIssuer;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    private final List<OrgManifest.User> applicants = new ArrayList<>();
+    private final List<OrgManifest.User> approvers = new ArrayList<>();
+    private final Map<String, OrgManifest.User> usersByUsername = new ConcurrentHashMap<>();
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final BlockingQueue<PendingApproval> approvals = new LinkedBlockingQueue<>(MAX_QUEUED_APPROVALS);
+    private final Map<Long, LocalDate> dateCursors = new ConcurrentHashMap<>();
+    private final String[] scenarios;
+    private final int[] cumulativeWeights;
+
+    private volatile long measureStartNanos;
+
+    LoadRunner(Config config, OrgManifest manifest, TokenIssuer tokenIssuer, ObjectMapper objectMapper) {
+        this.config = config;
+        this.manifest = manifest;
+        this.tokenIssuer = tokenIssuer;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        for (OrgManifest.User user : manifest.users()) {
+            usersByUsername.put(user.username(), user);
+            // 有上级的用户作为申请人，组长和部门经理作为待审批列表的查询者
+            if (user.managerId() != null) {
+                applicants.add(user);
+            }
+            if (user.hasRole(SyntheticOrg.ROLE_TEAM_LEAD) || user.hasRole(SyntheticOrg.ROLE_DEPT_MANAGER)) {
+                approvers.add(user);
+            }
+        }
+        if (applicants.isEmpty() || approvers.isEmpty()) {
+            throw new IllegalArgumentException("The org manifest contains no applicants or approvers.");
+        }
+
+        scenarios = config.mix().keySet().toArray(String[]::new);
+        cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += config.mix().get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+        for (String endpoint : List.of("submit", "approve", "list.my-requests", "list.pending-approvals", "login")) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    LoadTestReport run() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        measureStartNanos = startNanos + config.warmup().toNanos();
+        long endNanos = measureStartNanos + config.duration().toNanos();
+        // 开环模式下每个线程的请求间隔：总速率平均分摊到各线程
+        long intervalNanos = config.rate() > 0 ? (long) (config.threads() * 1_000_000_000L / config.rate()) : 0;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < config.threads(); t++) {
+            // 各线程的计划时刻错开，避免所有线程同一时刻发请求
+            long offset = intervalNanos > 0 ? intervalNanos * t / config.threads() : 0;
+            Thread worker = new Thread(() -> work(startNanos + offset, endNanos, intervalNanos), "loadtest-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        double measuredSeconds = config.duration().toNanos() / 1e9;
+        List<LoadTestReport.EndpointResult> results = stats.values().stream()
+                .map(endpointStats -> endpointStats.toResult(measuredSeconds))
+                .filter(result -> result.requests() > 0)
+                .toList();
+        return new LoadTestReport(LoadTestReport.describe(config, manifest), results);
+    }
+
+    private void work(long firstIntendedNanos, long endNanos, long intervalNanos) {
+        long intended = firstIntendedNanos;
+        while (true) {
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                if (intended - now > 0) {
+                    LockSupport.parkNanos(intended - now);
+                }
+            } else {
+                intended = now;
+            }
+            if (intended - endNanos >= 0) {
+                return;
+            }
+            runScenario(pickScenario(), intended);
+            if (intervalNanos > 0) {
+                intended += intervalNanos;
+            }
+        }
+    }
+
+    private String pickScenario() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    private void runScenario(String scenario, long intendedNanos) {
+        switch (scenario) {
+            case SUBMIT -> submit(intendedNanos);
+            case APPROVE -> approve(intendedNanos);
+            case LIST -> list(intendedNanos);
+            case LOGIN -> login(intendedNanos);
+            default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    private void submit(long intendedNanos) {
+        OrgManifest.User applicant = random(applicants);
+        LocalDate[] range = nextLeaveDates(applicant);
+        Map<String, Object> body = Map.of(
+                "leaveType", ThreadLocalRandom.current().nextInt(10) < 7 ? "ANNUAL_LEAVE" : "PERSONAL_LEAVE",
+                "startDate", range[0].toString(),
+                "endDate", range[1].toString(),
+                "reason", "load test leave request");
+        JsonNode response = call("submit", post("/api/leave-requests", applicant, body), intendedNanos, 201);
+        enqueueIfPending(response);
+    }
+
+    private void approve(long intendedNanos) {
+        PendingApproval pending = approvals.poll();
+        if (pending == null) {
+            // 本轮还没有可审批的申请（刚开始或审批速度超过提交速度）时先提交一条
+            submit(intendedNanos);
+            return;
+        }
+        OrgManifest.User approver = usersByUsername.get(pending.approver());
+        if (approver == null) {
+            return;  // 流转到了清单之外的审批人（如管理员）
+        }
+        boolean approve = ThreadLocalRandom.current().nextInt(100) < 85;
+        Map<String, Object> body = Map.of(
+                "decision", approve ? "APPROVED" : "REJECTED",
+                "comments", "load test");
+        JsonNode response = call("approve",
+                post("/api/leave-requests/" + pending.requestId() + "/action", approver, body), intendedNanos, 200);
+        enqueueIfPending(response);
+    }
+
+    private void list(long intendedNanos) {
+        if (ThreadLocalRandom.current().nextBoolean()) {
+            call("list.my-requests", get("/api/leave-requests/my-requests?page=0&size=10", random(applicants)), intendedNanos, 0);
+        } else {
+            call("list.pending-approvals", get("/api/leave-requests/pending-approvals?page=0&size=10", random(approvers)),
+                    intendedNanos, 0);
+        }
+    }
+
+    private void login(long intendedNanos) {
+        OrgManifest.User user = random(applicants);
+        Map<String, Object> body = Map.of("username", user.username(), "password", manifest.password());
+        call("login", request("/api/auth/login")
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .header("Content-Type", "application/json")
+                .build(), intendedNanos, 0);
+    }
+
+    private void enqueueIfPending(JsonNode response) {
+        if (response != null && "PENDING_APPROVAL".equals(response.path("status").asText())
+                && response.path("currentApprover").hasNonNull("username")) {
+            approvals.offer(new PendingApproval(response.get("id").asLong(),
+                    response.get("currentApprover").get("username").asText()));
+        }
+    }
+
+    /**
+     * 每个申请人维护一个远期日期游标，依次向后分配不重叠的 1～3 个工作日，避免触发重叠校验。
+     */
+    private LocalDate[] nextLeaveDates(OrgManifest.User applicant) {
+        LocalDate[] range = new LocalDate[2];
+        dateCursors.compute(applicant.id(), (id, cursor) -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDate start = cursor != null ? cursor : LocalDate.now().plusDays(120 + random.nextInt(1500));
+            while (start.getDayOfWeek() == DayOfWeek.SATURDAY || start.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                start = start.plusDays(1);
+            }
+            range[0] = start;
+            range[1] = start.plusDays(random.nextInt(3));
+            return range[1].plusDays(1 + random.nextInt(20));
+        });
+        return range;
+    }
+
+    /**
+     * 发送请求并记录延迟；expectBodyStatus 非 0 时在响应码匹配的情况下解析响应体返回。
+     */
+    private JsonNode call(String endpoint, HttpRequest request, long intendedNanos, int expectBodyStatus) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        boolean measured = intendedNanos - measureStartNanos >= 0;
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            if (measured) {
+                endpointStats.recordIoError();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (measured) {
+            endpointStats.recordResponse(response.statusCode(), System.nanoTime() - intendedNanos);
+        }
+        if (expectBodyStatus == 0 || response.statusCode() != expectBodyStatus) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, OrgManifest.User user, Map<String, Object> body) {
+        return request(path)
+                .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+                .header("Content-Type", "application/json")
+                .header("Authorization", tokenIssuer.bearer(user))
+                .build();
+    }
+
+    private HttpRequest get(String path, OrgManifest.User user) {
+        return request(path)
+                .GET()
+                .header("Authorization", tokenIssuer.bearer(user))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(config.baseUrl().resolve(path)).timeout(config.requestTimeout());
+    }
+
+    private String json(Map<String, Object> body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize request body", e);
+        }
+    }
+
+    private static <T> T random(List<T> list) {
+        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.leaveapproval.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测入口：
+ * <pre>
+ *   java -jar target/loadtest.jar seed    --jdbc-url=... [--users=5000] [--manifest=org.json]
+ *   java -jar target/loadtest.jar run     --jwt-secret=... [--base-url=http://localhost:8080] [--threads=32]
+ *                                         [--duration=60] [--warmup=15] [--rate=0] [--mix=submit:20,approve:20,list:50,login:10]
+ *   java -jar target/loadtest.jar compare results/a.json results/b.json
+ * </pre>
+ * 各选项说明见 README.md。
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            System.exit(1);
+        }
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        LoadTestOptions options = new LoadTestOptions(args, 1);
+        try {
+            switch (args[0]) {
+                case "seed" -> seed(options, objectMapper);
+                case "run" -> run(options, objectMapper);
+                case "compare" -> compare(options, objectMapper);
+                default -> {
+                    usage();
+                    System.exit(1);
+                }
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static void seed(LoadTestOptions options, ObjectMapper objectMapper) throws Exception {
+        String prefix = options.get("username-prefix", "lt");
+        long seed = options.getLong("seed", 42);
+        SyntheticOrg org = SyntheticOrg.generate(
+                options.getInt("users", 5000),
+                options.getInt("department-size", 200),
+                options.getInt("team-size", 8),
+                options.getDouble("hr-ratio", 0.01),
+                options.getDouble("no-manager-ratio", 0.01),
+                prefix,
+                seed);
+        System.out.printf("Generated %d users: %d department managers, %d team leads, %d HR.%n",
+                org.members().size(), org.count(SyntheticOrg.ROLE_DEPT_MANAGER), org.count(SyntheticOrg.ROLE_TEAM_LEAD),
+                org.count(SyntheticOrg.ROLE_HR));
+
+        OrgSeeder seeder = new OrgSeeder(
+                options.require("jdbc-url"),
+                options.get("jdbc-user", "root"),
+                options.get("jdbc-password", ""),
+                seed);
+        OrgManifest manifest = seeder.seed(org, prefix, options.get("password", "LoadTest#2024"),
+                options.getInt("history-per-user", 6), options.getDouble("pending-ratio", 0.2));
+        Path manifestFile = Path.of(options.get("manifest", "org.json"));
+        manifest.write(objectMapper, manifestFile);
+        System.out.println("Wrote " + manifestFile);
+    }
+
+    private static void run(LoadTestOptions options, ObjectMapper objectMapper) throws Exception {
+        OrgManifest manifest = OrgManifest.read(objectMapper, Path.of(options.get("manifest", "org.json")));
+        int threads = options.getInt("threads", 32);
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be at least 1.");
+        }
+        LoadRunner.Config config = new LoadRunner.Config(
+                URI.create(options.get("base-url", "http://localhost:8080")),
+                threads,
+                Duration.ofSeconds(options.getLong("warmup", 15)),
+                Duration.ofSeconds(options.getLong("duration", 60)),
+                options.getDouble("rate", 0),
+                parseMix(options.get("mix", "submit:20,approve:20,list:50,login:10")),
+                Duration.ofMillis(options.getLong("timeout-ms", 10_000)));
+        LoadRunner runner = new LoadRunner(config, manifest, new TokenIssuer(options.require("jwt-secret")), objectMapper);
+
+        System.out.printf("Running %s for %ds (+%ds warm-up) against %s ...%n",
+                config.rate() > 0 ? "open model at " + config.rate() + " req/s" : "closed loop with " + threads + " threads",
+                config.duration().toSeconds(), config.warmup().toSeconds(), config.baseUrl());
+        LoadTestReport report = runner.run();
+        report.print(System.out);
+        Path file = report.write(objectMapper, Path.of(options.get("results-dir", "results")), options.asMap());
+        System.out.println("Wrote " + file);
+    }
+
+    private static void compare(LoadTestOptions options, ObjectMapper objectMapper) throws Exception {
+        List<String> files = options.positional();
+        if (files.size() != 2) {
+            throw new IllegalArgumentException("compare expects two result files: <baseline.json> <candidate.json>");
+        }
+        LoadTestReport.compare(
+                LoadTestReport.read(objectMapper, Path.of(files.get(0))),
+                LoadTestReport.read(objectMapper, Path.of(files.get(1))),
+                System.out);
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid --mix entry '" + part + "', expected name:weight.");
+            }
+            String scenario = pair[0].trim();
+            if (!List.of(LoadRunner.SUBMIT, LoadRunner.APPROVE, LoadRunner.LIST, LoadRunner.LOGIN).contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario '" + scenario + "' in --mix.");
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(scenario, weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix must contain at least one scenario with a positive weight.");
+        }
+        return weights;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: loadtest.jar <seed|run|compare> [--option=value ...]  (see README.md)");
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.leaveapproval.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 一次压测的结果：运行配置和各接口的吞吐量、延迟分位数（毫秒），可写成 JSON 供不同版本之间比较。
+ */
+record LoadTestReport(Map<String, Object> run, List<EndpointResult> endpoints) {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    record EndpointResult(String endpoint, long requests, long success, long clientErrors, long serverErrors, long ioErrors,
+                          double throughput, double meanMillis, double p50Millis, double p90Millis, double p99Millis,
+                          double p999Millis, double maxMillis) {
+    }
+
+    static Map<String, Object> describe(LoadRunner.Config config, OrgManifest manifest) {
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("finishedAt", LocalDateTime.now().toString());
+        run.put("baseUrl", config.baseUrl().toString());
+        run.put("threads", config.threads());
+        run.put("rate", config.rate() > 0 ? config.rate() : "closed-loop");
+        run.put("warmupSeconds", config.warmup().toSeconds());
+        run.put("durationSeconds", config.duration().toSeconds());
+        run.put("mix", config.mix());
+        run.put("orgUsers", manifest.users().size());
+        run.put("javaVersion", System.getProperty("java.version"));
+        return run;
+    }
+
+    Path write(ObjectMapper objectMapper, Path directory, Map<String, String> options) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve("loadtest-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".json");
+        Map<String, Object> run = new LinkedHashMap<>(this.run);
+        run.put("options", options);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), new LoadTestReport(run, endpoints));
+        return file;
+    }
+
+    static LoadTestReport read(ObjectMapper objectMapper, Path file) throws IOException {
+        return objectMapper.readValue(file.toFile(), LoadTestReport.class);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-24s %9s %8s %6s %6s %6s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "2xx", "4xx", "5xx", "io", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointResult r : endpoints) {
+            out.printf("%-24s %9d %8d %6d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.requests(), r.success(), r.clientErrors(), r.serverErrors(), r.ioErrors(),
+                    r.throughput(), r.p50Millis(), r.p90Millis(), r.p99Millis(), r.p999Millis(), r.maxMillis());
+        }
+    }
+
+    /**
+     * 打印两次结果的对比：baseline 为基准，吞吐量和各分位数后附变化百分比（延迟为正表示变慢）。
+     */
+    static void compare(LoadTestReport baseline, LoadTestReport candidate, PrintStream out) {
+        out.printf("%-24s %27s %27s %27s %27s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "p99.9 ms");
+        for (EndpointResult before : baseline.endpoints()) {
+            EndpointResult after = candidate.endpoints().stream()
+                    .filter(result -> result.endpoint().equals(before.endpoint()))
+                    .findFirst()
+                    .orElse(null);
+            if (after == null) {
+                out.printf("%-24s (missing in candidate)%n", before.endpoint());
+                continue;
+            }
+            out.printf("%-24s %s %s %s %s%n", before.endpoint(),
+                    delta(before, after, EndpointResult::throughput),
+                    delta(before, after, EndpointResult::p50Millis),
+                    delta(before, after, EndpointResult::p99Millis),
+                    delta(before, after, EndpointResult::p999Millis));
+        }
+    }
+
+    private static String delta(EndpointResult before, EndpointResult after, ToDoubleFunction<EndpointResult> metric) {
+        double a = metric.applyAsDouble(before);
+        double b = metric.applyAsDouble(after);
+        String change = a > 0 ? String.format("%+.1f%%", (b - a) / a * 100) : "n/a";
+        return String.format("%8.2f -> %-8.2f %7s", a, b, change);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.leaveapproval.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 生成组织后写出的清单（org.json）：压测阶段据此选择申请人、审批人和登录用户，不必再查库。
+ */
+record OrgManifest(LocalDateTime generatedAt, String password, List<User> users) {
+
+    record User(long id, String username, String department, List<String> roles, Long managerId) {
+
+        boolean hasRole(String role) {
+            return roles.contains(role);
+        }
+    }
+
+    void write(ObjectMapper objectMapper, Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writeValue(file.toFile(), this);
+    }
+
+    static OrgManifest read(ObjectMapper objectMapper, Path file) throws IOException {
+        if (!Files.exists(file)) {
+            throw new IllegalArgumentException("Org manifest " + file + " not found; run the seed command first.");
+        }
+        return objectMapper.readValue(file.toFile(), OrgManifest.class);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.leaveapproval.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 将合成组织和请假历史直接批量写入数据库（表结构由应用启动时的 Hibernate ddl-auto 创建）。
+ * <p>
+ * 通过 API 创建五万个用户需要同样次数的 BCrypt 计算，因此用户用 JDBC 写入，所有用户共用一个密码哈希。
+ * 请假历史同样直接写入：已结束的申请（批准 / 驳回 / 取消）位于过去一年内，附带一条审批记录；
+ * 另有一部分用户有一条未来日期的待审批申请。应用的重叠检测、团队日历等索引按需从数据库加载，写入后即可见。
+ * 直接写入的历史不产生假期台账流水；统计汇总表可在写入后通过 POST /api/analytics/rollups/rebuild 重建。
+ */
+final class OrgSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] LEAVE_TYPES = {"ANNUAL_LEAVE", "SICK_LEAVE", "PERSONAL_LEAVE"};
+
+    private final String jdbcUrl;
+    private final String jdbcUser;
+    private final String jdbcPassword;
+    private final Random random;
+
+    OrgSeeder(String jdbcUrl, String jdbcUser, String jdbcPassword, long seed) {
+        this.jdbcUrl = jdbcUrl;
+        this.jdbcUser = jdbcUser;
+        this.jdbcPassword = jdbcPassword;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return 写入后的用户清单（含数据库 ID）。
+     */
+    OrgManifest seed(SyntheticOrg org, String usernamePrefix, String password, int historyPerUser, double pendingRatio)
+            throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUser, jdbcPassword)) {
+            connection.setAutoCommit(false);
+            boolean h2 = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("h2");
+            checkSchema(connection, usernamePrefix);
+
+            long firstUserId = maxId(connection, "users") + 1;
+            List<OrgManifest.User> users = insertUsers(connection, org, firstUserId, new BCryptPasswordEncoder().encode(password));
+            long requests = insertLeaveHistory(connection, org, users, historyPerUser, pendingRatio);
+            if (h2) {
+                // H2 的自增列不会因显式写入 ID 而前移，需手动调整，否则应用后续插入会主键冲突
+                restartIdentity(connection, "users");
+                restartIdentity(connection, "leave_requests");
+                restartIdentity(connection, "approval_history");
+            }
+            connection.commit();
+            System.out.printf("Seeded %d users and %d leave requests.%n", users.size(), requests);
+            return new OrgManifest(LocalDateTime.now(), password, users);
+        }
+    }
+
+    private void checkSchema(Connection connection, String usernamePrefix) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM users WHERE username LIKE ?")) {
+            statement.setString(1, usernamePrefix + "%");
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new IllegalStateException("Users with prefix '" + usernamePrefix
+                            + "' already exist; use a fresh database or a different --username-prefix.");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read the users table; start the application once so that the schema is created. ("
+                    + e.getMessage() + ")", e);
+        }
+    }
+
+    private List<OrgManifest.User> insertUsers(Connection connection, SyntheticOrg org, long firstUserId, String passwordHash)
+            throws SQLException {
+        List<OrgManifest.User> users = new ArrayList<>(org.members().size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String userSql = "INSERT INTO users (id, username, password, full_name, email, department, manager_id, "
+                + "account_non_expired, account_non_locked, credentials_non_expired, enabled, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, TRUE, TRUE, TRUE, ?, ?)";
+        try (PreparedStatement userInsert = connection.prepareStatement(userSql);
+             PreparedStatement roleInsert = connection.prepareStatement("INSERT INTO user_roles (user_id, role) VALUES (?, ?)")) {
+            int pending = 0;
+            // 生成顺序保证上级总在下级之前，同一批内外键也能满足
+            for (SyntheticOrg.Member member : org.members()) {
+                long id = firstUserId + member.index();
+                Long managerId = member.managerIndex() >= 0 ? firstUserId + member.managerIndex() : null;
+                userInsert.setLong(1, id);
+                userInsert.setString(2, member.username());
+                userInsert.setString(3, passwordHash);
+                userInsert.setString(4, "Load Test " + member.username());
+                userInsert.setString(5, member.username() + "@loadtest.example.com");
+                userInsert.setString(6, member.department());
+                userInsert.setObject(7, managerId);
+                userInsert.setTimestamp(8, now);
+                userInsert.setTimestamp(9, now);
+                userInsert.addBatch();
+                for (String role : member.roles()) {
+                    roleInsert.setLong(1, id);
+                    roleInsert.setString(2, role);
+                    roleInsert.addBatch();
+                }
+                users.add(new OrgManifest.User(id, member.username(), member.department(), member.roles(), managerId));
+                if (++pending == BATCH_SIZE) {
+                    userInsert.executeBatch();
+                    roleInsert.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            userInsert.executeBatch();
+            roleInsert.executeBatch();
+            connection.commit();
+        }
+        return users;
+    }
+
+    private long insertLeaveHistory(Connection connection, SyntheticOrg org, List<OrgManifest.User> users,
+                                    int historyPerUser, double pendingRatio) throws SQLException {
+        long nextRequestId = maxId(connection, "leave_requests") + 1;
+        long nextHistoryId = maxId(connection, "approval_history") + 1;
+        long firstRequestId = nextRequestId;
+        LocalDate today = LocalDate.now();
+        OrgManifest.User hrHead = users.get(0);
+
+        String requestSql = "INSERT INTO leave_requests (id, applicant_id, leave_type, start_date, end_date, reason, status, "
+                + "current_approver_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        String historySql = "INSERT INTO approval_history (id, request_id, approver_id, decision, comments, approver_node, approved_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement requestInsert = connection.prepareStatement(requestSql);
+             PreparedStatement historyInsert = connection.prepareStatement(historySql)) {
+            int pending = 0;
+            for (SyntheticOrg.Member member : org.members()) {
+                OrgManifest.User applicant = users.get(member.index());
+                OrgManifest.User approver = member.managerIndex() >= 0 ? users.get(member.managerIndex()) : hrHead;
+                if (approver.id() == applicant.id()) {
+                    continue;  // HR 负责人自己的申请由管理员审批，不生成
+                }
+                // 过去一年按 historyPerUser 等分时间窗，每个窗内一条申请，同一用户的申请不会重叠
+                int window = historyPerUser > 0 ? 360 / historyPerUser : 0;
+                for (int h = 0; h < historyPerUser; h++) {
+                    LocalDate start = weekday(today.minusDays(365 - (long) h * window - random.nextInt(Math.max(1, window - 5))));
+                    LocalDate end = start.plusDays(random.nextInt(3));
+                    LocalDateTime createdAt = start.minusDays(3 + random.nextInt(18)).atTime(9 + random.nextInt(9), random.nextInt(60));
+                    LocalDateTime decidedAt = createdAt.plusMinutes(30 + random.nextInt(72 * 60));
+                    double roll = random.nextDouble();
+                    String status = roll < 0.85 ? "APPROVED" : roll < 0.95 ? "REJECTED" : "CANCELLED";
+                    long requestId = nextRequestId++;
+                    addRequest(requestInsert, requestId, applicant.id(), start, end, status, null, createdAt, decidedAt);
+                    historyInsert.setLong(1, nextHistoryId++);
+                    historyInsert.setLong(2, requestId);
+                    historyInsert.setLong(3, approver.id());
+                    historyInsert.setString(4, "REJECTED".equals(status) ? "REJECTED" : "APPROVED");
+                    historyInsert.setString(5, "load test history");
+                    historyInsert.setString(6, approverNode(approver));
+                    historyInsert.setTimestamp(7, Timestamp.valueOf(decidedAt));
+                    historyInsert.addBatch();
+                    pending++;
+                }
+                if (random.nextDouble() < pendingRatio) {
+                    LocalDate start = weekday(today.plusDays(7 + random.nextInt(60)));
+                    LocalDateTime createdAt = LocalDateTime.now().minusHours(random.nextInt(72));
+                    addRequest(requestInsert, nextRequestId++, applicant.id(), start, start.plusDays(random.nextInt(3)),
+                            "PENDING_APPROVAL", approver.id(), createdAt, createdAt);
+                    pending++;
+                }
+                if (pending >= BATCH_SIZE) {
+                    requestInsert.executeBatch();
+                    historyInsert.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            requestInsert.executeBatch();
+            historyInsert.executeBatch();
+            connection.commit();
+        }
+        return nextRequestId - firstRequestId;
+    }
+
+    private void addRequest(PreparedStatement insert, long id, long applicantId, LocalDate start, LocalDate end, String status,
+                            Long currentApproverId, LocalDateTime createdAt, LocalDateTime updatedAt) throws SQLException {
+        insert.setLong(1, id);
+        insert.setLong(2, applicantId);
+        insert.setString(3, LEAVE_TYPES[random.nextInt(LEAVE_TYPES.length)]);
+        insert.setObject(4, start);
+        insert.setObject(5, end);
+        insert.setString(6, "load test leave request");
+        insert.setString(7, status);
+        insert.setObject(8, currentApproverId);
+        insert.setTimestamp(9, Timestamp.valueOf(createdAt));
+        insert.setTimestamp(10, Timestamp.valueOf(updatedAt));
+        insert.addBatch();
+    }
+
+    private static String approverNode(OrgManifest.User approver) {
+        if (approver.hasRole(SyntheticOrg.ROLE_TEAM_LEAD)) {
+            return "TeamLeadApprover";
+        }
+        if (approver.hasRole(SyntheticOrg.ROLE_DEPT_MANAGER)) {
+            return "DeptManagerApprover";
+        }
+        return "HRApprover";
+    }
+
+    private static LocalDate weekday(LocalDate date) {
+        if (date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            return date.plusDays(2);
+        }
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY ? date.plusDays(1) : date;
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void restartIdentity(Connection connection, String table) throws SQLException {
+        long next = maxId(connection, table) + 1;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.leaveapproval.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 合成组织：按规模生成部门、管理层级和角色分布，给定相同参数和随机种子时结果完全相同。
+ * <ul>
+ *   <li>HR 部门：HR 负责人和 HR 专员（ROLE_HR），人数按 hrRatio 计算，至少 1 人</li>
+ *   <li>业务部门：每个部门约 departmentSize 人，一名部门经理（manager 为空）、若干组长（上级为部门经理）、
+ *       员工（上级为组长，每组人数在 teamSize 的一半到 1.5 倍之间随机）</li>
+ *   <li>noManagerRatio 比例的员工不设上级，用于覆盖审批人回退查找的路径</li>
+ * </ul>
+ * 用户 ID 在写库时分配，这里只用列表下标表示上下级关系。
+ */
+final class SyntheticOrg {
+
+    static final String ROLE_EMPLOYEE = "ROLE_EMPLOYEE";
+    static final String ROLE_TEAM_LEAD = "ROLE_TEAM_LEAD";
+    static final String ROLE_DEPT_MANAGER = "ROLE_DEPT_MANAGER";
+    static final String ROLE_HR = "ROLE_HR";
+
+    record Member(int index, String username, String department, int managerIndex, List<String> roles) {
+
+        boolean hasRole(String role) {
+            return roles.contains(role);
+        }
+    }
+
+    private final List<Member> members = new ArrayList<>();
+
+    private SyntheticOrg() {
+    }
+
+    static SyntheticOrg generate(int users, int departmentSize, int teamSize, double hrRatio, double noManagerRatio,
+                                 String usernamePrefix, long seed) {
+        if (users < 10) {
+            throw new IllegalArgumentException("At least 10 users are required.");
+        }
+        Random random = new Random(seed);
+        SyntheticOrg org = new SyntheticOrg();
+
+        int hrCount = Math.max(1, (int) Math.round(users * hrRatio));
+        int hrHead = org.add(usernamePrefix, "HR", -1, ROLE_HR, ROLE_EMPLOYEE);
+        for (int i = 1; i < hrCount; i++) {
+            org.add(usernamePrefix, "HR", hrHead, ROLE_HR, ROLE_EMPLOYEE);
+        }
+
+        int remaining = users - hrCount;
+        int departments = Math.max(1, Math.round((float) remaining / departmentSize));
+        for (int d = 0; d < departments && remaining > 0; d++) {
+            String department = String.format("D%03d", d + 1);
+            // 最后一个部门包含剩余的全部人数
+            int size = d == departments - 1 ? remaining : Math.min(remaining, departmentSize);
+            remaining -= size;
+
+            int manager = org.add(usernamePrefix, department, -1, ROLE_DEPT_MANAGER, ROLE_EMPLOYEE);
+            int left = size - 1;
+            while (left > 0) {
+                int lead = org.add(usernamePrefix, department, manager, ROLE_TEAM_LEAD, ROLE_EMPLOYEE);
+                left--;
+                int members = Math.min(left, teamSize / 2 + random.nextInt(teamSize + 1));
+                for (int m = 0; m < members; m++) {
+                    int managerIndex = random.nextDouble() < noManagerRatio ? -1 : lead;
+                    org.add(usernamePrefix, department, managerIndex, ROLE_EMPLOYEE);
+                }
+                left -= members;
+            }
+        }
+        return org;
+    }
+
+    private int add(String usernamePrefix, String department, int managerIndex, String... roles) {
+        int index = members.size();
+        members.add(new Member(index, String.format("%s%06d", usernamePrefix, index), department, managerIndex, List.of(roles)));
+        return index;
+    }
+
+    List<Member> members() {
+        return members;
+    }
+
+    long count(String role) {
+        return members.stream().filter(member -> member.hasRole(role)).count();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.leaveapproval.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用应用的 app.jwtSecret 直接签发与 JwtUtils 相同格式的令牌（HS512，subject、roles、userId），
+ * 压测时认证只走过滤器的验签和用户加载，不必先为每个用户调用登录接口。
+ */
+final class TokenIssuer {
+
+    private static final Duration VALIDITY = Duration.ofHours(24);
+
+    private final Key key;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    TokenIssuer(String jwtSecret) {
+        this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    }
+
+    String bearer(OrgManifest.User user) {
+        return "Bearer " + tokens.computeIfAbsent(user.username(), username -> issue(user));
+    }
+
+    private String issue(OrgManifest.User user) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setSubject(user.username())
+                .claim("roles", user.roles())
+                .claim("userId", user.id())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + VALIDITY.toMillis()))
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
+}